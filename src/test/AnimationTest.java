@@ -0,0 +1,144 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import warped.graphics.sprite.AnimatedSprite;
+import warped.utilities.enums.generalised.AnimationModeType;
+import warped.utilities.timers.WarpedAnimationClock;
+import warped.utilities.timers.WarpedLoop;
+import warped.utilities.timers.WarpedLoopTask;
+import warped.utilities.timers.WarpedManualClock;
+
+public class AnimationTest {
+
+	/*Steps animated sprites with a manual clock so every run sees exactly the same times.
+	 * Checks that a repeating animation shows the frame due at each clock update, that a late update advances at most 5 frames,
+	 * that a played animation completes once and leaves the clock, and that pausing removes a sprite from the clock, even when it pauses itself part way through a catch-up.
+	 * Then times 10 simulated seconds of animation for each sprite with its own loop task against one animation clock.
+	 * Prints each check and the times, exits with 1 if any check failed.
+	 * args : [sprites] i.e. 50000
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+		BufferedImage[] frames = new BufferedImage[10];
+		for(int i = 0; i < frames.length; i++) frames[i] = new BufferedImage(4, 4, BufferedImage.TYPE_INT_ARGB);
+		WarpedManualClock time = new WarpedManualClock(1000);
+		WarpedAnimationClock clock = new WarpedAnimationClock(time);
+
+		AnimatedSprite repeat = sprite(frames, clock, AnimationModeType.REPEAT);
+		repeat.play();
+		Random random = new Random(5); // Seeded so every run uses the same update times
+		long elapsed = 0;
+		int wrongFrames = 0;
+		for(int i = 0; i < 200; i++) {
+			clock.update();
+			if(indexOf(repeat, frames) != (elapsed / 100000000L + 1) % frames.length) wrongFrames++; // 10 fps, the first frame advances as soon as it plays
+			long delta = 1 + random.nextInt(60000000);
+			time.advance(delta);
+			elapsed += delta;
+		}
+		check("a repeating animation shows the frame due at each update (" + wrongFrames + " wrong)", wrongFrames == 0 && repeat.raster() == frames[repeat.getFrame()]);
+
+		int before = repeat.getFrame();
+		time.advanceMillis(2000);
+		clock.update();
+		check("a late update advances at most 5 frames", (repeat.getFrame() - before + frames.length) % frames.length == 5);
+
+		int[] completions = new int[1];
+		AnimatedSprite play = sprite(frames, clock, AnimationModeType.PLAY);
+		play.setCompleteAction(() -> completions[0]++);
+		play.play();
+		for(int i = 0; i < 30; i++) {
+			clock.update();
+			time.advanceMillis(50);
+		}
+		clock.update();
+		clock.update();
+		check("a played animation completes once on its last frame", play.isComplete() && completions[0] == 1 && play.raster() == frames[frames.length - 1]);
+		check("a completed animation is removed from the clock", clock.getAnimationCount() == 1);
+
+		repeat.pause();
+		clock.update();
+		check("a paused animation is removed from the clock", clock.getAnimationCount() == 0);
+		repeat.play();
+		repeat.pause();
+		repeat.play();
+		clock.update();
+		clock.update();
+		check("play, pause then play adds the animation to the clock once", clock.getAnimationCount() == 1);
+		repeat.pause();
+		clock.update();
+
+		AnimatedSprite selfPausing = sprite(frames, clock, AnimationModeType.REPEAT);
+		selfPausing.setCompleteAction(selfPausing::pause);
+		selfPausing.play();
+		clock.update();
+		selfPausing.setFrame(7);
+		time.advanceMillis(2000);
+		clock.update(); // Catches up 8, 9 then wraps to 0 and completes, the remaining frames are not advanced
+		check("an animation paused during a catch-up stops on the frame it paused", selfPausing.getFrame() == 0 && selfPausing.raster() == frames[0]);
+		clock.update();
+		check("an animation paused during a catch-up is removed from the clock", clock.getAnimationCount() == 0);
+
+		for(int mode = 0; mode < 2; mode++) {
+			boolean isLoop = mode == 0;
+			WarpedManualClock benchTime = new WarpedManualClock();
+			WarpedLoop loop = new WarpedLoop("Animation Benchmark", benchTime);
+			WarpedAnimationClock benchClock = new WarpedAnimationClock(benchTime);
+			for(int i = 0; i < sprites; i++) {
+				AnimatedSprite sprite = new AnimatedSprite(frames);
+				sprite.setCompleteAction(() -> {});
+				if(isLoop) {
+					int[] frame = new int[1];
+					loop.scheduleHz(new WarpedLoopTask() {public void run() {
+						frame[0] = (frame[0] + 1) % frames.length;
+						sprite.setRasterFast(frames[frame[0]]);
+					}}, 24);
+				} else {
+					sprite.setClock(benchClock);
+					sprite.play();
+				}
+				if(i % 7 == 0) benchTime.advance(13); // Staggered starts
+			}
+			if(isLoop) loop.update();
+			else benchClock.update();
+			long startTime = System.nanoTime();
+			for(int i = 0; i < 600; i++) { // 10 seconds at 60 updates per second
+				benchTime.advance(16666667);
+				if(isLoop) loop.update();
+				else benchClock.update();
+			}
+			double duration = (System.nanoTime() - startTime) / 1e6;
+			System.out.printf("%d sprites, %s : %.1f ms for 10 s of animation, %.3f ms per update%n", sprites, isLoop ? "loop task per sprite" : "animation clock", duration, duration / 600);
+		}
+
+		System.out.println(failures == 0 ? "AnimationTest passed" : "AnimationTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**A 10 fps sprite advanced by the specified clock, not yet playing.*/
+	private static AnimatedSprite sprite(BufferedImage[] frames, WarpedAnimationClock clock, AnimationModeType mode) {
+		AnimatedSprite sprite = new AnimatedSprite(frames);
+		sprite.setClock(clock);
+		sprite.setFrameRate(10);
+		sprite.setCompleteAction(() -> {});
+		sprite.setAnimationMode(mode);
+		return sprite;
+	}
+
+	private static int indexOf(AnimatedSprite sprite, BufferedImage[] frames) {
+		for(int i = 0; i < frames.length; i++) if(sprite.raster() == frames[i]) return i;
+		return -1;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
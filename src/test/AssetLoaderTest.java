@@ -0,0 +1,162 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+import javax.imageio.ImageIO;
+
+import warped.application.state.WarpedAssetLoader;
+import warped.application.state.WarpedFramework2D;
+import warped.application.state.WarpedImageFolder;
+import warped.application.state.WarpedSpriteFolder;
+import warped.utilities.enums.WarpedLinkable;
+
+public class AssetLoaderTest {
+
+	/*Generates an image folder and a sprite folder of random PNG files, loads them on one thread and on a pool of threads, and checks that every image and sprite is the same by enum key.
+	 * Checks that the load progress of the framework rises with each folder without reaching the end of the asset loading before the last folder, with and without an expected count,
+	 * and that reset() clears the counts of the previous load.
+	 * Then generates a set of 128x128 PNG files and prints the time taken to load them with ImageIO.read() one after another and through the loader with 1 thread and with the pool.
+	 * The files are written to a folder in the working directory that is deleted afterwards, since a WarpedFolder keeps its linkData beside the first folder of its path.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [images] i.e. 2000
+	 * */
+
+	private static int failures = 0;
+	private static final String ROOT = "assetLoaderTest";
+
+	public enum TestAsset implements WarpedLinkable<TestAsset>{
+		IMAGE_00, IMAGE_01, IMAGE_02, IMAGE_03, IMAGE_04, IMAGE_05, IMAGE_06, IMAGE_07,
+		IMAGE_08, IMAGE_09, IMAGE_10, IMAGE_11, IMAGE_12, IMAGE_13, IMAGE_14, IMAGE_15,
+		;public static Map<Integer, TestAsset> map = new HashMap<>();
+		static {for(TestAsset asset : TestAsset.values()) map.put(asset.ordinal(), asset);}
+		@Override
+		public Map<Integer, TestAsset> getMap() {return map;}
+	}
+
+	public enum TestSheet implements WarpedLinkable<TestSheet>{
+		SHEET_0, SHEET_1, SHEET_2, SHEET_3,
+		;public static Map<Integer, TestSheet> map = new HashMap<>();
+		static {for(TestSheet sheet : TestSheet.values()) map.put(sheet.ordinal(), sheet);}
+		@Override
+		public Map<Integer, TestSheet> getMap() {return map;}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int imageCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+		File root = new File(ROOT);
+		Random random = new Random(7); // Seeded so every run loads the same files
+		generate(new File(root, "images"), "image_%02d.png", TestAsset.values().length, 48, 48, random);
+		generate(new File(root, "sheets"), "sheet%d_wf2d_32_32_wf.png", TestSheet.values().length, 128, 64, random);
+
+		WarpedAssetLoader.setThreadCount(1);
+		WarpedImageFolder<TestAsset> sequentialImages = WarpedImageFolder.generateFolder(TestAsset.IMAGE_00, ROOT + "/images");
+		WarpedSpriteFolder<TestSheet> sequentialSheets = WarpedSpriteFolder.generateFolder(TestSheet.SHEET_0, ROOT + "/sheets");
+		WarpedAssetLoader.setThreadCount(threads);
+		WarpedImageFolder<TestAsset> parallelImages = WarpedImageFolder.generateFolder(TestAsset.IMAGE_00, ROOT + "/images");
+		WarpedSpriteFolder<TestSheet> parallelSheets = WarpedSpriteFolder.generateFolder(TestSheet.SHEET_0, ROOT + "/sheets");
+		int mismatched = 0;
+		for(TestAsset asset : TestAsset.values()) if(!isEqual(sequentialImages.getImage(asset), parallelImages.getImage(asset))) mismatched++;
+		check("an image folder loaded with " + threads + " threads matches the folder loaded with 1 thread by key (" + mismatched + " differ)", mismatched == 0);
+		mismatched = 0;
+		int sprites = 0;
+		for(TestSheet sheet : TestSheet.values()) {
+			for(int i = 0; i < sequentialSheets.getSheet(sheet).getSpriteCount(); i++) {
+				if(!isEqual(sequentialSheets.getSprite(sheet, i), parallelSheets.getSprite(sheet, i))) mismatched++;
+				sprites++;
+			}
+		}
+		check("a sprite folder loaded with " + threads + " threads matches the folder loaded with 1 thread by key (" + mismatched + " of " + sprites + " sprites differ)", mismatched == 0 && sprites == 32);
+		check("no file failed to load", WarpedAssetLoader.getFailedCount() == 0 && WarpedAssetLoader.getLoadedCount() == WarpedAssetLoader.getQueuedCount());
+
+		WarpedAssetLoader.reset();
+		check("reset clears the counts of the previous load", WarpedAssetLoader.getQueuedCount() == 0 && WarpedAssetLoader.getLoadedCount() == 0);
+		WarpedFramework2D.setLoadProgress(0.0);
+		WarpedImageFolder.generateFolder(TestAsset.IMAGE_00, ROOT + "/images");
+		double first = WarpedFramework2D.getLoadProgress();
+		WarpedSpriteFolder.generateFolder(TestSheet.SHEET_0, ROOT + "/sheets");
+		double second = WarpedFramework2D.getLoadProgress();
+		check(String.format("without an expected count each folder moves the progress half way to the end of the asset loading (%.3f then %.3f)", first, second), near(first, 0.5 * WarpedAssetLoader.ASSET_LOAD_PROGRESS) && near(second, 0.75 * WarpedAssetLoader.ASSET_LOAD_PROGRESS));
+
+		WarpedAssetLoader.reset();
+		WarpedFramework2D.setLoadProgress(0.0);
+		WarpedAssetLoader.setExpectedCount(TestAsset.values().length + TestSheet.values().length);
+		WarpedImageFolder.generateFolder(TestAsset.IMAGE_00, ROOT + "/images");
+		first = WarpedFramework2D.getLoadProgress();
+		WarpedSpriteFolder.generateFolder(TestSheet.SHEET_0, ROOT + "/sheets");
+		second = WarpedFramework2D.getLoadProgress();
+		check(String.format("with an expected count the progress moves with the files loaded (%.3f then %.3f)", first, second), near(first, 0.8 * WarpedAssetLoader.ASSET_LOAD_PROGRESS) && near(second, WarpedAssetLoader.ASSET_LOAD_PROGRESS));
+
+		File benchFolder = new File(root, "bench");
+		long startTime = System.nanoTime();
+		generate(benchFolder, "bench_%04d.png", imageCount, 128, 128, random);
+		System.out.printf("generated %d images in %d ms%n", imageCount, (System.nanoTime() - startTime) / 1000000);
+		File[] files = benchFolder.listFiles();
+		Arrays.sort(files);
+		startTime = System.nanoTime();
+		for(File file : files) ImageIO.read(file);
+		System.out.printf("ImageIO.read() one after another : %d ms%n", (System.nanoTime() - startTime) / 1000000);
+		for(int threadCount : new int[] {1, threads, 1, threads}) { // Twice so the second pass runs with the files cached
+			WarpedAssetLoader.setThreadCount(threadCount);
+			ArrayList<Callable<BufferedImage>> tasks = new ArrayList<>(files.length);
+			for(File file : files) tasks.add(() -> WarpedAssetLoader.readImage(file));
+			startTime = System.nanoTime();
+			List<BufferedImage> images = WarpedAssetLoader.load(tasks);
+			long duration = System.nanoTime() - startTime;
+			int loaded = 0;
+			for(BufferedImage image : images) if(image != null) loaded++;
+			System.out.printf("WarpedAssetLoader with %d threads : %d ms for %d images%n", threadCount, duration / 1000000, loaded);
+		}
+		delete(root);
+
+		System.out.println(failures == 0 ? "AssetLoaderTest passed" : "AssetLoaderTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Write PNG files of random circles and noise, named from the format and the index of each file.*/
+	private static void generate(File folder, String nameFormat, int count, int width, int height, Random random) throws IOException {
+		folder.mkdirs();
+		for(int i = 0; i < count; i++) {
+			BufferedImage image = new BufferedImage(width, height, i % 3 == 0 ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			for(int k = 0; k < 12; k++) {
+				g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 128 + random.nextInt(128)));
+				g.fillOval(random.nextInt(width) - 32, random.nextInt(height) - 32, random.nextInt(96) + 8, random.nextInt(96) + 8);
+			}
+			g.dispose();
+			for(int k = 0; k < 400; k++) image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt());
+			ImageIO.write(image, "png", new File(folder, String.format(nameFormat, i)));
+		}
+	}
+
+	private static boolean isEqual(BufferedImage a, BufferedImage b) {
+		if(a == null || b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+		return Arrays.equals(a.getRGB(0, 0, a.getWidth(), a.getHeight(), null, 0, a.getWidth()), b.getRGB(0, 0, b.getWidth(), b.getHeight(), null, 0, b.getWidth()));
+	}
+
+	private static boolean near(double a, double b) {return Math.abs(a - b) < 1e-6;}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if(files != null) for(File child : files) delete(child);
+		file.delete();
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,197 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.graphics.sprite.spriteSheets.AtlasRegion;
+import warped.graphics.sprite.spriteSheets.WarpedAtlas;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.utilities.math.vectors.VectorD;
+
+public class AtlasTest {
+
+	/*Packs seeded random rectangles with the MaxRectsPacker and checks that no two overlap and every one is inside the page.
+	 * Builds a WarpedAtlas from seeded random images and checks that the regions do not overlap with their padding, stay inside their page,
+	 * hold the same pixels as their image and have page indices unique across atlases, that an image larger than the page is not packed and that release() removes every region.
+	 * Then renders a scene of sprites drawn from the images without an atlas, from the atlas in the order of the scene and from the atlas batched by page,
+	 * checks that drawing from the atlas in scene order is pixel identical to drawing the images and prints the render time percentiles of each.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [sprites] [frames] i.e. 20000 100
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws ReflectiveOperationException {
+		int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int frames  = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		Random random = new Random(5); // Seeded so every run packs the same rectangles and images
+
+		Class<?> packerClass = Class.forName("warped.graphics.sprite.spriteSheets.MaxRectsPacker"); // Package private, only used by WarpedAtlas
+		Constructor<?> constructor = packerClass.getDeclaredConstructor(int.class, int.class);
+		constructor.setAccessible(true);
+		Method insert = packerClass.getDeclaredMethod("insert", int.class, int.class);
+		insert.setAccessible(true);
+		Method getOccupancy = packerClass.getDeclaredMethod("getOccupancy");
+		getOccupancy.setAccessible(true);
+		Object packer = constructor.newInstance(1024, 1024);
+		ArrayList<Rectangle> placed = new ArrayList<>();
+		int rejected = 0;
+		int wrongSize = 0;
+		long area = 0;
+		for(int i = 0; i < 2000; i++) {
+			int width = 1 + random.nextInt(64);
+			int height = 1 + random.nextInt(64);
+			Rectangle rect = (Rectangle)insert.invoke(packer, width, height);
+			if(rect == null) {
+				rejected++;
+				continue;
+			}
+			if(rect.width != width || rect.height != height) wrongSize++;
+			placed.add(rect);
+			area += (long)width * height;
+		}
+		check("the packer places each rectangle at the size asked for (" + wrongSize + " differ)", wrongSize == 0);
+		check("the packer places every rectangle inside the page (" + outside(placed, 1024, 1024) + " outside)", outside(placed, 1024, 1024) == 0);
+		check("no two packed rectangles overlap (" + overlaps(placed) + " overlap)", overlaps(placed) == 0);
+		double occupancy = (double)getOccupancy.invoke(packer);
+		check(String.format("the packer fills the page before rejecting rectangles (%d placed, %d rejected, occupancy %.3f)", placed.size(), rejected, occupancy), rejected > 0 && occupancy > 0.85 && Math.abs(occupancy - area / (1024.0 * 1024.0)) < 1e-9);
+		check("a rectangle larger than the page is rejected", insert.invoke(constructor.newInstance(64, 64), 65, 10) == null);
+
+		BufferedImage[] images = new BufferedImage[600];
+		for(int i = 0; i < images.length; i++) images[i] = generate(random, 4 + random.nextInt(61), 4 + random.nextInt(61));
+		BufferedImage oversized = generate(random, 600, 8);
+		WarpedAtlas atlas = new WarpedAtlas(512);
+		atlas.add(images);
+		atlas.add(oversized);
+		atlas.build();
+		int missing = 0;
+		int differ = 0;
+		for(BufferedImage image : images) {
+			AtlasRegion region = WarpedAtlas.getRegion(image);
+			if(region == null) missing++;
+			else if(!isEqual(region.getPage().getSubimage(region.getX(), region.getY(), region.getWidth(), region.getHeight()), image)) differ++;
+		}
+		check("every image that fits a page is packed (" + missing + " missing)", missing == 0 && atlas.getRegions().size() == images.length);
+		check("each region holds the same pixels as its image (" + differ + " differ)", differ == 0);
+		check("an image larger than the page is not packed", WarpedAtlas.getRegion(oversized) == null);
+		check(String.format("the images are spread over several pages (%d pages, occupancy %.3f)", atlas.getPageCount(), atlas.getOccupancy()), atlas.getPageCount() > 1 && atlas.getOccupancy() > 0.0 && atlas.getOccupancy() <= 1.0);
+		int overlapping = 0;
+		int outside = 0;
+		for(int page = 0; page < atlas.getPageCount(); page++) {
+			ArrayList<Rectangle> rects = new ArrayList<>();
+			for(AtlasRegion region : atlas.getRegions()) if(region.getPage() == atlas.getPage(page)) rects.add(new Rectangle(region.getX(), region.getY(), region.getWidth() + 1, region.getHeight() + 1)); // With the padding
+			overlapping += overlaps(rects);
+			outside += outside(rects, 512, 512);
+		}
+		check("no two regions overlap with their padding (" + overlapping + " overlap)", overlapping == 0);
+		check("every region is inside its page with its padding (" + outside + " outside)", outside == 0);
+
+		WarpedAtlas other = new WarpedAtlas(512);
+		other.add(generate(random, 16, 16));
+		other.build();
+		int firstIndex = Integer.MAX_VALUE;
+		int lastIndex = Integer.MIN_VALUE;
+		for(AtlasRegion region : atlas.getRegions()) {
+			firstIndex = Math.min(firstIndex, region.getPageIndex());
+			lastIndex = Math.max(lastIndex, region.getPageIndex());
+		}
+		int otherIndex = other.getRegions().get(0).getPageIndex();
+		check("the page indices of each atlas are unique across atlases", (otherIndex < firstIndex || otherIndex > lastIndex) && lastIndex - firstIndex == atlas.getPageCount() - 1);
+		other.release();
+
+		atlas.release();
+		missing = 0;
+		for(BufferedImage image : images) if(WarpedAtlas.getRegion(image) == null) missing++;
+		check("release removes the region of every image (" + (images.length - missing) + " remain)", missing == images.length && atlas.getPageCount() == 0 && atlas.getRegions().isEmpty());
+
+		bench(sprites, frames, random);
+
+		System.out.println(failures == 0 ? "AtlasTest passed" : "AtlasTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Render the same still scene without an atlas, from an atlas in scene order and from an atlas batched by page.*/
+	private static void bench(int sprites, int frames, Random random) {
+		int width = 1920;
+		int height = 1080;
+		BufferedImage[] images = new BufferedImage[256];
+		for(int i = 0; i < images.length; i++) images[i] = generate(random, 8 + random.nextInt(25), 8 + random.nextInt(25));
+		WarpedManager<Projectile> manager = new WarpedManager<>("Atlas Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Atlas Group");
+		for(int i = 0; i < sprites; i++) {
+			VectorD position = new VectorD(random.nextDouble() * width, random.nextDouble() * height);
+			group.addMember(new Projectile(images[random.nextInt(images.length)], position, new VectorD(), Integer.MAX_VALUE));
+		}
+		manager.openGroup(group);
+
+		String[] names = {"images          ", "atlas in order  ", "atlas by page   "};
+		BufferedImage[] results = new BufferedImage[names.length];
+		WarpedAtlas atlas = new WarpedAtlas(256); // Small pages so the images are spread over several
+		atlas.add(images);
+		for(int mode = 0; mode < names.length; mode++) {
+			if(mode == 1) atlas.build();
+			manager.step(0.0); // Snapshots look up the region of each raster as they are published
+			WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+			WarpedViewport viewport = new WarpedViewport(names[mode].trim(), manager, 0, 0, width, height);
+			viewport.setTargetGroups(group);
+			viewport.setAtlasBatching(mode == 2);
+			harness.addViewport(viewport);
+			harness.run(Math.max(1, frames / 10), 0.0, manager); // Warm up
+			harness.reset();
+			harness.run(frames, 0.0, manager);
+			results[mode] = harness.getTarget();
+			System.out.printf("%s : %d sprites of %d images on %d pages, p50 %.3f ms, p99 %.3f ms%n", names[mode], sprites, images.length, atlas.getPageCount(), harness.getPercentile(0, 50.0) / 1e6, harness.getPercentile(0, 99.0) / 1e6);
+		}
+		atlas.release();
+		int differ = WarpedRenderHarness.compare(results[1], results[0], 0);
+		check("drawing from the atlas in scene order is pixel identical to drawing the images (" + differ + " pixels differ)", differ == 0);
+		System.out.printf("batching by page changes the order overlapping sprites are drawn in, %d pixels differ from the scene order%n", WarpedRenderHarness.compare(results[2], results[0], 0));
+	}
+
+	/**An image of random noise under a random opaque oval, so regions placed at the wrong offset do not match.*/
+	private static BufferedImage generate(Random random, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		for(int y = 0; y < height; y++) for(int x = 0; x < width; x++) image.setRGB(x, y, random.nextInt());
+		Graphics2D g = image.createGraphics();
+		g.setColor(new Color(random.nextInt(0xFFFFFF)));
+		g.fillOval(width / 4, height / 4, width / 2, height / 2);
+		g.dispose();
+		return image;
+	}
+
+	private static int overlaps(ArrayList<Rectangle> rects) {
+		int count = 0;
+		for(int i = 0; i < rects.size(); i++) for(int j = i + 1; j < rects.size(); j++) if(rects.get(i).intersects(rects.get(j))) count++;
+		return count;
+	}
+
+	private static int outside(ArrayList<Rectangle> rects, int width, int height) {
+		int count = 0;
+		for(Rectangle rect : rects) if(rect.x < 0 || rect.y < 0 || rect.x + rect.width > width || rect.y + rect.height > height) count++;
+		return count;
+	}
+
+	private static boolean isEqual(BufferedImage a, BufferedImage b) {
+		if(a == null || b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+		return Arrays.equals(a.getRGB(0, 0, a.getWidth(), a.getHeight(), null, 0, a.getWidth()), b.getRGB(0, 0, b.getWidth(), b.getHeight(), null, 0, b.getWidth()));
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
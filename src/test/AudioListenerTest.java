@@ -0,0 +1,175 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Random;
+
+import warped.audio.WarpedAudioEmitter;
+import warped.audio.WarpedAudioEmitter.Rolloff;
+import warped.audio.WarpedAudioListener;
+import warped.audio.WarpedAudioMixer;
+import warped.audio.WarpedAudioMixer.Voice;
+import warped.audio.WarpedSound;
+import warped.graphics.window.WarpedCamera;
+import warped.utilities.timers.WarpedManualClock;
+
+public class AudioListenerTest {
+
+	/*Checks that each rolloff curve falls from full gain to silence between the min and max distance, and that a listener sets the gain and pan of each play
+	 * from the position of the emitter relative to the center of its camera view as the camera moves and zooms.
+	 * Checks that plays too quiet to hear are culled, that plays of the same sound within the coalesce duration share one voice, and that sounds no longer recent are forgotten.
+	 * The plays are timed with a manual clock so every run coalesces the same plays.
+	 * Then plays 1000 sounds per second at random positions for 10 simulated seconds, straight into the mixer and through the listener, and prints the voices each started.
+	 * Needs no audio device. Prints each check and exits with 1 if any check failed.
+	 * args : [plays per second] i.e. 1000
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws Exception {
+		int playRate = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		check("linear rolloff falls to half way between the min and max distance", near(Rolloff.LINEAR.getGain(50, 100, 300), 1.0) && near(Rolloff.LINEAR.getGain(200, 100, 300), 0.5) && near(Rolloff.LINEAR.getGain(300, 100, 300), 0.0));
+		check("inverse rolloff halves at twice the min distance", near(Rolloff.INVERSE.getGain(200, 100, 1000), 0.5));
+		check("inverse square rolloff quarters at twice the min distance", near(Rolloff.INVERSE_SQUARE.getGain(200, 100, 1000), 0.25));
+		check("no rolloff is full gain up to the max distance", near(Rolloff.NONE.getGain(999, 100, 1000), 1.0) && near(Rolloff.NONE.getGain(1000, 100, 1000), 0.0));
+		boolean isFalling = true;
+		for(Rolloff rolloff : Rolloff.values()) {
+			double previous = 1.0;
+			for(int distance = 0; distance <= 1200; distance += 10) {
+				double gain = rolloff.getGain(distance, 100, 1000);
+				if(gain > previous + 1e-12 || gain < 0.0 || gain > 1.0) isFalling = false;
+				previous = gain;
+			}
+		}
+		check("every rolloff only falls with distance and stays between 0 and 1", isFalling);
+
+		WarpedCamera camera = new WarpedCamera() {};
+		WarpedAudioMixer mixer = new WarpedAudioMixer(new ByteArrayOutputStream(), 32, 512);
+		WarpedAudioListener listener = new WarpedAudioListener(mixer, camera, 800, 600);
+		WarpedManualClock time = new WarpedManualClock();
+		listener.setClock(time);
+		check("the listener is at the center of the view", near(listener.getX(), 400) && near(listener.getY(), 300));
+		WarpedSound sound = new WarpedSound(new short[2000]);
+		WarpedAudioEmitter emitter = new WarpedAudioEmitter(sound, Rolloff.LINEAR, 100, 1000);
+		Voice center = listener.play(emitter, 400, 300);
+		check("an emitter at the center plays at full gain and centered", center != null && near(center.getGain(), 1.0) && near(center.getPan(), 0.0));
+		mixer.mixBuffer();
+		time.advanceMillis(100);
+		Voice right = listener.play(emitter, 800, 300);
+		check("an emitter at the right edge is panned fully right", right != null && right != center && near(right.getPan(), 1.0) && near(right.getGain(), 1.0 - 300 / 900.0));
+		time.advanceMillis(100);
+		check("an emitter at the left edge is panned fully left", near(listener.play(emitter, 0, 300).getPan(), -1.0));
+		time.advanceMillis(100);
+		Voice below = listener.play(emitter, 400, 700);
+		check("an emitter below the center is centered and quieter", near(below.getPan(), 0.0) && near(below.getGain(), 1.0 - 300 / 900.0));
+
+		time.advanceMillis(100);
+		check("an emitter beyond its max distance is culled", listener.play(emitter, 1400, 300) == null);
+		emitter.setGain(0.005);
+		check("an emitter quieter than the cull gain is culled", listener.play(emitter, 400, 300) == null);
+		emitter.setGain(1.0);
+		mixer.setGain(0.001);
+		check("the mixer gain counts towards the cull gain", listener.play(emitter, 400, 300) == null);
+		mixer.setGain(1.0);
+		check("culled plays are counted", listener.getCulledCount() == 3);
+
+		int played = listener.getPlayedCount();
+		time.advanceMillis(1000);
+		Voice first = listener.play(emitter, 900, 300);
+		time.advanceMillis(10);
+		Voice louder = listener.play(emitter, 400, 300);
+		check("a louder play of the same sound within the coalesce duration raises the voice already playing", louder == first && near(first.getGain(), 1.0) && near(first.getPan(), 0.0));
+		time.advanceMillis(10);
+		Voice quieter = listener.play(emitter, 900, 300);
+		check("a quieter play within the coalesce duration leaves the voice as it is", quieter == first && near(first.getGain(), 1.0));
+		Voice other = listener.play(new WarpedAudioEmitter(new WarpedSound(new short[2000]), Rolloff.LINEAR, 100, 1000), 400, 300);
+		check("a different sound starts its own voice", other != first);
+		time.advanceMillis(30);
+		check("a play after the coalesce duration starts a new voice", listener.play(emitter, 400, 300) != first);
+		check("coalesced and played counts", listener.getCoalescedCount() == 2 && listener.getPlayedCount() == played + 3);
+
+		for(int i = 0; i < 100; i++) listener.play(new WarpedAudioEmitter(new WarpedSound(new short[2000])), 400, 300);
+		int recent = recentCount(listener);
+		time.advanceMillis(2000);
+		listener.play(emitter, 400, 300);
+		check("sounds that are no longer recent are forgotten (" + recent + " then " + recentCount(listener) + ")", recent > 100 && recentCount(listener) == 1);
+
+		camera.setPosition(-1000, 0);
+		check("the listener follows the camera", near(listener.getX(), 1400));
+		camera.setZoom(2.0);
+		check("the listener follows the zoom of the camera", near(listener.getX(), 1200));
+		time.advanceMillis(1000);
+		check("the edge of a zoomed view is panned fully", near(listener.play(emitter, 1400, 300).getPan(), 1.0));
+
+		for(int mode = 0; mode < 2; mode++) {
+			boolean isListener = mode == 1;
+			Random random = new Random(42); // Seeded so both modes play the same sounds from the same positions
+			WarpedSound[] sounds = new WarpedSound[8];
+			WarpedAudioEmitter[] emitters = new WarpedAudioEmitter[sounds.length];
+			for(int i = 0; i < sounds.length; i++) {
+				short[] samples = new short[22050 * 2];
+				for(int j = 0; j < samples.length; j++) samples[j] = (short)(random.nextInt(2000) - 1000);
+				sounds[i] = new WarpedSound(samples);
+				emitters[i] = new WarpedAudioEmitter(sounds[i]);
+			}
+			WarpedAudioMixer benchMixer = new WarpedAudioMixer(OutputStream.nullOutputStream(), 32, 512);
+			WarpedCamera benchCamera = new WarpedCamera() {};
+			benchCamera.setPosition(-1600, -1700);
+			WarpedAudioListener benchListener = new WarpedAudioListener(benchMixer, benchCamera, 800, 600);
+			WarpedManualClock benchTime = new WarpedManualClock();
+			benchListener.setClock(benchTime);
+			long playTime = 0;
+			long mixTime = 0;
+			long voiceSum = 0;
+			int plays = 0;
+			int buffers = 0;
+			long mixedFrames = 0;
+			for(int frame = 0; frame < 600; frame++) { // 10 seconds at 60 frames per second
+				benchTime.advance(1000000000L / 60);
+				int count = (frame + 1) * playRate / 60 - frame * playRate / 60;
+				long startTime = System.nanoTime();
+				for(int i = 0; i < count; i++) {
+					int k = random.nextInt(sounds.length);
+					double x = random.nextDouble() * 4000;
+					double y = random.nextDouble() * 4000;
+					if(isListener) benchListener.play(emitters[k], x, y);
+					else benchMixer.play(sounds[k], 1.0, 0.0, 0, false);
+					plays++;
+				}
+				playTime += System.nanoTime() - startTime;
+				while(mixedFrames < (frame + 1) * 44100L / 60) {
+					startTime = System.nanoTime();
+					benchMixer.mixBuffer();
+					mixTime += System.nanoTime() - startTime;
+					mixedFrames += 512;
+					buffers++;
+					voiceSum += benchMixer.getVoiceCount();
+				}
+			}
+			System.out.printf("%s : %d plays, %d voices started, %d stolen, %d culled, %d coalesced, %.1f voices on average, %.0f ns per play, %.0f us per buffer%n",
+					isListener ? "through the listener" : "straight into the mixer", plays, isListener ? benchListener.getPlayedCount() : plays, benchMixer.getStolenCount(),
+					benchListener.getCulledCount(), benchListener.getCoalescedCount(), (double)voiceSum / buffers, (double)playTime / plays, mixTime / 1000.0 / buffers);
+		}
+
+		System.out.println(failures == 0 ? "AudioListenerTest passed" : "AudioListenerTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**The number of sounds the listener remembers as recently played.*/
+	private static int recentCount(WarpedAudioListener listener) throws ReflectiveOperationException {
+		Field field = WarpedAudioListener.class.getDeclaredField("recentPlays");
+		field.setAccessible(true);
+		return ((Map<?, ?>)field.get(listener)).size();
+	}
+
+	private static boolean near(double a, double b) {return Math.abs(a - b) < 1e-6;}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
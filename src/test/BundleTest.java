@@ -0,0 +1,241 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import warped.application.state.WarpedAssetLoader;
+import warped.application.state.WarpedBundle;
+import warped.application.state.WarpedBundleWriter;
+import warped.application.state.WarpedFolder;
+import warped.application.state.WarpedImageFolder;
+import warped.application.state.WarpedSpriteFolder;
+import warped.audio.WarpedSound;
+import warped.graphics.sprite.spriteSheets.WarpedSpriteSheet;
+import warped.utilities.enums.WarpedLinkable;
+
+public class BundleTest {
+
+	/*Generates a folder of images, sprite sheets and a wav file, packs it into a bundle with compressed and with raw images, and checks that every asset read back from the bundle
+	 * is equal to the asset read from its file : the pixels of each image and sprite, the sprite size of each sheet, the samples of the sound and the text of the linkData.
+	 * Checks that nothing is read when the bundle is opened, that image and sprite folders loaded from the bundle match the folders loaded from files by enum key,
+	 * that getAllImages() of a sprite folder returns every sprite with or without a bundle, and that a file that is not a bundle, has an entry outside of the file or can't be written is rejected.
+	 * Then generates a set of 128x128 PNG files and runs each way of loading them in a new JVM, printing the first (cold) and second (warm) time taken to read every image
+	 * from the PNG files, from a compressed bundle and from a raw bundle.
+	 * The files are written to a folder in the working directory that is deleted afterwards, since a WarpedFolder keeps its linkData beside the first folder of its path.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [images] i.e. 1000
+	 * */
+
+	private static int failures = 0;
+	private static final String ROOT = "bundleTest";
+	private static final String BENCH = "bench";
+
+	public enum BundleImage implements WarpedLinkable<BundleImage>{
+		IMAGE_0, IMAGE_1, IMAGE_2, IMAGE_3, IMAGE_4, IMAGE_5, IMAGE_6, IMAGE_7,
+		;public static Map<Integer, BundleImage> map = new HashMap<>();
+		static {for(BundleImage image : BundleImage.values()) map.put(image.ordinal(), image);}
+		@Override
+		public Map<Integer, BundleImage> getMap() {return map;}
+	}
+
+	public enum BundleSheet implements WarpedLinkable<BundleSheet>{
+		SHEET_0, SHEET_1, SHEET_2,
+		;public static Map<Integer, BundleSheet> map = new HashMap<>();
+		static {for(BundleSheet sheet : BundleSheet.values()) map.put(sheet.ordinal(), sheet);}
+		@Override
+		public Map<Integer, BundleSheet> getMap() {return map;}
+	}
+
+	public static void main(String[] args) throws Exception {
+		if(args.length > 1 && args[0].equals(BENCH)) {
+			bench(args[1]);
+			System.exit(0);
+		}
+		int imageCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		File root = new File(ROOT);
+		Random random = new Random(3); // Seeded so every run packs the same files
+		generate(new File(root, "images"), "image_%d.png", BundleImage.values().length, 40, 24, random);
+		generate(new File(root, "sheets"), "sheet%d_wf2d_16_8_wf.png", BundleSheet.values().length, 64, 16, random);
+		File wav = new File(root, "sounds/tone.wav");
+		wav.getParentFile().mkdirs();
+		writeWav(wav, random);
+		WarpedImageFolder<BundleImage> fileImages = WarpedImageFolder.generateFolder(BundleImage.IMAGE_0, ROOT + "/images"); // Also writes the linkData that is packed
+		WarpedSpriteFolder<BundleSheet> fileSheets = WarpedSpriteFolder.generateFolder(BundleSheet.SHEET_0, ROOT + "/sheets");
+
+		for(boolean isCompressed : new boolean[] {true, false}) {
+			String mode = isCompressed ? "compressed" : "raw";
+			WarpedBundleWriter writer = new WarpedBundleWriter();
+			writer.setCompressed(isCompressed);
+			int added = writer.addFolder(root);
+			File file = new File(root, mode + WarpedBundle.EXTENSION);
+			check(mode + " bundle is written", writer.write(file));
+			WarpedBundle bundle = WarpedBundle.open(file);
+			check(mode + " bundle opens with every asset and reads none of them (" + added + " assets, " + file.length() / 1024 + " KB)", bundle != null && bundle.getEntryCount() == added && bundle.getLoadedCount() == 0);
+
+			int mismatched = 0;
+			for(File image : new File(root, "images").listFiles()) if(!isEqual(ImageIO.read(image), bundle.getImage("/images/" + image.getName()))) mismatched++;
+			check(mode + " images are pixel equal to their files (" + mismatched + " differ)", mismatched == 0);
+			check(mode + " an image is read once", bundle.getImage("/images/image_0.png") == bundle.getImage("/images/image_0.png"));
+			mismatched = 0;
+			for(File sheetFile : new File(root, "sheets").listFiles()) {
+				BufferedImage source = ImageIO.read(sheetFile);
+				WarpedSpriteSheet sheet = bundle.getSpriteSheet("/sheets/" + sheetFile.getName());
+				if(sheet == null || sheet.getSpriteWidth() != 16 || sheet.getSpriteHeight() != 8 || sheet.getSpriteCount() != 8) {
+					mismatched++;
+					continue;
+				}
+				for(int i = 0; i < sheet.getSpriteCount(); i++) if(!isEqual(source.getSubimage((i % 4) * 16, (i / 4) * 8, 16, 8), sheet.getSprite(i))) mismatched++;
+			}
+			check(mode + " sprite sheets keep their sprite size and every sprite is pixel equal to the file", mismatched == 0);
+			WarpedSound sound = bundle.getSound("/sounds/tone.wav");
+			check(mode + " sounds keep their samples", sound != null && Arrays.equals(sound.getSamples(), WarpedSound.decode(wav).getSamples()));
+			check(mode + " text is kept", bundle.getText("/linkData/BundleImage_wf2dat.txt").equals(Files.readString(new File(root, "linkData/BundleImage_wf2dat.txt").toPath())));
+
+			WarpedFolder.setBundle(WarpedBundle.open(file));
+			WarpedImageFolder<BundleImage> bundledImages = WarpedImageFolder.generateFolder(BundleImage.IMAGE_0, ROOT + "/images");
+			WarpedSpriteFolder<BundleSheet> bundledSheets = WarpedSpriteFolder.generateFolder(BundleSheet.SHEET_0, ROOT + "/sheets");
+			check(mode + " folders loaded from the bundle read only their linkData", WarpedFolder.getBundle().getLoadedCount() == 2);
+			WarpedFolder.setBundle(null);
+			mismatched = 0;
+			for(BundleImage image : BundleImage.values()) if(!isEqual(fileImages.getImage(image), bundledImages.getImage(image))) mismatched++;
+			for(BundleSheet sheet : BundleSheet.values()) for(int i = 0; i < 8; i++) if(!isEqual(fileSheets.getSprite(sheet, i), bundledSheets.getSprite(sheet, i))) mismatched++;
+			check(mode + " folders loaded from the bundle match the folders loaded from files by key (" + mismatched + " differ)", mismatched == 0);
+			check(mode + " getAllImages() of a sprite folder returns every sprite", isSameSprites(fileSheets.getAllImages(), bundledSheets.getAllImages(), 24));
+		}
+
+		File notBundle = new File(root, "linkData/BundleImage_wf2dat.txt");
+		check("a file that is not a bundle is not opened", WarpedBundle.open(notBundle) == null);
+		byte[] bytes = Files.readAllBytes(new File(root, "raw" + WarpedBundle.EXTENSION).toPath());
+		int lengthAt = 12 + 2 + (((bytes[12] & 0xFF) << 8) | (bytes[13] & 0xFF)) + 1 + 1 + 8; // The length of the first entry
+		for(int length : new int[] {-1, Integer.MAX_VALUE}) {
+			ByteBuffer.wrap(bytes).putInt(lengthAt, length);
+			File corrupt = new File(root, "corrupt" + WarpedBundle.EXTENSION);
+			Files.write(corrupt.toPath(), bytes);
+			check("a bundle with an entry length of " + length + " is not opened", WarpedBundle.open(corrupt) == null);
+		}
+		ByteBuffer.wrap(bytes).putLong(lengthAt - 8, 1L << 32);
+		File corrupt = new File(root, "corrupt" + WarpedBundle.EXTENSION);
+		Files.write(corrupt.toPath(), bytes);
+		check("a bundle with an entry offset past 2GB is not opened", WarpedBundle.open(corrupt) == null);
+		File unwritable = new File(notBundle, "bundle" + WarpedBundle.EXTENSION);
+		check("a bundle that can't be written returns false and leaves no file", !new WarpedBundleWriter().write(unwritable) && !unwritable.exists());
+
+		File benchFolder = new File(root, BENCH);
+		generate(benchFolder, "bench_%04d.png", imageCount, 128, 128, random);
+		for(boolean isCompressed : new boolean[] {true, false}) {
+			WarpedBundleWriter writer = new WarpedBundleWriter();
+			writer.setCompressed(isCompressed);
+			writer.addFolder(benchFolder);
+			writer.write(new File(root, BENCH + "_" + (isCompressed ? "compressed" : "raw") + WarpedBundle.EXTENSION));
+		}
+		for(String mode : new String[] {"png", "compressed", "raw"}) {
+			Process process = new ProcessBuilder(new File(System.getProperty("java.home"), "bin/java").getPath(), "-Djava.awt.headless=true", "-cp", System.getProperty("java.class.path"), BundleTest.class.getName(), BENCH, mode).redirectErrorStream(true).start();
+			try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+				String line;
+				while((line = reader.readLine()) != null) if(line.startsWith(BENCH)) System.out.println(line.substring(BENCH.length() + 1));
+			}
+			check(mode + " benchmark ran", process.waitFor() == 0);
+		}
+		delete(root);
+
+		System.out.println(failures == 0 ? "BundleTest passed" : "BundleTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Read every benchmark image twice in this JVM, from the PNG files or from a bundle, and print the time taken to open and read them each time.*/
+	private static void bench(String mode) {
+		File[] files = new File(ROOT, BENCH).listFiles();
+		Arrays.sort(files);
+		for(String run : new String[] {"cold", "warm"}) {
+			long startTime = System.nanoTime();
+			long openTime = 0;
+			int loaded = 0;
+			if(mode.equals("png")) {
+				for(File file : files) if(WarpedAssetLoader.readImage(file) != null) loaded++;
+			} else {
+				WarpedBundle bundle = WarpedBundle.open(new File(ROOT, BENCH + "_" + mode + WarpedBundle.EXTENSION));
+				openTime = System.nanoTime() - startTime;
+				for(File file : files) if(bundle.getImage("/" + file.getName()) != null) loaded++;
+			}
+			System.out.printf("%s %-10s %s : %d images in %d ms, opened in %.2f ms%n", BENCH, mode, run, loaded, (System.nanoTime() - startTime) / 1000000, openTime / 1e6);
+		}
+	}
+
+	/**Write PNG files of random rectangles and noise, named from the format and the index of each file.*/
+	private static void generate(File folder, String nameFormat, int count, int width, int height, Random random) throws IOException {
+		folder.mkdirs();
+		for(int i = 0; i < count; i++) {
+			BufferedImage image = new BufferedImage(width, height, i % 3 == 0 ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = image.createGraphics();
+			for(int k = 0; k < 12; k++) {
+				g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 128 + random.nextInt(128)));
+				g.fillRect(random.nextInt(width), random.nextInt(height), random.nextInt(width) + 1, random.nextInt(height) + 1);
+			}
+			g.dispose();
+			for(int k = 0; k < width * height / 40; k++) image.setRGB(random.nextInt(width), random.nextInt(height), random.nextInt());
+			ImageIO.write(image, "png", new File(folder, String.format(nameFormat, i)));
+		}
+	}
+
+	/**A short 16 bit stereo wav file of noise.*/
+	private static void writeWav(File file, Random random) throws IOException {
+		byte[] pcm = new byte[4410 * 4];
+		random.nextBytes(pcm);
+		AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), new AudioFormat(44100, 16, 2, true, false), 4410), AudioFileFormat.Type.WAVE, file);
+	}
+
+	/**Are the two collections the same number of sprites, pixel equal in any order.*/
+	private static boolean isSameSprites(Collection<BufferedImage> a, Collection<BufferedImage> b, int count) {
+		if(a.size() != count || b.size() != count) return false;
+		ArrayList<BufferedImage> remaining = new ArrayList<>(b);
+		for(BufferedImage image : a) {
+			boolean isFound = false;
+			for(int i = 0; i < remaining.size() && !isFound; i++) {
+				if(isEqual(image, remaining.get(i))) {
+					remaining.remove(i);
+					isFound = true;
+				}
+			}
+			if(!isFound) return false;
+		}
+		return true;
+	}
+
+	private static boolean isEqual(BufferedImage a, BufferedImage b) {
+		if(a == null || b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+		return Arrays.equals(a.getRGB(0, 0, a.getWidth(), a.getHeight(), null, 0, a.getWidth()), b.getRGB(0, 0, b.getWidth(), b.getHeight(), null, 0, b.getWidth()));
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if(files != null) for(File child : files) delete(child);
+		file.delete();
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
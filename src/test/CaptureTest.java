@@ -0,0 +1,139 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.graphics.window.WarpedFrameCapture;
+import warped.graphics.window.WarpedFrameCapture.CaptureFormat;
+import warped.graphics.window.WarpedFrameCapture.CapturePolicy;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.utilities.math.vectors.VectorD;
+
+public class CaptureTest {
+
+	/*Captures the frames rendered by a harness in each CaptureFormat with the BLOCK policy, and checks that every written frame reads back identical to a copy of the rendered frame.
+	 * RAW frames are converted to PNG with convertRaw() before they are read back. Also checks that a completed capture takes no more frames,
+	 * and that with the DROP policy every frame is either written or dropped.
+	 * Then prints the median and 99th percentile frame time with each policy and format against rendering without a capture.
+	 * Frames are written to a temporary folder that is deleted afterwards. Runs without a window, start with -Djava.awt.headless=true on a machine without a display.
+	 * Prints each check and exits with 1 if any check failed.
+	 * args : [width] [height] [frames] i.e. 640 360 100
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws IOException {
+		int width  = args.length > 0 ? Integer.parseInt(args[0]) : 640;
+		int height = args.length > 1 ? Integer.parseInt(args[1]) : 360;
+		int frames = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.ORANGE);
+		g.fillOval(0, 0, 16, 16);
+		g.dispose();
+
+		WarpedManager<Projectile> manager = new WarpedManager<>("Capture Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Capture Group");
+		Random random = new Random(1); // Seeded so every run renders the same frames
+		for(int i = 0; i < 2000; i++) group.addMember(new Projectile(image, new VectorD(random.nextDouble() * width, random.nextDouble() * height), new VectorD(random.nextDouble() * 60 - 30, random.nextDouble() * 60 - 30), Integer.MAX_VALUE));
+		manager.openGroup(group);
+		manager.step(0.0);
+		WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+		harness.addViewport(new WarpedViewport("Capture Viewport", manager, 0, 0, width, height));
+		File root = Files.createTempDirectory("warpedCaptureTest").toFile();
+
+		for(CaptureFormat format : CaptureFormat.values()) {
+			File folder = new File(root, format.toString());
+			WarpedFrameCapture capture = new WarpedFrameCapture(folder.getPath() + "/", 10, format, CapturePolicy.BLOCK, 4, 2);
+			harness.setFrameCapture(capture);
+			ArrayList<BufferedImage> rendered = new ArrayList<>();
+			for(int i = 0; i < 12; i++) {
+				manager.step(1.0 / 60);
+				harness.renderFrame();
+				rendered.add(copy(harness.getTarget()));
+			}
+			check(format + " capture completes", capture.awaitCompletion(60000));
+			if(format == CaptureFormat.RAW) WarpedFrameCapture.convertRaw(folder.getPath());
+			int mismatched = 0;
+			for(int i = 0; i < 10; i++) {
+				File file = new File(folder, String.format("frame_%05d.png", i));
+				if(!file.exists() || WarpedRenderHarness.compare(ImageIO.read(file), rendered.get(i), 0) != 0) mismatched++;
+			}
+			check(format + " writes 10 frames identical to the rendered frames (" + mismatched + " differ)", mismatched == 0 && capture.getWrittenCount() == 10 && capture.getDroppedCount() == 0);
+			check(format + " capture takes no frames once complete", !capture.capture(image));
+		}
+
+		harness.setFrameCapture(null);
+		long[] base = new long[frames];
+		for(int i = 0; i < frames; i++) base[i] = timeFrame(manager, harness);
+		System.out.printf("no capture : frame p50 %.2f ms, p99 %.2f ms%n", percentile(base, 50) / 1e6, percentile(base, 99) / 1e6);
+		for(CapturePolicy policy : CapturePolicy.values()) {
+			for(CaptureFormat format : CaptureFormat.values()) {
+				File folder = new File(root, "overhead_" + policy + "_" + format);
+				WarpedFrameCapture capture = new WarpedFrameCapture(folder.getPath() + "/", frames, format, policy, 8, 2);
+				harness.setFrameCapture(capture);
+				long[] times = new long[frames];
+				for(int i = 0; i < frames; i++) times[i] = timeFrame(manager, harness);
+				capture.stop();
+				capture.awaitCompletion(120000);
+				System.out.printf("%s %s : frame p50 %.2f ms, p99 %.2f ms, %d written, %d dropped%n", policy, format, percentile(times, 50) / 1e6, percentile(times, 99) / 1e6, capture.getWrittenCount(), capture.getDroppedCount());
+				if(policy == CapturePolicy.DROP) check(policy + " " + format + " writes or drops every frame", capture.getWrittenCount() == capture.getCapturedCount() && capture.getCapturedCount() + capture.getDroppedCount() == frames);
+			}
+		}
+		harness.setFrameCapture(null);
+		delete(root);
+
+		System.out.println(failures == 0 ? "CaptureTest passed" : "CaptureTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Step the scene and return the time taken to render and capture the frame.*/
+	private static long timeFrame(WarpedManager<Projectile> manager, WarpedRenderHarness harness) {
+		manager.step(1.0 / 60);
+		long startTime = System.nanoTime();
+		harness.renderFrame();
+		return System.nanoTime() - startTime;
+	}
+
+	private static long percentile(long[] times, int percentile) {
+		long[] sorted = times.clone();
+		Arrays.sort(sorted);
+		return sorted[Math.max(0, (int)Math.ceil(percentile / 100.0 * sorted.length) - 1)];
+	}
+
+	private static BufferedImage copy(BufferedImage image) {
+		BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = copy.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return copy;
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if(files != null) for(File child : files) delete(child);
+		file.delete();
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,116 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.entities.WarpedEntitie;
+import warped.application.state.WarpedCollisionManager;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedObject;
+import warped.application.state.WarpedSpatialHash;
+import warped.application.state.WarpedState;
+import warped.graphics.sprite.WarpedSprite;
+import warped.graphics.window.WarpedMouseEvent;
+import warped.utilities.timers.WarpedManualClock;
+
+public class CollisionBenchmark {
+
+	/*Collides a group of entities with the spatial hash broadphase and with brute force checks, printing the pairs checked and the tick time of each.
+	 * The state loop is stepped with a manual clock so only the collision updates run, the entities do not move so both broadphases see the same scene.
+	 * Also checks that objects spanning too many cells are still found by the hash.
+	 * Exits with 1 if the broadphases do not produce the same hits or a check fails.
+	 * args : [entities] [ticks] i.e. 10000 30
+	 * */
+
+	private static final long TICK = 1000000000L / 30; // The default collision frequency
+
+	private static class BenchEntitie extends WarpedEntitie {
+		private int hitCount = 0;
+		private BenchEntitie(WarpedSprite sprite, double x, double y) {
+			setSprite(sprite);
+			setPosition(x, y);
+		}
+		protected void hit(WarpedObject collider) {hitCount++;}
+		protected void mouseEntered() {}
+		protected void mouseExited() {}
+		protected void mouseMoved(WarpedMouseEvent mouseEvent) {}
+		protected void mouseDragged(WarpedMouseEvent mouseEvent) {}
+		protected void mousePressed(WarpedMouseEvent mouseEvent) {}
+		protected void mouseRotation(WarpedMouseEvent mouseEvent) {}
+		protected void updateObject() {}
+		protected void updatePosition(double deltaTime) {}
+	}
+
+	public static void main(String[] args) {
+		int entities = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int ticks 	 = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+		BufferedImage image = new BufferedImage(16, 16, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.ORANGE);
+		g.fillOval(0, 0, 16, 16);
+		g.dispose();
+		WarpedSprite sprite = new WarpedSprite(image);
+
+		WarpedManualClock clock = new WarpedManualClock();
+		WarpedState.setClock(clock);
+
+		WarpedManager<BenchEntitie> manager = new WarpedManager<>("Benchmark Manager");
+		WarpedGroup<BenchEntitie> group = manager.addGroup("Benchmark Group");
+		Random random = new Random(1); // Seeded so every run collides the same scene
+		double size = Math.sqrt(entities) * 40; // Roughly 6 entities per 100x100 pixels
+		for(int i = 0; i < entities; i++) group.addMember(new BenchEntitie(sprite, random.nextDouble() * size, random.nextDouble() * size));
+		manager.openGroup(group);
+		manager.step(0.0);
+
+		WarpedCollisionManager.setInternalCollisionMode(false);
+		int index = WarpedCollisionManager.addInternalCollisionGroups(group, 64);
+		WarpedState.loop.update();
+
+		long hashHits = run(group, ticks, clock, "spatial hash");
+		WarpedCollisionManager.setInternalCellSize(index, 0);
+		long bruteHits = run(group, Math.max(1, ticks / 10), clock, "brute force");
+
+		boolean isEqual = hashHits == bruteHits;
+		System.out.println(isEqual ? "PASS : broadphases produce the same hits" : "FAIL : spatial hash hits " + hashHits + " brute force hits " + bruteHits);
+		boolean isLargeFound = checkLargeObjects();
+		System.out.println(isLargeFound ? "PASS : large objects and large queries find every overlapping object" : "FAIL : large objects were not found");
+		System.exit(isEqual && isLargeFound ? 0 : 1);
+	}
+
+	/**Insert an object far larger than a cell and query with bounds far larger than the hash.*/
+	private static boolean checkLargeObjects() {
+		WarpedSpatialHash hash = new WarpedSpatialHash(64);
+		hash.insert(0, 10, 10, 16, 16);
+		hash.insert(1, -1e9, -1e9, 2e9, 2e9);
+		hash.insert(2, 5000, 5000, 16, 16);
+		if(hash.getLargeObjectCount() != 1) return false;
+		if(hash.query(5000, 5000, 16, 16, -1) != 2 || hash.getResult(0) != 1 || hash.getResult(1) != 2) return false;
+		if(hash.query(0, 0, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, -1) != 3) return false;
+		return hash.query(0, 0, 1e7, 1e7, 0) == 2;
+	}
+
+	/**Step the collision updates and print the pair count and tick time percentiles, returning the hits of the last tick.*/
+	private static long run(WarpedGroup<BenchEntitie> group, int ticks, WarpedManualClock clock, String name) {
+		long[] durations = new long[ticks];
+		long hits = 0;
+		for(int i = 0; i < ticks; i++) {
+			for(int j = 0; j < group.size(); j++) group.getMember(j).hitCount = 0;
+			clock.advance(TICK);
+			WarpedState.loop.update();
+			durations[i] = WarpedCollisionManager.getInternalCycleDuration();
+		}
+		for(int j = 0; j < group.size(); j++) hits += group.getMember(j).hitCount;
+		Arrays.sort(durations);
+		System.out.printf("%-13s : pairs %,12d | hits %,8d | tick ms p50 %8.3f p95 %8.3f max %8.3f%n", name, WarpedCollisionManager.getInternalPairCount(), hits,
+				durations[ticks / 2] / 1e6, durations[(int)(ticks * 0.95)] / 1e6, durations[ticks - 1] / 1e6);
+		return hits;
+	}
+
+}
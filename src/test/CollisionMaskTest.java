@@ -0,0 +1,86 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.graphics.sprite.CollisionMask;
+import warped.graphics.sprite.spriteSheets.WarpedSpriteSheet;
+
+public class CollisionMaskTest {
+
+	/*Compares CollisionMask.overlaps() with a per pixel getRGB() check on random sparse images at random offsets, including sub images of a sheet.
+	 * Prints the number of mismatches and the time taken by each check, then checks that a sprite sheet caches the masks of its sprites when it is constructed.
+	 * Exits with 1 if any check failed.
+	 * args : [pairs] i.e. 20000
+	 * */
+
+	public static void main(String[] args) {
+		int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		Random random = new Random(3); // Seeded so every run compares the same images
+		int mismatches = 0;
+		int overlaps = 0;
+		int compared = 0;
+		long pixelTime = 0;
+		long maskTime = 0;
+		BufferedImage sheet = randomImage(random, 300, 300);
+		for(int i = 0; i < pairs; i++) {
+			BufferedImage a = random.nextBoolean() ? randomImage(random, 1 + random.nextInt(150), 1 + random.nextInt(150)) : sheet.getSubimage(random.nextInt(100), random.nextInt(100), 1 + random.nextInt(150), 1 + random.nextInt(150));
+			BufferedImage b = randomImage(random, 1 + random.nextInt(150), 1 + random.nextInt(150));
+			int bx = random.nextInt(300) - 150;
+			int by = random.nextInt(300) - 150;
+			int c1x = Math.max(0, bx);
+			int c1y = Math.max(0, by);
+			int width  = Math.min(a.getWidth(), bx + b.getWidth()) - c1x;
+			int height = Math.min(a.getHeight(), by + b.getHeight()) - c1y;
+			if(width <= 0 || height <= 0) continue;
+			compared++;
+
+			long startTime = System.nanoTime();
+			boolean isPixelOverlap = false;
+			outer:
+			for(int y = 0; y < height; y++) {
+				for(int x = 0; x < width; x++) {
+					if(isSolid(a.getRGB(c1x + x, c1y + y)) && isSolid(b.getRGB(c1x - bx + x, c1y - by + y))) {
+						isPixelOverlap = true;
+						break outer;
+					}
+				}
+			}
+			long pixelEndTime = System.nanoTime();
+			CollisionMask maskA = new CollisionMask(a);
+			CollisionMask maskB = new CollisionMask(b);
+			long maskStartTime = System.nanoTime();
+			boolean isMaskOverlap = CollisionMask.overlaps(maskA, c1x, c1y, maskB, c1x - bx, c1y - by, width, height);
+			maskTime += System.nanoTime() - maskStartTime;
+			pixelTime += pixelEndTime - startTime;
+
+			if(isPixelOverlap != isMaskOverlap) mismatches++;
+			if(isPixelOverlap) overlaps++;
+		}
+		System.out.printf("compared %d pairs, %d overlapping | getRGB ms %.3f | mask ms %.3f%n", compared, overlaps, pixelTime / 1e6, maskTime / 1e6);
+
+		boolean isPassed = mismatches == 0;
+		System.out.println(isPassed ? "PASS : masks agree with getRGB on every pair" : "FAIL : " + mismatches + " pairs disagree with getRGB");
+
+		WarpedSpriteSheet spriteSheet = new WarpedSpriteSheet(sheet, 50, 50);
+		boolean isCached = true;
+		for(int i = 0; i < spriteSheet.getSpriteCount(); i++) if(!CollisionMask.isCached(spriteSheet.getSprite(i))) isCached = false;
+		System.out.println(isCached ? "PASS : sheet masks are generated when the sheet is constructed" : "FAIL : sheet masks are not cached");
+		System.exit(isPassed && isCached ? 0 : 1);
+	}
+
+	private static boolean isSolid(int argb) {return (argb >>> 24) > WarpedProperties.ALPHA_THRESHOLD;}
+
+	/**An image with a random sparse set of pixels of random alpha.*/
+	private static BufferedImage randomImage(Random random, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		double density = random.nextDouble() * 0.02;
+		for(int y = 0; y < height; y++) {
+			for(int x = 0; x < width; x++) if(random.nextDouble() < density) image.setRGB(x, y, (random.nextInt(256) << 24) | 0x123456);
+		}
+		return image;
+	}
+
+}
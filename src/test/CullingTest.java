@@ -0,0 +1,213 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedObject;
+import warped.application.state.WarpedRenderSnapshot;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.graphics.window.WarpedViewport.RenderType;
+import warped.utilities.math.vectors.VectorD;
+
+public class CullingTest {
+
+	/*Checks that the entries WarpedRenderSnapshot.getEntriesIn() finds with its spatial grid include every entry the viewport would not clip when testing each entry (isClipped() is false),
+	 * for seeded random viewports, camera positions and zooms over objects of random sizes and render scales, in member order and in page order.
+	 * Checks that a viewport with culling draws the same pixels as a viewport without, that a camera tracking an object off screen is moved to the same position with and without culling,
+	 * and that an object hovered by the mouse is unhovered when culling finds it is off screen.
+	 * Then renders 100k objects that are mostly off screen with and without culling and prints the render time percentiles of each.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [objects] [frames] i.e. 100000 200
+	 * */
+
+	private static int failures = 0;
+
+	/**A projectile drawn at a render scale other than 1.*/
+	private static class ScaledProjectile extends Projectile {
+		private ScaledProjectile(BufferedImage raster, VectorD position, double renderScale) {
+			super(raster, position, new VectorD(), Integer.MAX_VALUE);
+			this.renderScale = renderScale;
+		}
+	}
+
+	public static void main(String[] args) throws ReflectiveOperationException {
+		int objects = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int frames  = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		Random random = new Random(17); // Seeded so every run tests the same views
+		BufferedImage[] images = new BufferedImage[12];
+		for(int i = 0; i < images.length; i++) images[i] = image(random, 2 + random.nextInt(120), 2 + random.nextInt(120));
+		double[] scales = {1.0, 1.0, 1.0, 0.5, 2.0, 4.0};
+
+		WarpedManager<Projectile> manager = new WarpedManager<>("Culling Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Culling Group");
+		for(int i = 0; i < 5000; i++) {
+			VectorD position = new VectorD(random.nextDouble() * 8000 - 2000, random.nextDouble() * 8000 - 2000);
+			group.addMember(new ScaledProjectile(images[random.nextInt(images.length)], position, scales[random.nextInt(scales.length)]));
+		}
+		manager.openGroup(group);
+		manager.step(0.0);
+		WarpedRenderSnapshot snapshot = group.getRenderSnapshot();
+
+		int missed = 0;
+		int unordered = 0;
+		int pageMismatch = 0;
+		long found = 0;
+		long visible = 0;
+		for(int view = 0; view < 500; view++) {
+			int viewX = random.nextInt(400);
+			int viewY = random.nextInt(400);
+			int width = 1 + random.nextInt(1600);
+			int height = 1 + random.nextInt(1000);
+			double zoom = Math.pow(2.0, random.nextDouble() * 8.0 - 5.0); // 1/32 to 8
+			double cameraX = -random.nextDouble() * 6000 + 1000;
+			double cameraY = -random.nextDouble() * 6000 + 1000;
+			int[] entries = snapshot.getEntriesIn(viewX / zoom - cameraX, viewY / zoom - cameraY, (viewX + width) / zoom - cameraX, (viewY + height) / zoom - cameraY, false);
+			boolean[] isFound = new boolean[snapshot.size()];
+			for(int n = 0; n < entries.length; n++) {
+				isFound[entries[n]] = true;
+				if(n > 0 && entries[n] <= entries[n - 1]) unordered++;
+			}
+			int[] paged = snapshot.getEntriesIn(viewX / zoom - cameraX, viewY / zoom - cameraY, (viewX + width) / zoom - cameraX, (viewY + height) / zoom - cameraY, true);
+			int[] sorted = paged.clone();
+			Arrays.sort(sorted);
+			if(!Arrays.equals(sorted, entries)) pageMismatch++;
+			for(int i = 0; i < snapshot.size(); i++) {
+				double x = (snapshot.getX(i) + cameraX) * zoom;
+				double y = (snapshot.getY(i) + cameraY) * zoom;
+				double w = snapshot.getWidth(i) * zoom * snapshot.getRenderScale(i);
+				double h = snapshot.getHeight(i) * zoom * snapshot.getRenderScale(i);
+				boolean isClipped = x + w < viewX || y + h < viewY || x > viewX + width || y > viewY + height; // As WarpedViewport.isClipped()
+				if(isClipped) continue;
+				visible++;
+				if(!isFound[i]) missed++;
+			}
+			found += entries.length;
+		}
+		check("the grid finds every entry that is not clipped in 500 random views (" + missed + " missed, " + found + " found for " + visible + " not clipped)", missed == 0);
+		check("the entries are in member order (" + unordered + " out of order)", unordered == 0);
+		check("the page ordered query finds the same entries (" + pageMismatch + " views differ)", pageMismatch == 0);
+
+		WarpedViewport full = viewport(manager, group, 800, 600, false);
+		WarpedViewport culled = viewport(manager, group, 800, 600, true);
+		WarpedRenderHarness fullHarness = new WarpedRenderHarness(800, 600);
+		fullHarness.addViewport(full);
+		WarpedRenderHarness culledHarness = new WarpedRenderHarness(800, 600);
+		culledHarness.addViewport(culled);
+		int differ = 0;
+		for(int view = 0; view < 20; view++) {
+			double zoom = Math.pow(2.0, random.nextDouble() * 3.5 - 2.0); // 1/4 to below the maximum zoom of a camera
+			double cameraX = -random.nextDouble() * 6000 + 1000;
+			double cameraY = -random.nextDouble() * 6000 + 1000;
+			for(WarpedViewport viewport : new WarpedViewport[] {full, culled}) {
+				viewport.getCamera().setZoom(zoom);
+				viewport.getCamera().setPosition(cameraX, cameraY);
+			}
+			fullHarness.renderFrame();
+			culledHarness.renderFrame();
+			if(WarpedRenderHarness.compare(culledHarness.getTarget(), fullHarness.getTarget(), 0) != 0) differ++;
+		}
+		check("a viewport with culling draws the same pixels as one without (" + differ + " of 20 views differ)", differ == 0);
+
+		WarpedObject target = group.getMember(0);
+		double startX = -target.getPosition().x() - 5000; // Far from the target
+		double startY = -target.getPosition().y() - 5000;
+		for(WarpedViewport viewport : new WarpedViewport[] {full, culled}) {
+			viewport.getCamera().setZoom(1.0);
+			viewport.getCamera().setPosition(startX, startY);
+			viewport.getCamera().trackTarget(target);
+		}
+		fullHarness.renderFrame();
+		culledHarness.renderFrame();
+		VectorD fullPosition = full.getCamera().getPosition();
+		VectorD culledPosition = culled.getCamera().getPosition();
+		check("a camera tracking an object off screen moves to the same position with culling (" + fullPosition.x() + ", " + fullPosition.y() + ")", fullPosition.x() == culledPosition.x() && fullPosition.y() == culledPosition.y() && fullPosition.x() != startX && fullPosition.y() != startY);
+		full.getCamera().stopTracking();
+		culled.getCamera().stopTracking();
+
+		Field hoveredField = WarpedViewport.class.getDeclaredField("hoveredObject");
+		hoveredField.setAccessible(true);
+		Field isHoveredField = WarpedObject.class.getDeclaredField("isHovered");
+		isHoveredField.setAccessible(true);
+		Method dispatch = WarpedViewport.class.getDeclaredMethod("dispatchMouseEvents");
+		dispatch.setAccessible(true);
+		WarpedObject hovered = group.getMember(1);
+		culled.getCamera().setPosition(-hovered.getPosition().x(), -hovered.getPosition().y()); // The object is at the top left of the view
+		hoveredField.set(culled, hovered);
+		isHoveredField.set(hovered, true);
+		culledHarness.renderFrame();
+		dispatch.invoke(culled);
+		check("an object hovered on screen stays hovered", hovered.isHovered() && hoveredField.get(culled) == hovered);
+		culled.getCamera().move(10000, 10000);
+		culledHarness.renderFrame();
+		dispatch.invoke(culled);
+		check("an object hovered that is culled off screen is unhovered", !hovered.isHovered() && hoveredField.get(culled) == null);
+
+		bench(objects, frames, images, random);
+
+		System.out.println(failures == 0 ? "CullingTest passed" : "CullingTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Render objects spread over an area about 20 views wide and high, so most are off screen, with and without culling.*/
+	private static void bench(int objects, int frames, BufferedImage[] images, Random random) {
+		int width = 1920;
+		int height = 1080;
+		WarpedManager<Projectile> manager = new WarpedManager<>("Culling Bench Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Culling Bench Group");
+		for(int i = 0; i < objects; i++) {
+			VectorD position = new VectorD(random.nextDouble() * width * 20, random.nextDouble() * height * 20);
+			group.addMember(new Projectile(images[random.nextInt(images.length)], position, new VectorD(), Integer.MAX_VALUE));
+		}
+		manager.openGroup(group);
+		manager.step(0.0);
+		WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+		WarpedViewport full = viewport(manager, group, width, height, false);
+		WarpedViewport culled = viewport(manager, group, width, height, true);
+		harness.addViewport(full);
+		harness.addViewport(culled);
+		harness.run(Math.max(1, frames / 10), 0.0, manager); // Warm up
+		for(int pass = 0; pass < 2; pass++) {
+			boolean isStepped = pass == 0;
+			harness.reset();
+			if(isStepped) harness.run(frames, 0.0, manager);
+			else harness.run(frames, 0.0); // The same snapshot each frame, its grid is built once
+			System.out.printf("%d objects, about 1 in 400 on screen, %s : every object p50 %.3f ms, p99 %.3f ms | culled p50 %.3f ms, p99 %.3f ms%n", objects, isStepped ? "a new snapshot each frame" : "the same snapshot      ",
+					harness.getPercentile(0, 50.0) / 1e6, harness.getPercentile(0, 99.0) / 1e6, harness.getPercentile(1, 50.0) / 1e6, harness.getPercentile(1, 99.0) / 1e6);
+		}
+	}
+
+	private static WarpedViewport viewport(WarpedManager<Projectile> manager, WarpedGroup<Projectile> group, int width, int height, boolean isCulled) {
+		WarpedViewport viewport = new WarpedViewport(isCulled ? "Culled" : "Full", manager, 0, 0, width, height);
+		viewport.setTargetGroups(group);
+		viewport.setRenderMethod(RenderType.TARGET_GROUPS_TRANSFORMED_SCALED);
+		viewport.hintInterpolationNearestNeighbour();
+		viewport.setCulling(isCulled);
+		return viewport;
+	}
+
+	private static BufferedImage image(Random random, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(new Color(random.nextInt(0xFFFFFF)));
+		g.fillRect(0, 0, width, height);
+		g.dispose();
+		return image;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
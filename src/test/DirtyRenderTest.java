@@ -0,0 +1,181 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedObject;
+import warped.graphics.sprite.spriteSheets.AtlasRegion;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.graphics.window.WarpedViewport.RenderType;
+import warped.utilities.math.vectors.VectorD;
+
+public class DirtyRenderTest {
+
+	/*Checks the areas the DirtyRegionTracker of a viewport asks to redraw : the whole buffer until each of the 3 buffers has been drawn once,
+	 * the old and new area of a moved or hidden object in the frame it changed and the 2 frames after it (the union of the dirty areas of the 3 buffers),
+	 * and the whole buffer again when more than half of the viewport changes.
+	 * Then renders a GUI of overlapping elements with one viewport that redraws every frame and one that only redraws the dirty areas,
+	 * moving, hiding, showing, repainting and swapping the raster of a few elements each frame, moving most of them in some frames and changing nothing in others,
+	 * and checks that every frame of the dirty viewport is pixel identical to the full viewport.
+	 * Then renders a static GUI where one element moves each frame and prints the render time percentiles of each viewport.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [elements] [frames] i.e. 500 600
+	 * */
+
+	private static int failures = 0;
+	private static Method begin;
+	private static Method add;
+	private static Method end;
+
+	public static void main(String[] args) throws ReflectiveOperationException {
+		int elements = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int frames   = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+		Class<?> trackerClass = Class.forName("warped.graphics.window.DirtyRegionTracker"); // Package private, only used by WarpedViewport
+		Constructor<?> constructor = trackerClass.getDeclaredConstructor(int.class, int.class, int.class);
+		constructor.setAccessible(true);
+		begin = trackerClass.getDeclaredMethod("begin", int.class);
+		begin.setAccessible(true);
+		add = trackerClass.getDeclaredMethod("add", WarpedObject.class, BufferedImage.class, AtlasRegion.class, int.class, double.class, double.class, double.class, double.class, boolean.class);
+		add.setAccessible(true);
+		end = trackerClass.getDeclaredMethod("end");
+		end.setAccessible(true);
+		Object tracker = constructor.newInstance(1000, 1000, 3);
+		BufferedImage image = element(new Random(0), 10, 10);
+		Projectile a = new Projectile(image, new VectorD(), new VectorD(), Integer.MAX_VALUE);
+		Projectile b = new Projectile(image, new VectorD(), new VectorD(), Integer.MAX_VALUE);
+		check("the whole buffer is drawn until each buffer has been drawn once", frame(tracker, a, b, 0, true, 10) == null && frame(tracker, a, b, 0, true, 10) == null && frame(tracker, a, b, 0, true, 10) == null);
+		ArrayList<Rectangle> result = frame(tracker, a, b, 0, true, 10);
+		check("nothing is redrawn once every buffer holds the unchanged frame", result != null && result.isEmpty());
+		boolean isCovered = true;
+		for(int i = 0; i < 3; i++) {
+			result = frame(tracker, a, b, 20, true, 10);
+			if(result == null || !covers(result, new Rectangle(0, 0, 10, 10)) || !covers(result, new Rectangle(20, 0, 10, 10)) || covers(result, new Rectangle(500, 500, 10, 10))) isCovered = false;
+		}
+		check("the old and new area of a moved object are redrawn in each of the 3 buffers and nothing else is", isCovered);
+		check("the moved object is not redrawn once every buffer holds it", frame(tracker, a, b, 20, true, 10).isEmpty());
+		isCovered = true;
+		for(int i = 0; i < 3; i++) {
+			result = frame(tracker, a, b, 20, false, 10);
+			if(result == null || !covers(result, new Rectangle(20, 0, 10, 10))) isCovered = false;
+		}
+		check("the area of a hidden object is redrawn in each of the 3 buffers", isCovered && frame(tracker, a, b, 20, false, 10).isEmpty());
+		check("the area of a shown object is redrawn", covers(frame(tracker, a, b, 20, true, 10), new Rectangle(20, 0, 10, 10)));
+		frame(tracker, a, b, 20, true, 10);
+		frame(tracker, a, b, 20, true, 10);
+		boolean isFull = frame(tracker, a, b, 20, true, 800) == null;
+		isFull &= frame(tracker, a, b, 20, true, 800) == null && frame(tracker, a, b, 20, true, 800) == null;
+		check("the whole buffer is drawn in each of the 3 buffers when more than half of the viewport changes", isFull && frame(tracker, a, b, 20, true, 800).isEmpty());
+
+		int width = 1280;
+		int height = 720;
+		Random random = new Random(3); // Seeded so every run renders the same GUI and changes
+		BufferedImage[] images = new BufferedImage[16];
+		for(int i = 0; i < images.length; i++) images[i] = element(random, 24 + random.nextInt(80), 16 + random.nextInt(32));
+		WarpedManager<Projectile> manager = new WarpedManager<>("GUI Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("GUI Group");
+		ArrayList<Projectile> members = new ArrayList<>();
+		for(int i = 0; i < elements; i++) {
+			VectorD position = new VectorD(random.nextInt(width - 64), random.nextInt(height - 32));
+			Projectile member = new Projectile(images[random.nextInt(images.length)], position, new VectorD(), Integer.MAX_VALUE);
+			group.addMember(member);
+			members.add(member);
+		}
+		manager.openGroup(group);
+		WarpedRenderHarness full = harness(manager, group, width, height, false);
+		WarpedRenderHarness dirty = harness(manager, group, width, height, true);
+
+		int differ = 0;
+		int worst = 0;
+		for(int frame = 0; frame < frames; frame++) {
+			int phase = frame % 10;
+			if(frame % 29 == 0) { // Most of the GUI, a full redraw
+				for(Projectile member : members) if(random.nextDouble() < 0.6) member.move(random.nextInt(9) - 4, random.nextInt(9) - 4);
+			} else if(phase < 6) {
+				for(int i = random.nextInt(4); i > 0; i--) members.get(random.nextInt(elements)).move(random.nextInt(41) - 20, random.nextInt(41) - 20);
+				if(phase == 1) members.get(random.nextInt(elements)).toggleVisibility();
+				if(phase == 2) members.get(random.nextInt(elements)).getSprite().paint(images[random.nextInt(images.length)]); // Same size, new pixels
+				if(phase == 3) members.get(random.nextInt(elements)).getSprite().setRasterSized(images[random.nextInt(images.length)]); // New raster and size
+			} // Phases 6 to 9 change nothing so the change is drawn into each buffer in turn
+			manager.step(0.0);
+			full.renderFrame();
+			dirty.renderFrame();
+			int count = WarpedRenderHarness.compare(dirty.getTarget(), full.getTarget(), 0);
+			if(count != 0) differ++;
+			worst = Math.max(worst, count);
+		}
+		check("every frame drawn with dirty rendering is pixel identical to the full redraw (" + differ + " of " + frames + " frames differ, worst " + worst + " pixels)", differ == 0);
+
+		Projectile moving = members.get(0);
+		for(int pass = 0; pass < 2; pass++) { // Warm up, then time
+			full.reset();
+			dirty.reset();
+			for(int frame = 0; frame < (pass == 0 ? frames / 10 : frames); frame++) {
+				moving.setPosition(100 + frame % 200, 100);
+				manager.step(0.0);
+				full.renderFrame();
+				dirty.renderFrame();
+			}
+		}
+		System.out.printf("static GUI of %d elements, 1 moving : full redraw p50 %.3f ms, p99 %.3f ms | dirty rendering p50 %.3f ms, p99 %.3f ms%n", elements,
+				full.getPercentile(0, 50.0) / 1e6, full.getPercentile(0, 99.0) / 1e6, dirty.getPercentile(0, 50.0) / 1e6, dirty.getPercentile(0, 99.0) / 1e6);
+
+		System.out.println(failures == 0 ? "DirtyRenderTest passed" : "DirtyRenderTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Record a frame of two objects in the tracker, a at (x, 0) and b at (500, 500).
+	 * @return ArrayList<Rectangle> - the areas to redraw, null if the whole buffer is redrawn.*/
+	@SuppressWarnings("unchecked")
+	private static ArrayList<Rectangle> frame(Object tracker, Projectile a, Projectile b, int x, boolean isVisible, int bSize) throws ReflectiveOperationException {
+		begin.invoke(tracker, 0);
+		add.invoke(tracker, a, a.raster(), null, 0, (double)x, 0.0, 10.0, 10.0, isVisible);
+		add.invoke(tracker, b, b.raster(), null, 0, 500.0 - bSize / 2, 500.0 - bSize / 2, (double)bSize, (double)bSize, true);
+		return (ArrayList<Rectangle>)end.invoke(tracker);
+	}
+
+	private static boolean covers(ArrayList<Rectangle> rects, Rectangle area) {
+		for(Rectangle rect : rects) if(rect.contains(area)) return true;
+		return false;
+	}
+
+	private static WarpedRenderHarness harness(WarpedManager<Projectile> manager, WarpedGroup<Projectile> group, int width, int height, boolean isDirty) {
+		WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+		WarpedViewport viewport = new WarpedViewport(isDirty ? "Dirty" : "Full", manager, 0, 0, width, height);
+		viewport.setTargetGroups(group);
+		viewport.setRenderMethod(RenderType.TARGET_GROUPS);
+		viewport.setDirtyRendering(isDirty);
+		harness.addViewport(viewport);
+		return harness;
+	}
+
+	/**A button like element, a translucent panel with an opaque border.*/
+	private static BufferedImage element(Random random, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256), 96 + random.nextInt(160)));
+		g.fillRect(0, 0, width, height);
+		g.setColor(new Color(random.nextInt(0xFFFFFF)));
+		g.drawRect(0, 0, width - 1, height - 1);
+		g.dispose();
+		return image;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,94 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.util.Random;
+
+import warped.utilities.math.vectors.VectorI;
+import warped.utilities.utils.path.FlowField;
+import warped.utilities.utils.path.UtilsPath;
+import warped.utilities.utils.path.WarpedPath;
+import warped.utilities.utils.path.WarpedPathNode;
+
+public class FlowFieldTest {
+
+	/*Checks that the flow of every reachable coordinate of a random roughness map leads to the goal, and that the cost of the field matches the cost of the paths found by UtilsPath.
+	 * Then times finding a path for each agent with A* against setting the goal of one shared flow field and looking up the direction of each agent.
+	 * Prints each check and the times, exits with 1 if any check failed.
+	 * args : [agents] [size] i.e. 1000 256
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		int agents = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int size   = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+		Random random = new Random(7); // Seeded so every run uses the same map
+		VectorI mapDim = new VectorI(size, size);
+		double[] map = new double[size * size];
+		for(int i = 0; i < map.length; i++) map[i] = random.nextDouble() < 0.2 ? 0.0 : 0.5 + random.nextDouble() * 3.0;
+		VectorI goal = new VectorI(size / 2, size / 2);
+		map[goal.x() + goal.y() * size] = 1.0;
+
+		for(boolean isDiagonal : new boolean[] {true, false}) {
+			FlowField field = new FlowField(map, mapDim, isDiagonal);
+			field.setGoal(goal);
+			int broken = 0;
+			for(int y = 0; y < size; y++) {
+				for(int x = 0; x < size; x++) {
+					if(field.isReachable(x, y) && !isLeadingToGoal(field, x, y)) broken++;
+				}
+			}
+			check((isDiagonal ? "diagonal" : "straight") + " flow of all " + field.getReachableCount() + " reachable coordinates leads to the goal", broken == 0);
+		}
+
+		FlowField field = new FlowField(map, mapDim, false);
+		field.setGoal(goal);
+		VectorI[] starts = new VectorI[agents];
+		for(int i = 0; i < agents; i++) {
+			do starts[i] = new VectorI(random.nextInt(size), random.nextInt(size));
+			while(!field.isReachable(starts[i].x(), starts[i].y()));
+		}
+		int mismatches = 0;
+		long pathTime = 0;
+		for(int i = 0; i < agents; i++) {
+			long startTime = System.nanoTime();
+			WarpedPath path = UtilsPath.findPathNoDiagonal(map, mapDim, starts[i], goal);
+			pathTime += System.nanoTime() - startTime;
+			double cost = 0.0;
+			if(path != null) for(WarpedPathNode node : path.getNodes()) cost = Math.max(cost, node.gCost);
+			double expected = field.getCost(starts[i].x(), starts[i].y());
+			if(path == null || Math.abs(cost - expected) > 1e-3 * Math.max(1.0, expected)) mismatches++;
+		}
+		check("field cost matches the A* path cost for " + agents + " agents", mismatches == 0);
+
+		long startTime = System.nanoTime();
+		FlowField shared = new FlowField(map, mapDim, false);
+		shared.setGoal(goal);
+		long lookups = 0;
+		for(int i = 0; i < agents; i++) lookups += shared.getFlowX(starts[i].x(), starts[i].y()) + shared.getFlowY(starts[i].x(), starts[i].y());
+		long fieldTime = System.nanoTime() - startTime;
+		System.out.printf("%d agents on %dx%d : A* per agent %.3f ms | shared flow field %.3f ms (%d)%n", agents, size, size, pathTime / 1e6, fieldTime / 1e6, lookups);
+
+		System.out.println(failures == 0 ? "FlowFieldTest passed" : "FlowFieldTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Follow the flow from a coordinate, every step must be to a cheaper reachable coordinate and the goal must be reached.*/
+	private static boolean isLeadingToGoal(FlowField field, int x, int y) {
+		for(int steps = 0; steps <= field.getReachableCount(); steps++) {
+			if(field.isGoal(x, y)) return true;
+			int nx = x + field.getFlowX(x, y);
+			int ny = y + field.getFlowY(x, y);
+			if(!field.isReachable(nx, ny) || field.getCost(nx, ny) >= field.getCost(x, y)) return false;
+			x = nx;
+			y = ny;
+		}
+		return false;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,117 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedObjectIdentity;
+import warped.application.state.WarpedVoidObject;
+
+public class GroupChurnTest {
+
+	/*Adds and removes members of a group at random and checks that the slot map stays consistent and that every removed identity is detected as stale.
+	 * Then kills and removes members while the group updates, and checks that every live member in the group when the update starts is updated exactly once.
+	 * Prints each check and the time taken by the churn, exits with 1 if any check failed.
+	 * args : [operations] i.e. 1000000
+	 * */
+
+	private static int failures = 0;
+
+	private static class ChurnObject extends WarpedVoidObject {
+		private int updateCount = 0;
+		private WarpedGroup<ChurnObject> group;
+		private WarpedObjectIdentity removeOnUpdate; //Another member to remove when this member updates, null if none
+		public void updateObject() {
+			updateCount++;
+			if(removeOnUpdate != null) group.removeMember(removeOnUpdate);
+		}
+	}
+
+	public static void main(String[] args) {
+		int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		WarpedManager<ChurnObject> manager = new WarpedManager<>("Churn Manager");
+		WarpedGroup<ChurnObject> group = manager.addGroup("Churn Group");
+		group.setTransformStore(true);
+		Random random = new Random(9); // Seeded so every run makes the same operations
+
+		ArrayList<WarpedObjectIdentity> live = new ArrayList<>();
+		ArrayList<WarpedObjectIdentity> removed = new ArrayList<>();
+		IdentityHashMap<WarpedObjectIdentity, ChurnObject> expected = new IdentityHashMap<>();
+		long churnTime = 0; // Only the group operations, constructing the members is not timed
+		for(int i = 0; i < operations; i++) {
+			if(live.isEmpty() || random.nextInt(100) < 52) {
+				ChurnObject member = new ChurnObject();
+				member.setPosition(i, -i);
+				long startTime = System.nanoTime();
+				WarpedObjectIdentity id = group.addMember(member);
+				churnTime += System.nanoTime() - startTime;
+				live.add(id);
+				expected.put(id, member);
+			} else {
+				int k = random.nextInt(live.size());
+				WarpedObjectIdentity id = live.get(k);
+				live.set(k, live.get(live.size() - 1));
+				live.remove(live.size() - 1);
+				long startTime = System.nanoTime();
+				group.removeMember(id);
+				churnTime += System.nanoTime() - startTime;
+				removed.add(id);
+				expected.remove(id);
+			}
+		}
+		System.out.printf("%,d add and remove operations in %.1f ms, %,d members remain%n", operations, churnTime / 1e6, group.size());
+
+		boolean isConsistent = group.size() == live.size();
+		for(int i = 0; i < live.size() && isConsistent; i++) {
+			WarpedObjectIdentity id = live.get(i);
+			ChurnObject member = group.getMember(id);
+			if(member != expected.get(id) || member.getObjectID() != id || group.getMember(id.getMemberIndex()) != member || member.x() != member.getPosition().x()) isConsistent = false;
+		}
+		check("every live identity finds its member after the churn", isConsistent);
+		int stale = 0;
+		for(int i = 0; i < removed.size(); i++) if(!group.isMember(removed.get(i))) stale++;
+		check("every removed identity is stale (" + stale + " of " + removed.size() + ")", stale == removed.size());
+
+		ArrayList<ChurnObject> present = new ArrayList<>(group.getMembers());
+		int alive = 0;
+		for(int i = 0; i < present.size(); i++) {
+			ChurnObject member = present.get(i);
+			member.group = group;
+			if(i % 2 == 0) member.kill();
+			else alive++;
+			if(i % 7 == 0 && i + 1 < present.size()) member.removeOnUpdate = present.get(i + 1).getObjectID(); // Removes a member that has not updated yet
+		}
+		manager.openGroup(group);
+		manager.step(0.0);
+		int missed = 0;
+		for(int i = 0; i < present.size(); i++) if(present.get(i).updateCount != (i % 2 == 0 ? 0 : 1)) missed++; // Dead members are removed instead of updated
+		check("every live member in the group when the update starts is updated exactly once (" + missed + " missed)", missed == 0);
+		boolean isRemoved = true;
+		for(int i = 0; i < present.size(); i++) {
+			ChurnObject member = present.get(i);
+			boolean isRemovedByMember = i > 0 && (i - 1) % 7 == 0 && (i - 1) % 2 == 1;
+			boolean isKept = member.isAlive() && !isRemovedByMember;
+			if(group.isMember(member.getObjectID()) != isKept) isRemoved = false;
+		}
+		check("dead members and members removed during the update are removed after it (" + alive + " were alive)", isRemoved);
+
+		int size = group.size();
+		int[] visited = new int[1];
+		group.forEach(member -> {
+			if(visited[0]++ % 3 == 0) group.removeMember(member.getObjectID());
+		});
+		check("forEach visits every member when members remove themselves", visited[0] == size && group.size() == size - (size + 2) / 3);
+
+		System.out.println(failures == 0 ? "GroupChurnTest passed" : "GroupChurnTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,193 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.util.List;
+import java.util.Random;
+
+import warped.utilities.math.vectors.VectorI;
+import warped.utilities.utils.path.HierarchicalPath;
+import warped.utilities.utils.path.HierarchicalPathfinder;
+import warped.utilities.utils.path.UtilsPath;
+import warped.utilities.utils.path.WarpedPath;
+import warped.utilities.utils.path.WarpedPathNode;
+
+public class HierarchicalPathTest {
+
+	/*Compares the paths found by a HierarchicalPathfinder with the optimal paths found by UtilsPath A* on seeded random maps of open ground, blocked coordinates and walls,
+	 * with and without diagonal movement. Between each batch of searches coordinates are changed with setPassable(), including coordinates on the cluster borders.
+	 * Checks that a path is found exactly when A* finds one, that every refined path steps between neighbouring passable coordinates from the start to the goal at the cost it reports,
+	 * and that every path is within the bound stated by HierarchicalPathfinder : no more than MAX_COST_RATIO times the optimal cost plus MAX_COST_EXCESS.
+	 * Prints the average and worst cost against the optimal cost.
+	 * Run with bench as the first argument to time building a 2048x2048 map and finding paths across it against A*.
+	 * args : [maps] [size] i.e. 40 128 | bench [size] [paths] i.e. bench 2048 50
+	 * */
+
+	private static final double MAX_COST_RATIO = 1.5;
+	private static final double MAX_COST_EXCESS = 8.0;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		if(args.length > 0 && args[0].equals("bench")) {
+			bench(args.length > 1 ? Integer.parseInt(args[1]) : 2048, args.length > 2 ? Integer.parseInt(args[2]) : 50);
+			return;
+		}
+		int maps = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+		Random random = new Random(11); // Seeded so every run searches the same maps
+		VectorI mapDim = new VectorI(size, size);
+
+		for(boolean isDiagonal : new boolean[] {true, false}) {
+			String name = isDiagonal ? "diagonal" : "straight";
+			int searches = 0;
+			int found = 0;
+			int reachMismatches = 0;
+			int brokenPaths = 0;
+			int outOfBound = 0;
+			double ratioSum = 0.0;
+			double worstRatio = 1.0;
+			double worstExcess = 0.0;
+			for(int m = 0; m < maps; m++) {
+				boolean[] map = generateMap(random, size);
+				HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(map, mapDim, HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE, isDiagonal);
+				for(int batch = 0; batch < 4; batch++) {
+					if(batch > 0) {
+						for(int i = 0; i < 40; i++) {
+							int x = random.nextInt(size);
+							int y = i % 2 == 0 ? (random.nextInt(size / 16) * 16 + (random.nextBoolean() ? 0 : 15)) % size : random.nextInt(size); // Half on a cluster border
+							pathfinder.setPassable(x, y, random.nextDouble() > 0.3);
+						}
+					}
+					for(int p = 0; p < 10; p++) {
+						VectorI start = randomOpen(random, map, size);
+						VectorI goal = randomOpen(random, map, size);
+						WarpedPath optimal = isDiagonal ? UtilsPath.findPath(map, mapDim, start, goal) : UtilsPath.findPathNoDiagonal(map, mapDim, start, goal);
+						HierarchicalPath path = pathfinder.findPath(start, goal);
+						searches++;
+						if((optimal == null) != (path == null)) {
+							reachMismatches++;
+							continue;
+						}
+						if(path == null) continue;
+						found++;
+						path.refineAll();
+						if(!isValid(path, map, size, start, goal, isDiagonal)) brokenPaths++;
+						double optimalCost = getCost(optimal);
+						double cost = path.getCost();
+						if(cost > optimalCost * MAX_COST_RATIO + MAX_COST_EXCESS || cost < optimalCost - 1e-3) outOfBound++;
+						double ratio = optimalCost > 0.0 ? cost / optimalCost : 1.0;
+						ratioSum += ratio;
+						worstRatio = Math.max(worstRatio, ratio);
+						worstExcess = Math.max(worstExcess, cost - optimalCost);
+					}
+				}
+			}
+			System.out.printf("%s : %d paths found of %d searches, cost on average %.2f%% over the optimal cost, worst %.1f%% and %.2f over%n", name, found, searches, (ratioSum / Math.max(1, found) - 1.0) * 100.0, (worstRatio - 1.0) * 100.0, worstExcess);
+			check(name + " finds a path exactly when A* finds one (" + reachMismatches + " differ)", reachMismatches == 0);
+			check(name + " refined paths step between neighbouring passable coordinates at the cost of the path (" + brokenPaths + " broken)", brokenPaths == 0);
+			check(name + " paths are within " + MAX_COST_RATIO + " times the optimal cost plus " + MAX_COST_EXCESS + " (" + outOfBound + " outside)", outOfBound == 0);
+		}
+
+		System.out.println(failures == 0 ? "HierarchicalPathTest passed" : "HierarchicalPathTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Time building a large map and finding paths across it with the pathfinder and with A*.*/
+	private static void bench(int size, int paths) {
+		Random random = new Random(13); // Seeded so every run times the same paths
+		VectorI mapDim = new VectorI(size, size);
+		boolean[] map = generateMap(random, size);
+		long startTime = System.nanoTime();
+		HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(map, mapDim);
+		System.out.printf("built %dx%d in %d ms : %d clusters, %d entrances%n", size, size, (System.nanoTime() - startTime) / 1000000, pathfinder.getClusterCount(), pathfinder.getEntranceCount());
+		VectorI[] starts = new VectorI[paths];
+		VectorI[] goals = new VectorI[paths];
+		for(int i = 0; i < paths; i++) {
+			starts[i] = randomOpen(random, map, size);
+			goals[i] = randomOpen(random, map, size);
+		}
+		long hierarchicalTime = 0;
+		long refineTime = 0;
+		long optimalTime = 0;
+		double hierarchicalCost = 0.0;
+		double optimalCost = 0.0;
+		for(int i = 0; i < paths; i++) {
+			startTime = System.nanoTime();
+			HierarchicalPath path = pathfinder.findPath(starts[i], goals[i]);
+			hierarchicalTime += System.nanoTime() - startTime;
+			startTime = System.nanoTime();
+			if(path != null) path.refineAll();
+			refineTime += System.nanoTime() - startTime;
+			startTime = System.nanoTime();
+			WarpedPath optimal = UtilsPath.findPath(map, mapDim, starts[i], goals[i]);
+			optimalTime += System.nanoTime() - startTime;
+			if(path != null && optimal != null) {
+				hierarchicalCost += path.getCost();
+				optimalCost += getCost(optimal);
+			}
+		}
+		startTime = System.nanoTime();
+		for(int i = 0; i < 1000; i++) pathfinder.setPassable(random.nextInt(size), random.nextInt(size), random.nextBoolean());
+		long editTime = System.nanoTime() - startTime;
+		System.out.printf("%d paths : hierarchical %.3f ms per path (%.3f ms more to refine all of it) | A* %.3f ms per path | cost %.2f%% over the optimal cost | setPassable %.1f us%n",
+				paths, hierarchicalTime / 1e6 / paths, refineTime / 1e6 / paths, optimalTime / 1e6 / paths, (hierarchicalCost / optimalCost - 1.0) * 100.0, editTime / 1e3 / 1000);
+	}
+
+	/**Open ground with a quarter of the coordinates blocked and walls with gaps in them.*/
+	private static boolean[] generateMap(Random random, int size) {
+		boolean[] map = new boolean[size * size];
+		for(int i = 0; i < map.length; i++) map[i] = random.nextDouble() > 0.25;
+		for(int wall = 0; wall < size / 8; wall++) {
+			boolean isHorizontal = random.nextBoolean();
+			int line = random.nextInt(size);
+			int from = random.nextInt(size);
+			int length = size / 4 + random.nextInt(size / 2);
+			for(int i = from; i < Math.min(size, from + length); i++) {
+				if(random.nextDouble() < 0.05) continue; // A gap
+				map[isHorizontal ? i + line * size : line + i * size] = false;
+			}
+		}
+		return map;
+	}
+
+	private static VectorI randomOpen(Random random, boolean[] map, int size) {
+		while(true) {
+			int x = random.nextInt(size);
+			int y = random.nextInt(size);
+			if(map[x + y * size]) return new VectorI(x, y);
+		}
+	}
+
+	/**Does the path start at the start, end at the goal and only step to neighbouring passable coordinates, with the cost of the last node equal to the cost of the path.*/
+	private static boolean isValid(HierarchicalPath path, boolean[] map, int size, VectorI start, VectorI goal, boolean isDiagonal) {
+		List<WarpedPathNode> nodes = path.getNodes();
+		int previousX = start.x();
+		int previousY = start.y();
+		double cost = 0.0;
+		for(int i = nodes.size() - 1; i >= 0; i--) { // Nodes are ordered from the goal back to the start
+			VectorI coord = nodes.get(i).coord;
+			int dx = Math.abs(coord.x() - previousX);
+			int dy = Math.abs(coord.y() - previousY);
+			if(i == nodes.size() - 1 && dx == 0 && dy == 0) continue; // The start node
+			if(!map[coord.x() + coord.y() * size]) return false;
+			if(isDiagonal ? (dx > 1 || dy > 1 || dx + dy == 0) : dx + dy != 1) return false;
+			cost += dx + dy == 2 ? Math.sqrt(2.0) : 1.0;
+			previousX = coord.x();
+			previousY = coord.y();
+		}
+		return previousX == goal.x() && previousY == goal.y() && Math.abs(cost - path.getCost()) <= 1e-3 * Math.max(1.0, cost);
+	}
+
+	/**The cost of a path is the g cost of its most expensive node (the goal).*/
+	private static double getCost(WarpedPath path) {
+		double cost = 0.0;
+		for(WarpedPathNode node : path.getNodes()) cost = Math.max(cost, node.gCost);
+		return cost;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,67 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import warped.utilities.timers.WarpedLoop;
+import warped.utilities.timers.WarpedLoopTask;
+import warped.utilities.timers.WarpedManualClock;
+
+public class LoopTest {
+
+	/*Steps a WarpedLoop with a manual clock and checks the update order and update rate of its tasks, then checks that a running loop can be cancelled and stopped.
+	 * Prints each check and exits with 1 if any check failed.
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		WarpedManualClock clock = new WarpedManualClock();
+		WarpedLoop loop = new WarpedLoop("Test Loop", clock);
+		StringBuilder order = new StringBuilder();
+		WarpedLoopTask fast = new WarpedLoopTask() {public void run() {order.append('f');}};
+		WarpedLoopTask slow = new WarpedLoopTask() {public void run() {order.append('s');}};
+		loop.schedule(fast, 4);
+		loop.schedule(slow, 16);
+
+		loop.update();
+		check("first update runs each task once in scheduled order", order.toString().equals("fs"));
+		for(int i = 0; i < 1000; i++) {
+			clock.advanceMillis(1);
+			loop.update();
+		}
+		check("4ms task runs 250 times a second", fast.getUpdateCount() == 251);
+		check("16ms task runs 62 times a second", slow.getUpdateCount() == 63);
+		check("fast task runs before slow task when both are due", order.substring(0, 7).equals("fsffffs"));
+
+		clock.advanceMillis(40);
+		loop.update();
+		check("a stalled task catches up by at most 5 steps", fast.getUpdateCount() == 256 && fast.getDroppedCount() == 5);
+
+		slow.cancel();
+		clock.advanceMillis(4);
+		loop.update();
+		check("a cancelled task is removed at the next update", loop.getTaskCount() == 1);
+
+		WarpedLoop running = new WarpedLoop("Running Loop");
+		WarpedLoopTask counter = new WarpedLoopTask() {public void run() {}};
+		running.schedule(counter, 1);
+		running.start();
+		while(counter.getUpdateCount() < 10) Thread.onSpinWait();
+		running.cancelTasks();
+		while(running.getTaskCount() > 0) Thread.onSpinWait();
+		check("cancelTasks() cancels the tasks of a running loop", counter.isCancelled());
+		running.stop();
+		check("stop() waits for the loop thread to exit", !running.isRunning());
+		running.start();
+		check("a stopped loop can be started again", running.isRunning());
+		running.stop();
+
+		System.out.println(failures == 0 ? "LoopTest passed" : "LoopTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,115 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.graphics.sprite.Mipmap;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.graphics.window.WarpedViewport.RenderType;
+import warped.utilities.math.vectors.VectorD;
+
+public class MipmapTest {
+
+	/*Checks the levels of a Mipmap of an image with an odd width and height (5x3 to 3x2 to 2x1 to 1x1), the premultiplied alpha average of a block against values worked out by hand,
+	 * including the blocks on the last column and row that repeat the edge pixel, that getLevelFor() picks the level closest to the drawn scale and that Mipmap.of() caches by image.
+	 * Then renders 20k sprites at zoom 0.125 without mipmapping, with mipmapping and with mipmapping drawn with nearest neighbour interpolation, and prints the render time percentiles of each.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [sprites] [frames] i.e. 20000 100
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int frames  = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+		BufferedImage image = new BufferedImage(5, 3, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		image.setRGB(0, 0, 0xFFFF0000); // Opaque red
+		image.setRGB(1, 0, 0x0000FF00); // Transparent green, adds nothing
+		image.setRGB(0, 1, 0x800000FF); // Half transparent blue
+		image.setRGB(1, 1, 0x00000000);
+		image.setRGB(4, 0, 0xFF0A141E); // (10, 20, 30)
+		image.setRGB(4, 1, 0xFF1E2832); // (30, 40, 50)
+		image.setRGB(0, 2, 0x40FFFFFF); // A quarter opaque white
+		image.setRGB(1, 2, 0xC0000000); // Three quarters opaque black
+		Mipmap mipmap = new Mipmap(image);
+		check("an odd sized image has a level for each halving down to 1x1", mipmap.getLevelCount() == 4);
+		check("the levels round up to 3x2, 2x1 and 1x1", isSize(mipmap.getLevel(1), 3, 2) && isSize(mipmap.getLevel(2), 2, 1) && isSize(mipmap.getLevel(3), 1, 1));
+		BufferedImage level = mipmap.getLevel(1);
+		// Alpha 255 + 0 + 128 + 0 = 383 -> 383 / 4 = 96, red 255 * 255 / 383 = 170, blue 128 * 255 / 383 = 85, rounded to nearest
+		check(String.format("a block is averaged with premultiplied alpha (%08X)", level.getRGB(0, 0)), level.getRGB(0, 0) == 0x60AA0055);
+		// The last column repeats x = 4 : red (10 + 10 + 30 + 30) / 4 = 20, green 30, blue 40
+		check(String.format("a block on the last column repeats the edge pixel (%08X)", level.getRGB(2, 0)), level.getRGB(2, 0) == 0xFF141E28);
+		// The last row repeats y = 2 : alpha (64 + 192) * 2 / 4 = 128, white is 128 of the 512 alpha so 255 * 128 / 512 = 64, without premultiplying it would be 128
+		check(String.format("a block on the last row repeats the edge pixel and is weighted by alpha (%08X)", level.getRGB(0, 1)), level.getRGB(0, 1) == 0x80404040);
+		BufferedImage blank = new BufferedImage(4, 4, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		blank.setRGB(0, 0, 0x00FFFFFF);
+		check("a block of transparent pixels averages to 0", new Mipmap(blank).getLevel(1).getRGB(0, 0) == 0);
+
+		check("scale 1 and above draw the image", mipmap.getLevelFor(1.0) == image && mipmap.getLevelFor(3.0) == image);
+		check("scale 0.75 is closer to the image than to level 1", mipmap.getLevelFor(0.75) == image);
+		check("scale 0.5 draws level 1", mipmap.getLevelFor(0.5) == mipmap.getLevel(1));
+		check("scale 0.3 is closer to level 2 than level 1", mipmap.getLevelFor(0.3) == mipmap.getLevel(2));
+		check("scale 0.25 draws level 2", mipmap.getLevelFor(0.25) == mipmap.getLevel(2));
+		check("a scale below the last level draws the last level", mipmap.getLevelFor(0.01) == mipmap.getLevel(3));
+		check("Mipmap.of() returns the same mipmap for the same image", Mipmap.of(image) == Mipmap.of(image) && Mipmap.of(image) != Mipmap.of(blank));
+
+		Random random = new Random(23); // Seeded so every run renders the same scene
+		BufferedImage[] images = new BufferedImage[8];
+		for(int i = 0; i < images.length; i++) {
+			images[i] = new BufferedImage(64, 64, WarpedProperties.BUFFERED_IMAGE_TYPE);
+			Graphics2D g = images[i].createGraphics();
+			g.setColor(new Color(random.nextInt(0xFFFFFF)));
+			g.fillOval(0, 0, 64, 64);
+			g.setColor(new Color(random.nextInt(0xFFFFFF)));
+			for(int k = 0; k < 64; k += 4) g.drawLine(k, 0, 64 - k, 64);
+			g.dispose();
+		}
+		int width = 1920;
+		int height = 1080;
+		double zoom = 0.125;
+		WarpedManager<Projectile> manager = new WarpedManager<>("Mipmap Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Mipmap Group");
+		for(int i = 0; i < sprites; i++) {
+			VectorD position = new VectorD(random.nextDouble() * width / zoom, random.nextDouble() * height / zoom);
+			group.addMember(new Projectile(images[random.nextInt(images.length)], position, new VectorD(), Integer.MAX_VALUE));
+		}
+		manager.openGroup(group);
+		manager.step(0.0);
+		WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+		String[] names = {"Scaled", "Mipmapped", "Mipmapped Nearest"};
+		for(int mode = 0; mode < names.length; mode++) {
+			WarpedViewport viewport = new WarpedViewport(names[mode], manager, 0, 0, width, height);
+			viewport.setTargetGroups(group);
+			viewport.setRenderMethod(RenderType.TARGET_GROUPS_TRANSFORMED_SCALED);
+			viewport.getCamera().setZoom(zoom);
+			viewport.setMipmapping(mode > 0);
+			viewport.setMipmapNearest(mode == 2);
+			harness.addViewport(viewport);
+		}
+		harness.run(Math.max(1, frames / 10), 0.0, manager); // Warm up, the levels are generated in the first frame
+		harness.reset();
+		harness.run(frames, 0.0, manager);
+		System.out.printf("%d sprites of 64x64 at zoom %.3f%n", sprites, zoom);
+		harness.printReport();
+
+		System.out.println(failures == 0 ? "MipmapTest passed" : "MipmapTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	private static boolean isSize(BufferedImage image, int width, int height) {return image.getWidth() == width && image.getHeight() == height;}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,181 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import warped.audio.WarpedAudioClip;
+import warped.audio.WarpedAudioMixer;
+import warped.audio.WarpedAudioMixer.Voice;
+import warped.audio.WarpedSound;
+
+public class MixerTest {
+
+	/*Mixes constant sounds into a stream instead of an audio line and checks the mixed samples : summing, gain, pan, clipping, sounds finishing part way through a buffer,
+	 * looping, voice stealing by priority, fading in and out, decoding a wav file to the mixer format and playing a WarpedAudioClip through the mixer.
+	 * Then prints the time taken to mix a 512 frame buffer with 8, 32 and 128 voices, against the 11.6 ms the buffer lasts.
+	 * Needs no audio device, run from the project folder so the framework audio files are found.
+	 * Prints each check and exits with 1 if any check failed.
+	 * args : [buffers] i.e. 2000
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws Exception {
+		int buffers = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		WarpedAudioMixer mixer = new WarpedAudioMixer(stream, 4, 64);
+
+		mixer.play(constant(1000, 1000));
+		mixer.play(constant(1000, 2000), 0.5, 0.0, 0, false);
+		mixer.mixBuffer();
+		short[] out = samples(stream);
+		check("voices are summed with their gain", out[0] == 2000 && out[1] == 2000);
+		clear(mixer, stream);
+
+		Voice panned = mixer.play(constant(1000, 1000), 1.0, 1.0, 0, false);
+		mixer.mixBuffer();
+		out = samples(stream);
+		check("a voice panned right only plays on the right", out[0] == 0 && out[1] == 1000);
+		panned.setPan(-0.5);
+		stream.reset();
+		mixer.mixBuffer();
+		out = samples(stream);
+		check("a voice panned half left plays at half volume on the right", out[0] == 1000 && out[1] == 500);
+		clear(mixer, stream);
+
+		mixer.play(constant(1000, 30000));
+		mixer.play(constant(1000, 30000));
+		mixer.mixBuffer();
+		check("the mix is clipped to the sample range", samples(stream)[0] == Short.MAX_VALUE);
+		clear(mixer, stream);
+
+		Voice finishing = mixer.play(constant(10, 1000));
+		mixer.mixBuffer();
+		out = samples(stream);
+		check("a sound that ends part way through a buffer is silent after its last frame", out[18] == 1000 && out[20] == 0);
+		check("a finished voice is removed", finishing.isFinished() && !finishing.isPlaying() && mixer.getVoiceCount() == 0);
+		stream.reset();
+		Voice looping = mixer.play(constant(10, 1000), 1.0, 0.0, 0, true);
+		mixer.mixBuffer();
+		out = samples(stream);
+		check("a looping sound repeats through the buffer", out[20] == 1000 && out[126] == 1000 && looping.isPlaying());
+		looping.stop();
+		mixer.mixBuffer();
+		check("a stopped voice stops at the next buffer without finishing", !looping.isPlaying() && !looping.isFinished());
+		clear(mixer, stream);
+
+		mixer.setVoiceLimit(2);
+		Voice low = mixer.play(constant(100000, 1), 1.0, 0.0, 0, true);
+		Voice high = mixer.play(constant(100000, 1), 1.0, 0.0, 5, true);
+		mixer.mixBuffer();
+		Voice stealing = mixer.play(constant(100000, 1), 1.0, 0.0, 0, true);
+		mixer.mixBuffer();
+		check("a new voice steals the oldest voice of the lowest priority at the voice limit", !low.isPlaying() && high.isPlaying() && stealing.isPlaying() && mixer.getStolenCount() == 1);
+		Voice rejected = mixer.play(constant(100000, 1), 1.0, 0.0, -1, true);
+		mixer.mixBuffer();
+		check("a voice with a lower priority than every playing voice is not played", !rejected.isPlaying() && stealing.isPlaying() && mixer.getVoiceCount() == 2);
+		clear(mixer, stream);
+		mixer.setVoiceLimit(32);
+
+		Voice fading = mixer.play(constant(100000, 1000));
+		fading.fadeIn(64.0 / WarpedAudioMixer.SAMPLE_RATE);
+		mixer.mixBuffer();
+		out = samples(stream);
+		check("a fade in over one buffer rises through the buffer", out[0] < 50 && Math.abs(out[64] - 500) < 50 && out[126] > 950 && !fading.isFading());
+		stream.reset();
+		fading.fadeOut(128.0 / WarpedAudioMixer.SAMPLE_RATE);
+		mixer.mixBuffer();
+		mixer.mixBuffer();
+		out = samples(stream);
+		check("a fade out over two buffers falls to silence and stops the voice", out[0] > 950 && Math.abs(out[128] - 500) < 50 && out[254] < 50 && !fading.isPlaying());
+		clear(mixer, stream);
+
+		byte[] pcm = new byte[2205];
+		for(int i = 0; i < pcm.length; i++) pcm[i] = (byte)(i % 2 == 0 ? 64 : -64);
+		ByteArrayOutputStream wav = new ByteArrayOutputStream();
+		AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), new AudioFormat(22050, 8, 1, true, false), pcm.length), AudioFileFormat.Type.WAVE, wav);
+		WarpedSound decoded = WarpedSound.decode(new ByteArrayInputStream(wav.toByteArray()));
+		check("an 8 bit mono 22050 Hz wav decodes to 16 bit stereo 44100 Hz", decoded != null && Math.abs(decoded.getFrameCount() - 4410) <= 2 && decoded.getSamples()[0] == decoded.getSamples()[1] && decoded.getSamples()[0] > 0);
+		WarpedSound framework = WarpedSound.decode(new File("res/framework/audio/button_press.wav"));
+		check("the framework wav files decode", framework != null && framework.getFrameCount() > 0);
+
+		ByteArrayOutputStream clipStream = new ByteArrayOutputStream();
+		WarpedAudioMixer clipMixer = new WarpedAudioMixer(clipStream, 8, 512);
+		WarpedAudioClip.setMixer(clipMixer);
+		WarpedAudioClip clip = new WarpedAudioClip(new File("res/framework/audio/alert.wav"), "test_1");
+		int[] ended = new int[1];
+		clip.setEndClipAction(() -> ended[0]++);
+		clip.setVolume(0.5);
+		clip.play();
+		boolean isStarted = clip.isPlaying();
+		int clipBuffers = 0;
+		while(clip.isPlaying() && clipBuffers < 100000) {
+			clipMixer.mixBuffer();
+			clip.update();
+			clipBuffers++;
+		}
+		clip.update();
+		check("a clip plays through the mixer until it ends, then runs its end action once", isStarted && !clip.isPlaying() && ended[0] == 1 && clipStream.size() == clipBuffers * 512 * 4);
+		clip.play();
+		clip.fadeOut(0.05);
+		for(int i = 0; i < 10; i++) clipMixer.mixBuffer();
+		clip.update();
+		check("a clip stops once it has faded out", !clip.isPlaying());
+
+		for(int voices : new int[] {8, 32, 128}) {
+			WarpedAudioMixer benchMixer = new WarpedAudioMixer(OutputStream.nullOutputStream(), voices, 512);
+			Random random = new Random(1); // Seeded so every run mixes the same voices
+			for(int i = 0; i < voices; i++) benchMixer.play(constant(WarpedAudioMixer.SAMPLE_RATE, random.nextInt(2000)), 0.5, random.nextDouble() * 2.0 - 1.0, 0, true);
+			for(int i = 0; i < buffers; i++) benchMixer.mixBuffer(); // Warm up
+			long[] durations = new long[buffers];
+			for(int i = 0; i < buffers; i++) {
+				benchMixer.mixBuffer();
+				durations[i] = benchMixer.getMixDuration();
+			}
+			Arrays.sort(durations);
+			System.out.printf("%d voices, 512 frames : p50 %d us, p99 %d us of the 11610 us buffer%n", voices, durations[buffers / 2] / 1000, durations[buffers * 99 / 100] / 1000);
+		}
+
+		System.out.println(failures == 0 ? "MixerTest passed" : "MixerTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**A stereo sound with every sample set to the same value.*/
+	private static WarpedSound constant(int frames, int value) {
+		short[] samples = new short[frames * 2];
+		Arrays.fill(samples, (short)value);
+		return new WarpedSound(samples);
+	}
+
+	/**The samples written to the stream, little endian 16 bit.*/
+	private static short[] samples(ByteArrayOutputStream stream) {
+		byte[] bytes = stream.toByteArray();
+		short[] samples = new short[bytes.length / 2];
+		for(int i = 0; i < samples.length; i++) samples[i] = (short)((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+		return samples;
+	}
+
+	/**Stop every voice and empty the stream.*/
+	private static void clear(WarpedAudioMixer mixer, ByteArrayOutputStream stream) {
+		mixer.stopAll();
+		mixer.mixBuffer();
+		mixer.mixBuffer();
+		stream.reset();
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
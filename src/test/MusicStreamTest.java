@@ -0,0 +1,211 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import warped.audio.WarpedAudioMixer;
+import warped.audio.WarpedAudioMixer.Voice;
+import warped.audio.WarpedMusicPlayer;
+import warped.audio.WarpedMusicStream;
+import warped.audio.WarpedMusicStream.TrackSource;
+
+public class MusicStreamTest {
+
+	/*Streams generated wav tracks through a mixer that writes to a stream instead of an audio line, and checks the mixed samples.
+	 * Checks that a stream starts no decoder thread until it is prefetched or played, that a looping track and a queued track play without a gap,
+	 * that a 22050 Hz track is resampled, that the music player crossfades between tracks and that a slow decoder is counted as underruns.
+	 * Then streams a generated track of the specified length and prints the largest heap used after a collection against the size of the ring buffer.
+	 * Needs no audio device. Prints each check and exits with 1 if any check failed.
+	 * args : [seconds] i.e. 600
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws Exception {
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		WarpedAudioMixer mixer = new WarpedAudioMixer(out, 8, 512);
+
+		int threads = decoderThreads();
+		WarpedMusicStream idle = new WarpedMusicStream(source(wav(1000, 44100, i -> i)), false, 0.2);
+		check("a stream that has not been played starts no decoder thread", decoderThreads() == threads && idle.getBufferedFrames() == 0);
+		idle.prefetch();
+		long startTime = System.nanoTime();
+		while(idle.getBufferedFrames() < 1000 && System.nanoTime() - startTime < 5000000000L) Thread.sleep(1);
+		check("a prefetched stream decodes into its buffer before it is played", idle.getBufferedFrames() == 1000);
+		idle.close();
+		WarpedMusicStream closed = new WarpedMusicStream(source(wav(1000, 44100, i -> i)), false, 0.2);
+		closed.close();
+		check("a stream closed before it is played ends without starting a decoder", closed.isEnded() && closed.getTrackCount() == 0);
+
+		int length = 10007;
+		WarpedMusicStream looping = new WarpedMusicStream(source(wav(length, 44100, i -> i)), true, 0.2);
+		mixer.play(looping, 1.0, 0.0, 0);
+		mix(mixer, looping, 80); // About 4 loops
+		short[] samples = samples(out);
+		int breaks = 0;
+		for(int k = 0; k < samples.length / 2; k++) if(samples[2 * k] != (short)(k % length) || samples[2 * k + 1] != (short)-(k % length)) breaks++;
+		check("a looping track plays without a gap (" + breaks + " frames differ over " + looping.getTrackCount() + " loops)", breaks == 0 && looping.getUnderrunCount() == 0);
+		mixer.stopAll();
+		mixer.mixBuffer();
+		check("a stream is closed when its voice stops", looping.isEnded() || decoderEnds(looping));
+		out.reset();
+
+		int first = 3001;
+		int second = 5003;
+		WarpedMusicStream queued = new WarpedMusicStream(source(wav(first, 44100, i -> 1000 + i)), false, 0.2);
+		queued.queue(source(wav(second, 44100, i -> 10000 + i)));
+		Voice queuedVoice = mixer.play(queued, 1.0, 0.0, 0);
+		mix(mixer, queued, 20);
+		samples = samples(out);
+		int mismatches = 0;
+		for(int k = 0; k < first + second; k++) if(samples[2 * k] != (k < first ? 1000 + k : 10000 + k - first)) mismatches++;
+		int tail = 0;
+		for(int k = first + second; k < samples.length / 2; k++) if(samples[2 * k] != 0) tail++;
+		check("a queued track follows the first track without a gap", mismatches == 0 && tail == 0 && queued.getTrackCount() == 2);
+		check("the voice finishes when the last track ends", queuedVoice.isFinished() && queued.isEnded());
+		out.reset();
+
+		WarpedMusicStream resampled = new WarpedMusicStream(source(wav(2000, 22050, i -> 100)), false, 0.2);
+		Voice resampledVoice = mixer.play(resampled, 1.0, 0.0, 0);
+		for(int i = 0; i < 100 && !resampledVoice.isFinished(); i++) mix(mixer, resampled, 1);
+		samples = samples(out);
+		int heard = 0;
+		for(int k = 0; k < samples.length / 2; k++) if(samples[2 * k] != 0) heard++;
+		check("a 22050 Hz track is resampled to twice as many frames (" + heard + ")", Math.abs(heard - 4000) <= 2 && samples[2000] == 100);
+		out.reset();
+
+		WarpedMusicPlayer player = new WarpedMusicPlayer(mixer);
+		player.play(source(wav(200000, 44100, i -> 1000)), true);
+		mix(mixer, player.getStream(), 2);
+		out.reset();
+		player.crossfade(source(wav(200000, 44100, i -> 3000)), true, 1024.0 / WarpedAudioMixer.SAMPLE_RATE);
+		mix(mixer, player.getStream(), 3);
+		samples = samples(out);
+		check("a crossfade moves from the old track to the new track", Math.abs(samples[0] - 1000) < 20 && Math.abs(samples[2 * 512] - 2000) < 50 && Math.abs(samples[2 * 1100] - 3000) < 20 && mixer.getVoiceCount() == 1);
+		player.stop(0);
+		mixer.mixBuffer();
+		mixer.mixBuffer();
+		out.reset();
+
+		TrackSource slow = () -> new AudioInputStream(new InputStream() {
+			public int read() {return 0;}
+			public int read(byte[] bytes, int offset, int length) {
+				try {Thread.sleep(50);} catch (InterruptedException e) {Thread.currentThread().interrupt();}
+				int count = Math.min(length, 400);
+				Arrays.fill(bytes, offset, offset + count, (byte)0);
+				return count;
+			}
+		}, new AudioFormat(44100, 16, 2, true, false), 10000000);
+		WarpedMusicStream starved = new WarpedMusicStream(slow, false, 0.2);
+		mixer.play(starved, 1.0, 0.0, 0);
+		for(int i = 0; i < 50; i++) mixer.mixBuffer();
+		check("a decoder slower than the mixer is counted as underruns (" + starved.getUnderrunCount() + ")", starved.getUnderrunCount() > 0 && starved.getUnderrunFrames() > 0);
+		mixer.stopAll();
+		mixer.mixBuffer();
+
+		long frames = 44100L * seconds;
+		TrackSource generated = () -> new AudioInputStream(new InputStream() {
+			long position = 0;
+			public int read() {return position++ < frames * 4 ? (int)(position & 0x7F) : -1;}
+			public int read(byte[] bytes, int offset, int length) {
+				long remaining = frames * 4 - position;
+				if(remaining <= 0) return -1;
+				int count = (int)Math.min(length, remaining);
+				for(int i = 0; i < count; i++) bytes[offset + i] = (byte)((position + i) & 0x7F);
+				position += count;
+				return count;
+			}
+		}, new AudioFormat(44100, 16, 2, true, false), frames);
+		WarpedAudioMixer heapMixer = new WarpedAudioMixer(OutputStream.nullOutputStream(), 8, 512);
+		WarpedMusicStream longStream = new WarpedMusicStream(generated, false);
+		Voice longVoice = heapMixer.play(longStream, 1.0, 0.0, 0);
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long baseline = runtime.totalMemory() - runtime.freeMemory();
+		long maxHeap = 0;
+		long mixed = 0;
+		startTime = System.nanoTime();
+		while(!longVoice.isFinished()) {
+			while(longStream.getBufferedFrames() < 512 && !longStream.isEnded() && !longStream.isDecoded()) Thread.onSpinWait();
+			heapMixer.mixBuffer();
+			mixed += 512;
+			if((mixed & 0xFFFFF) == 0) {
+				System.gc();
+				maxHeap = Math.max(maxHeap, runtime.totalMemory() - runtime.freeMemory());
+			}
+		}
+		System.out.printf("streamed %d s (%.0f MB of PCM) in %d ms : heap %d KB before, at most %d KB after a collection, ring buffer %d KB, %d underruns%n",
+				mixed / 44100, frames * 4 / 1e6, (System.nanoTime() - startTime) / 1000000, baseline / 1024, maxHeap / 1024, longStream.getCapacity() * 4 / 1024, longStream.getUnderrunCount());
+		check("streaming a long track does not hold the track in memory", maxHeap - baseline < frames * 4 / 4);
+
+		System.out.println(failures == 0 ? "MusicStreamTest passed" : "MusicStreamTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**A 16 bit stereo wav file, the left channel from the function and the right channel its negative.*/
+	private static byte[] wav(int frames, float sampleRate, IntUnaryOperator left) throws IOException {
+		byte[] pcm = new byte[frames * 4];
+		for(int i = 0; i < frames; i++) {
+			int l = left.applyAsInt(i);
+			int r = -l;
+			pcm[4 * i] 	   = (byte)l;
+			pcm[4 * i + 1] = (byte)(l >> 8);
+			pcm[4 * i + 2] = (byte)r;
+			pcm[4 * i + 3] = (byte)(r >> 8);
+		}
+		ByteArrayOutputStream wav = new ByteArrayOutputStream();
+		AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), new AudioFormat(sampleRate, 16, 2, true, false), frames), AudioFileFormat.Type.WAVE, wav);
+		return wav.toByteArray();
+	}
+
+	private static TrackSource source(byte[] wav) {return () -> AudioSystem.getAudioInputStream(new ByteArrayInputStream(wav));}
+
+	/**Mix buffers, waiting for the decoder before each so the checks do not depend on the speed of the decoder thread.*/
+	private static void mix(WarpedAudioMixer mixer, WarpedMusicStream stream, int buffers) throws InterruptedException {
+		for(int i = 0; i < buffers; i++) {
+			long startTime = System.nanoTime();
+			while(stream.getBufferedFrames() < mixer.getBufferFrames() && !stream.isEnded() && !stream.isDecoded()) {
+				Thread.sleep(0, 100000);
+				if(System.nanoTime() - startTime > 5000000000L) throw new IllegalStateException("the decoder stalled");
+			}
+			mixer.mixBuffer();
+		}
+	}
+
+	/**Wait for the decoder of a closed stream to end.*/
+	private static boolean decoderEnds(WarpedMusicStream stream) throws InterruptedException {
+		for(int i = 0; i < 1000 && !stream.isEnded(); i++) Thread.sleep(1);
+		return stream.isEnded();
+	}
+
+	private static int decoderThreads() {
+		int count = 0;
+		for(Thread thread : Thread.getAllStackTraces().keySet()) if(thread.getName().equals("Music Stream Thread")) count++;
+		return count;
+	}
+
+	private static short[] samples(ByteArrayOutputStream stream) {
+		byte[] bytes = stream.toByteArray();
+		short[] samples = new short[bytes.length / 2];
+		for(int i = 0; i < samples.length; i++) samples[i] = (short)((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+		return samples;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,101 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedState;
+import warped.application.state.WarpedVoidObject;
+
+public class ParallelUpdateTest {
+
+	/*Updates the same group serially and as an independent group on 1, 2, 4 ... threads, members move, die and spawn new members into their group while they update.
+	 * Checks that every parallel run ends in exactly the same state as the serial run, then prints the time per update for each thread count.
+	 * Exits with 1 if any run differs from the serial run.
+	 * args : [members] [updates] i.e. 200000 30
+	 * */
+
+	private static int failures = 0;
+
+	private static class Particle extends WarpedVoidObject {
+		private final int seed;
+		private final double velocityX;
+		private final double velocityY;
+		private double health;
+		private WarpedGroup<Particle> spawnGroup;
+		private Particle(int seed) {
+			this.seed = seed;
+			velocityX = (seed % 7) - 3;
+			velocityY = (seed % 5) - 2;
+			health = 5 + seed % 50;
+		}
+		public void updateObject() {
+			double sum = 0.0;
+			for(int i = 0; i < 40; i++) sum += Math.sin(seed + i * health);
+			health -= Math.abs(sum) * 0.01 + 0.1;
+			move(velocityX * 0.016, velocityY * 0.016);
+			if(health < 0) kill();
+			if(seed % 997 == 0 && health < 4 && health > 3) spawnGroup.addMember(new Particle(seed * 31 + 1)); // The new particle does not spawn
+		}
+	}
+
+	public static void main(String[] args) {
+		int members = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int updates = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+		WarpedManager<Particle> serialManager = new WarpedManager<>("Serial Manager");
+		WarpedGroup<Particle> serial = build(serialManager, members);
+		long serialTime = run(serialManager, updates);
+		long serialHash = hash(serial);
+		System.out.printf("serial    : %8.3f ms per update, %d members remain%n", serialTime / 1e6 / updates, serial.size());
+
+		for(int threads = 1; threads <= maxThreads; threads *= 2) {
+			WarpedState.setUpdateThreads(threads);
+			WarpedManager<Particle> manager = new WarpedManager<>("Parallel Manager " + threads);
+			WarpedGroup<Particle> group = build(manager, members);
+			group.setIndependent(true);
+			long time = run(manager, updates);
+			System.out.printf("%d threads : %8.3f ms per update, %.2fx the serial update%n", threads, time / 1e6 / updates, (double)serialTime / time);
+			check(threads + " thread update ends in the same state as the serial update", hash(group) == serialHash && group.size() == serial.size());
+		}
+
+		System.out.println(failures == 0 ? "ParallelUpdateTest passed" : "ParallelUpdateTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**A group of particles in a new manager, opened so the manager steps it.*/
+	private static WarpedGroup<Particle> build(WarpedManager<Particle> manager, int members) {
+		WarpedGroup<Particle> group = manager.addGroup("Particles");
+		for(int i = 0; i < members; i++) {
+			Particle particle = new Particle(i);
+			particle.setPosition(i, i * 0.5);
+			particle.spawnGroup = group;
+			group.addMember(particle);
+		}
+		manager.openGroup(group);
+		return group;
+	}
+
+	/**Step the manager and return the total time taken.*/
+	private static long run(WarpedManager<Particle> manager, int updates) {
+		long startTime = System.nanoTime();
+		for(int i = 0; i < updates; i++) manager.step(0.0);
+		return System.nanoTime() - startTime;
+	}
+
+	/**A hash of the order, position and health of every member.*/
+	private static long hash(WarpedGroup<Particle> group) {
+		long hash = group.size();
+		for(int i = 0; i < group.size(); i++) {
+			Particle particle = group.getMember(i);
+			hash = hash * 31 + Double.hashCode(particle.x()) + Double.hashCode(particle.y()) * 3 + Double.hashCode(particle.health) * 7 + particle.seed;
+		}
+		return hash;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,158 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import warped.utilities.math.vectors.VectorI;
+import warped.utilities.utils.path.UtilsPath;
+import warped.utilities.utils.path.WarpedPath;
+import warped.utilities.utils.path.WarpedPathNode;
+
+public class PathTest {
+
+	/*Compares the cost of the paths found by UtilsPath with a plain Dijkstra search on randomized maps, for each kind of map UtilsPath accepts.
+	 * Also checks that changing a map with UtilsPath.setCost() or invalidateCosts() keeps the paths the cheapest, and that released search buffers are recreated.
+	 * Prints each check and the time taken, exits with 1 if any check failed.
+	 * args : [maps] [size] i.e. 200 64
+	 * */
+
+	private static final double ROOT_TWO = Math.sqrt(2.0);
+	private static final int[] DIAGONAL_X = {-1, 0, 1, -1, 1, -1, 0, 1};
+	private static final int[] DIAGONAL_Y = {-1, -1, -1, 0, 0, 1, 1, 1};
+	private static final int[] STRAIGHT_X = {-1, 0, 1, 0};
+	private static final int[] STRAIGHT_Y = {0, 1, 0, -1};
+
+	private static final int BOOLEAN = 0;
+	private static final int SMOOTHNESS = 1;
+	private static final int ROUGHNESS = 2;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		int maps = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int size = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+		Random random = new Random(5); // Seeded so every run searches the same maps
+		VectorI mapDim = new VectorI(size, size);
+
+		int[] mismatches = new int[4];
+		int[] found = new int[4];
+		long searchTime = 0;
+		for(int i = 0; i < maps; i++) {
+			boolean[] booleanMap = new boolean[size * size];
+			double[] doubleMap = new double[size * size];
+			for(int j = 0; j < booleanMap.length; j++) {
+				booleanMap[j] = random.nextDouble() > 0.3;
+				doubleMap[j] = random.nextDouble() < 0.25 ? 0.0 : 0.05 + random.nextDouble() * 4.0;
+			}
+			VectorI start = new VectorI(random.nextInt(size), random.nextInt(size));
+			VectorI goal = new VectorI(random.nextInt(size), random.nextInt(size));
+			booleanMap[start.x() + start.y() * size] = true;
+			booleanMap[goal.x() + goal.y() * size] = true;
+			doubleMap[start.x() + start.y() * size] = 1.0;
+			doubleMap[goal.x() + goal.y() * size] = 1.0;
+
+			long startTime = System.nanoTime();
+			WarpedPath[] paths = {
+				UtilsPath.findPath(booleanMap, mapDim, start, goal),
+				UtilsPath.findPathNoDiagonal(booleanMap, mapDim, start, goal),
+				UtilsPath.findPath(doubleMap, mapDim, start, goal),
+				UtilsPath.findPathNoDiagonal(doubleMap, mapDim, start, goal)
+			};
+			searchTime += System.nanoTime() - startTime;
+			double[] expected = {
+				dijkstra(booleanMap, null, BOOLEAN, size, start, goal, true),
+				dijkstra(booleanMap, null, BOOLEAN, size, start, goal, false),
+				dijkstra(null, doubleMap, SMOOTHNESS, size, start, goal, true),
+				dijkstra(null, doubleMap, ROUGHNESS, size, start, goal, false)
+			};
+			for(int k = 0; k < paths.length; k++) {
+				if(!isSameCost(paths[k], expected[k])) mismatches[k]++;
+				if(paths[k] != null) found[k]++;
+			}
+		}
+		System.out.printf("searched %d maps of %dx%d, %.3f ms per map for the 4 searches%n", maps, size, size, searchTime / 1e6 / maps);
+		String[] names = {"boolean diagonal", "boolean straight", "smoothness diagonal", "roughness straight"};
+		for(int k = 0; k < names.length; k++) check(names[k] + " paths are the cheapest (" + found[k] + " found)", mismatches[k] == 0);
+
+		checkChangedMaps(random, size, mapDim);
+
+		System.out.println(failures == 0 ? "PathTest passed" : "PathTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Search a map, then make part of it cheaper than any value the search has seen and search it again.*/
+	private static void checkChangedMaps(Random random, int size, VectorI mapDim) {
+		double[] map = new double[size * size];
+		for(int i = 0; i < map.length; i++) map[i] = 2.0 + random.nextDouble() * 2.0;
+		VectorI start = new VectorI(0, 0);
+		VectorI goal = new VectorI(size - 1, size - 1);
+		UtilsPath.findPathNoDiagonal(map, mapDim, start, goal); // The cheapest value of the map is now kept
+
+		for(int i = 0; i < size; i++) { // A cheap corridor along the top and right edges
+			UtilsPath.setCost(map, mapDim, new VectorI(i, 0), 0.1);
+			UtilsPath.setCost(map, mapDim, new VectorI(size - 1, i), 0.1);
+		}
+		double expected = dijkstra(null, map, ROUGHNESS, size, start, goal, false);
+		check("paths stay the cheapest after setCost()", isSameCost(UtilsPath.findPathNoDiagonal(map, mapDim, start, goal), expected));
+
+		for(int i = 0; i < size; i++) map[i * size] = 0.01; // A cheaper corridor down the left edge, written directly
+		for(int i = 0; i < size; i++) map[i + (size - 1) * size] = 0.01;
+		UtilsPath.invalidateCosts(map);
+		expected = dijkstra(null, map, ROUGHNESS, size, start, goal, false);
+		check("paths stay the cheapest after invalidateCosts()", isSameCost(UtilsPath.findPathNoDiagonal(map, mapDim, start, goal), expected));
+
+		UtilsPath.releaseSearchBuffers();
+		check("searches after releaseSearchBuffers() still find the cheapest path", isSameCost(UtilsPath.findPathNoDiagonal(map, mapDim, start, goal), expected));
+	}
+
+	/**The cost of a path is the g cost of its most expensive node (the goal).*/
+	private static boolean isSameCost(WarpedPath path, double expected) {
+		if(path == null) return expected == Double.MAX_VALUE;
+		if(expected == Double.MAX_VALUE) return false;
+		double cost = 0.0;
+		for(WarpedPathNode node : path.getNodes()) cost = Math.max(cost, node.gCost);
+		return Math.abs(cost - expected) <= 1e-3 * Math.max(1.0, expected);
+	}
+
+	/**The cost of the cheapest route found by a plain Dijkstra search, Double.MAX_VALUE if there is none.*/
+	private static double dijkstra(boolean[] booleanMap, double[] doubleMap, int mode, int size, VectorI start, VectorI goal, boolean isDiagonal) {
+		double[] cost = new double[size * size];
+		Arrays.fill(cost, Double.MAX_VALUE);
+		int startIndex = start.x() + start.y() * size;
+		int goalIndex = goal.x() + goal.y() * size;
+		PriorityQueue<double[]> open = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+		cost[startIndex] = 0.0;
+		open.add(new double[] {0.0, startIndex});
+		int[] dx = isDiagonal ? DIAGONAL_X : STRAIGHT_X;
+		int[] dy = isDiagonal ? DIAGONAL_Y : STRAIGHT_Y;
+		while(!open.isEmpty()) {
+			double[] entry = open.poll();
+			int cell = (int)entry[1];
+			if(entry[0] > cost[cell]) continue;
+			if(cell == goalIndex) return cost[cell];
+			for(int i = 0; i < dx.length; i++) {
+				int x = cell % size + dx[i];
+				int y = cell / size + dy[i];
+				if(x < 0 || y < 0 || x >= size || y >= size) continue;
+				int next = x + y * size;
+				double distance = dx[i] != 0 && dy[i] != 0 ? ROOT_TWO : 1.0;
+				double step;
+				if(mode == BOOLEAN) step = booleanMap[next] ? distance : -1.0;
+				else if(mode == SMOOTHNESS) step = doubleMap[next] > 0.0 ? distance / doubleMap[next] : -1.0;
+				else step = doubleMap[next] > 0.0 ? distance * doubleMap[next] : -1.0;
+				if(step < 0.0 || cost[cell] + step >= cost[next]) continue;
+				cost[next] = cost[cell] + step;
+				open.add(new double[] {cost[next], next});
+			}
+		}
+		return Double.MAX_VALUE;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,122 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.entities.projectile.ProjectilePool;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.graphics.sprite.WarpedSprite;
+import warped.utilities.math.vectors.VectorD;
+
+public class PoolTest {
+
+	/*Spawns a projectile from a pool, lets it expire and checks that it is only reused once its group has published a new render snapshot.
+	 * Checks that a reused projectile has exactly the same fields as a projectile spawned by a new pool, apart from its identity.
+	 * Then spawns 10000 projectiles per second for 10 simulated seconds, each living for 30 ticks, and prints the bytes allocated and the time taken
+	 * for a painted copy of the raster per projectile, a shared raster per projectile and pooled projectiles with a shared raster.
+	 * Prints each check and exits with 1 if any check failed.
+	 * args : [ticks] i.e. 600
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws Exception {
+		int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+		BufferedImage raster = new BufferedImage(16, 16, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		WarpedManager<Projectile> manager = new WarpedManager<>("Pool Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Pool Group");
+		manager.openGroup(group);
+		ProjectilePool pool = new ProjectilePool(group);
+
+		Projectile expiring = pool.spawn(raster, new VectorD(5, 6), new VectorD(1, 2), 3);
+		expiring.setExpireAction(() -> {});
+		for(int i = 0; i < 5; i++) manager.step(0.1);
+		check("an expired projectile is removed from its group and kept by the pool", group.size() == 0 && pool.getFreeCount() == 1);
+		Projectile reused = pool.spawn(raster, new VectorD(1, 1), new VectorD(3, 4));
+		check("the next spawn reuses the expired projectile", reused == expiring && pool.getCreatedCount() == 1 && pool.getReusedCount() == 1);
+
+		Projectile fresh = new ProjectilePool(manager.addGroup("Fresh Group")).spawn(raster, new VectorD(1, 1), new VectorD(3, 4));
+		String reusedFields = describe(reused);
+		String freshFields = describe(fresh);
+		if(!reusedFields.equals(freshFields)) System.out.println("reused :\n" + reusedFields + "fresh :\n" + freshFields);
+		check("a reused projectile has the same fields as a new projectile", reusedFields.equals(freshFields));
+		check("a reused projectile is alive with a valid identity", reused.isAlive() && group.isMember(reused.getObjectID()));
+
+		reused.kill();
+		group.removeMember(reused.getObjectID());
+		Projectile beforePublish = pool.spawn(raster, new VectorD(1, 1), new VectorD(3, 4));
+		check("a projectile removed since the last snapshot is not reused", beforePublish != reused && pool.getCreatedCount() == 2);
+		manager.step(0.0);
+		Projectile afterPublish = pool.spawn(raster, new VectorD(1, 1), new VectorD(3, 4));
+		check("a projectile is reused once the group publishes a snapshot without it", afterPublish == reused);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long threadID = Thread.currentThread().threadId();
+		String[] names = {"painted copy", "shared raster", "pool with shared raster"};
+		for(int mode = 0; mode < names.length; mode++) {
+			for(int run = 0; run < 2; run++) { // The first run warms up
+				WarpedManager<Projectile> benchManager = new WarpedManager<>("Pool Benchmark Manager");
+				WarpedGroup<Projectile> benchGroup = benchManager.addGroup("Pool Benchmark Group");
+				benchManager.openGroup(benchGroup);
+				ProjectilePool benchPool = new ProjectilePool(benchGroup);
+				VectorD position = new VectorD(0, 0);
+				VectorD velocity = new VectorD(1, 1);
+				long allocated = threads.getThreadAllocatedBytes(threadID);
+				long startTime = System.nanoTime();
+				int spawned = 0;
+				for(int tick = 0; tick < ticks; tick++) {
+					int count = tick % 3 == 2 ? 166 : 167; // 10000 per second at 60 ticks per second
+					for(int i = 0; i < count; i++) {
+						Projectile projectile;
+						if(mode == 2) projectile = benchPool.spawn(raster, position, velocity, 30);
+						else {
+							projectile = new Projectile(raster, new VectorD(position), new VectorD(velocity), 30);
+							if(mode == 0) projectile.getSprite().paint(raster, 16, 16);
+							benchGroup.addMember(projectile);
+						}
+						projectile.setExpireAction(() -> {});
+						spawned++;
+					}
+					benchManager.step(1.0 / 60);
+				}
+				allocated = threads.getThreadAllocatedBytes(threadID) - allocated;
+				if(run == 1) System.out.printf("%s : %d spawned, %.1f MB allocated, %.0f bytes per projectile, %.0f ms%n", names[mode], spawned, allocated / 1e6, (double)allocated / spawned, (System.nanoTime() - startTime) / 1e6);
+			}
+		}
+
+		System.out.println(failures == 0 ? "PoolTest passed" : "PoolTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Every instance field of the object and its super classes, the identity and pool are only recorded as set or not.*/
+	private static String describe(Object object) throws IllegalAccessException {
+		StringBuilder fields = new StringBuilder();
+		for(Class<?> type = object.getClass(); type != Object.class; type = type.getSuperclass()) {
+			for(Field field : type.getDeclaredFields()) {
+				if(Modifier.isStatic(field.getModifiers())) continue;
+				field.setAccessible(true);
+				Object value = field.get(object);
+				String text;
+				if(field.getName().equals("objectID") || field.getName().equals("pool") || field.getName().equals("expireAction")) text = value == null ? "null" : "set";
+				else if(value instanceof VectorD vector) text = vector.x() + ", " + vector.y();
+				else if(value instanceof WarpedSprite sprite) text = System.identityHashCode(sprite.raster()) + " " + sprite.getWidth() + "x" + sprite.getHeight() + " buffered " + sprite.isRasterBuffered(sprite.raster());
+				else if(value == null || value instanceof Number || value instanceof Boolean || value instanceof String || value instanceof Enum) text = String.valueOf(value);
+				else text = value.getClass().getSimpleName();
+				fields.append(type.getSimpleName()).append('.').append(field.getName()).append(" = ").append(text).append('\n');
+			}
+		}
+		return fields.toString();
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
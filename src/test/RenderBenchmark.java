@@ -0,0 +1,63 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.graphics.window.WarpedViewport.RenderType;
+import warped.utilities.math.vectors.VectorD;
+
+public class RenderBenchmark {
+
+	/*Renders the same scene with a viewport for each render type and prints the render time percentiles of each viewport.
+	 * Runs without a window, start with -Djava.awt.headless=true to benchmark on a machine without a display.
+	 * args : [sprites] [frames] i.e. 20000 600
+	 * */
+
+	public static void main(String[] args) {
+		int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		int frames  = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+		int width = 1920;
+		int height = 1080;
+
+		BufferedImage image = new BufferedImage(16, 16, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.ORANGE);
+		g.fillOval(0, 0, 16, 16);
+		g.dispose();
+
+		WarpedManager<Projectile> manager = new WarpedManager<>("Benchmark Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Benchmark Group");
+		Random random = new Random(1); // Seeded so every run renders the same scene
+		for(int i = 0; i < sprites; i++) {
+			VectorD position = new VectorD(random.nextDouble() * width, random.nextDouble() * height);
+			VectorD velocity = new VectorD(random.nextDouble() * 60.0 - 30.0, random.nextDouble() * 60.0 - 30.0);
+			group.addMember(new Projectile(image, position, velocity, Integer.MAX_VALUE));
+		}
+		manager.openGroup(group);
+		manager.step(0.0);
+
+		WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+		for(RenderType renderType : RenderType.values()) {
+			WarpedViewport viewport = new WarpedViewport(renderType.toString(), manager, 0, 0, width, height);
+			viewport.setTargetGroups(group);
+			viewport.setRenderMethod(renderType);
+			harness.addViewport(viewport);
+		}
+
+		harness.run(Math.max(1, frames / 10), 1.0 / 60, manager); // Warm up
+		harness.reset();
+		harness.run(frames, 1.0 / 60, manager);
+		harness.printReport();
+		System.exit(0);
+	}
+
+}
@@ -0,0 +1,100 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.graphics.window.WarpedViewport.RenderType;
+import warped.utilities.math.vectors.VectorD;
+
+public class RenderGoldenTest {
+
+	/*Renders a new copy of the same scene of still sprites with a viewport using each RenderType and compares every frame with the golden image for that render type.
+	 * The camera is moved and zoomed, so the transformed render types draw the sprites moved and scaled by the camera while the other render types draw them where they are.
+	 * The viewports interpolate with the nearest neighbour, so the golden image of each render type can be drawn exactly with Graphics2D.
+	 * Also checks that rendering the unchanged scene again gives the same frame, and that images of a different size do not compare as equal.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display.
+	 * Prints each check with the median frame time, exits with 1 if any check failed.
+	 * args : none
+	 * */
+
+	private static int failures = 0;
+	private static final int WIDTH = 100;
+	private static final int HEIGHT = 80;
+	private static final int[][] POSITIONS = {{10, 10}, {40, 20}, {70, 50}};
+	private static final int CAMERA_X = -5;
+	private static final int CAMERA_Y = -5;
+	private static final int ZOOM = 2;
+
+	public static void main(String[] args) {
+		BufferedImage sprite = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = sprite.createGraphics();
+		g.setColor(Color.RED);
+		g.fillRect(0, 0, 8, 8);
+		g.setColor(Color.BLUE);
+		g.fillRect(2, 2, 4, 4);
+		g.dispose();
+
+		for(RenderType renderType : RenderType.values()) {
+			WarpedManager<Projectile> manager = new WarpedManager<>("Golden Manager");
+			WarpedGroup<Projectile> group = manager.addGroup("Golden Group");
+			for(int[] position : POSITIONS) group.addMember(new Projectile(sprite, new VectorD(position[0], position[1]), new VectorD(0, 0), Integer.MAX_VALUE));
+			manager.openGroup(group);
+			manager.step(0.0);
+			WarpedRenderHarness harness = new WarpedRenderHarness(WIDTH, HEIGHT);
+			WarpedViewport viewport = new WarpedViewport(renderType.toString(), manager, 0, 0, WIDTH, HEIGHT);
+			viewport.setTargetGroups(group);
+			viewport.camera.move(CAMERA_X, CAMERA_Y);
+			viewport.camera.setZoom(ZOOM);
+			viewport.hintInterpolationNearestNeighbour();
+			viewport.setRenderMethod(renderType);
+			harness.addViewport(viewport);
+			harness.run(3, 1.0 / 60, manager);
+			BufferedImage first = copy(harness.getTarget());
+			harness.run(3, 1.0 / 60, manager);
+			int differences = WarpedRenderHarness.compare(harness.getTarget(), golden(renderType, sprite), 0);
+			check(renderType + " matches its golden image (" + differences + " pixels differ, median frame " + harness.getPercentile(0, 50) / 1000 + " us)", differences == 0);
+			check(renderType + " renders the unchanged scene the same way again", WarpedRenderHarness.compare(harness.getTarget(), first, 0) == 0);
+		}
+		check("images of a different size do not compare as equal", WarpedRenderHarness.compare(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB), new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB), 0) == -1);
+
+		System.out.println(failures == 0 ? "RenderGoldenTest passed" : "RenderGoldenTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**The frame expected from a render type, the transformed render types move the sprites by the camera position then scale them by the zoom.*/
+	private static BufferedImage golden(RenderType renderType, BufferedImage sprite) {
+		BufferedImage golden = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = golden.createGraphics();
+		switch(renderType) {
+		case PRIMITIVE: case ACTIVE: case BAKED: case TARGET_GROUPS:
+			for(int[] position : POSITIONS) g.drawImage(sprite, position[0], position[1], null);
+			break;
+		case PRIMITIVE_TRANSFORMED_SCALED: case ACTIVE_TRANSFORMED_SCALED: case BAKED_TRANSFORMED_SCALED: case TARGET_GROUPS_TRANSFORMED_SCALED:
+			for(int[] position : POSITIONS) g.drawImage(sprite, (position[0] + CAMERA_X) * ZOOM, (position[1] + CAMERA_Y) * ZOOM, sprite.getWidth() * ZOOM, sprite.getHeight() * ZOOM, null);
+			break;
+		}
+		g.dispose();
+		return golden;
+	}
+
+	private static BufferedImage copy(BufferedImage image) {
+		BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = copy.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return copy;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,144 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.graphics.sprite.RotationCache;
+import warped.graphics.sprite.RotationSprite;
+
+public class RotationCacheTest {
+
+	/*Checks that every frame of a RotationCache is the size of the image and has the same pixels as a RotationSprite rotated exactly to the angle of the step,
+	 * that getStep() wraps negative rotations and rotations near and past 2PI to the nearest step, that a quantized sprite points to the shared frame of its step,
+	 * and that a quantized sprite rotates exactly into its own raster when setMemoryLimit(0) stops new frames being generated.
+	 * Then rotates 5k sprites a little each tick, exactly and quantized, and prints the median time to rotate them all.
+	 * Prints each check and exits with 1 if any check failed.
+	 * args : [sprites] [ticks] i.e. 5000 100
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int ticks   = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		Random random = new Random(29); // Seeded so every run rotates the same images
+		RotationCache.setResolution(RotationCache.DEFAULT_RESOLUTION);
+
+		BufferedImage image = image(random, 24, 12);
+		RotationCache cache = RotationCache.of(image);
+		int steps = cache.getSteps();
+		int wrongSize = 0;
+		int differ = 0;
+		RotationSprite exact = new RotationSprite(image);
+		for(int step = 0; step < steps; step++) {
+			BufferedImage frame = cache.getFrame(step);
+			if(frame == null || frame.getWidth() != image.getWidth() || frame.getHeight() != image.getHeight()) {
+				wrongSize++;
+				continue;
+			}
+			exact.setRotation(step * Math.PI * 2 / steps);
+			if(!isEqual(frame, exact.raster())) differ++;
+		}
+		check("every frame is the size of the image (" + wrongSize + " of " + steps + " are not)", wrongSize == 0);
+		check("every frame has the same pixels as the image rotated exactly to its step (" + differ + " differ)", differ == 0);
+		check("the cache is shared by image", RotationCache.of(image) == cache && RotationCache.of(image(random, 24, 12)) != cache);
+
+		double step = Math.PI * 2 / steps;
+		check("rotation 0 is step 0", cache.getStep(0.0) == 0);
+		check("a small negative rotation rounds to step 0", cache.getStep(-0.2 * step) == 0);
+		check("minus one step wraps to the last step", cache.getStep(-step) == steps - 1);
+		check("minus PI is half way round", cache.getStep(-Math.PI) == steps / 2);
+		check("just under 2PI rounds up and wraps to step 0", cache.getStep(Math.PI * 2 - 0.2 * step) == 0 && cache.getStep(Math.PI * 2 - 1e-12) == 0);
+		check("0.6 of a step under 2PI rounds to the last step", cache.getStep(Math.PI * 2 - 0.6 * step) == steps - 1);
+		check("exactly 2PI is step 0", cache.getStep(Math.PI * 2) == 0);
+		check("more than a full rotation wraps", cache.getStep(Math.PI * 4 + step) == 1 && cache.getStep(-Math.PI * 4 - step) == steps - 1);
+		boolean isInRange = true;
+		for(int i = 0; i < 10000; i++) {
+			int s = cache.getStep((random.nextDouble() - 0.5) * 200.0);
+			if(s < 0 || s >= steps) isInRange = false;
+		}
+		check("every rotation is a step from 0 to " + (steps - 1), isInRange);
+
+		RotationSprite quantized = new RotationSprite(image);
+		quantized.setQuantized(true);
+		quantized.setRotation(5 * step + 0.1 * step);
+		check("a quantized sprite points to the frame of the nearest step", quantized.raster() == cache.getFrame(5) && Math.abs(quantized.getRotation() - 5.1 * step) < 1e-12);
+
+		long used = RotationCache.getMemoryUsed();
+		RotationCache.setMemoryLimit(0);
+		BufferedImage uncached = image(random, 20, 20);
+		RotationSprite fallback = new RotationSprite(uncached);
+		fallback.setQuantized(true);
+		fallback.setRotation(3 * step);
+		RotationSprite reference = new RotationSprite(uncached);
+		reference.setRotation(3 * step);
+		check("with no memory left a quantized sprite rotates exactly into its own raster", RotationCache.of(uncached).getFrame(3) == null && fallback.isRasterBuffered(fallback.raster())
+				&& isEqual(fallback.raster(), reference.raster()) && RotationCache.getMemoryUsed() == used);
+		quantized.setRotation(5 * step);
+		check("frames generated before the limit are still used", quantized.raster() == cache.getFrame(5));
+		RotationCache.setMemoryLimit(RotationCache.DEFAULT_MEMORY_LIMIT);
+		fallback.setRotation(4 * step);
+		check("once there is memory the sprite points to the frame again", fallback.raster() == RotationCache.of(uncached).getFrame(4));
+
+		BufferedImage[] images = new BufferedImage[8];
+		for(int i = 0; i < images.length; i++) images[i] = image(random, 32, 32);
+		String[] names = {"exact    ", "quantized"};
+		long[][] times = new long[2][ticks];
+		RotationSprite[][] rotating = new RotationSprite[2][sprites];
+		double[] speeds = new double[sprites];
+		for(int i = 0; i < sprites; i++) {
+			speeds[i] = random.nextDouble() * 0.2 - 0.1;
+			for(int mode = 0; mode < 2; mode++) {
+				rotating[mode][i] = new RotationSprite(images[i % images.length]);
+				rotating[mode][i].setQuantized(mode == 1);
+			}
+		}
+		for(int tick = 0; tick < ticks; tick++) {
+			for(int mode = 0; mode < 2; mode++) { // Alternate so both modes see the same state of the JIT and the heap
+				long startTime = System.nanoTime();
+				for(int i = 0; i < sprites; i++) rotating[mode][i].rotate(speeds[i]);
+				times[mode][tick] = System.nanoTime() - startTime;
+			}
+		}
+		for(int mode = 0; mode < 2; mode++) System.out.printf("%s : %d sprites of 32x32 rotated each tick, p50 %.3f ms%n", names[mode], sprites, median(times[mode]) / 1e6);
+		System.out.printf("rotation cache : %d steps, %.1f KB of frames%n", RotationCache.getResolution(), RotationCache.getMemoryUsed() / 1024.0);
+
+		System.out.println(failures == 0 ? "RotationCacheTest passed" : "RotationCacheTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**An asymmetric image, so a frame rotated to the wrong step does not match.*/
+	private static BufferedImage image(Random random, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(new Color(random.nextInt(0xFFFFFF)));
+		g.fillRect(0, 0, width / 2, height);
+		g.setColor(new Color(random.nextInt(0xFFFFFF)));
+		g.fillOval(width / 2, 0, width / 2, height / 2);
+		g.dispose();
+		return image;
+	}
+
+	/**The median of the second half of the times, after the JIT has compiled the rotation.*/
+	private static long median(long[] times) {
+		long[] sorted = Arrays.copyOfRange(times, times.length / 2, times.length);
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	private static boolean isEqual(BufferedImage a, BufferedImage b) {
+		if(a == null || b == null || a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+		return Arrays.equals(a.getRGB(0, 0, a.getWidth(), a.getHeight(), null, 0, a.getWidth()), b.getRGB(0, 0, b.getWidth(), b.getHeight(), null, 0, b.getWidth()));
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,143 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import warped.WarpedProperties;
+import warped.application.entities.projectile.Projectile;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedRenderSnapshot;
+import warped.graphics.window.WarpedRenderHarness;
+import warped.graphics.window.WarpedViewport;
+import warped.graphics.window.WarpedViewport.RenderType;
+import warped.utilities.math.vectors.VectorD;
+
+public class SnapshotStressTest {
+
+	/*Renders a manager from one thread while another thread steps it, adding and removing members every step and adding groups while the manager publishes snapshots.
+	 * Every published snapshot is read on the render thread and checked against the sprites it recorded.
+	 * Then checks that the viewport does not change the objects it draws, and that the next step sets the render transformations the viewport recorded.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display.
+	 * Prints each check and exits with 1 if any check failed.
+	 * args : [members] [steps] i.e. 5000 2000
+	 * */
+
+	private static int failures = 0;
+
+	public static void main(String[] args) throws InterruptedException {
+		int members = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int steps 	= args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		int width = 640;
+		int height = 480;
+
+		BufferedImage small = image(16, 16);
+		BufferedImage large = image(24, 12);
+		WarpedManager<Projectile> manager = new WarpedManager<>("Stress Manager");
+		WarpedGroup<Projectile> group = manager.addGroup("Stress Group");
+		Random random = new Random(2); // Seeded so every run starts with the same scene
+		for(int i = 0; i < members; i++) group.addMember(projectile(random, i % 2 == 0 ? small : large, width, height));
+		manager.openGroup(group);
+		manager.step(0.0);
+
+		WarpedViewport viewport = new WarpedViewport("Stress Viewport", manager, 0, 0, width, height);
+		viewport.setRenderMethod(RenderType.ACTIVE_TRANSFORMED_SCALED);
+		viewport.setCulling(true);
+		WarpedRenderHarness harness = new WarpedRenderHarness(width, height);
+		harness.addViewport(viewport);
+
+		AtomicBoolean isRunning = new AtomicBoolean(true);
+		AtomicInteger badEntries = new AtomicInteger();
+		AtomicInteger frames = new AtomicInteger();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		Thread renderThread = new Thread(() -> {
+			try {
+				while(isRunning.get()) {
+					harness.renderFrame();
+					WarpedRenderSnapshot[] snapshots = manager.getRenderSnapshots();
+					for(int s = 0; s < snapshots.length; s++) {
+						WarpedRenderSnapshot snapshot = snapshots[s];
+						for(int i = 0; i < snapshot.size(); i++) {
+							boolean isSmall = snapshot.getWidth(i) == 16 && snapshot.getHeight(i) == 16;
+							boolean isLarge = snapshot.getWidth(i) == 24 && snapshot.getHeight(i) == 12;
+							if((!isSmall && !isLarge) || snapshot.getRaster(i) == null || Double.isNaN(snapshot.getX(i))) badEntries.incrementAndGet();
+						}
+						snapshot.getEntriesIn(0, 0, width, height, false);
+					}
+					frames.incrementAndGet();
+				}
+			} catch(Throwable t) {error.set(t);}
+		}, "Stress Render Thread");
+		renderThread.start();
+
+		Thread groupThread = new Thread(() -> {
+			try {
+				for(int i = 0; i < 200 && isRunning.get(); i++) {
+					manager.openGroup(manager.addGroup("Added Group " + i));
+					Thread.sleep(1);
+				}
+			} catch(Throwable t) {error.set(t);}
+		}, "Stress Group Thread");
+		groupThread.start();
+
+		long startTime = System.nanoTime();
+		try {
+			for(int i = 0; i < steps; i++) {
+				for(int j = 0; j < 20; j++) group.removeMember(group.getMember(random.nextInt(group.size())).getObjectID());
+				for(int j = 0; j < 20; j++) group.addMember(projectile(random, j % 2 == 0 ? small : large, width, height));
+				manager.step(1.0 / 60);
+			}
+		} catch(Throwable t) {error.set(t);}
+		isRunning.set(false);
+		renderThread.join();
+		groupThread.join();
+		System.out.printf("%d steps and %d frames in %.1f ms%n", steps, frames.get(), (System.nanoTime() - startTime) / 1e6);
+		if(error.get() != null) error.get().printStackTrace();
+		check("no exception while rendering and stepping at the same time", error.get() == null);
+		check("every snapshot entry has the sprite size it was recorded with", badEntries.get() == 0);
+
+		Projectile added = projectile(random, small, width, height);
+		group.addMember(added);
+		manager.step(0.0);
+		harness.renderFrame();
+		check("a viewport does not change the objects it draws", added.getRenderSize().x() == 0.0 && added.getRenderSize().y() == 0.0);
+		manager.step(0.0);
+		double zoom = viewport.camera.getZoom();
+		double x = (added.x() + viewport.camera.getPosition().x()) * zoom;
+		double y = (added.y() + viewport.camera.getPosition().y()) * zoom;
+		boolean isApplied = Math.abs(added.getRenderPosition().x() - x) < 1e-9 && Math.abs(added.getRenderPosition().y() - y) < 1e-9
+				&& added.getRenderSize().x() == 16 * zoom * added.getRenderScale() && added.getRenderSize().y() == 16 * zoom * added.getRenderScale();
+		check("the next step sets the render transformations recorded by the viewport", isApplied);
+
+		System.out.println(failures == 0 ? "SnapshotStressTest passed" : "SnapshotStressTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**A projectile that stays inside the viewport for the length of the test.*/
+	private static Projectile projectile(Random random, BufferedImage image, int width, int height) {
+		VectorD position = new VectorD(random.nextDouble() * (width - 32), random.nextDouble() * (height - 32));
+		VectorD velocity = new VectorD(random.nextDouble() * 2.0 - 1.0, random.nextDouble() * 2.0 - 1.0);
+		return new Projectile(image, position, velocity, Integer.MAX_VALUE);
+	}
+
+	private static BufferedImage image(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(Color.ORANGE);
+		g.fillOval(0, 0, width, height);
+		g.dispose();
+		return image;
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,209 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Random;
+
+import warped.WarpedProperties;
+import warped.application.tile.WarpedTileLayer;
+import warped.application.tile.WarpedTileSource;
+import warped.graphics.window.WarpedCamera;
+import warped.graphics.window.WarpedRenderHarness;
+
+public class TileLayerTest {
+
+	/*Checks that a WarpedTileLayer draws the same pixels as drawing each tile at zoom 1 and 2, that tileChanged() rebakes exactly the one chunk holding the tile in every zoom bucket,
+	 * that the least recently drawn chunks are evicted to keep the cache within its memory budget while the chunks in view are kept, and that the memory used matches the cached chunks.
+	 * Then pans a camera across a 4096x4096 tile map and prints the draw time percentiles of the layer and of drawing each tile in view, at zoom 1 and 0.5.
+	 * Runs without a window, start with -Djava.awt.headless=true on a machine without a display. Prints each check and exits with 1 if any check failed.
+	 * args : [map size] [frames] i.e. 4096 100
+	 * */
+
+	private static final int TILE_SIZE = 16;
+	private static final int CHUNK_SIZE = 8;
+	private static final int CHUNK_BYTES = 4 * CHUNK_SIZE * TILE_SIZE * CHUNK_SIZE * TILE_SIZE;
+
+	private static int failures = 0;
+
+	public static void main(String[] args) {
+		int mapSize = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+		int frames  = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		Random random = new Random(9); // Seeded so every run draws the same map
+		BufferedImage[] rasters = new BufferedImage[8];
+		for(int i = 0; i < rasters.length; i++) rasters[i] = tile(random);
+		int size = 64;
+		int[] map = new int[size * size];
+		for(int i = 0; i < map.length; i++) map[i] = random.nextInt(rasters.length);
+		WarpedTileSource source = (x, y) -> rasters[map[y * size + x]];
+		WarpedTileLayer layer = new WarpedTileLayer(source, size, size, TILE_SIZE, CHUNK_SIZE);
+		WarpedCamera camera = new WarpedCamera() {};
+
+		int differ = 0;
+		for(double zoom : new double[] {1.0, 2.0}) {
+			for(int i = 0; i < 10; i++) {
+				camera.setZoom(zoom);
+				camera.setPosition(-random.nextInt(size * TILE_SIZE - 200), -random.nextInt(size * TILE_SIZE - 200));
+				if(WarpedRenderHarness.compare(draw(layer, camera, 400, 300), drawTiles(source, size, camera, 400, 300), 0) != 0) differ++;
+			}
+		}
+		check("the layer draws the same pixels as drawing each tile at zoom 1 and 2 (" + differ + " of 20 views differ)", differ == 0);
+
+		camera.setPosition(0, 0);
+		double[] zooms = {1.0, 0.5, 0.25};
+		for(double zoom : zooms) {
+			camera.setZoom(zoom);
+			draw(layer, camera, 400, 300);
+		}
+		long bakes = layer.getBakeCount();
+		int cached = layer.getCachedChunkCount();
+		map[3 * size + 5] = (map[3 * size + 5] + 1) % rasters.length;
+		layer.tileChanged(5, 3);
+		boolean isOnePerBucket = true;
+		for(double zoom : zooms) {
+			camera.setZoom(zoom);
+			long before = layer.getBakeCount();
+			draw(layer, camera, 400, 300);
+			if(layer.getBakeCount() - before != 1) isOnePerBucket = false;
+		}
+		check("a changed tile rebakes exactly its chunk in each of the " + zooms.length + " zoom buckets (" + (layer.getBakeCount() - bakes) + " bakes)", isOnePerBucket && layer.getBakeCount() - bakes == zooms.length && layer.getCachedChunkCount() == cached);
+		camera.setZoom(1.0);
+		check("the rebaked chunk draws the changed tile", WarpedRenderHarness.compare(draw(layer, camera, 400, 300), drawTiles(source, size, camera, 400, 300), 0) == 0);
+		bakes = layer.getBakeCount();
+		for(double zoom : zooms) {
+			camera.setZoom(zoom);
+			draw(layer, camera, 400, 300);
+		}
+		check("chunks are not baked again while they are cached", layer.getBakeCount() == bakes);
+
+		WarpedTileLayer lru = new WarpedTileLayer(source, size, size, TILE_SIZE, CHUNK_SIZE);
+		int viewSize = 2 * CHUNK_SIZE * TILE_SIZE - 1; // 2 x 2 chunks when the camera is on a chunk corner
+		lru.setMemoryBudget(8L * CHUNK_BYTES); // Two views
+		camera.setZoom(1.0);
+		drawView(lru, camera, 0, viewSize);
+		drawView(lru, camera, 1, viewSize);
+		check("the cache holds every chunk drawn while within the budget (" + lru.getCachedChunkCount() + " chunks, " + lru.getMemoryUsed() + " bytes)", lru.getCachedChunkCount() == 8 && lru.getMemoryUsed() == 8L * CHUNK_BYTES);
+		drawView(lru, camera, 0, viewSize);
+		bakes = lru.getBakeCount();
+		drawView(lru, camera, 2, viewSize);
+		check("drawing a new view evicts the least recently drawn view", lru.getBakeCount() == bakes + 4 && lru.getMemoryUsed() <= lru.getMemoryBudget());
+		bakes = lru.getBakeCount();
+		drawView(lru, camera, 0, viewSize);
+		check("the recently drawn view is still cached", lru.getBakeCount() == bakes);
+		drawView(lru, camera, 1, viewSize);
+		check("the evicted view is baked again", lru.getBakeCount() == bakes + 4);
+		lru.setMemoryBudget(12L * CHUNK_BYTES); // More than the 3 x 3 chunks a view off the chunk corners can cover
+		boolean isWithinBudget = true;
+		for(int i = 0; i < 200; i++) {
+			camera.setPosition(-random.nextInt(size * TILE_SIZE - viewSize), -random.nextInt(size * TILE_SIZE - viewSize));
+			draw(lru, camera, viewSize, viewSize);
+			if(lru.getMemoryUsed() > lru.getMemoryBudget() || lru.getMemoryUsed() != (long)lru.getCachedChunkCount() * CHUNK_BYTES) isWithinBudget = false;
+		}
+		check("the memory used stays within the budget and matches the cached chunks while panning", isWithinBudget);
+		lru.setMemoryBudget(0);
+		drawView(lru, camera, 3, viewSize);
+		check("the chunks in view are kept when the budget is too small for them (" + lru.getCachedChunkCount() + " chunks)", lru.getCachedChunkCount() == 4 && lru.getMemoryUsed() == 4L * CHUNK_BYTES);
+		lru.invalidateAll();
+		check("invalidating every chunk empties the cache", lru.getCachedChunkCount() == 0 && lru.getMemoryUsed() == 0);
+
+		bench(mapSize, frames, rasters);
+
+		System.out.println(failures == 0 ? "TileLayerTest passed" : "TileLayerTest failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**Pan across a large map that is generated from the coordinates of each tile, drawing it with a layer and drawing each tile in view.*/
+	private static void bench(int mapSize, int frames, BufferedImage[] rasters) {
+		int width = 1920;
+		int height = 1080;
+		WarpedTileSource source = (x, y) -> rasters[((x * 73856093) ^ (y * 19349663)) >>> 29];
+		WarpedTileLayer layer = new WarpedTileLayer(source, mapSize, mapSize, TILE_SIZE);
+		WarpedCamera camera = new WarpedCamera() {};
+		BufferedImage target = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		for(double zoom : new double[] {1.0, 0.5}) {
+			camera.setZoom(zoom);
+			long[][] times = new long[2][frames];
+			for(int frame = 0; frame < frames; frame++) {
+				camera.setPosition(-frame * 24.0 / zoom, -frame * 12.0 / zoom); // 24 by 12 pixels on screen per frame at every zoom
+				for(int mode = 0; mode < 2; mode++) {
+					Graphics2D g = target.createGraphics();
+					long startTime = System.nanoTime();
+					if(mode == 0) layer.draw(g, camera, width, height);
+					else drawTiles(g, source, mapSize, camera, width, height);
+					times[mode][frame] = System.nanoTime() - startTime;
+					g.dispose();
+				}
+			}
+			System.out.printf("%dx%d map, zoom %.1f : layer p50 %.3f ms, p99 %.3f ms (%d bakes, %d chunks cached) | each tile p50 %.3f ms, p99 %.3f ms%n", mapSize, mapSize, zoom,
+					percentile(times[0], 50.0) / 1e6, percentile(times[0], 99.0) / 1e6, layer.getBakeCount(), layer.getCachedChunkCount(), percentile(times[1], 50.0) / 1e6, percentile(times[1], 99.0) / 1e6);
+		}
+	}
+
+	/**Draw the view with the camera on the corner of chunk (2 * index, 0).*/
+	private static void drawView(WarpedTileLayer layer, WarpedCamera camera, int index, int viewSize) {
+		camera.setPosition(-2 * index * CHUNK_SIZE * TILE_SIZE, 0);
+		draw(layer, camera, viewSize, viewSize);
+	}
+
+	private static BufferedImage draw(WarpedTileLayer layer, WarpedCamera camera, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		layer.draw(g, camera, width, height);
+		g.dispose();
+		return image;
+	}
+
+	private static BufferedImage drawTiles(WarpedTileSource source, int mapSize, WarpedCamera camera, int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		drawTiles(g, source, mapSize, camera, width, height);
+		g.dispose();
+		return image;
+	}
+
+	/**Draw each tile in view as its own image, how a tile map is drawn without a layer.*/
+	private static void drawTiles(Graphics2D g, WarpedTileSource source, int mapSize, WarpedCamera camera, int width, int height) {
+		double zoom = camera.getZoom();
+		double cameraX = camera.getPosition().x();
+		double cameraY = camera.getPosition().y();
+		int startX = Math.max(0, (int)Math.floor(-cameraX / TILE_SIZE));
+		int startY = Math.max(0, (int)Math.floor(-cameraY / TILE_SIZE));
+		int endX = Math.min(mapSize - 1, (int)Math.floor((width / zoom - cameraX) / TILE_SIZE));
+		int endY = Math.min(mapSize - 1, (int)Math.floor((height / zoom - cameraY) / TILE_SIZE));
+		for(int y = startY; y <= endY; y++) {
+			int y0 = (int)Math.floor((y * TILE_SIZE + cameraY) * zoom);
+			int y1 = (int)Math.floor(((y + 1) * TILE_SIZE + cameraY) * zoom);
+			for(int x = startX; x <= endX; x++) {
+				int x0 = (int)Math.floor((x * TILE_SIZE + cameraX) * zoom);
+				int x1 = (int)Math.floor(((x + 1) * TILE_SIZE + cameraX) * zoom);
+				g.drawImage(source.getTileRaster(x, y), x0, y0, x1 - x0, y1 - y0, null);
+			}
+		}
+	}
+
+	/**A tile of noise over a random colour, so a tile drawn in the wrong place does not match.*/
+	private static BufferedImage tile(Random random) {
+		BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = image.createGraphics();
+		g.setColor(new Color(random.nextInt(0xFFFFFF)));
+		g.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+		g.dispose();
+		for(int i = 0; i < 24; i++) image.setRGB(random.nextInt(TILE_SIZE), random.nextInt(TILE_SIZE), random.nextInt() | 0xFF000000);
+		return image;
+	}
+
+	/**The nearest rank percentile of the second half of the times, after the JIT has compiled the draw.*/
+	private static long percentile(long[] times, double percentile) {
+		long[] sorted = Arrays.copyOfRange(times, times.length / 2, times.length);
+		Arrays.sort(sorted);
+		return sorted[Math.max(0, (int)Math.ceil(percentile / 100.0 * sorted.length) - 1)];
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
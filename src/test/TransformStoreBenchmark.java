@@ -0,0 +1,107 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package test;
+
+import java.util.Arrays;
+
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedManager;
+import warped.application.state.WarpedVoidObject;
+
+public class TransformStoreBenchmark {
+
+	/*Moves the same members by the same velocities, once in a group where each member moves its own VectorD in updatePosition() (before)
+	 * and once in a group with a transform store where the group integrates the velocity of every member in one pass (after, see WarpedGroup.setTransformStore()).
+	 * Checks that both groups end with every member at the same position, then prints the median time of the position update alone and of a whole step() per tick.
+	 * Exits with 1 if the positions differ.
+	 * args : [members] [ticks] i.e. 100000 300
+	 * */
+
+	private static int failures = 0;
+
+	private static class Mover extends WarpedVoidObject {
+		private final double velocityX;
+		private final double velocityY;
+		private final boolean isMovingItself;
+		private Mover(int seed, boolean isMovingItself) {
+			velocityX = (seed % 13) - 6;
+			velocityY = (seed % 7) - 3;
+			this.isMovingItself = isMovingItself;
+			setPosition(seed % 1000, seed / 1000);
+		}
+		@Override
+		protected void updatePosition(double deltaTime) {
+			if(isMovingItself) move(velocityX * deltaTime, velocityY * deltaTime);
+		}
+	}
+
+	/**Exposes the position update of the manager so it can be timed without the rest of the step.*/
+	private static class BenchManager extends WarpedManager<Mover> {
+		private BenchManager(String name) {super(name);}
+		private void position(double deltaTime) {updatePosition(deltaTime);}
+	}
+
+	public static void main(String[] args) {
+		int members = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+		double deltaTime = 1.0 / 60;
+
+		BenchManager[] managers = new BenchManager[2];
+		WarpedGroup<?>[] groups = new WarpedGroup<?>[2];
+		for(int mode = 0; mode < 2; mode++) {
+			boolean isStore = mode == 1;
+			BenchManager manager = new BenchManager(isStore ? "Store Manager" : "Vector Manager");
+			WarpedGroup<Mover> group = manager.addGroup("Movers");
+			group.setTransformStore(isStore);
+			for(int i = 0; i < members; i++) {
+				Mover mover = new Mover(i, !isStore);
+				group.addMember(mover);
+				if(isStore) mover.setVelocity(mover.velocityX, mover.velocityY);
+			}
+			manager.openGroup(group);
+			managers[mode] = manager;
+			groups[mode] = group;
+		}
+
+		long[][] positionTimes = new long[2][ticks];
+		long[][] stepTimes = new long[2][ticks];
+		for(int tick = 0; tick < ticks; tick++) {
+			for(int mode = 0; mode < 2; mode++) { // Alternate so both modes see the same state of the JIT and the heap
+				long startTime = System.nanoTime();
+				managers[mode].position(deltaTime);
+				positionTimes[mode][tick] = System.nanoTime() - startTime;
+				startTime = System.nanoTime();
+				managers[mode].step(deltaTime);
+				stepTimes[mode][tick] = System.nanoTime() - startTime;
+			}
+		}
+
+		int moved = 0;
+		int differ = 0;
+		for(int i = 0; i < members; i++) {
+			Mover a = (Mover)groups[0].getMember(i);
+			Mover b = (Mover)groups[1].getMember(i);
+			if(Math.abs(a.getPosition().x() - b.getPosition().x()) > 1e-6 || Math.abs(a.getPosition().y() - b.getPosition().y()) > 1e-6) differ++;
+			if(a.getPosition().x() != i % 1000 || a.getPosition().y() != i / 1000) moved++;
+		}
+		check("every member ends at the same position with and without the transform store (" + differ + " differ, " + moved + " moved)", differ == 0 && moved > 0);
+		String[] names = {"VectorD per member ", "transform store    "};
+		for(int mode = 0; mode < 2; mode++) System.out.printf("%s : %d members, position update p50 %.3f ms, whole step p50 %.3f ms%n", names[mode], members, median(positionTimes[mode]) / 1e6, median(stepTimes[mode]) / 1e6);
+		System.out.printf("the transform store moves the members in %.2fx the time of moving each VectorD%n", (double)median(positionTimes[1]) / median(positionTimes[0]));
+
+		System.out.println(failures == 0 ? "TransformStoreBenchmark passed" : "TransformStoreBenchmark failed " + failures + " checks");
+		System.exit(failures == 0 ? 0 : 1);
+	}
+
+	/**The median of the second half of the times, after the JIT has compiled the update.*/
+	private static long median(long[] times) {
+		long[] sorted = Arrays.copyOfRange(times, times.length / 2, times.length);
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+	private static void check(String name, boolean isPassed) {
+		System.out.println((isPassed ? "PASS : " : "FAIL : ") + name);
+		if(!isPassed) failures++;
+	}
+
+}
@@ -0,0 +1,94 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package warped.application.entities.item;
+
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedObjectPool;
+import warped.utilities.math.vectors.VectorD;
+
+public final class ItemPool<T extends ItemBindable<? extends Enum<?>>> {
+
+	/*ItemPool spawns items into a group (i.e. loot dropped into the world) and reuses them once they are killed, instead of constructing a new item for each drop.
+	 * When a spawned item is killed and removed from its group it is reset and kept by the pool, the next spawn will reuse it with the new type and quantity.
+	 * A removed item is only reused once its group has published a new render snapshot, the snapshot the viewports are drawing may still hold it until then.
+	 * Items that are removed without being killed (i.e. moved into an inventory) are not reused.
+	 * Spawned items share the raster of their item type, see WarpedSprite(BufferedImage).
+	 * */
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final WarpedGroup<? super WarpedItem<T>> group;
+	private final WarpedObjectPool<WarpedItem<T>> items;
+	private int createdCount = 0;
+
+	/**A pool that spawns items into a group.
+	 * @param group - the group the items are added to.
+	 * @author 5som3*/
+	public ItemPool(WarpedGroup<? super WarpedItem<T>> group) {this(group, DEFAULT_CAPACITY);}
+
+	/**A pool that spawns items into a group.
+	 * @param group - the group the items are added to.
+	 * @param capacity - the most items kept for reuse, any more are left for the garbage collector.
+	 * @author 5som3*/
+	public ItemPool(WarpedGroup<? super WarpedItem<T>> group, int capacity) {
+		this.group = group;
+		items = new WarpedObjectPool<>(group, capacity);
+	}
+
+	/**Set the most items kept for reuse.
+	 * @param capacity - the number of items, 0 or greater.
+	 * @apiNote Items already kept are released if there are more than the capacity.
+	 * @author 5som3*/
+	public void setCapacity(int capacity) {items.setCapacity(capacity);}
+
+	/**Spawn an item.
+	 * @param itemType - the type of the item.
+	 * @param quantity - the number of items in the stack.
+	 * @param position - the position of the item, copied.
+	 * @return WarpedItem<T> - the item, either reused or new.
+	 * @author 5som3*/
+	public WarpedItem<T> spawn(T itemType, int quantity, VectorD position) {
+		WarpedItem<T> item;
+		synchronized(this) {
+			item = items.take();
+			if(item == null) {
+				item = new WarpedItem<>(itemType, quantity);
+				item.pool = this;
+				createdCount++;
+			}
+		}
+		item.setItemType(itemType, quantity);
+		item.setPosition(position);
+		group.addMember(item);
+		return item;
+	}
+
+	/**Spawn an item and drop it, the item will bounce away from the position.
+	 * @param itemType - the type of the item.
+	 * @param quantity - the number of items in the stack.
+	 * @param position - the position to drop the item from, copied.
+	 * @return WarpedItem<T> - the item, either reused or new.
+	 * @author 5som3*/
+	public WarpedItem<T> drop(T itemType, int quantity, VectorD position) {
+		WarpedItem<T> item = spawn(itemType, quantity, position);
+		item.dropItem();
+		return item;
+	}
+
+	/**The number of items waiting to be reused.
+	 * @return int - the number of free items.
+	 * @author 5som3*/
+	public int getFreeCount() {return items.getFreeCount();}
+
+	/**The number of items the pool has constructed.
+	 * @return int - the number of items created because none were free.
+	 * @author 5som3*/
+	public synchronized int getCreatedCount() {return createdCount;}
+
+	/**Release all free items.
+	 * @author 5som3*/
+	public void clear() {items.clear();}
+
+	/**Keep an item that has been removed from its group for reuse, called by the item.*/
+	void recycle(WarpedItem<T> item) {items.recycle(item);}
+
+}
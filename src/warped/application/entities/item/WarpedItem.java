@@ -4,6 +4,7 @@ package warped.application.entities.item;
 import warped.application.actionWrappers.ActionOption;
 import warped.application.entities.WarpedEntitie;
 import warped.application.state.WarpedState;
+import warped.graphics.sprite.WarpedSprite;
 import warped.graphics.window.WarpedMouseEvent;
 import warped.utilities.math.vectors.VectorD;
 import warped.utilities.utils.Console;
@@ -23,6 +24,8 @@ public class WarpedItem <T extends ItemBindable<? extends Enum<?>>>extends Warpe
 	private boolean isDropped = false;
 	private double height = FALL_HEIGHT;
 	
+	ItemPool<T> pool; //The pool that spawned the item, null if it was constructed directly
+	
 	
 	
 	/**A new item of of the specified type
@@ -31,7 +34,7 @@ public class WarpedItem <T extends ItemBindable<? extends Enum<?>>>extends Warpe
 		this.itemType = itemType;
 		this.name = itemType.getString();
 		setToolTip(name);
-		sprite.paint(itemType.getRaster(), itemType.getRaster().getWidth(), itemType.getRaster().getHeight());
+		sprite = new WarpedSprite(itemType.getRaster()); // Shared by every item of the type
 		clearSelectOptions();
 		addSelectOption(new ActionOption("Inspect", () -> {
 			WarpedState.itemInspector.selectItem(this);
@@ -46,7 +49,7 @@ public class WarpedItem <T extends ItemBindable<? extends Enum<?>>>extends Warpe
 		this.name = itemType.getString();
 		this.quantity = quantity;
 		setToolTip(name);
-		sprite.paint(itemType.getRaster(), itemType.getRaster().getWidth(), itemType.getRaster().getHeight());
+		sprite = new WarpedSprite(itemType.getRaster()); // Shared by every item of the type
 		clearSelectOptions();
 		addSelectOption(new ActionOption("Inspect", () -> {
 			WarpedState.itemInspector.selectItem(this);
@@ -54,6 +57,35 @@ public class WarpedItem <T extends ItemBindable<? extends Enum<?>>>extends Warpe
 		}));
 	}
 		
+	/**Return the item to the state of a newly constructed item.
+	 * @apiNote The item type is kept until the item is spawned again, see ItemPool.
+	 * @author 5som3*/
+	@Override
+	protected void reset() {
+		super.reset();
+		quantity = 1;
+		mass 	 = 0.1;
+		value 	 = 0;
+		velocity.set(0.0, 0.0, 0.0);
+		isDropped = false;
+		height 	 = FALL_HEIGHT;
+	}
+	
+	/**Return the item to its pool once it has been killed and removed from its group.*/
+	@Override
+	protected void removed() {
+		if(pool != null && !isAlive()) pool.recycle(this);
+	}
+	
+	/**Set the type and quantity of the item, used by the pool to reuse an item.*/
+	void setItemType(T itemType, int quantity) {
+		this.itemType = itemType;
+		this.name = itemType.getString();
+		this.quantity = quantity;
+		setToolTip(name);
+		if(sprite.raster() != itemType.getRaster()) sprite.setRasterSized(itemType.getRaster());
+	}
+	
 	/**Drop the item 
 	 * Will randomize the drop velocity and queue the updating of the drop animation  
 	 * @author 5som3*/
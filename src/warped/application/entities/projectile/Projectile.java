@@ -5,6 +5,7 @@ import java.awt.image.BufferedImage;
 
 import warped.application.state.WarpedObject;
 import warped.functionalInterfaces.WarpedAction;
+import warped.graphics.sprite.WarpedSprite;
 import warped.graphics.window.WarpedMouseEvent;
 import warped.utilities.math.vectors.VectorD;
 import warped.utilities.utils.Console;
@@ -27,6 +28,8 @@ public class Projectile extends WarpedObject {
 	protected double distanceOut = 0.0;
 	
 	protected WarpedAction expireAction = () -> {Console.ln("Projectile -> default expire action");};
+	
+	ProjectilePool pool; //The pool that spawned the projectile, null if it was constructed directly
 		
 	
 	/**This method will trigger when the projectile collides with another object.
@@ -46,10 +49,10 @@ public class Projectile extends WarpedObject {
 	 * @apiNote Projectiles will eventually expire if no collision occurs. 
 	 * @apiNote By default projectiles will expire after 1000 ticks.
 	 * @apiNote When a projectile expires the expireAction will trigger. 
+	 * @apiNote The raster is shared, not copied, see WarpedSprite(BufferedImage).
 	 * @author 5som3*/
 	public Projectile(BufferedImage raster, VectorD position, VectorD velocity) {
-		sprite.setSize(raster.getWidth(), raster.getHeight());
-		sprite.paint(raster);
+		sprite = new WarpedSprite(raster);
 		this.velocity = velocity;
 		this.setPosition(position);
 		startPosition = new VectorD(position);
@@ -65,8 +68,7 @@ public class Projectile extends WarpedObject {
 	 * @apiNote When a projectile expires the expireAction will trigger. 
 	 * @author 5som3*/
 	public Projectile(BufferedImage raster, VectorD position, VectorD velocity, int timeOut) {
-		sprite.setSize(raster.getWidth(), raster.getHeight());
-		sprite.paint(raster);
+		sprite = new WarpedSprite(raster);
 		this.velocity = velocity;
 		setPositionPointer(position);
 		startPosition = new VectorD(position);
@@ -84,8 +86,7 @@ public class Projectile extends WarpedObject {
 	 * @apiNote When a projectile expires the expireAction will trigger. 
 	 * @author 5som3*/
 	public Projectile(BufferedImage raster, VectorD position, VectorD velocity, double distanceOut) {
-		sprite.setSize(raster.getWidth(), raster.getHeight());
-		sprite.paint(raster);
+		sprite = new WarpedSprite(raster);
 		this.velocity = velocity;
 		setPositionPointer(position);
 		startPosition = new VectorD(position);
@@ -94,6 +95,38 @@ public class Projectile extends WarpedObject {
 		lifeType = LifeType.DISTANCE;
 	}
 	
+	/**Return the projectile to the state of a newly constructed projectile.
+	 * @apiNote The raster, position and velocity are kept until the projectile is launched again, see ProjectilePool.
+	 * @author 5som3*/
+	@Override
+	protected void reset() {
+		super.reset();
+		lifeType 	 = LifeType.TIME;
+		tick 		 = 0;
+		timeOut 	 = 1000;
+		distanceOut  = 0.0;
+		acceleration.set(0.0, 0.0);
+		expireAction = () -> {Console.ln("Projectile -> default expire action");};
+	}
+	
+	/**Return the projectile to its pool once it has been killed and removed from its group.*/
+	@Override
+	protected void removed() {
+		if(pool != null && !isAlive()) pool.recycle(this);
+	}
+	
+	/**Set the graphics and motion of the projectile, used by the pool to reuse a projectile.
+	 * @apiNote The position and velocity are copied.*/
+	void launch(BufferedImage raster, VectorD position, VectorD velocity, LifeType lifeType, int timeOut, double distanceOut) {
+		if(sprite.raster() != raster) sprite.setRasterSized(raster);
+		setPosition(position);
+		startPosition.set(position);
+		this.velocity.set(velocity);
+		this.lifeType 	 = lifeType;
+		this.timeOut 	 = timeOut;
+		this.distanceOut = distanceOut;
+	}
+	
 	/**Set an action to trigger when the projectile expires.
 	 * @param expireAction - the action to trigger at time of expiry.
 	 * @apiNote The action will trigger when the projectile expires by any expire type.
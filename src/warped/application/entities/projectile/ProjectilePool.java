@@ -0,0 +1,110 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package warped.application.entities.projectile;
+
+import java.awt.image.BufferedImage;
+
+import warped.application.entities.projectile.Projectile.LifeType;
+import warped.application.state.WarpedGroup;
+import warped.application.state.WarpedObjectPool;
+import warped.utilities.math.vectors.VectorD;
+
+public final class ProjectilePool {
+
+	/*ProjectilePool spawns projectiles into a group and reuses them after they expire or hit something, instead of constructing a new projectile for each shot.
+	 * When a spawned projectile is killed and removed from its group it is reset and kept by the pool, the next spawn will launch it again.
+	 * A removed projectile is only reused once its group has published a new render snapshot, the snapshot the viewports are drawing may still hold it until then.
+	 * Spawned projectiles share the raster they are spawned with, see WarpedSprite(BufferedImage), so a burst of projectiles holds no pixel data of its own.
+	 * The group gives a reused projectile a new identity with a recycled slot, any identity held for it before it was killed is stale.
+	 * */
+
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private final WarpedGroup<? super Projectile> group;
+	private final WarpedObjectPool<Projectile> projectiles;
+	private int createdCount = 0;
+	private int reusedCount = 0;
+
+	/**A pool that spawns projectiles into a group.
+	 * @param group - the group the projectiles are added to.
+	 * @author 5som3*/
+	public ProjectilePool(WarpedGroup<? super Projectile> group) {this(group, DEFAULT_CAPACITY);}
+
+	/**A pool that spawns projectiles into a group.
+	 * @param group - the group the projectiles are added to.
+	 * @param capacity - the most projectiles kept for reuse, any more are left for the garbage collector.
+	 * @author 5som3*/
+	public ProjectilePool(WarpedGroup<? super Projectile> group, int capacity) {
+		this.group = group;
+		projectiles = new WarpedObjectPool<>(group, capacity);
+	}
+
+	/**Set the most projectiles kept for reuse.
+	 * @param capacity - the number of projectiles, 0 or greater.
+	 * @apiNote Projectiles already kept are released if there are more than the capacity.
+	 * @author 5som3*/
+	public void setCapacity(int capacity) {projectiles.setCapacity(capacity);}
+
+	/**Spawn a projectile that expires after 1000 ticks.
+	 * @param raster - the image that the projectile will appear as.
+	 * @param position - the start position for the projectile, copied.
+	 * @param velocity - the speed and direction of the projectile, copied.
+	 * @return Projectile - the projectile, either reused or new.
+	 * @author 5som3*/
+	public Projectile spawn(BufferedImage raster, VectorD position, VectorD velocity) {return spawn(raster, position, velocity, LifeType.TIME, 1000, 0.0);}
+
+	/**Spawn a projectile that expires after a number of ticks.
+	 * @param raster - the image that the projectile will appear as.
+	 * @param position - the start position for the projectile, copied.
+	 * @param velocity - the speed and direction of the projectile, copied.
+	 * @param timeOut - the number of ticks that will occur before the projectile expires.
+	 * @return Projectile - the projectile, either reused or new.
+	 * @author 5som3*/
+	public Projectile spawn(BufferedImage raster, VectorD position, VectorD velocity, int timeOut) {return spawn(raster, position, velocity, LifeType.TIME, timeOut, 0.0);}
+
+	/**Spawn a projectile that expires after travelling a distance.
+	 * @param raster - the image that the projectile will appear as.
+	 * @param position - the start position for the projectile, copied.
+	 * @param velocity - the speed and direction of the projectile, copied.
+	 * @param distanceOut - the distance that the projectile can travel before it expires.
+	 * @return Projectile - the projectile, either reused or new.
+	 * @author 5som3*/
+	public Projectile spawn(BufferedImage raster, VectorD position, VectorD velocity, double distanceOut) {return spawn(raster, position, velocity, LifeType.DISTANCE, 1000, distanceOut);}
+
+	/**The number of projectiles waiting to be reused.
+	 * @return int - the number of free projectiles.
+	 * @author 5som3*/
+	public int getFreeCount() {return projectiles.getFreeCount();}
+
+	/**The number of projectiles the pool has constructed.
+	 * @return int - the number of projectiles created because none were free.
+	 * @author 5som3*/
+	public synchronized int getCreatedCount() {return createdCount;}
+
+	/**The number of spawns that reused a projectile.
+	 * @return int - the number of reused projectiles.
+	 * @author 5som3*/
+	public synchronized int getReusedCount() {return reusedCount;}
+
+	/**Release all free projectiles.
+	 * @author 5som3*/
+	public void clear() {projectiles.clear();}
+
+	/**Keep a projectile that has been removed from its group for reuse, called by the projectile.*/
+	void recycle(Projectile projectile) {projectiles.recycle(projectile);}
+
+	private Projectile spawn(BufferedImage raster, VectorD position, VectorD velocity, LifeType lifeType, int timeOut, double distanceOut) {
+		Projectile projectile;
+		synchronized(this) {
+			projectile = projectiles.take();
+			if(projectile == null) {
+				projectile = new Projectile(raster, position, new VectorD(velocity));
+				projectile.pool = this;
+				createdCount++;
+			} else reusedCount++;
+		}
+		projectile.launch(raster, position, velocity, lifeType, timeOut, distanceOut);
+		group.addMember(projectile);
+		return projectile;
+	}
+
+}
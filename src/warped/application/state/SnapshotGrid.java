@@ -0,0 +1,103 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.util.Arrays;
+
+final class SnapshotGrid {
+
+	/*SnapshotGrid is a loose uniform grid over the entries of a render snapshot, used to find the entries that may be visible to a camera.
+	 * Each entry is stored in the cell containing its top left corner, queries are expanded by the largest entry size so no entry that overlaps the area is missed.
+	 * The grid is built with a counting sort in O(n), the cells are sized so there are about 4 entries per cell on average.
+	 * */
+
+	private static final int ENTRIES_PER_CELL = 4;
+	private static final int MAX_CELLS_PER_AXIS = 1024;
+
+	private final double minX;
+	private final double minY;
+	private final double cellScale; //1 / cell size
+	private final int cellCountX;
+	private final int cellCountY;
+	private final double maxExtentX;
+	private final double maxExtentY;
+	private final int[] cellStarts; //Index of the first entry of each cell in cellEntries, cellStarts[cell + 1] is the end
+	private final int[] cellEntries;
+
+	/**Build a grid over the first size entries.
+	 * @param x - the x coordinate of each entry.
+	 * @param y - the y coordinate of each entry.
+	 * @param extentX - the largest width any entry can be drawn at.
+	 * @param extentY - the largest height any entry can be drawn at.
+	 * @param size - the number of entries.*/
+	SnapshotGrid(double[] x, double[] y, double extentX, double extentY, int size) {
+		double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+		for(int i = 0; i < size; i++) {
+			if(x[i] < minX) minX = x[i];
+			if(y[i] < minY) minY = y[i];
+			if(x[i] > maxX) maxX = x[i];
+			if(y[i] > maxY) maxY = y[i];
+		}
+		if(size == 0) minX = minY = maxX = maxY = 0.0;
+		double width = maxX - minX + 1.0;
+		double height = maxY - minY + 1.0;
+		double cellSize = Math.sqrt(width * height * ENTRIES_PER_CELL / Math.max(1, size));
+		cellSize = Math.max(cellSize, Math.max(width, height) / MAX_CELLS_PER_AXIS);
+		this.minX 		= minX;
+		this.minY 		= minY;
+		this.cellScale 	= 1.0 / cellSize;
+		this.cellCountX = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, (int)(width / cellSize) + 1));
+		this.cellCountY = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, (int)(height / cellSize) + 1));
+		this.maxExtentX = extentX;
+		this.maxExtentY = extentY;
+
+		int[] cells = new int[size];
+		cellStarts = new int[cellCountX * cellCountY + 1];
+		for(int i = 0; i < size; i++) {
+			cells[i] = cellY(y[i]) * cellCountX + cellX(x[i]);
+			cellStarts[cells[i] + 1]++;
+		}
+		for(int i = 1; i < cellStarts.length; i++) cellStarts[i] += cellStarts[i - 1];
+		int[] next = Arrays.copyOf(cellStarts, cellStarts.length - 1);
+		cellEntries = new int[size];
+		for(int i = 0; i < size; i++) cellEntries[next[cells[i]]++] = i;
+	}
+
+	/**The entries that may overlap an area.
+	 * @return int[] - the indices of the entries in ascending order, a superset of the entries that overlap the area.*/
+	int[] query(double areaMinX, double areaMinY, double areaMaxX, double areaMaxY) {
+		if(areaMaxX < minX || areaMaxY < minY) return new int[0];
+		int startX = cellX(areaMinX - maxExtentX);
+		int startY = cellY(areaMinY - maxExtentY);
+		int endX = cellX(areaMaxX);
+		int endY = cellY(areaMaxY);
+
+		int count = 0;
+		for(int cy = startY; cy <= endY; cy++) count += cellStarts[cy * cellCountX + endX + 1] - cellStarts[cy * cellCountX + startX];
+		int[] result = new int[count];
+		int index = 0;
+		for(int cy = startY; cy <= endY; cy++) {
+			int from = cellStarts[cy * cellCountX + startX];
+			int to = cellStarts[cy * cellCountX + endX + 1];
+			System.arraycopy(cellEntries, from, result, index, to - from); // Cells in a row are contiguous
+			index += to - from;
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	private int cellX(double x) {
+		double cell = (x - minX) * cellScale;
+		if(cell < 0) return 0;
+		if(cell >= cellCountX) return cellCountX - 1;
+		return (int)cell;
+	}
+
+	private int cellY(double y) {
+		double cell = (y - minY) * cellScale;
+		if(cell < 0) return 0;
+		if(cell >= cellCountY) return cellCountY - 1;
+		return (int)cell;
+	}
+
+}
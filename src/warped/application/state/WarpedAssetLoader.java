@@ -0,0 +1,246 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import warped.utilities.WarpedThreadFactory;
+import warped.utilities.utils.Console;
+import warped.utilities.utils.UtilsImage;
+
+public class WarpedAssetLoader {
+
+	/*WarpedAssetLoader decodes the files of WarpedFolders on a bounded pool of threads instead of one after another on the thread that loads the application.
+	 * A folder resolves its files (from the folder or its linkData) then passes one task per file to the loader, the folder waits until every task is done and keeps the results in the order of its types.
+	 * The results are the same as loading in order, only the time taken changes, set the thread count to 1 to load on the calling thread.
+	 *
+	 * Images are converted to the screen format once when they are loaded (see UtilsImage.toCompatibleImage()) so they are not converted each time they are drawn.
+	 * Each loaded file advances the load progress of WarpedFramework2D, which is drawn by the WarpedWindow load screen.
+	 * Folders are loaded one after another so the loader can't know how many files are still to come, each call to load() is given a part of the progress that is left :
+	 * the files expected with setExpectedCount() if they have not all been queued yet, else half of what is left, so the progress moves steadily and never reaches the end before the last folder.
+	 * The pool threads stop when they have been idle for a second, so the loader holds no threads once loading is done.
+	 * */
+
+	public static final double ASSET_LOAD_PROGRESS = 0.9; // The load progress when every queued file is loaded, the rest is initializing the application
+	private static final long KEEP_ALIVE_MILLIS = 1000;
+	private static final double UNEXPECTED_SHARE = 0.5; // The part of the progress left that is given to a load when the files to come are not known
+
+	private static int threadCount = Runtime.getRuntime().availableProcessors();
+	private static ThreadPoolExecutor pool;
+
+	private static final AtomicInteger queuedCount = new AtomicInteger();
+	private static final AtomicInteger loadedCount = new AtomicInteger();
+	private static final AtomicInteger failedCount = new AtomicInteger();
+	private static int expectedCount = 0;
+	private static double assetProgress = 0.0; // The part of the asset loading published so far, from 0.0 to 1.0
+
+	private WarpedAssetLoader() {}
+
+	/**Set the number of threads that load files at once.
+	 * @param threadCount - the number of threads, 1 to load each file on the thread that loads the folder.
+	 * @apiNote The default is the number of available processors.
+	 * @author 5som3*/
+	public static synchronized void setThreadCount(int threadCount) {
+		if(threadCount < 1) {
+			Console.err("WarpedAssetLoader -> setThreadCount() -> thread count must be at least 1 : " + threadCount);
+			threadCount = 1;
+		}
+		WarpedAssetLoader.threadCount = threadCount;
+		if(pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**The number of threads that load files at once.
+	 * @return int - the thread count.
+	 * @author 5som3*/
+	public static int getThreadCount() {return threadCount;}
+
+	/**Start a new load, clearing the counts and the progress of any previous load.
+	 * @apiNote Called by WarpedFramework2D before the application loads its assets.
+	 * @author 5som3*/
+	public static synchronized void reset() {
+		queuedCount.set(0);
+		loadedCount.set(0);
+		failedCount.set(0);
+		expectedCount = 0;
+		assetProgress = 0.0;
+	}
+	
+	/**Set the number of files the application will load, so the load progress moves in step with the files.
+	 * @param expectedCount - the number of files in every folder that will be loaded, 0 if not known.
+	 * @apiNote Call at the start of WarpedApplication.loadAssets(), before the first folder is generated. Without it each folder is given half of the progress left.
+	 * @author 5som3*/
+	public static synchronized void setExpectedCount(int expectedCount) {
+		if(expectedCount < 0) {
+			Console.err("WarpedAssetLoader -> setExpectedCount() -> expected count must be at least 0 : " + expectedCount);
+			expectedCount = 0;
+		}
+		WarpedAssetLoader.expectedCount = expectedCount;
+	}
+	
+	/**The number of files the application will load.
+	 * @return int - the expected count, 0 if not known.
+	 * @author 5som3*/
+	public static int getExpectedCount() {return expectedCount;}
+	
+	/**The number of files that have been queued to load.
+	 * @return int - the queued count.
+	 * @author 5som3*/
+	public static int getQueuedCount() {return queuedCount.get();}
+
+	/**The number of files that have finished loading, including files that failed.
+	 * @return int - the loaded count.
+	 * @author 5som3*/
+	public static int getLoadedCount() {return loadedCount.get();}
+
+	/**The number of files that failed to load.
+	 * @return int - the failed count.
+	 * @author 5som3*/
+	public static int getFailedCount() {return failedCount.get();}
+
+	/**The progress of the files queued so far.
+	 * @return double - from 0.0 (none loaded) to 1.0 (every queued file loaded).
+	 * @author 5som3*/
+	public static double getProgress() {
+		int queued = queuedCount.get();
+		if(queued == 0) return 1.0;
+		return loadedCount.get() / (double)queued;
+	}
+
+	/**Read an image from a file and convert it to the screen format.
+	 * @param file - the image file.
+	 * @return BufferedImage - the image, null if it could not be read.
+	 * @author 5som3*/
+	public static BufferedImage readImage(File file) {
+		try {
+			BufferedImage image = ImageIO.read(file);
+			if(image != null) return UtilsImage.toCompatibleImage(image);
+		} catch (IOException e) {
+			Console.stackTrace(e);
+		}
+		Console.err("WarpedAssetLoader -> readImage() -> failed to read image from file : " + file.getPath());
+		return null;
+	}
+
+	/**Read an image from a resource and convert it to the screen format.
+	 * @param url - the url of the image resource.
+	 * @return BufferedImage - the image, null if it could not be read.
+	 * @author 5som3*/
+	public static BufferedImage readImage(URL url) {
+		try {
+			BufferedImage image = ImageIO.read(url);
+			if(image != null) return UtilsImage.toCompatibleImage(image);
+		} catch (IOException e) {
+			Console.stackTrace(e);
+		}
+		Console.err("WarpedAssetLoader -> readImage() -> failed to read image from url : " + url);
+		return null;
+	}
+
+	/**Run a list of load tasks and wait until every task is done.
+	 * @param tasks - the tasks, one for each file.
+	 * @return List<R> - the result of each task in the order of the tasks, null for a task that returned null or threw an exception.
+	 * @apiNote Called by the WarpedFolders, the tasks must not share state without synchronizing it.
+	 * @author 5som3*/
+	public static <R> List<R> load(List<Callable<R>> tasks) {
+		LoadRange range = queue(tasks.size());
+		ArrayList<R> results = new ArrayList<>(tasks.size());
+		ThreadPoolExecutor pool = getPool();
+		if(pool == null) {
+			for(int i = 0; i < tasks.size(); i++) results.add(run(tasks.get(i), range));
+			return results;
+		}
+
+		ArrayList<Future<R>> futures = new ArrayList<>(tasks.size());
+		for(int i = 0; i < tasks.size(); i++) {
+			Callable<R> task = tasks.get(i);
+			futures.add(pool.submit(() -> run(task, range)));
+		}
+		for(int i = 0; i < futures.size(); i++) {
+			try {
+				results.add(futures.get(i).get());
+			} catch (InterruptedException | ExecutionException e) {
+				Console.err("WarpedAssetLoader -> load() -> interrupted while waiting for task : " + i);
+				Console.stackTrace(e);
+				results.add(null);
+			}
+		}
+		return results;
+	}
+
+	/**The part of the asset progress a load moves through as its files are loaded.*/
+	private static final class LoadRange {
+		private final double start;
+		private final double end;
+		private final int size;
+		private final AtomicInteger loaded = new AtomicInteger();
+		
+		private LoadRange(double start, double end, int size) {
+			this.start = start;
+			this.end = end;
+			this.size = size;
+		}
+		
+		/**The asset progress once another file of the load is loaded.*/
+		private double advance() {return start + (end - start) * loaded.incrementAndGet() / size;}
+	}
+	
+	/**Count the files of a load as queued and give the load its part of the progress left.*/
+	private static synchronized LoadRange queue(int size) {
+		int queued = queuedCount.addAndGet(size);
+		double start = assetProgress;
+		double end;
+		if(expectedCount >= queued) end = queued / (double)expectedCount;
+		else end = start + (1.0 - start) * UNEXPECTED_SHARE;
+		return new LoadRange(start, Math.max(start, end), size);
+	}
+	
+	/**Run a task, counting it as loaded when it is done.*/
+	private static <R> R run(Callable<R> task, LoadRange range) {
+		R result = null;
+		try {
+			result = task.call();
+		} catch (Exception e) {
+			Console.err("WarpedAssetLoader -> run() -> task failed");
+			Console.stackTrace(e);
+		}
+		if(result == null) failedCount.incrementAndGet();
+		loadedCount.incrementAndGet();
+		publishProgress(range.advance());
+		return result;
+	}
+
+	/**Advance the asset progress, and the load progress of the framework while it is loading, the progress only moves forward.*/
+	private static synchronized void publishProgress(double progress) {
+		if(progress <= assetProgress) return;
+		assetProgress = progress;
+		if(WarpedFramework2D.isLoading() && progress * ASSET_LOAD_PROGRESS > WarpedFramework2D.getLoadProgress()) WarpedFramework2D.setLoadProgress(progress * ASSET_LOAD_PROGRESS);
+	}
+
+	/**The pool, created when first used. null if files are loaded on the calling thread.*/
+	private static synchronized ThreadPoolExecutor getPool() {
+		if(threadCount == 1) return null;
+		if(pool == null) {
+			pool = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new WarpedThreadFactory("Asset Loader Thread"));
+			pool.allowCoreThreadTimeOut(true);
+		}
+		return pool;
+	}
+
+}
@@ -12,10 +12,12 @@ import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.sound.sampled.FloatControl;
 
 import warped.audio.WarpedAudioClip;
+import warped.audio.WarpedSound;
 import warped.functionalInterfaces.WarpedAction;
 import warped.utilities.enums.WarpedLinkable;
 import warped.utilities.utils.Console;
@@ -38,6 +40,7 @@ public class WarpedAudioFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 	
 	protected List<String> filePaths;
 	private HashMap<T, WarpedAudioClip> clips = new HashMap<>();		
+	private WarpedBundle sourceBundle; //The bundle the folder loads from, null if loaded from files
 
 	private float volume = 20.0f;
 	private FloatControl fc;
@@ -57,7 +60,10 @@ public class WarpedAudioFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 				
 		Console.ln("WarpedAudioFolder -> Folder Name : " + 1 + " -> Folder Type :  " + folderType.getClass() + " ->  Folder Path : " + folderPath);
 		
-		if(isFolderValid()) {
+		if(isBundled()) {
+			if(readLinkData()) loadLinkDataPaths();
+			else Console.err("WarpedAudioFolder -> couldn't read linkData from bundle, can't proceede");
+		} else if(isFolderValid()) {
 			if(isPathsSet()) {
 				if(isLinkDataFolderValid()) {
 					if(updateLinkData()) {
@@ -106,6 +112,7 @@ public class WarpedAudioFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 			File file = contents[i];
 			clips.put(imageTypes.get(i), new WarpedAudioClip(contents[i], folderPath + "/" + file.getName()));
 		}
+		preloadSounds();
 		if(clips.size() != contents.length) {
 			Console.err("WarpedAudioFolder -> loadDataFromFolder() -> image size doesn't match number of types");
 			return;
@@ -120,16 +127,32 @@ public class WarpedAudioFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 		Console.condition("WarpedAudioFolder -> loadDataPaths() -> trying to load images");
 		for(int i = 0; i < filePaths.size(); i++) {
 			String filePath = filePaths.get(i);
-			clips.put(imageTypes.get(i), new WarpedAudioClip(filePath));
+			if(sourceBundle == null) clips.put(imageTypes.get(i), new WarpedAudioClip(filePath));
+			else if(sourceBundle.contains(filePath)) clips.put(imageTypes.get(i), new WarpedAudioClip(filePath, sourceBundle));
+			else Console.err("WarpedAudioFolder -> loadDataPaths() -> bundle does not contain : " + filePath);
 		}
+		if(sourceBundle == null) preloadSounds(); // Bundled sounds are already decoded, they are read when first played
 		
 		if(clips.size() == imageTypes.size()) Console.met("WarpedAudioFolder -> loadDataPaths() -> loaded images from dataPath");
 		else Console.err("WarpedAudioFolder -> loadDataPaths() -> failed to load data");
 		
 	}
 	
+	/**Decode every clip on the WarpedAssetLoader threads when clips are played through a mixer, so no clip is decoded the first time it is played.*/
+	private void preloadSounds() {
+		if(WarpedAudioClip.getMixer() == null) return; // Each clip opens its own line when played, there is nothing to decode up front
+		ArrayList<Callable<WarpedSound>> tasks = new ArrayList<>(clips.size());
+		clips.forEach((type, clip) -> tasks.add(clip::preloadSound));
+		WarpedAssetLoader.load(tasks);
+	}
+	
 	protected final boolean readLinkData() {
 		Console.ln("WarpedAudioFolder -> readLinkData() -> looking for linkData..");
+		if(sourceBundle != null) {
+			filePaths = sourceBundle.getText(linkDataPath).lines().toList();
+			Console.met("WarpedAudioFolder -> readLinkData() -> read " + filePaths.size() + " filePaths from bundled linkData");
+			return true;
+		}
 		InputStream stream = null;
 	
 		Console.condition("WarpedAudioFolder -> readLinkData() -> looking for linkData at : " + linkDataPath);
@@ -148,6 +171,17 @@ public class WarpedAudioFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 		return true;
 	}
 	
+	/**Should the folder load from the bundle set in WarpedFolder.setBundle().
+	 * @return boolean - true if a bundle is set and contains the linkData of the folder.
+	 * @author 5som3*/
+	protected final boolean isBundled() {
+		WarpedBundle bundle = getBundle();
+		if(bundle == null || !isPathsSet() || !bundle.contains(linkDataPath)) return false;
+		sourceBundle = bundle;
+		Console.ln("WarpedAudioFolder -> isBundled() -> loading from bundle : " + bundle.getPath());
+		return true;
+	}
+	
 	protected final boolean isLinkDataFolderValid() {
 		linkDataFolder = new File(linkDataFolderPath);
 		if(linkDataFolder.exists()) {
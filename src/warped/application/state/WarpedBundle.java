@@ -0,0 +1,272 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import javax.sound.sampled.AudioInputStream;
+
+import warped.audio.WarpedAudioMixer;
+import warped.audio.WarpedSound;
+import warped.graphics.sprite.spriteSheets.WarpedSpriteSheet;
+import warped.utilities.utils.Console;
+import warped.utilities.utils.UtilsImage;
+
+public class WarpedBundle {
+
+	/*WarpedBundle reads assets from a single bundle file (see WarpedBundleWriter) instead of opening and decoding each asset file.
+	 * The file is memory mapped, opening a bundle only reads its index, each asset is read from the mapped file the first time it is requested and kept after that.
+	 * Images are stored as ARGB pixels (raw or deflated), sprite sheets also store their sprite size, sounds are stored as PCM in the format of the WarpedAudioMixer and linkData is stored as text.
+	 *
+	 * Assets are named by their path from the root of the bundled folder, the same paths that are written in linkData i.e. /graphics/images/food.png
+	 * Set a bundle with WarpedFolder.setBundle() before generating folders and the folders will load from the bundle instead of their files.
+	 *
+	 * The file begins with the magic number, version and entry count, followed by the index and then the data of every entry.
+	 * Each index entry is the name (UTF-8, prefixed by its length), type, compression, offset, length, width, height, sprite width and sprite height.
+	 * */
+
+	public static final int MAGIC = 0x57463242; // WF2B
+	public static final int VERSION = 1;
+	public static final String EXTENSION = ".wf2b";
+
+	static final byte IMAGE 	   = 0;
+	static final byte SPRITE_SHEET = 1;
+	static final byte SOUND 	   = 2;
+	static final byte TEXT 		   = 3;
+
+	static final byte RAW 	  = 0;
+	static final byte DEFLATE = 1;
+
+	private static final class Entry {
+		private byte type;
+		private byte compression;
+		private int offset;
+		private int length;
+		private int width;
+		private int height;
+		private int spriteWidth;
+		private int spriteHeight;
+	}
+
+	private final String path;
+	private final MappedByteBuffer buffer;
+	private final HashMap<String, Entry> entries = new HashMap<>(); // Only written while opening
+	private final ConcurrentHashMap<String, Object> assets = new ConcurrentHashMap<>();
+
+	private WarpedBundle(String path, MappedByteBuffer buffer) {
+		this.path = path;
+		this.buffer = buffer;
+	}
+
+	/**Open a bundle and read its index.
+	 * @param file - the bundle file.
+	 * @return WarpedBundle - the bundle, null if the file could not be read or is not a bundle.
+	 * @author 5som3*/
+	public static WarpedBundle open(File file) {
+		Console.condition("WarpedBundle -> open() -> trying to open bundle : " + file.getPath());
+		MappedByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if(channel.size() > Integer.MAX_VALUE) {
+				Console.err("WarpedBundle -> open() -> bundle is larger than 2GB : " + file.getPath());
+				return null;
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // The mapping stays valid after the channel is closed
+		} catch (IOException e) {
+			Console.err("WarpedBundle -> open() -> failed to map bundle : " + file.getPath());
+			Console.stackTrace(e);
+			return null;
+		}
+
+		WarpedBundle bundle = new WarpedBundle(file.getPath(), buffer);
+		if(!bundle.readIndex()) return null;
+		Console.met("WarpedBundle -> open() -> opened bundle with " + bundle.entries.size() + " entries");
+		return bundle;
+	}
+
+	/**Does the bundle contain an asset.
+	 * @param name - the path of the asset from the root of the bundled folder.
+	 * @return boolean - true if the bundle has an entry with the name.
+	 * @author 5som3*/
+	public boolean contains(String name) {return entries.containsKey(name);}
+
+	/**The names of every asset in the bundle.
+	 * @return Set<String> - the names, do not edit.
+	 * @author 5som3*/
+	public Set<String> getNames() {return entries.keySet();}
+
+	/**The number of assets in the bundle.
+	 * @return int - the entry count.
+	 * @author 5som3*/
+	public int getEntryCount() {return entries.size();}
+
+	/**The number of assets that have been read from the file so far.
+	 * @return int - the count of assets kept in memory.
+	 * @author 5som3*/
+	public int getLoadedCount() {return assets.size();}
+
+	/**The path of the bundle file.
+	 * @return String - the path.
+	 * @author 5som3*/
+	public String getPath() {return path;}
+
+	/**An image, read the first time it is requested.
+	 * @param name - the path of the image.
+	 * @return BufferedImage - the image in the screen format, null if the bundle has no image with the name.
+	 * @apiNote Safe to call from any thread.
+	 * @author 5som3*/
+	public BufferedImage getImage(String name) {
+		Entry entry = getEntry(name, IMAGE);
+		if(entry == null) return null;
+		return (BufferedImage) assets.computeIfAbsent(name, key -> readImage(entry));
+	}
+
+	/**A sprite sheet, read the first time it is requested.
+	 * @param name - the path of the sprite sheet.
+	 * @return WarpedSpriteSheet - the sheet cut by the sprite size stored in the bundle, null if the bundle has no sprite sheet with the name.
+	 * @apiNote Safe to call from any thread.
+	 * @author 5som3*/
+	public WarpedSpriteSheet getSpriteSheet(String name) {
+		Entry entry = getEntry(name, SPRITE_SHEET);
+		if(entry == null) return null;
+		return (WarpedSpriteSheet) assets.computeIfAbsent(name, key -> new WarpedSpriteSheet(readImage(entry), entry.spriteWidth, entry.spriteHeight));
+	}
+
+	/**A sound, read the first time it is requested.
+	 * @param name - the path of the sound.
+	 * @return WarpedSound - the sound, null if the bundle has no sound with the name.
+	 * @apiNote Safe to call from any thread.
+	 * @author 5som3*/
+	public WarpedSound getSound(String name) {
+		Entry entry = getEntry(name, SOUND);
+		if(entry == null) return null;
+		return (WarpedSound) assets.computeIfAbsent(name, key -> {
+			short[] samples = new short[entry.length / 2];
+			slice(entry).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+			return new WarpedSound(samples);
+		});
+	}
+
+	/**A stream of a sound in the mixer format, i.e. to open a Clip.
+	 * @param name - the path of the sound.
+	 * @return AudioInputStream - a new stream of the PCM samples, null if the bundle has no sound with the name.
+	 * @author 5som3*/
+	public AudioInputStream getAudioStream(String name) {
+		Entry entry = getEntry(name, SOUND);
+		if(entry == null) return null;
+		byte[] bytes = new byte[entry.length];
+		slice(entry).get(bytes);
+		return new AudioInputStream(new ByteArrayInputStream(bytes), WarpedAudioMixer.FORMAT, entry.width);
+	}
+
+	/**A text asset, i.e. linkData.
+	 * @param name - the path of the text.
+	 * @return String - the text, null if the bundle has no text with the name.
+	 * @author 5som3*/
+	public String getText(String name) {
+		Entry entry = getEntry(name, TEXT);
+		if(entry == null) return null;
+		return (String) assets.computeIfAbsent(name, key -> StandardCharsets.UTF_8.decode(slice(entry)).toString());
+	}
+
+	/**Read the index from the start of the file.*/
+	private boolean readIndex() {
+		try {
+			ByteBuffer index = buffer.duplicate();
+			if(index.getInt() != MAGIC) {
+				Console.err("WarpedBundle -> readIndex() -> file is not a bundle : " + path);
+				return false;
+			}
+			int version = index.getInt();
+			if(version != VERSION) {
+				Console.err("WarpedBundle -> readIndex() -> unsupported bundle version : " + version);
+				return false;
+			}
+			int count = index.getInt();
+			for(int i = 0; i < count; i++) {
+				byte[] name = new byte[index.getShort() & 0xFFFF];
+				index.get(name);
+				Entry entry = new Entry();
+				entry.type 		   = index.get();
+				entry.compression  = index.get();
+				long offset 	   = index.getLong();
+				entry.length 	   = index.getInt();
+				entry.width 	   = index.getInt();
+				entry.height 	   = index.getInt();
+				entry.spriteWidth  = index.getInt();
+				entry.spriteHeight = index.getInt();
+				if(offset < 0 || offset > Integer.MAX_VALUE || entry.length < 0 || offset + entry.length > buffer.capacity()) {
+					Console.err("WarpedBundle -> readIndex() -> entry is outside of the file : " + new String(name, StandardCharsets.UTF_8));
+					return false;
+				}
+				entry.offset = (int)offset;
+				entries.put(new String(name, StandardCharsets.UTF_8), entry);
+			}
+			return true;
+		} catch (RuntimeException e) {
+			Console.err("WarpedBundle -> readIndex() -> index is corrupt : " + path);
+			Console.stackTrace(e);
+			return false;
+		}
+	}
+
+	/**The entry with a name if it is the type requested.*/
+	private Entry getEntry(String name, byte type) {
+		Entry entry = entries.get(name);
+		if(entry == null) {
+			Console.err("WarpedBundle -> getEntry() -> the bundle does not contain : " + name);
+			return null;
+		}
+		if(entry.type != type) {
+			Console.err("WarpedBundle -> getEntry() -> the entry is not the requested type : " + name);
+			return null;
+		}
+		return entry;
+	}
+
+	/**The data of an entry, a view of the mapped file with its own position.*/
+	private ByteBuffer slice(Entry entry) {return buffer.slice(entry.offset, entry.length);}
+
+	/**Read the pixels of an image entry.*/
+	private BufferedImage readImage(Entry entry) {
+		int[] pixels = new int[entry.width * entry.height];
+		if(entry.compression == DEFLATE) {
+			byte[] bytes = new byte[pixels.length * 4];
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(slice(entry));
+				int read = 0;
+				while(read < bytes.length && !inflater.finished()) {
+					int count = inflater.inflate(bytes, read, bytes.length - read);
+					if(count == 0 && inflater.needsInput()) break;
+					read += count;
+				}
+				if(read != bytes.length) Console.err("WarpedBundle -> readImage() -> image data is shorter than its size : " + read);
+			} catch (DataFormatException e) {
+				Console.err("WarpedBundle -> readImage() -> image data is corrupt");
+				Console.stackTrace(e);
+			} finally {
+				inflater.end();
+			}
+			ByteBuffer.wrap(bytes).asIntBuffer().get(pixels);
+		} else slice(entry).asIntBuffer().get(pixels);
+
+		BufferedImage image = new BufferedImage(entry.width, entry.height, BufferedImage.TYPE_INT_ARGB);
+		image.getRaster().setDataElements(0, 0, entry.width, entry.height, pixels);
+		return UtilsImage.toCompatibleImage(image);
+	}
+
+}
@@ -0,0 +1,272 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import warped.audio.WarpedSound;
+import warped.utilities.utils.Console;
+
+public class WarpedBundleWriter {
+
+	/*WarpedBundleWriter packs assets into a bundle file that is read by WarpedBundle.
+	 * Images are decoded when they are added so they are not decoded again when the bundle is loaded, sprite sheets keep their sprite size as data instead of in the file name.
+	 * addFolder() packs every asset in a folder, naming each asset by its path from the folder so the names match the paths written in linkData.
+	 *
+	 * The writer can be run as a tool after the linkData has been written (the application has been run once with its asset folders present) :
+	 * java warped.application.state.WarpedBundleWriter res res/assets.wf2b
+	 * Add raw as a third argument to store images without compression, larger files that load faster.
+	 * */
+
+	private static final Pattern SPRITE_SIZE = Pattern.compile("_wf2d_(\\d+)_(\\d+)_wf\\.png$");
+	private static final int ENTRY_SIZE = 1 + 1 + 8 + 4 * 5; // The size of an index entry after its name
+
+	private static final class PendingEntry {
+		private String name;
+		private byte type;
+		private byte compression;
+		private byte[] data;
+		private int width;
+		private int height;
+		private int spriteWidth;
+		private int spriteHeight;
+	}
+
+	private final ArrayList<PendingEntry> entries = new ArrayList<>();
+	private final HashMap<String, Integer> indices = new HashMap<>(); // The index of each entry by name
+	private boolean isCompressed = true;
+
+	/**Pack a folder into a bundle.
+	 * @param args - the folder to pack, the bundle file to write and optionally raw to store images without compression.
+	 * @author 5som3*/
+	public static void main(String[] args) {
+		if(args.length < 2) {
+			Console.err("WarpedBundleWriter -> main() -> usage : WarpedBundleWriter <folder> <bundle file> [raw]");
+			return;
+		}
+		WarpedBundleWriter writer = new WarpedBundleWriter();
+		if(args.length > 2 && args[2].equals("raw")) writer.setCompressed(false);
+		writer.addFolder(new File(args[0]));
+		writer.write(new File(args[1]));
+	}
+
+	/**Set if images are compressed.
+	 * @param isCompressed - if true pixels are deflated (smaller file), if false they are stored raw (no inflating when loaded).
+	 * @apiNote Applies to images added after it is set.
+	 * @author 5som3*/
+	public void setCompressed(boolean isCompressed) {this.isCompressed = isCompressed;}
+
+	/**Add an image.
+	 * @param name - the name the image is read by, i.e. /graphics/images/food.png
+	 * @param image - the image.
+	 * @author 5som3*/
+	public void addImage(String name, BufferedImage image) {add(imageEntry(name, WarpedBundle.IMAGE, image));}
+
+	/**Add a sprite sheet.
+	 * @param name - the name the sheet is read by.
+	 * @param sheet - the image of the whole sheet.
+	 * @param spriteWidth - the width of each sprite in pixels.
+	 * @param spriteHeight - the height of each sprite in pixels.
+	 * @author 5som3*/
+	public void addSpriteSheet(String name, BufferedImage sheet, int spriteWidth, int spriteHeight) {
+		PendingEntry entry = imageEntry(name, WarpedBundle.SPRITE_SHEET, sheet);
+		entry.spriteWidth = spriteWidth;
+		entry.spriteHeight = spriteHeight;
+		add(entry);
+	}
+
+	/**Add a sound.
+	 * @param name - the name the sound is read by.
+	 * @param sound - the decoded sound.
+	 * @author 5som3*/
+	public void addSound(String name, WarpedSound sound) {
+		short[] samples = sound.getSamples();
+		ByteBuffer data = ByteBuffer.allocate(samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+		data.asShortBuffer().put(samples);
+		PendingEntry entry = new PendingEntry();
+		entry.name = name;
+		entry.type = WarpedBundle.SOUND;
+		entry.compression = WarpedBundle.RAW;
+		entry.data = data.array();
+		entry.width = sound.getFrameCount();
+		add(entry);
+	}
+
+	/**Add text, i.e. linkData.
+	 * @param name - the name the text is read by.
+	 * @param text - the text.
+	 * @author 5som3*/
+	public void addText(String name, String text) {
+		PendingEntry entry = new PendingEntry();
+		entry.name = name;
+		entry.type = WarpedBundle.TEXT;
+		entry.compression = WarpedBundle.RAW;
+		entry.data = text.getBytes(StandardCharsets.UTF_8);
+		add(entry);
+	}
+
+	/**Add every asset in a folder and its sub folders.
+	 * @param root - the folder, i.e. res. Assets are named by their path from this folder i.e. /graphics/images/food.png
+	 * @return int - the number of assets added.
+	 * @apiNote png files named in the sprite sheet format ((name)_wf2d_(width)_(height)_wf.png) are added as sprite sheets, other png files as images.
+	 * Files that AudioSystem can decode (i.e. wav) are added as sounds and txt files (i.e. linkData) as text, other files are skipped.
+	 * @author 5som3*/
+	public int addFolder(File root) {
+		if(!root.isDirectory()) {
+			Console.err("WarpedBundleWriter -> addFolder() -> not a folder : " + root.getPath());
+			return 0;
+		}
+		int count = entries.size();
+		addFiles(root, "");
+		Console.met("WarpedBundleWriter -> addFolder() -> added " + (entries.size() - count) + " assets from : " + root.getPath());
+		return entries.size() - count;
+	}
+
+	/**The number of assets added.
+	 * @return int - the entry count.
+	 * @author 5som3*/
+	public int getEntryCount() {return entries.size();}
+
+	/**Write the bundle.
+	 * @param file - the bundle file, replaced if it exists.
+	 * @return boolean - true if the bundle was written. If it could not be written no file is left behind.
+	 * @author 5som3*/
+	public boolean write(File file) {
+		Console.condition("WarpedBundleWriter -> write() -> trying to write bundle : " + file.getPath());
+		byte[][] names = new byte[entries.size()][];
+		long offset = 12; // magic, version and entry count
+		for(int i = 0; i < entries.size(); i++) {
+			names[i] = entries.get(i).name.getBytes(StandardCharsets.UTF_8);
+			offset += 2 + names[i].length + ENTRY_SIZE;
+		}
+		long size = offset;
+		for(int i = 0; i < entries.size(); i++) size += entries.get(i).data.length;
+		if(size > Integer.MAX_VALUE) {
+			Console.err("WarpedBundleWriter -> write() -> bundle would be larger than 2GB : " + size);
+			return false;
+		}
+
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(WarpedBundle.MAGIC);
+			out.writeInt(WarpedBundle.VERSION);
+			out.writeInt(entries.size());
+			for(int i = 0; i < entries.size(); i++) {
+				PendingEntry entry = entries.get(i);
+				out.writeShort(names[i].length);
+				out.write(names[i]);
+				out.writeByte(entry.type);
+				out.writeByte(entry.compression);
+				out.writeLong(offset);
+				out.writeInt(entry.data.length);
+				out.writeInt(entry.width);
+				out.writeInt(entry.height);
+				out.writeInt(entry.spriteWidth);
+				out.writeInt(entry.spriteHeight);
+				offset += entry.data.length;
+			}
+			for(int i = 0; i < entries.size(); i++) out.write(entries.get(i).data);
+		} catch (IOException e) {
+			Console.err("WarpedBundleWriter -> write() -> failed to write bundle : " + file.getPath());
+			Console.stackTrace(e);
+			if(file.exists() && !file.delete()) Console.err("WarpedBundleWriter -> write() -> failed to delete the partly written bundle : " + file.getPath());
+			return false;
+		}
+		Console.met("WarpedBundleWriter -> write() -> wrote " + entries.size() + " assets, " + offset + " bytes");
+		return true;
+	}
+
+	/**Add the files of a folder, sorted by name so the same folder always writes the same bundle.*/
+	private void addFiles(File folder, String path) {
+		File[] files = folder.listFiles();
+		if(files == null) return;
+		Arrays.sort(files);
+		for(int i = 0; i < files.length; i++) {
+			File file = files[i];
+			String name = path + "/" + file.getName();
+			if(file.isDirectory()) {
+				addFiles(file, name);
+				continue;
+			}
+			String fileName = file.getName().toLowerCase();
+			try {
+				if(fileName.endsWith(".png")) {
+					BufferedImage image = ImageIO.read(file);
+					if(image == null) {
+						Console.err("WarpedBundleWriter -> addFiles() -> failed to read image : " + file.getPath());
+						continue;
+					}
+					Matcher size = SPRITE_SIZE.matcher(file.getName());
+					if(size.find()) addSpriteSheet(name, image, Integer.parseInt(size.group(1)), Integer.parseInt(size.group(2)));
+					else addImage(name, image);
+				} else if(fileName.endsWith(".txt")) addText(name, Files.readString(file.toPath(), StandardCharsets.UTF_8));
+				else if(fileName.endsWith(".wav") || fileName.endsWith(".aiff") || fileName.endsWith(".au")) {
+					WarpedSound sound = WarpedSound.decode(file);
+					if(sound != null) addSound(name, sound);
+				} else Console.condition("WarpedBundleWriter -> addFiles() -> skipping file : " + file.getPath());
+			} catch (IOException e) {
+				Console.err("WarpedBundleWriter -> addFiles() -> failed to read file : " + file.getPath());
+				Console.stackTrace(e);
+			}
+		}
+	}
+
+	/**An image entry holding the ARGB pixels, deflated if compressed.*/
+	private PendingEntry imageEntry(String name, byte type, BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		ByteBuffer pixels = ByteBuffer.allocate(width * height * 4);
+		pixels.asIntBuffer().put(image.getRGB(0, 0, width, height, null, 0, width));
+
+		PendingEntry entry = new PendingEntry();
+		entry.name = name;
+		entry.type = type;
+		entry.width = width;
+		entry.height = height;
+		if(isCompressed) {
+			Deflater deflater = new Deflater();
+			deflater.setInput(pixels.array());
+			deflater.finish();
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			byte[] chunk = new byte[8192];
+			while(!deflater.finished()) data.write(chunk, 0, deflater.deflate(chunk));
+			deflater.end();
+			entry.compression = WarpedBundle.DEFLATE;
+			entry.data = data.toByteArray();
+		} else {
+			entry.compression = WarpedBundle.RAW;
+			entry.data = pixels.array();
+		}
+		return entry;
+	}
+
+	/**Add an entry, replacing an entry with the same name.*/
+	private void add(PendingEntry entry) {
+		Integer index = indices.get(entry.name);
+		if(index != null) {
+			Console.err("WarpedBundleWriter -> add() -> replacing asset with the same name : " + entry.name);
+			entries.set(index, entry);
+			return;
+		}
+		indices.put(entry.name, entries.size());
+		entries.add(entry);
+	}
+
+}
@@ -1,18 +1,15 @@
 package warped.application.state;
 
 import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
 
-import warped.WarpedProperties;
+import warped.graphics.sprite.CollisionMask;
+import warped.utilities.timers.WarpedLoopTask;
 import warped.utilities.utils.Console;
-import warped.utilities.utils.UtilsImage;
-import warped.utilities.utils.UtilsMath;
 
 public class WarpedCollisionManager {
 	
 	/* WarpedCollisionManager provides passive collision to groups,
-	 * Passive collision is updated in parallel with object positions so it is not exact.
+	 * Passive collision is updated by the WarpedState loop between object position updates so it is not exact.
 	 * Although not exact it is efficient and good enough for most purposes. 
 	 * Update frequency can be set between 10hz - 60hz.
 	 * More frequent checks will consume more system resources but it will increase the precision of collisions.
@@ -22,19 +19,20 @@ public class WarpedCollisionManager {
 	 * Precise collision checks for pixel overlap, (pixel perfect collision). Collision will result in a hit() on all objects involved with the collision.
 	 * Collisions groups are checked subsequent to each other, this means each group added will decrease the overall accuracy of collisions detected by the manager.
 	 * Accuracy can be improved by increasing the frequency of collision checks or changing the collision detection to quick.	 *  
+	 * Each group or set of groups uses a spatial hash as a broadphase, only objects that share a cell of the hash are checked for quick or precise collision.
+	 * The cell size can be set per group or set of groups, a cell size of 0 will check every pair of objects.
 	 * */
 
 	private static final int MIN_FREQUENCY = 10;
 	private static final int MAX_FREQUENCY = 60;
+	private static final double DEFAULT_CELL_SIZE = 64;
 	
-	private static Timer collisionTimer = new Timer("Timer Thread : Passive Collision");
-	
-	private static TimerTask updateInternalCollisions = new TimerTask() {public void run() {updateInternalCollisionPrecise();}};
-	private static TimerTask updateCrossGroupCollisions = new TimerTask() {public void run() {updateCrossGroupCollisionPrecise();}};
+	private static WarpedLoopTask updateInternalCollisions = new WarpedLoopTask() {public void run() {updateInternalCollisionPrecise();}};
+	private static WarpedLoopTask updateCrossGroupCollisions = new WarpedLoopTask() {public void run() {updateCrossGroupCollisionPrecise();}};
 	
 	static {
-		collisionTimer.scheduleAtFixedRate(updateCrossGroupCollisions, 0, UtilsMath.convertHzToMillis(30));
-		collisionTimer.scheduleAtFixedRate(updateInternalCollisions, 0, UtilsMath.convertHzToMillis(30));
+		WarpedState.loop.scheduleHz(updateCrossGroupCollisions, 30);
+		WarpedState.loop.scheduleHz(updateInternalCollisions, 30);
 	}
 	
 	private static boolean internalPrecision   = true;
@@ -44,6 +42,33 @@ public class WarpedCollisionManager {
 	
 	private static ArrayList<WarpedGroup<?>> internalGroups = new ArrayList<>();
 	private static ArrayList<WarpedGroup<?>[]> crossGroups = new ArrayList<>();
+	private static ArrayList<WarpedSpatialHash> internalHashes = new ArrayList<>();   // null where the group uses brute force checks
+	private static ArrayList<WarpedSpatialHash[]> crossHashes = new ArrayList<>();    // null where the set uses brute force checks
+	
+	private static long internalPairCount 		= 0;
+	private static long crossGroupPairCount 	= 0;
+	private static long internalCycleDuration 	= 0;
+	private static long crossGroupCycleDuration = 0;
+	
+	/**The number of object pairs that were narrow phase checked in the last internal collision update.
+	 * @return long - the number of pairs.
+	 * @author 5som3*/
+	public static long getInternalPairCount() {return internalPairCount;}
+	
+	/**The number of object pairs that were narrow phase checked in the last cross group collision update.
+	 * @return long - the number of pairs.
+	 * @author 5som3*/
+	public static long getCrossGroupPairCount() {return crossGroupPairCount;}
+	
+	/**The duration of the last internal collision update.
+	 * @return long - the duration in nano-seconds.
+	 * @author 5som3*/
+	public static long getInternalCycleDuration() {return internalCycleDuration;}
+	
+	/**The duration of the last cross group collision update.
+	 * @return long - the duration in nano-seconds.
+	 * @author 5som3*/
+	public static long getCrossGroupCycleDuration() {return crossGroupCycleDuration;}
 	
 	
 	/**Set the frequency of internal collision checks.
@@ -86,9 +111,9 @@ public class WarpedCollisionManager {
 	public static void setInternalCollisionMode(boolean isPrecise) {
 		internalPrecision = isPrecise;
 		updateInternalCollisions.cancel();
-		if(isPrecise) updateInternalCollisions = new TimerTask() {public void run() {updateInternalCollisionPrecise();}};
-		else updateInternalCollisions = new TimerTask() {public void run() {updateInternalCollisionQuick();}};
-		collisionTimer.scheduleAtFixedRate(updateInternalCollisions, 0, UtilsMath.convertHzToMillis(internalFrequency));
+		if(isPrecise) updateInternalCollisions = new WarpedLoopTask() {public void run() {updateInternalCollisionPrecise();}};
+		else updateInternalCollisions = new WarpedLoopTask() {public void run() {updateInternalCollisionQuick();}};
+		WarpedState.loop.scheduleHz(updateInternalCollisions, internalFrequency);
 	}
 	
 	/**Set the mode of cross group collision.
@@ -98,9 +123,9 @@ public class WarpedCollisionManager {
 	public static void setCrossGroupCollisionMode(boolean isPrecise) {
 		crossGroupPrecision = isPrecise;
 		updateCrossGroupCollisions.cancel();
-		if(isPrecise) updateCrossGroupCollisions = new TimerTask() {public void run() {updateCrossGroupCollisionPrecise();}};
-		else updateCrossGroupCollisions = new TimerTask() {public void run() {updateCrossGroupCollisionQuick();}};
-		collisionTimer.scheduleAtFixedRate(updateCrossGroupCollisions, 0, UtilsMath.convertHzToMillis(crossGroupFrequency));
+		if(isPrecise) updateCrossGroupCollisions = new WarpedLoopTask() {public void run() {updateCrossGroupCollisionPrecise();}};
+		else updateCrossGroupCollisions = new WarpedLoopTask() {public void run() {updateCrossGroupCollisionQuick();}};
+		WarpedState.loop.scheduleHz(updateCrossGroupCollisions, crossGroupFrequency);
 	}
 	
 	/**Add collision between two groups. (Does not include internal collisions within a group)
@@ -113,8 +138,19 @@ public class WarpedCollisionManager {
 	 * @apiNote For internal passive collision addInternalPassiveCollision.
 	 * @apiNote Uses pixel perfect collision by default, change to quick collision for faster (but not pixel perfect) collision. 
 	 * @apiNote Example use case : Check a group of projectiles for collision against any number of other groups.
+	 * @apiNote Uses a spatial hash with the default cell size as the broadphase.
+	 * @author 5som3*/
+	public static int addCrossGroupCollision(WarpedGroup<?>... groups) {return addCrossGroupCollision(DEFAULT_CELL_SIZE, groups);}
+	
+	/**Add collision between two groups. (Does not include internal collisions within a group)
+	 * @param cellSize - the cell size of the spatial hash used as the broadphase, if 0 every pair of objects will be checked.
+	 * @param groups - a list of groups to add collision between.
+	 * @return int - the index of the group. You will need to keep this index if you intend to remove the collision groups later.
+	 * @implNote Checks for collisions between objects in the first group and objects in all subsequent groups.
+	 * @implNote Subsequent groups are not check for collision against each other
+	 * @apiNote A good cell size is roughly the size of the largest common object in the groups.
 	 * @author 5som3*/
-	public static int addCrossGroupCollision(WarpedGroup<?>... groups) {
+	public static int addCrossGroupCollision(double cellSize, WarpedGroup<?>... groups) {
 		int index = crossGroups.size();
 		
 		for(int i = 0; i < groups.length; i++) {
@@ -127,7 +163,9 @@ public class WarpedCollisionManager {
 			}
 		}
 				
+		crossHashes.add(null);
 		crossGroups.add(groups);
+		setCrossGroupCellSize(index, cellSize);
 		return index;
 	}
 	
@@ -135,8 +173,16 @@ public class WarpedCollisionManager {
 	 * @param group - the group to add collision to.
 	 * @implNote Collision will occur when any objects in the group have overlapping pixels (pixels perfect collision)
 	 * @apiNote Uses pixel perfect collision by default, change to quick collision for faster (but not pixel perfect) collision.
+	 * @apiNote Uses a spatial hash with the default cell size as the broadphase.
 	 * @author 5som3*/
-	public static int addInternalCollisionGroups(WarpedGroup<?> group) {
+	public static int addInternalCollisionGroups(WarpedGroup<?> group) {return addInternalCollisionGroups(group, DEFAULT_CELL_SIZE);}
+	
+	/**Add a group to apply internal collision to its members.
+	 * @param group - the group to add collision to.
+	 * @param cellSize - the cell size of the spatial hash used as the broadphase, if 0 every pair of members will be checked.
+	 * @apiNote A good cell size is roughly the size of the largest common member in the group.
+	 * @author 5som3*/
+	public static int addInternalCollisionGroups(WarpedGroup<?> group, double cellSize) {
 		int index = internalGroups.size();
 		
 		for(int i = 0; i < internalGroups.size(); i++) {
@@ -146,7 +192,9 @@ public class WarpedCollisionManager {
 			}
 		}
 		
+		internalHashes.add(null);
 		internalGroups.add(group);
+		setInternalCellSize(index, cellSize);
 		return index; 
 	}
 	
@@ -155,10 +203,13 @@ public class WarpedCollisionManager {
 	 * @apiNote will return with error if index is out of bounds. 
 	 * @author 5som3*/
 	public static void removeInternalCollision(int index) {
-		if(index < 0 || index > internalGroups.size()) {
+		if(index < 0 || index >= internalGroups.size()) {
 			Console.err("WarpedCollisionManager -> removeInternalCollision() -> index is out of bounds : " + index);
 			return;
-		} else internalGroups.remove(index);	
+		} else {
+			internalGroups.remove(index);	
+			internalHashes.remove(index);
+		}
 	}
 	
 	/**Remove cross group collision from the specified set of groups.
@@ -166,10 +217,51 @@ public class WarpedCollisionManager {
 	 * @apiNote will return with error if the index is out of bounds.
 	 * @author 5som3*/
 	public static void removeCrossGroupCollision(int index) {
-		if(index < 0 || index > crossGroups.size()) {
-			Console.err("WarpedCollisionManager -> removeInternalCollision() -> index is out of bounds : " + index);
+		if(index < 0 || index >= crossGroups.size()) {
+			Console.err("WarpedCollisionManager -> removeCrossGroupCollision() -> index is out of bounds : " + index);
+			return;
+		} else {
+			crossGroups.remove(index);
+			crossHashes.remove(index);
+		}
+	}
+	
+	/**Set the cell size of the spatial hash used for an internal collision group.
+	 * @param index - the index of the group (this is the index returned when the group is added).
+	 * @param cellSize - the width and height of each cell in pixels, if 0 the spatial hash is removed and every pair of members will be checked.
+	 * @author 5som3*/
+	public static void setInternalCellSize(int index, double cellSize) {
+		if(index < 0 || index >= internalGroups.size()) {
+			Console.err("WarpedCollisionManager -> setInternalCellSize() -> index is out of bounds : " + index);
+			return;
+		}
+		if(cellSize < 0) {
+			Console.err("WarpedCollisionManager -> setInternalCellSize() -> cell size can not be negative : " + cellSize + ", it will be set to the default : " + DEFAULT_CELL_SIZE);
+			cellSize = DEFAULT_CELL_SIZE;
+		}
+		if(cellSize == 0) internalHashes.set(index, null);
+		else internalHashes.set(index, new WarpedSpatialHash(cellSize));
+	}
+	
+	/**Set the cell size of the spatial hashes used for a set of cross group collisions.
+	 * @param index - the index of the set (this is the index returned when the set is added).
+	 * @param cellSize - the width and height of each cell in pixels, if 0 the spatial hashes are removed and every pair of objects will be checked.
+	 * @author 5som3*/
+	public static void setCrossGroupCellSize(int index, double cellSize) {
+		if(index < 0 || index >= crossGroups.size()) {
+			Console.err("WarpedCollisionManager -> setCrossGroupCellSize() -> index is out of bounds : " + index);
 			return;
-		} else internalGroups.remove(index);
+		}
+		if(cellSize < 0) {
+			Console.err("WarpedCollisionManager -> setCrossGroupCellSize() -> cell size can not be negative : " + cellSize + ", it will be set to the default : " + DEFAULT_CELL_SIZE);
+			cellSize = DEFAULT_CELL_SIZE;
+		}
+		if(cellSize == 0) crossHashes.set(index, null);
+		else {
+			WarpedSpatialHash[] hashes = new WarpedSpatialHash[crossGroups.get(index).length - 1];
+			for(int i = 0; i < hashes.length; i++) hashes[i] = new WarpedSpatialHash(cellSize);
+			crossHashes.set(index, hashes);
+		}
 	}
 	
 	/**Update any internal passive collision
@@ -177,65 +269,63 @@ public class WarpedCollisionManager {
 	 * @implNote For each group added collision will be checked internally between the objects.
 	 * @implNote Collision is not checked between members of different groups. 
 	 * @author 5som3*/
-	private static void updateInternalCollisionPrecise() {
-		for(int i = 0; i < internalGroups.size(); i++) {
-			ArrayList<? extends WarpedObject> group = internalGroups.get(i).getMembers();
-			for(int j = 0; j < group.size(); j++) {
-				for(int k = 0; k < group.size(); k++) {
-					if(k <= j) continue;
-					WarpedObject memberA = group.get(j);
-					WarpedObject memberB = group.get(k);
-					if(!memberA.isSolid() || !memberB.isSolid()) continue;
-					if(collisionExact(memberA, memberB)) {
-						memberA.hit(memberB);
-						memberB.hit(memberA);
-						break;
-					}
-				}	
-			}
-		}
-	}
+	private static void updateInternalCollisionPrecise() {updateInternalCollision(true);}
 	
 	/**Update any internal passive collision
-	 * @implNote Uses pixel perfect collision 
+	 * @implNote Uses rectangular bounded collision 
 	 * @implNote For each group added collision will be checked internally between the objects.
 	 * @implNote Collision is not checked between members of different groups. 
 	 * @author 5som3*/
-	private static void updateInternalCollisionQuick() {
-		for(int i = 0; i < internalGroups.size(); i++) {
-			ArrayList<? extends WarpedObject> group = internalGroups.get(i).getMembers();
-			for(int j = 0; j < group.size(); j++) {
-				for(int k = 0; k < group.size(); k++) {
-					if(k <= j) continue;
-					WarpedObject memberA = group.get(j);
-					WarpedObject memberB = group.get(k);
-					if(!memberA.isSolid() || !memberB.isSolid()) continue;
-					if(collisionQuick(memberA, memberB)) {
-						memberA.hit(memberB);;
-						memberB.hit(memberA);
-						break;
-					}
-				}	
-			}
-		}
-	}
+	private static void updateInternalCollisionQuick() {updateInternalCollision(false);}
 	
+	/**Update any cross group passive collision
+	 * @implNote Uses pixel perfect collision 
+	 * @implNote For each collision set; checks for collision between the objects in the first group and all subsequent groups in the set. 
+	 * @author 5som3*/
+	private static void updateCrossGroupCollisionPrecise() {updateCrossGroupCollision(true);}
 	
 	/**Update any cross group passive collision
-	 * @implNote For each collision set; checks for collisionQuick() between the objects in the first group and all subsequent groups in the set. 
+	 * @implNote Uses rectangular bounded collision 
+	 * @implNote For each collision set; checks for collision between the objects in the first group and all subsequent groups in the set. 
 	 * @author 5som3*/
-	private static void updateCrossGroupCollisionPrecise() {
-		for(int i = 0; i < crossGroups.size(); i++) {
-			WarpedGroup<? extends WarpedObject>[] collisionSet = crossGroups.get(i);
-			WarpedGroup<? extends WarpedObject> primaryGroup = collisionSet[0];
-			for(int j = 0; j < primaryGroup.size(); j++) {
-				WarpedObject memberA = primaryGroup.getMember(j);
-				if(!memberA.isSolid()) continue;
-				for(int k = 1; k < collisionSet.length; k++) {
-					for(int l = 0; l < collisionSet[k].size(); l++) {
-						WarpedObject memberB = collisionSet[k].getMember(l);
-						if(!memberB.isSolid()) continue;
-						if(collisionExact(memberA, memberB)) {
+	private static void updateCrossGroupCollisionQuick() {updateCrossGroupCollision(false);}
+	
+	/**Update any internal passive collision
+	 * @param isPrecise - if true uses pixel perfect collision, else uses rectangular bounded collision.
+	 * @implNote Groups with a spatial hash only narrow phase check members that share a cell, other groups check every pair of members.
+	 * @implNote Each member will hit at most one other member with a greater index per update.
+	 * @author 5som3*/
+	private static void updateInternalCollision(boolean isPrecise) {
+		long cycleStartTime = System.nanoTime();
+		long pairCount = 0;
+		for(int i = 0; i < internalGroups.size(); i++) {
+			ArrayList<? extends WarpedObject> group = internalGroups.get(i).getMembers();
+			WarpedSpatialHash hash = internalHashes.get(i);
+			if(hash == null) {				
+				for(int j = 0; j < group.size(); j++) {
+					for(int k = 0; k < group.size(); k++) {
+						if(k <= j) continue;
+						WarpedObject memberA = group.get(j);
+						WarpedObject memberB = group.get(k);
+						if(!memberA.isSolid() || !memberB.isSolid()) continue;
+						pairCount++;
+						if(collision(memberA, memberB, isPrecise)) {
+							memberA.hit(memberB);
+							memberB.hit(memberA);
+							break;
+						}
+					}	
+				}
+			} else {
+				buildHash(hash, group);
+				for(int j = 0; j < group.size(); j++) {
+					WarpedObject memberA = group.get(j);
+					if(!memberA.isSolid()) continue;
+					int candidates = hash.query(memberA.x(), memberA.y(), memberA.getWidth(), memberA.getHeight(), j);
+					for(int k = 0; k < candidates; k++) {
+						WarpedObject memberB = group.get(hash.getResult(k));
+						pairCount++;
+						if(collision(memberA, memberB, isPrecise)) {
 							memberA.hit(memberB);
 							memberB.hit(memberA);
 							break;
@@ -244,32 +334,86 @@ public class WarpedCollisionManager {
 				}
 			}
 		}
+		internalPairCount = pairCount;
+		internalCycleDuration = System.nanoTime() - cycleStartTime;
 	}
 	
-	
 	/**Update any cross group passive collision
-	 * @implNote For each collision set; checks for collisionQuick() between the objects in the first group and all subsequent groups in the set. 
+	 * @param isPrecise - if true uses pixel perfect collision, else uses rectangular bounded collision.
+	 * @implNote For each collision set; checks for collision between the objects in the first group and all subsequent groups in the set. 
+	 * @implNote Sets with spatial hashes only narrow phase check members that share a cell, other sets check every pair of members.
+	 * @implNote Each member of the first group will hit at most one member of each subsequent group per update.
 	 * @author 5som3*/
-	private static void updateCrossGroupCollisionQuick() {
+	private static void updateCrossGroupCollision(boolean isPrecise) {
+		long cycleStartTime = System.nanoTime();
+		long pairCount = 0;
 		for(int i = 0; i < crossGroups.size(); i++) {
 			WarpedGroup<? extends WarpedObject>[] collisionSet = crossGroups.get(i);
 			WarpedGroup<? extends WarpedObject> primaryGroup = collisionSet[0];
-			for(int j = 0; j < primaryGroup.size(); j++) {
-				WarpedObject memberA = primaryGroup.getMember(j);
-				if(!memberA.isSolid()) continue;
-				for(int k = 1; k < collisionSet.length; k++) {
-					for(int l = 0; l < collisionSet[k].size(); l++) {
-						WarpedObject memberB = collisionSet[k].getMember(l);
-						if(!memberB.isSolid()) continue;
-						if(collisionQuick(memberA, memberB)) {
-							memberA.hit(memberB);
-							memberB.hit(memberA);
-							break;
+			WarpedSpatialHash[] hashes = crossHashes.get(i);
+			if(hashes == null) {				
+				for(int j = 0; j < primaryGroup.size(); j++) {
+					WarpedObject memberA = primaryGroup.getMember(j);
+					if(!memberA.isSolid()) continue;
+					for(int k = 1; k < collisionSet.length; k++) {
+						for(int l = 0; l < collisionSet[k].size(); l++) {
+							WarpedObject memberB = collisionSet[k].getMember(l);
+							if(!memberB.isSolid()) continue;
+							pairCount++;
+							if(collision(memberA, memberB, isPrecise)) {
+								memberA.hit(memberB);
+								memberB.hit(memberA);
+								break;
+							}
+						}
+					}
+				}
+			} else {
+				for(int k = 1; k < collisionSet.length; k++) buildHash(hashes[k - 1], collisionSet[k].getMembers());
+				for(int j = 0; j < primaryGroup.size(); j++) {
+					WarpedObject memberA = primaryGroup.getMember(j);
+					if(!memberA.isSolid()) continue;
+					for(int k = 1; k < collisionSet.length; k++) {
+						WarpedSpatialHash hash = hashes[k - 1];
+						int candidates = hash.query(memberA.x(), memberA.y(), memberA.getWidth(), memberA.getHeight(), -1);
+						for(int l = 0; l < candidates; l++) {
+							WarpedObject memberB = collisionSet[k].getMember(hash.getResult(l));
+							pairCount++;
+							if(collision(memberA, memberB, isPrecise)) {
+								memberA.hit(memberB);
+								memberB.hit(memberA);
+								break;
+							}
 						}
 					}
 				}
 			}
 		}
+		crossGroupPairCount = pairCount;
+		crossGroupCycleDuration = System.nanoTime() - cycleStartTime;
+	}
+	
+	/**Rebuild a spatial hash from the solid members of a group.
+	 * @param hash - the hash to rebuild.
+	 * @param members - the members to insert, each member is identified by its index in the list.
+	 * @author 5som3*/
+	private static void buildHash(WarpedSpatialHash hash, ArrayList<? extends WarpedObject> members) {
+		hash.clear();
+		for(int i = 0; i < members.size(); i++) {
+			WarpedObject member = members.get(i);
+			if(member.isSolid()) hash.insert(i, member.x(), member.y(), member.getWidth(), member.getHeight());
+		}
+	}
+	
+	/**Narrow phase check of two objects.
+	 * @param a - one of the objects to compare.
+	 * @param b - the other object to compare against.
+	 * @param isPrecise - if true uses collisionExact() else uses collisionQuick(). 
+	 * @return boolean - true if the objects collide.
+	 * @author 5som3*/
+	private static boolean collision(WarpedObject a, WarpedObject b, boolean isPrecise) {
+		if(isPrecise) return collisionExact(a, b);
+		else return collisionQuick(a, b);
 	}
 	
 	
@@ -291,7 +435,7 @@ public class WarpedCollisionManager {
 	 * @param a - one of the objects to check for collision.
 	 * @param b - the other object to compare with a.
 	 * @return boolean - true if any pixels of the two objects overlap.
-	 * @implNote - first checks collisionQuick, then checks if the rasters have any overlapping pixels
+	 * @implNote - first checks collisionQuick, then checks if the collision masks of the rasters have any overlapping pixels
 	 * @apiNote - For large rasters this could be much slower than collisionQuick()
 	 * @author 5som3*/
 	private static boolean collisionExact(WarpedObject a, WarpedObject b) {
@@ -325,28 +469,8 @@ public class WarpedCollisionManager {
 			//int cb2x = cb1x + intersectionWidth;
 			//int cb2y = cb1y + intersectionHeight;//Bottom right corner of intersection relative to A Raster
 			
-			int ax = ca1x;
-			int ay = ca1y;
-			int bx = cb1x;
-			int by = cb1y;
-			
-			for(int y = 0; y < intersectionHeight - 1; y++) { //Compare pixels from A and B rasters	
-				ax = ca1x;
-				bx = cb1x;
-				for(int x = 0; x < intersectionWidth - 1; x++) {
-					
-					int aAlpha = UtilsImage.getAlpha(a.raster().getRGB(ax, ay));
-					int bAlpha = UtilsImage.getAlpha(b.raster().getRGB(bx, by));
-					
-					if(aAlpha > WarpedProperties.ALPHA_THRESHOLD && bAlpha > WarpedProperties.ALPHA_THRESHOLD) return true;
-					
-					ax++;
-					bx++;
-				}
-				ay++;
-				by++;
-			}
-			return false; //No pixel overlap
+			//Compare the packed alpha masks of A and B, 64 pixels at a time. The last row and column of the intersection are not compared, the same as the previous per pixel check
+			return CollisionMask.overlaps(a.getSprite().getCollisionMask(), ca1x, ca1y, b.getSprite().getCollisionMask(), cb1x, cb1y, intersectionWidth - 1, intersectionHeight - 1);
 		} else return false;
 	}	
 	
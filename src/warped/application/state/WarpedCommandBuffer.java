@@ -0,0 +1,47 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.util.ArrayList;
+
+import warped.functionalInterfaces.WarpedAction;
+
+public final class WarpedCommandBuffer {
+
+	/*WarpedCommandBuffer records changes to groups (add, remove, transfer) so they can be applied later, in the order they were recorded.
+	 * Groups record into a buffer when it is not safe to change their members immediately :
+	 * 	- While a group is iterating its members, changes to that group are recorded and applied when the iteration ends.
+	 * 	- While an independent group is being updated in parallel, every change to any group is recorded into the buffer of the chunk being updated.
+	 * 	  The chunk buffers are applied in chunk order after the parallel update, so the result is the same as updating the members one at a time.
+	 * */
+
+	private static final ThreadLocal<WarpedCommandBuffer> current = new ThreadLocal<>();
+
+	private ArrayList<WarpedAction> commands = new ArrayList<>();
+
+	/**The buffer that is recording changes for the calling thread.
+	 * @return WarpedCommandBuffer - the buffer, null if the calling thread is not updating part of an independent group.*/
+	static WarpedCommandBuffer getCurrent() {return current.get();}
+
+	/**Record changes made by the calling thread into this buffer until end() is called.*/
+	void begin() {current.set(this);}
+
+	/**Stop recording changes made by the calling thread.*/
+	void end() {current.remove();}
+
+	/**Record a command to apply later.
+	 * @param command - the change to apply.*/
+	void record(WarpedAction command) {commands.add(command);}
+
+	/**Is the buffer empty.
+	 * @return boolean - true if no commands have been recorded since the buffer was last applied.*/
+	boolean isEmpty() {return commands.isEmpty();}
+
+	/**Apply each command in the order they were recorded, then clear the buffer.
+	 * @implNote Commands recorded while applying (i.e. a removal that is deferred again) are applied in the same pass.*/
+	void apply() {
+		for(int i = 0; i < commands.size(); i++) commands.get(i).action();
+		commands.clear();
+	}
+
+}
@@ -6,5 +6,19 @@ public class WarpedFolder {
 
 	protected static final String LINK_EXTENSION = "/linkData/";
 	protected static final String DATA_SUFFIX = "_wf2dat.txt";
-	
+
+	private static WarpedBundle bundle;
+
+	/**Set a bundle for folders to load from instead of their files, see WarpedBundleWriter.
+	 * @param bundle - the bundle, null to load from files.
+	 * @apiNote Set before generating folders, a folder loads from the bundle if the bundle contains its linkData.
+	 * Assets in a bundle are read the first time they are requested instead of when the folder is generated.
+	 * @author 5som3*/
+	public static void setBundle(WarpedBundle bundle) {WarpedFolder.bundle = bundle;}
+
+	/**The bundle folders load from.
+	 * @return WarpedBundle - the bundle, null if folders load from files.
+	 * @author 5som3*/
+	public static WarpedBundle getBundle() {return bundle;}
+
 }
@@ -142,6 +142,7 @@ public abstract class WarpedFramework2D {
 	 * @author 5som3*/
 	public static final void startApplication(WarpedApplication application) {		
 		app = application;
+		WarpedAssetLoader.reset();
 		app.load();
 		
 		state.initializeAssemblys();
@@ -3,6 +3,9 @@
 package warped.application.state;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import warped.application.state.managers.gameObjectManagers.WarpedObjectAction;
 import warped.application.state.managers.gameObjectManagers.WarpedObjectCheckAction;
@@ -13,6 +16,27 @@ public class WarpedGroup<T extends WarpedObject> {
 	protected String name 			   = "default";
 	protected ArrayList<T> members 	   = new ArrayList<>();
 	protected final WarpedGroupIdentity groupID;
+	private volatile WarpedRenderSnapshot renderSnapshot = WarpedRenderSnapshot.EMPTY;
+	private volatile boolean isRendered = false;
+	private volatile long snapshotCount = 0; //The number of render snapshots published, only written by the state loop
+	private WarpedTransformStore transformStore;
+	
+	//Generational slot map, members are stored densely in members and found from the slot in their identity
+	private int[] slotIndex 	 = new int[16]; // slot -> member index, -1 if the slot is free
+	private int[] slotGeneration = new int[16]; // slot -> generation, incremented each time the member in the slot is removed
+	private int[] memberSlot 	 = new int[16]; // member index -> slot
+	private int[] freeSlots 	 = new int[16];
+	private int freeSlotCount 	 = 0;
+	private int slotCount 		 = 0;
+	
+	//Removals requested while the members are being iterated are applied once the iteration is complete
+	private int iterationDepth = 0;
+	private WarpedCommandBuffer deferred = new WarpedCommandBuffer();
+	
+	//Independent groups are updated in chunks on the state update pool
+	private static final int MIN_CHUNK_SIZE = 512;
+	private boolean isIndependent = false;
+	private WarpedCommandBuffer[] chunkCommands = new WarpedCommandBuffer[0];
 	/*
 	//private VectorI pixelSize 		   = new VectorI();
 	//private VectorI mapGridSize		   = new VectorI();
@@ -79,6 +103,34 @@ public class WarpedGroup<T extends WarpedObject> {
 	*/
 	
 	
+	/**Store the position and velocity of every member in parallel arrays owned by the group.
+	 * @param isTransformStore - if true the group will use a transform store, else each member only uses its own position vector.
+	 * @apiNote Use for groups with many moving members, the velocity of every member is applied in one loop after their updatePosition().
+	 * @apiNote Set the velocity of members with WarpedObject.setVelocity(), the VectorD position API continues to work as before.
+	 * @apiNote Members should read their position with getPosition() or x() / y(), the protected position field is only updated when getPosition() is called.
+	 * @implNote Enabling the store copies the current position of each member into it.
+	 * @author 5som3*/
+	public void setTransformStore(boolean isTransformStore) {
+		if(isTransformStore == hasTransformStore()) return;
+		if(isTransformStore) {
+			transformStore = new WarpedTransformStore();
+			for(int i = 0; i < members.size(); i++) bindMember(members.get(i));
+		} else {
+			for(int i = 0; i < members.size(); i++) members.get(i).unbindTransformStore();
+			transformStore = null;
+		}
+	}
+	
+	/**Does the group store the transforms of its members in a transform store.
+	 * @return boolean - true if the group has a transform store.
+	 * @author 5som3*/
+	public boolean hasTransformStore() {return transformStore != null;}
+	
+	/**The transform store for this group.
+	 * @return WarpedTransformStore - the store, null if the group does not use a transform store.
+	 * @author 5som3*/
+	public WarpedTransformStore getTransformStore() {return transformStore;}
+	
 	/**The number of members in the group
 	 * @return int - the member count.
 	 * @author 5som3*/
@@ -99,7 +151,25 @@ public class WarpedGroup<T extends WarpedObject> {
 			Console.err("WarpedGroup -> getMember() -> object ID does not belong to this group");
 			groupID.printString();
 			objectID.printString();
-		} return members.get(objectID.getMemberIndex());
+		}
+		if(objectID.getSlot() < 0) return members.get(objectID.getMemberIndex());
+		if(!isMember(objectID)) {
+			Console.err("WarpedGroup -> getMember() -> object ID is stale, the member has been removed : " + objectID.getString());
+			return null;
+		}
+		return members.get(slotIndex[objectID.getSlot()]);
+	}
+	
+	/**Does the identity refer to a member that is still in this group.
+	 * @param objectID - the identity to check.
+	 * @return boolean - true if the member is in the group, false if it has been removed (the identity is stale) or belongs to another group.
+	 * @implNote O(1), the generation of the identity is compared with the generation of its slot.
+	 * @author 5som3*/
+	public boolean isMember(WarpedObjectIdentity objectID) {
+		if(!objectID.getGroupID().isEqual(groupID)) return false;
+		int slot = objectID.getSlot();
+		if(slot < 0) return objectID.getMemberIndex() < members.size() && members.get(objectID.getMemberIndex()).getObjectID() == objectID;
+		return slot < slotCount && slotIndex[slot] >= 0 && slotGeneration[slot] == objectID.getGeneration();
 	}
 	
 	/**Get the member at the specified index
@@ -174,11 +244,55 @@ public class WarpedGroup<T extends WarpedObject> {
 	
 	/**Add a member to the group
 	 * @param member - a member of the same type as the groups manager
+	 * @return WarpedObjectIdentity - the identity of the new member, null if the add is deferred.
+	 * @implNote If called while the group is updating its members, the member is added once the update is complete and first updated in the next cycle.
 	 * @author 5som3*/
 	public WarpedObjectIdentity addMember(T member) {		
-		WarpedObjectIdentity ID = new WarpedObjectIdentity(groupID, members.size());
-		member.initObjectIdentity(ID);
+		WarpedCommandBuffer commands = WarpedCommandBuffer.getCurrent();
+		if(commands == null && iterationDepth > 0) commands = deferred; // Applied in order with deferred removals, as a parallel update applies them
+		if(commands != null) {
+			commands.record(() -> {addMember(member);});
+			return null;
+		}
+		return insertMember(member, false);
+	}
+	
+	/**Move a member from this group to another group.
+	 * @param memberID - the id of the member to move.
+	 * @param target - the group to move the member to.
+	 * @return WarpedObjectIdentity - the new identity of the member, null if the transfer is deferred or the member is not in this group.
+	 * @apiNote Any identity held for the member before the transfer will be stale.
+	 * @implNote If called during the parallel update of an independent group, the transfer is applied after the update.
+	 * @author 5som3*/
+	public WarpedObjectIdentity transferMember(WarpedObjectIdentity memberID, WarpedGroup<T> target) {
+		if(!isMember(memberID)) {
+			Console.err("WarpedGroup -> transferMember() -> the member is not in this group : " + memberID.getString());
+			return null;
+		}
+		WarpedCommandBuffer commands = WarpedCommandBuffer.getCurrent();
+		if(commands == null && iterationDepth > 0) commands = deferred;
+		if(commands != null) {
+			commands.record(() -> {if(isMember(memberID)) transferMember(memberID, target);});
+			return null;
+		}
+		T member = getMember(memberID);
+		removeNow(memberID);
+		return target.insertMember(member, true);
+	}
+	
+	/**Add the member to the end of the group and assign it a slot*/
+	private WarpedObjectIdentity insertMember(T member, boolean isTransfer) {
+		if(isTransfer && member.hasTransformStore()) member.unbindTransformStore();
+		int slot = allocateSlot();
+		int index = members.size();
+		WarpedObjectIdentity ID = new WarpedObjectIdentity(groupID, slot, slotGeneration[slot], index);
+		if(isTransfer) member.overrideObjectIdentity(ID);
+		else member.initObjectIdentity(ID);
+		if(index == memberSlot.length) memberSlot = Arrays.copyOf(memberSlot, index * 2);
+		slotIndex[slot] = index;
+		memberSlot[index] = slot;
 		members.add(member);
+		if(transformStore != null) bindMember(member);
 		return ID;
 	}
 	
@@ -222,16 +336,116 @@ public class WarpedGroup<T extends WarpedObject> {
 
 	/**Remove a member from the group
 	 * @param memberID - the id of the member to remove
+	 * @apiNote The last member is moved into the place of the removed member, the order of the members is not kept.
+	 * @implNote O(1). If called while the group is updating its members, the member is removed once the update is complete.
 	 * @author 5som3*/
 	public void removeMember(WarpedObjectIdentity memberID) {
-		members.remove(memberID.getMemberIndex());
-		for(int i = memberID.getMemberIndex(); i < members.size(); i++) members.get(i).getObjectID().shuffleLeft();
+		if(!isMember(memberID)) {
+			Console.err("WarpedGroup -> removeMember() -> the member is not in this group : " + memberID.getString());
+			return;
+		}
+		WarpedCommandBuffer commands = WarpedCommandBuffer.getCurrent();
+		if(commands == null && iterationDepth > 0) commands = deferred;
+		if(commands != null) {
+			commands.record(() -> {if(isMember(memberID)) removeMember(memberID);}); // A member removed twice is skipped the second time, its identity is stale by then
+			return;
+		}
+		T member = getMember(memberID);
+		removeNow(memberID);
+		member.removed();
+	}
+	
+	/**Remove the member immediately*/
+	private void removeNow(WarpedObjectIdentity memberID) {
+		if(memberID.getSlot() < 0) removeOrdered(memberID.getMemberIndex());
+		else swapRemove(memberID);
 	}
 	
 	
 	/**Clear all members from the group
 	 * @author 5som3 */
-	public void clearMembers() {members.clear();}
+	public void clearMembers() {
+		if(transformStore != null) {
+			for(int i = 0; i < members.size(); i++) members.get(i).unbindTransformStore();
+			transformStore.clear();
+		}
+		for(int i = 0; i < members.size(); i++) {
+			int slot = members.get(i).getObjectID().getSlot();
+			if(slot >= 0) freeSlot(slot);
+		}
+		ArrayList<T> removed = new ArrayList<>(members);
+		members.clear();
+		for(int i = 0; i < removed.size(); i++) removed.get(i).removed();
+	}
+	
+	/**Move the last member into the place of the removed member and free its slot*/
+	private void swapRemove(WarpedObjectIdentity memberID) {
+		int slot = memberID.getSlot();
+		int index = slotIndex[slot];
+		int last = members.size() - 1;
+		T member = members.get(index);
+		if(transformStore != null) {
+			member.unbindTransformStore();
+			transformStore.swapRemove(index);
+		}
+		if(index != last) {
+			T moved = members.get(last);
+			members.set(index, moved);
+			moved.getObjectID().overrideMemberIndex(index);
+			memberSlot[index] = memberSlot[last];
+			slotIndex[memberSlot[index]] = index;
+		}
+		members.remove(last);
+		freeSlot(slot);
+	}
+	
+	/**Remove the member at the index and shuffle the index of each following member, used for members without a slot*/
+	private void removeOrdered(int index) {
+		T member = members.remove(index);
+		if(transformStore != null) {
+			member.unbindTransformStore();
+			transformStore.remove(index);
+		}
+		for(int i = index; i < members.size(); i++) {
+			WarpedObjectIdentity ID = members.get(i).getObjectID();
+			ID.shuffleLeft();
+			if(ID.getSlot() < 0) continue;
+			memberSlot[i] = ID.getSlot();
+			slotIndex[ID.getSlot()] = i;
+		}
+	}
+	
+	private int allocateSlot() {
+		if(freeSlotCount > 0) return freeSlots[--freeSlotCount];
+		if(slotCount == slotIndex.length) {
+			slotIndex = Arrays.copyOf(slotIndex, slotCount * 2);
+			slotGeneration = Arrays.copyOf(slotGeneration, slotCount * 2);
+		}
+		return slotCount++;
+	}
+	
+	private void freeSlot(int slot) {
+		slotIndex[slot] = -1;
+		slotGeneration[slot]++; // Any identity still referring to the slot is now stale
+		if(freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+		freeSlots[freeSlotCount++] = slot;
+	}
+	
+	/**Mark the start of an iteration over the members, adds and removals are deferred until every iteration has ended*/
+	private void beginIteration() {iterationDepth++;}
+	
+	/**Mark the end of an iteration over the members, the safe point where deferred adds and removals are applied*/
+	private void endIteration() {
+		iterationDepth--;
+		if(iterationDepth > 0 || deferred.isEmpty()) return;
+		deferred.apply();
+	}
+	
+	/**Add a slot for the member at the end of the transform store*/
+	private void bindMember(T member) {
+		transformStore.add(member.getPosition().x(), member.getPosition().y(), member.getWidth(), member.getHeight());
+		member.bindTransformStore(transformStore);
+	}
 	
 	
 	/*
@@ -259,16 +473,22 @@ public class WarpedGroup<T extends WarpedObject> {
 	 * @author 5som3
 	 * */
 	public void forEach(WarpedObjectAction<T> method) {
-		for(int i = 0; i < members.size(); i++) {
-			method.action(members.get(i));
-		}
+		beginIteration();
+		try {
+			for(int i = 0; i < members.size(); i++) {
+				method.action(members.get(i));
+			}
+		} finally {endIteration();}
 	}
 		
 	public boolean forEachReverse(WarpedObjectCheckAction<T> method) {
-		for(int i = members.size() - 1; i > 0; i--) {
-			if(method.action(members.get(i))) return true;
-		} 
-		return false;
+		beginIteration();
+		try {
+			for(int i = members.size() - 1; i > 0; i--) {
+				if(method.action(members.get(i))) return true;
+			} 
+			return false;
+		} finally {endIteration();}
 	}
 	
 	/**Execute the specified method for each of the objects in the group 
@@ -282,27 +502,112 @@ public class WarpedGroup<T extends WarpedObject> {
 	 * */
 
 	/**Update 60 times per second*/
-	protected void updatePosition(double deltaTime) {
-		for(int i = 0; i < members.size(); i++) {
-			members.get(i).updatePosition(deltaTime);
+	protected void updatePosition(double deltaTime) {update(UpdatePhase.POSITION, deltaTime);}
+	
+	/**Update 60 times per second*/
+	protected void updateActive() {update(UpdatePhase.ACTIVE, 0.0);}
+	
+	/**Update once per second*/
+	protected void updateMid() {update(UpdatePhase.MID, 0.0);}
+	
+	/**Update once per minute*/
+	protected void updateSlow() {update(UpdatePhase.SLOW, 0.0);}
+	
+	/**Set if the members of this group can be updated in parallel.
+	 * @param isIndependent - if true the members will be updated in chunks on WarpedState.getUpdatePool(), else one at a time on the state loop.
+	 * @apiNote Only set groups independent if each member only changes its own state when it updates (i.e. particles, projectiles, simple entities).
+	 * @apiNote Calls to addMember(), removeMember() and transferMember() on any group during the update are recorded and applied after the update in member order,
+	 * @apiNote so the result is the same however many threads the update is split across. As in a serial update, members added during the update are first updated in the next cycle.
+	 * @implNote The update of the group is complete before the state loop moves on, so collision and render snapshots always see every member updated.
+	 * @author 5som3*/
+	public void setIndependent(boolean isIndependent) {this.isIndependent = isIndependent;}
+	
+	/**Are the members of this group updated in parallel.
+	 * @return boolean - true if the group is independent.
+	 * @author 5som3*/
+	public boolean isIndependent() {return isIndependent;}
+	
+	private enum UpdatePhase {POSITION, ACTIVE, MID, SLOW}
+	
+	private void update(UpdatePhase phase, double deltaTime) {
+		if(isIndependent) {
+			updateIndependent(phase, deltaTime);
+			return;
 		}
+		beginIteration();
+		try {
+			updateMembers(phase, deltaTime, 0, -1);
+			if(phase == UpdatePhase.POSITION && transformStore != null) transformStore.integrate(deltaTime);
+		} finally {endIteration();}
 	}
 	
-	/**Update 60 times per second*/
-	protected void updateActive() {
-		for(int i = 0; i < members.size(); i++) {
+	/**Split the members into chunks and update each chunk on the update pool, recording changes to groups into a command buffer for each chunk.*/
+	private void updateIndependent(UpdatePhase phase, double deltaTime) {
+		ForkJoinPool pool = WarpedState.getUpdatePool();
+		int count = members.size();
+		int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, count / MIN_CHUNK_SIZE));
+		if(chunkCommands.length < chunks) {
+			chunkCommands = Arrays.copyOf(chunkCommands, chunks);
+			for(int i = 0; i < chunks; i++) if(chunkCommands[i] == null) chunkCommands[i] = new WarpedCommandBuffer();
+		}
+		beginIteration();
+		try {
+			if(chunks == 1) new UpdateChunk(phase, deltaTime, 0, count, chunkCommands[0]).compute(); // Too few members to be worth splitting, the same buffering keeps the result identical
+			else {
+				RecursiveAction[] tasks = new RecursiveAction[chunks];
+				for(int i = 0; i < chunks; i++) {
+					tasks[i] = new UpdateChunk(phase, deltaTime, (int)((long)count * i / chunks), (int)((long)count * (i + 1) / chunks), chunkCommands[i]);
+					pool.execute(tasks[i]);
+				}
+				for(int i = 0; i < chunks; i++) tasks[i].join(); // Barrier, every member is updated before the loop moves on
+			}
+			if(phase == UpdatePhase.POSITION && transformStore != null) transformStore.integrate(deltaTime);
+		} finally {
+			for(int i = 0; i < chunks; i++) chunkCommands[i].apply(); // In chunk order, the same order as a serial update
+			endIteration();
+		}
+	}
+	
+	/**Update members from (inclusive) to (exclusive), to = -1 updates until the end of the members*/
+	private void updateMembers(UpdatePhase phase, double deltaTime, int from, int to) {
+		for(int i = from; i < (to < 0 ? members.size() : to); i++) {
 			T member = members.get(i);
-			if(!member.isAlive()) members.remove(i);
-			else member.updateObject();
+			switch(phase) {
+			case POSITION: member.updatePosition(deltaTime); break;
+			case ACTIVE:
+				if(!member.isAlive()) removeMember(member.getObjectID()); // Deferred until every member has updated
+				else member.updateObject();
+				break;
+			case MID:  member.updateMid(); break;
+			case SLOW: member.updateSlow(); break;
+			}
 		}
 	}
 	
-	/**Update once per second*/
-	protected void updateMid() {for(int i = 0; i < members.size(); i++)	members.get(i).updateMid();}
+	private final class UpdateChunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final UpdatePhase phase;
+		private final double deltaTime;
+		private final int from;
+		private final int to;
+		private final transient WarpedCommandBuffer commands; // Chunks are never serialized, RecursiveAction is only Serializable by inheritance
+		
+		private UpdateChunk(UpdatePhase phase, double deltaTime, int from, int to, WarpedCommandBuffer commands) {
+			this.phase = phase;
+			this.deltaTime = deltaTime;
+			this.from = from;
+			this.to = to;
+			this.commands = commands;
+		}
+		
+		@Override
+		protected void compute() {
+			commands.begin();
+			try {updateMembers(phase, deltaTime, from, to);}
+			finally {commands.end();}
+		}
+	}
 	
-	/**Update once per minute*/
-	protected void updateSlow() {for(int i = 0; i < members.size(); i++) members.get(i).updateSlow();}
-
 	/*
 	/**Called after each update active cycle
 	protected void removeDead() {
@@ -313,13 +618,57 @@ public class WarpedGroup<T extends WarpedObject> {
 	 * */
 	
 
+	/**The last render snapshot published for this group.
+	 * @return WarpedRenderSnapshot - an unchanging copy of the members as they were at the end of the last active update.
+	 * @apiNote Render from the snapshot instead of the members, it is safe to read from any thread.
+	 * @implNote Closed groups only publish snapshots once they have been rendered from.
+	 * @author 5som3*/
+	public WarpedRenderSnapshot getRenderSnapshot() {
+		isRendered = true;
+		return renderSnapshot;
+	}
+	
+	/**The number of render snapshots published for this group.
+	 * @return long - the snapshot count, 0 if no snapshot has been published.
+	 * @apiNote A member removed before the count changes may still be held by the current snapshot, i.e. ProjectilePool waits for the count to change before reusing a projectile.
+	 * @author 5som3*/
+	public long getSnapshotCount() {return snapshotCount;}
+	
+	/**Is the group being rendered by a viewport that targets it directly, closed groups are only snapshot if they are.*/
+	protected boolean isRendered() {return isRendered;}
+	
+	/**Build a new render snapshot of the members and publish it for the viewports.
+	 * @return WarpedRenderSnapshot - the snapshot that was published.
+	 * @implNote Called by the state loop after each active update.*/
+	protected WarpedRenderSnapshot publishRenderSnapshot() {
+		WarpedRenderSnapshot snapshot = new WarpedRenderSnapshot(members.size());
+		for(int i = 0; i < members.size(); i++) {
+			T member = members.get(i);
+			snapshot.add(member);
+			if(transformStore != null) transformStore.setSize(i, member.getWidth(), member.getHeight());
+		}
+		snapshot.sortByPage();
+		renderSnapshot = snapshot;
+		snapshotCount++;
+		return snapshot;
+	}
+	
 	/**Will reset the member index for each objects ID in the group.
 	 * If this is not called after the group order is resorted then the objectIDs will no long be accurate.
 	 * @author 5som3 */
 	protected void resetMemberOrder() {
+		if(memberSlot.length < members.size()) memberSlot = Arrays.copyOf(memberSlot, members.size());
+		if(transformStore != null) {
+			int[] previousIndex = new int[members.size()];
+			for(int i = 0; i < members.size(); i++) previousIndex[i] = members.get(i).getObjectID().getMemberIndex();
+			transformStore.reorder(previousIndex);
+		}
 		for(int i = 0; i < members.size(); i++) {
 			T member = members.get(i);
 			member.getObjectID().overrideMemberIndex(i);			
+			int slot = member.getObjectID().getSlot();
+			memberSlot[i] = slot;
+			if(slot >= 0) slotIndex[slot] = i;
 		}
 	}
 	
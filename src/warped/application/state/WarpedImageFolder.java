@@ -13,8 +13,10 @@ import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.imageio.ImageIO;
 
@@ -40,6 +42,9 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 	protected List<String> filePaths;
 	private HashMap<T, BufferedImage> images = new HashMap<>();
 	
+	protected WarpedBundle sourceBundle;						  //The bundle the folder loads from, null if loaded from files
+	protected HashMap<T, String> bundledPaths = new HashMap<>(); //The name in the bundle of each type, read from the bundle when first requested
+	
 	public static <K extends WarpedLinkable<? extends Enum<?>>> WarpedImageFolder<K> generateFolder(K type, String folderPath){
 		return new WarpedImageFolder<K>(type, folderPath);
 	}
@@ -51,6 +56,12 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 				
 		Console.ln("WarpedImageFolder -> Folder Name : " + 1 + " -> Folder Type :  " + folderType.getClass() + " ->  Folder Path : " + folderPath);
 		
+		if(isBundled()) {
+			if(readLinkData()) loadLinkDataPaths();
+			else Console.err("WarpedImageFolder -> couldn't read linkData from bundle, can't proceede");
+			return;
+		}
+		
 		if(isFolderValid()) {
 			if(isPathsSet()) {
 				if(isLinkDataFolderValid()) {
@@ -87,23 +98,19 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 		Console.condition("WarpedImageFolder -> loadDataFromFolder() -> trying to load images from folder : " + folder.getPath());
 		@SuppressWarnings("unchecked")
 		ArrayList<T> imageTypes = (ArrayList<T>) folderType.getAll();
+		ArrayList<Callable<BufferedImage>> tasks = new ArrayList<>(contents.length);
 		for(int i = 0; i < contents.length; i++) {
-			
 			File file = contents[i];
-			Console.condition("WarpedImageFolder -> loadDataFromFolder() -> trying to load image from the file : " + file.getPath());
-			BufferedImage image = null;
-			try {
-				image = ImageIO.read(file);
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			
-			if(image == null) {
+			tasks.add(() -> WarpedAssetLoader.readImage(file));
+		}
+		
+		List<BufferedImage> loadedImages = WarpedAssetLoader.load(tasks);
+		for(int i = 0; i < loadedImages.size(); i++) {
+			if(loadedImages.get(i) == null) {
 				Console.err("WarpedImageFolder -> loadDataFromFolder() -> failed to read image from file");
 				continue;
 			}
-			images.put(imageTypes.get(i), image);
+			images.put(imageTypes.get(i), loadedImages.get(i));
 		}
 		if(images.size() != contents.length) {
 			Console.err("WarpedImageFolder -> loadDataFromFolder() -> image size doesn't match number of types");
@@ -116,29 +123,34 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 		@SuppressWarnings("unchecked")
 		ArrayList<T> imageTypes = (ArrayList<T>) folderType.getAll();
 		
+		if(sourceBundle != null) {
+			Console.condition("WarpedImageFolder -> loadDataPaths() -> trying to link images in bundle : " + sourceBundle.getPath());
+			for(int i = 0; i < filePaths.size(); i++) {
+				if(sourceBundle.contains(filePaths.get(i))) bundledPaths.put(imageTypes.get(i), filePaths.get(i));
+				else Console.err("WarpedImageFolder -> loadDataPaths() -> bundle does not contain : " + filePaths.get(i));
+			}
+			if(bundledPaths.size() == imageTypes.size()) Console.met("WarpedImageFolder -> loadDataPaths() -> linked images in bundle");
+			else Console.err("WarpedImageFolder -> loadDataPaths() -> failed to link data");
+			return;
+		}
+		
 		Console.condition("WarpedImageFolder -> loadDataPaths() -> trying to load images");
+		ArrayList<Callable<BufferedImage>> tasks = new ArrayList<>(filePaths.size());
 		for(int i = 0; i < filePaths.size(); i++) {
 			String filePath = filePaths.get(i);
-			
-			URL url = getClass().getResource(filePath);
-			if(url == null) {
-				Console.err("WarpedImageFolder -> loadDataPaths() -> couldn't find resource at path : " + filePath);
-				continue;
-			}
-			
-			BufferedImage image = null;
-			try {
-				image = ImageIO.read(url);
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			
-			if(image == null) {
-				Console.err("WarpedImageFolder -> loadDataPaths() -> failed to read image from url : " + url.toString());
-				continue;
-			}
-			images.put(imageTypes.get(i), image);
+			tasks.add(() -> {
+				URL url = getClass().getResource(filePath);
+				if(url == null) {
+					Console.err("WarpedImageFolder -> loadDataPaths() -> couldn't find resource at path : " + filePath);
+					return null;
+				}
+				return WarpedAssetLoader.readImage(url);
+			});
+		}
+		
+		List<BufferedImage> loadedImages = WarpedAssetLoader.load(tasks);
+		for(int i = 0; i < loadedImages.size(); i++) {
+			if(loadedImages.get(i) != null) images.put(imageTypes.get(i), loadedImages.get(i));
 		}
 		
 		if(images.size() == imageTypes.size()) Console.met("WarpedImageFolder -> loadDataPaths() -> loaded images from dataPath");
@@ -148,6 +160,11 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 	
 	protected final boolean readLinkData() {
 		Console.ln("WarpedImageFolder -> readLinkData() -> looking for linkData..");
+		if(sourceBundle != null) {
+			filePaths = sourceBundle.getText(linkDataPath).lines().toList();
+			Console.met("WarpedImageFolder -> readLinkData() -> read " + filePaths.size() + " filePaths from bundled linkData");
+			return true;
+		}
 		InputStream stream = null;
 	
 		Console.condition("WarpedImageFolder -> readLinkData() -> looking for linkData at : " + linkDataPath); 
@@ -163,6 +180,17 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 		return true;
 	}
 	
+	/**Should the folder load from the bundle set in WarpedFolder.setBundle().
+	 * @return boolean - true if a bundle is set and contains the linkData of the folder.
+	 * @author 5som3*/
+	protected final boolean isBundled() {
+		WarpedBundle bundle = getBundle();
+		if(bundle == null || !isPathsSet() || !bundle.contains(linkDataPath)) return false;
+		sourceBundle = bundle;
+		Console.ln("WarpedImageFolder -> isBundled() -> loading from bundle : " + bundle.getPath());
+		return true;
+	}
+	
 	protected final boolean isLinkDataFolderValid() {
 		linkDataFolder = new File(linkDataFolderPath);
 		if(linkDataFolder.exists()) {
@@ -263,6 +291,10 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 	}
 	
 	public BufferedImage getImage(T imageName) {
+		if(bundledPaths.containsKey(imageName)) {
+			BufferedImage image = sourceBundle.getImage(bundledPaths.get(imageName));
+			return image == null ? FrameworkSprites.error : image;
+		}
 		if(images.containsKey(imageName)) return images.get(imageName);
 		else {
 			Console.err("WarpedImageFolder -> " + 1 + " ->  getImage() -> the image : " + imageName + " does not exist in the folder");
@@ -278,6 +310,17 @@ public class WarpedImageFolder<T extends WarpedLinkable<? extends Enum<?>>> exte
 		return result;		
 	}
 	
+	/**Every image that has been loaded from the folder.
+	 * @return Collection<BufferedImage> - the images, i.e. to pack into a WarpedAtlas.
+	 * @apiNote If the folder loads from a bundle every image is read from the bundle.
+	 * @author 5som3*/
+	public Collection<BufferedImage> getAllImages() {
+		if(bundledPaths.isEmpty()) return images.values();
+		ArrayList<BufferedImage> result = new ArrayList<>(bundledPaths.size());
+		bundledPaths.forEach((type, path) -> result.add(getImage(type)));
+		return result;
+	}
+	
 	public void saveImages(String path) {
 		if(images == null) {
 			Console.err("WarpedImageFolder -> saveImages() -> images is null");
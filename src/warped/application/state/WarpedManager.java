@@ -14,6 +14,7 @@ public class WarpedManager<T extends WarpedObject> {
 	protected String name = "Default";
 	protected ArrayList<WarpedGroup<T>> groups = new ArrayList<>();	
 	protected ArrayList<WarpedGroup<T>> activeGroups = new ArrayList<>();																					
+	private volatile WarpedRenderSnapshot[] renderSnapshots = new WarpedRenderSnapshot[0];
 
 	protected final int UNIQUE_ID; // A unique id for this manager, also doubles as the index of the manager in the state
 	private static int managerCount = 0; //Two managersT exist by default, the GUI manager and Object manager
@@ -39,7 +40,7 @@ public class WarpedManager<T extends WarpedObject> {
 	/**Add a group to the manager
 	 * @return WarpedGroup<T> - the newly created added group
 	 * @author 5som3*/
-	public WarpedGroup<T> addGroup() {
+	public synchronized WarpedGroup<T> addGroup() {
 		WarpedGroupIdentity groupID = new WarpedGroupIdentity(UNIQUE_ID, groups.size());
 		WarpedGroup<T> g = new WarpedGroup<T>(groupID);
 		groups.add(g);
@@ -49,7 +50,7 @@ public class WarpedManager<T extends WarpedObject> {
 	/**Add a group to the manager
 	 * @return WarpedGroup<T> - the newly created added group
 	 * @author 5som3*/
-	public WarpedGroup<T> addGroup(String name) {
+	public synchronized WarpedGroup<T> addGroup(String name) {
 		WarpedGroupIdentity groupID = new WarpedGroupIdentity(UNIQUE_ID, groups.size());
 		WarpedGroup<T> g = new WarpedGroup<T>(groupID, name);
 		groups.add(g);
@@ -62,7 +63,7 @@ public class WarpedManager<T extends WarpedObject> {
 	 * @apiNote It is up to you to ensure only object of the groups type are added to it.
 	 * @apiNote Adding members of another class will cause a class cast exception when accessing them.
 	 * @author 5som3*/
-	public final <K extends T> WarpedGroup<K> addGroup(Class<K> classType) {
+	public final synchronized <K extends T> WarpedGroup<K> addGroup(Class<K> classType) {
 		WarpedGroupIdentity groupID = new WarpedGroupIdentity(UNIQUE_ID, groups.size());
 		WarpedGroup<T> g = new WarpedGroup<T>(groupID);
 		groups.add(g);
@@ -270,6 +271,13 @@ public class WarpedManager<T extends WarpedObject> {
 	 * @author SomeKid*/
 	public void forEachActiveGroup(WarpedObjectAction<T> method) {for(int i = 0; i < activeGroups.size(); i++) activeGroups.get(i).forEach(method);}
 	
+	/**Get the render snapshots of the open groups.
+	 * @return WarpedRenderSnapshot[] - the snapshot of each open group, in the same order as the active groups.
+	 * @apiNote Published by the state loop at the end of each active update, safe to read from any thread.
+	 * @apiNote Do not edit the returned array, it is shared by every viewport that targets this manager.
+	 * @author 5som3*/
+	public WarpedRenderSnapshot[] getRenderSnapshots() {return renderSnapshots;}
+	
 	public boolean forEachActiveGroupReverse(WarpedObjectCheckAction<T> method) {
 		for(int i = activeGroups.size() - 1; i > 0; i--) {
 			if(activeGroups.get(i).forEachReverse(method)) return true;
@@ -281,17 +289,49 @@ public class WarpedManager<T extends WarpedObject> {
 	/**Clears all data from the manager
 	 * @apiNote Use open and close to control group updating. Do not clear groups to stop them from updating.
 	 * @author 5som3*/
-	public void clearGroups() {
+	public synchronized void clearGroups() {
 		activeGroups.clear();
 		groups.clear();
 	}	
 	
+	/**Update the open groups once and publish their render snapshots, without the state loop.
+	 * @param deltaTime - the time step for the position update in seconds.
+	 * @apiNote Use to drive a manager at a fixed step, i.e. with a WarpedRenderHarness, do not call while the state loop is running.
+	 * @implNote Applies the render transformations published by the viewports first, as the active update of the state loop does.
+	 * @author 5som3*/
+	public final void step(double deltaTime) {
+		WarpedState.applyRenderTransforms();
+		updatePosition(deltaTime);
+		updateActive();
+		publishRenderSnapshots();
+	}
+	
 	/**Update 60 times per second*/
 	protected final void updatePosition(double deltaTime) {for(int i = 0; i< activeGroups.size(); i++) activeGroups.get(i).updatePosition(deltaTime);}
 	
 	/**Update 60 times per second*/
 	protected final void updateActive() {for(int i = 0; i< activeGroups.size(); i++) activeGroups.get(i).updateActive();}
 	
+	/**Publish render snapshots for the open groups and any closed groups that are rendered directly, called after each active update*/
+	protected final void publishRenderSnapshots() {
+		Object[] open;
+		Object[] all;
+		synchronized(this) { // Groups may be added, opened and closed from other threads
+			open = activeGroups.toArray();
+			all = groups.toArray();
+		}
+		WarpedRenderSnapshot[] snapshots = new WarpedRenderSnapshot[open.length];
+		for(int i = 0; i < open.length; i++) snapshots[i] = ((WarpedGroup<?>)open[i]).publishRenderSnapshot();
+		for(int i = 0; i < all.length; i++) {
+			WarpedGroup<?> group = (WarpedGroup<?>)all[i];
+			if(!group.isRendered()) continue;
+			boolean isOpen = false;
+			for(int j = 0; j < open.length; j++) if(open[j] == group) {isOpen = true; break;}
+			if(!isOpen) group.publishRenderSnapshot();
+		}
+		renderSnapshots = snapshots;
+	}
+	
 	/**Update once per second*/
 	protected final void updateMid() {for(int i = 0; i< activeGroups.size(); i++) activeGroups.get(i).updateMid();}
 	
@@ -4,6 +4,7 @@ package warped.application.state;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
+import warped.functionalInterfaces.VecDAction;
 import warped.graphics.sprite.WarpedSprite;
 import warped.graphics.window.WarpedCamera;
 import warped.graphics.window.WarpedMouse;
@@ -44,6 +45,11 @@ public abstract class WarpedObject {
 	//The sprite size will be scaled by this value when the sprite is drawn
 	protected double renderScale 	= 1.0;
 	
+	//The transform store of the group containing this object, null if the group does not use one
+	private WarpedTransformStore transformStore;
+	private VecDAction positionAction; // The delta action of the position before the transform store was bound, restored when it is unbound
+	private long syncedMoveCount = 0;
+	
 	//--------
 	//------------------- Object Init ---------------------
 	//--------
@@ -61,6 +67,34 @@ public abstract class WarpedObject {
 		this.objectID = objectIdentity;
 	}
 	
+	/**Return the object to the state of a newly constructed object so it can be reused, i.e. by an object pool.
+	 * @apiNote Only call on an object that is not in a group, the identity is cleared so the object can be added to a group again.
+	 * @apiNote Extensions with their own state should override this method, call super.reset() and restore the state their constructor sets.
+	 * @apiNote The sprite is kept.
+	 * @author 5som3*/
+	protected void reset() {
+		objectID 		= null;
+		isExpressEvents = false;
+		isVisible 		= true;
+		isInteractive 	= true;
+		isHovered 		= false;
+		isAlive 		= true;
+		isSolid 		= true;
+		mouseEvent 		= null;
+		toolTip 		= null;
+		renderScale 	= 1.0;
+		position 		= new VectorD(); // The position may point to a vector set with setPositionPointer()
+		renderPosition.set(0.0, 0.0);
+		renderSize.set(0.0, 0.0);
+		renderCentre.set(0.0, 0.0);
+	}
+	
+	/**Called by the group after the object has been removed from it.
+	 * @apiNote Not called when the object is transferred to another group.
+	 * @apiNote Override to release the object, i.e. return it to an object pool once it has been killed and removed.
+	 * @author 5som3*/
+	protected void removed() {return;}
+	
 	/**Override the objects identity.
 	 * @param objectIdentity - the new identity for the object generated by the group that is adding it
 	 * @apiNote Call this method when an object is removed from one group to another
@@ -194,27 +228,30 @@ public abstract class WarpedObject {
 	/**The top left corner of the game object int application space 
 	 * @return Vec2d - the top left corner of the raster measured in pixels from the origin in game space.
 	 * @author SomeKid*/
-	public final VectorD getPosition() {return position;}
+	public final VectorD getPosition() {
+		syncPosition();
+		return position;
+	}
 	
 	/**The x coordinate of this game object.
 	 * @return double - the position of this game object. On screen this point appears as the top-left corner of this objects sprite
 	 * @author 5som3*/
-	public final double x() {return position.x();}
+	public final double x() {return transformStore == null ? position.x() : transformStore.getX(objectID.getMemberIndex());}
 	
 	/**The y coordinate of this game object.
 	 * @return double - The position of this game object. On screen this point appears as the top-left corner of this objects sprite
 	 * @author 5som3*/
-	public final double y() {return position.y();}
+	public final double y() {return transformStore == null ? position.y() : transformStore.getY(objectID.getMemberIndex());}
 	
 	/**The center point of the object - x coordinate
 	 * @return double - the center of the raster measured in pixels from the origin in game space
 	 * @author SomeKid*/
-	public final double getCenterX() {return position.x() + sprite.getWidth()  / 2;}
+	public final double getCenterX() {return x() + sprite.getWidth()  / 2;}
 	
 	/**The center point of the object - y coordinate
 	 * @return double - the center of the raster measured in pixels from the origin in game space
 	 * @author SomeKid*/
-	public final double getCenterY() {return position.y() + sprite.getHeight() / 2;}
+	public final double getCenterY() {return y() + sprite.getHeight() / 2;}
 	
 	/**Get the center point of the object in game space
 	 * @return VectorD - a new vector object containing the current center x, y coordinates.
@@ -244,7 +281,7 @@ public abstract class WarpedObject {
 	 * This method should only be called by WarpedViewports when rendering.
 	 * @author SomeKid*/ 
 	public final void setRenderTransformations(WarpedCamera camera) {
-		renderPosition.set((position.x() + camera.getPosition().x()), (position.y() + camera.getPosition().y()));
+		renderPosition.set((x() + camera.getPosition().x()), (y() + camera.getPosition().y()));
 		renderPosition.scale(camera.getZoom());
 		renderSize.set(getWidth() * camera.getZoom() * renderScale, getHeight() * camera.getZoom() * renderScale);
 		renderCentre.set(renderPosition.x() + renderSize.x() / 2, renderPosition.y() + renderSize.y() / 2);
@@ -255,9 +292,23 @@ public abstract class WarpedObject {
 	 * This method should only be called by WarpedViewports when rendering.
 	 * @author SomeKid*/ 
 	public final void setRenderTransformations() {
-		renderPosition.set(position);
+		renderPosition.set(x(), y());
 		renderSize.set(sprite.getSize());
 	}
+
+	/**Set the transformation calculated by a viewport from a render snapshot.
+	 * You should not manually setRenderTransformations ( this is an automated process )
+	 * This method should only be called by WarpedViewports when rendering.
+	 * @param x - the x coordinate of the top left corner in screen space.
+	 * @param y - the y coordinate of the top left corner in screen space.
+	 * @param width - the render width in pixels.
+	 * @param height - the render height in pixels.
+	 * @author 5som3*/
+	public final void setRenderTransformations(double x, double y, double width, double height) {
+		renderPosition.set(x, y);
+		renderSize.set(width, height);
+		renderCentre.set(x + width / 2, y + height / 2);
+	}
 	
 	/**The scale will be applied to the sprite size when rendering
 	 * @return double - render scale for this object
@@ -288,25 +339,97 @@ public abstract class WarpedObject {
 	/**Set the position vector to the input vector
 	 *  Note - this game objects position will refer to the input vector so any subsequent changes made to the vector will carry to this object
 	 *  @author SomeKid*/
-	public final void setPositionPointer(VectorD position) {this.position = position;}
+	public final void setPositionPointer(VectorD position) {
+		if(transformStore != null) {
+			this.position.setDeltaAction(positionAction);
+			this.position = position;
+			bindTransformStore(transformStore);
+		} else this.position = position;
+	}
 	
 	/**Move the object a distance from its current position.
 	 * @param x - movement in the x axis. (- left / + right).
 	 * @param y - movement in the y axis. (- up   / + down).
 	 * @author SomeKid*/
-	public final void move(VectorI vec) {this.position.add(vec);}
+	public final void move(VectorI vec) {getPosition().add(vec);}
 	
 	/**Move the object a distance from its current position.
 	 * @param x - movement in the x axis. (- left / + right).
 	 * @param y - movement in the y axis. (- up   / + down).
 	 * @author SomeKid*/
-	public final void move(VectorD vec) {this.position.add(vec);}
+	public final void move(VectorD vec) {getPosition().add(vec);}
 	
 	/**Move the object a distance from its current position.
 	 * @param values - a list of the vector components to move. 
 	 * @apiNote If the list of values is longer than the number of vector components the extra values will be skipped.
 	 * @author SomeKid*/
-	public final void move(double... values) {this.position.add(values);}
+	public final void move(double... values) {getPosition().add(values);}
+	
+	/**Move the object a distance from its current position.
+	 * @param x - movement in the x axis. (- left / + right).
+	 * @param y - movement in the y axis. (- up   / + down).
+	 * @author 5som3*/
+	public final void move(double x, double y) {getPosition().add(x, y);}
+	
+	/**The x velocity of this object.
+	 * @return double - the x velocity in pixels per second, 0.0 if the object is not in a group with a transform store.
+	 * @author 5som3*/
+	public final double getVelocityX() {return transformStore == null ? 0.0 : transformStore.getVelocityX(objectID.getMemberIndex());}
+	
+	/**The y velocity of this object.
+	 * @return double - the y velocity in pixels per second, 0.0 if the object is not in a group with a transform store.
+	 * @author 5som3*/
+	public final double getVelocityY() {return transformStore == null ? 0.0 : transformStore.getVelocityY(objectID.getMemberIndex());}
+	
+	/**Set the velocity that the group will move this object at.
+	 * @param velocityX - the x velocity in pixels per second.
+	 * @param velocityY - the y velocity in pixels per second.
+	 * @apiNote Only objects in a group with a transform store are moved by their velocity, see WarpedGroup.setTransformStore().
+	 * @implNote The group moves all of its members in one pass over the store after their updatePosition() is called.
+	 * @author 5som3*/
+	public final void setVelocity(double velocityX, double velocityY) {
+		if(transformStore == null) {
+			Console.err("WarpedObject -> setVelocity() -> the object is not in a group with a transform store, the velocity will be ignored");
+			return;
+		}
+		transformStore.setVelocity(objectID.getMemberIndex(), velocityX, velocityY);
+	}
+	
+	/**Does the object belong to a group with a transform store.
+	 * @return boolean - true if the position of the object is stored in its groups transform store.
+	 * @author 5som3*/
+	public final boolean hasTransformStore() {return transformStore != null;}
+	
+	/**Update the position vector if the transform store has moved the object since it was last read.*/
+	private void syncPosition() {
+		if(transformStore == null || syncedMoveCount == transformStore.getMoveCount()) return;
+		syncedMoveCount = transformStore.getMoveCount();
+		int slot = objectID.getMemberIndex();
+		position.set(transformStore.getX(slot), transformStore.getY(slot));
+	}
+	
+	/**Write changes made through the position vector into the transform store, the delta action already set on the position is still triggered after each write.*/
+	final void bindTransformStore(WarpedTransformStore store) {
+		if(transformStore != null) unbindTransformStore(); // Never chain the action of the previous store
+		transformStore = store;
+		syncedMoveCount = store.getMoveCount();
+		store.setPosition(objectID.getMemberIndex(), position.x(), position.y());
+		VecDAction action = position.getDeltaAction();
+		positionAction = action;
+		position.setDeltaAction(vec -> {
+			transformStore.setPosition(objectID.getMemberIndex(), vec.x(), vec.y());
+			action.action(vec);
+		});
+	}
+	
+	/**Stop writing changes into the transform store, called when the object is removed from its group.*/
+	final void unbindTransformStore() {
+		if(transformStore == null) return;
+		syncPosition();
+		transformStore = null;
+		position.setDeltaAction(positionAction);
+		positionAction = null;
+	}
 	
 			
 	/**Get the tooltip for this object.
@@ -11,6 +11,8 @@ public class WarpedObjectIdentity {
     private final long UNIQUE_IDENTITY;
     
 	private int memberIndex;
+	private final int slot; 	  // Index in the groups sparse slot array, -1 if the group does not map this member to a slot
+	private final int generation; // Generation of the slot when this identity was issued, the identity is stale once the slot is reused
 	
 	/**Generate an identity for a new object
 	 * @param groupID - the identity of the group that is adding the object
@@ -19,6 +21,8 @@ public class WarpedObjectIdentity {
 	protected WarpedObjectIdentity(WarpedGroupIdentity groupID, int index) {
 		GROUP_ID = groupID;
 		this.memberIndex = index;
+		slot = -1;
+		generation = 0;
 		
 		UNIQUE_IDENTITY = GameObjectCount;
 		GameObjectCount++;
@@ -33,6 +37,24 @@ public class WarpedObjectIdentity {
 		GROUP_ID = groupID;
 		UNIQUE_IDENTITY = objectID.getUniqueID();
 		this.memberIndex = index;
+		slot = -1;
+		generation = 0;
+	}
+	
+	/**Generate an identity for a new object stored in a slot of its group
+	 * @param groupID - the identity of the group that is adding the object
+	 * @param slot - the slot that the group has assigned to the object
+	 * @param generation - the current generation of the slot
+	 * @param index - the index that the object will be added in the groups member array
+	 * @author 5som3*/
+	protected WarpedObjectIdentity(WarpedGroupIdentity groupID, int slot, int generation, int index) {
+		GROUP_ID = groupID;
+		this.slot = slot;
+		this.generation = generation;
+		this.memberIndex = index;
+		
+		UNIQUE_IDENTITY = GameObjectCount;
+		GameObjectCount++;
 	}
 	
 	/**The Identity of the group that this member belongs to
@@ -40,6 +62,17 @@ public class WarpedObjectIdentity {
 	 * @author 5som3*/
 	public WarpedGroupIdentity getGroupID() {return GROUP_ID;}
 	
+	/**The slot assigned to the member by the group that contains it
+	 * @return int - the slot, -1 if the member is not stored in a slot (i.e. an inventory item).
+	 * @implNote Unlike the member index, the slot of a member does not change while it is in the group.
+	 * @author 5som3*/
+	public int getSlot() {return slot;}
+	
+	/**The generation of the slot when the identity was issued
+	 * @return int - the generation, the identity is stale if the group's slot has a different generation.
+	 * @author 5som3*/
+	public int getGeneration() {return generation;}
+	
 	/**The index of the member in the group that contains it
 	 * @return int - the index 
 	 * @author 5som3*/
@@ -0,0 +1,87 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+package warped.application.state;
+
+import java.util.ArrayList;
+
+import warped.utilities.utils.Console;
+
+public final class WarpedObjectPool<T extends WarpedObject> {
+
+	/*WarpedObjectPool keeps objects that have been removed from a group so they can be reused, i.e. by ItemPool and ProjectilePool.
+	 * A recycled object is reset and released, it is only free to be taken once the group has published a new render snapshot,
+	 * the snapshot the viewports are drawing may still hold it until then.
+	 * */
+
+	private final WarpedGroup<?> group;
+	private final ArrayList<T> free = new ArrayList<>();
+	private final ArrayList<T> released = new ArrayList<>(); //Removed since the group published snapshot releasedAt, not reused until it publishes another
+	private long releasedAt = 0;
+	private int capacity;
+
+	/**A pool of objects removed from a group.
+	 * @param group - the group the objects are removed from, its snapshots decide when a released object is free.
+	 * @param capacity - the most objects kept for reuse, any more are left for the garbage collector.
+	 * @author 5som3*/
+	public WarpedObjectPool(WarpedGroup<?> group, int capacity) {
+		this.group = group;
+		setCapacity(capacity);
+	}
+
+	/**Set the most objects kept for reuse.
+	 * @param capacity - the number of objects, 0 or greater.
+	 * @apiNote Objects already kept are released if there are more than the capacity.
+	 * @author 5som3*/
+	public synchronized void setCapacity(int capacity) {
+		if(capacity < 0) {
+			Console.err("WarpedObjectPool -> setCapacity() -> capacity must be 0 or greater : " + capacity);
+			capacity = 0;
+		}
+		this.capacity = capacity;
+		for(int i = released.size() - 1; i >= capacity; i--) released.remove(i);
+		for(int i = free.size() - 1; i >= capacity - released.size(); i--) free.remove(i);
+	}
+
+	/**Take a free object.
+	 * @return T - the object, reset and not in any snapshot of the group, or null if there are no free objects.
+	 * @author 5som3*/
+	public synchronized T take() {
+		collectReleased();
+		if(free.isEmpty()) return null;
+		return free.remove(free.size() - 1);
+	}
+
+	/**Keep an object that has been removed from the group for reuse.
+	 * @param object - the object, it is reset unless the pool is full.
+	 * @apiNote Only recycle an object once it is removed from the group, it is not free until the group publishes another snapshot.
+	 * @author 5som3*/
+	public synchronized void recycle(T object) {
+		collectReleased();
+		if(free.size() + released.size() >= capacity) return;
+		object.reset();
+		released.add(object);
+		releasedAt = group.getSnapshotCount();
+	}
+
+	/**The number of objects waiting to be reused.
+	 * @return int - the number of free and released objects.
+	 * @author 5som3*/
+	public synchronized int getFreeCount() {return free.size() + released.size();}
+
+	/**Release all free objects.
+	 * @author 5som3*/
+	public synchronized void clear() {
+		free.clear();
+		released.clear();
+	}
+
+	/**Move the released objects to the free objects once the group has published a snapshot without them.
+	 * @implNote A group that has never published a snapshot has no snapshot that could hold them.*/
+	private void collectReleased() {
+		if(released.isEmpty()) return;
+		long snapshotCount = group.getSnapshotCount();
+		if(snapshotCount == releasedAt && snapshotCount != 0) return;
+		free.addAll(released);
+		released.clear();
+	}
+
+}
@@ -0,0 +1,233 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.awt.image.BufferedImage;
+
+import warped.graphics.sprite.RotationSprite;
+import warped.graphics.sprite.spriteSheets.AtlasRegion;
+import warped.graphics.sprite.spriteSheets.WarpedAtlas;
+
+public final class WarpedRenderSnapshot {
+
+	/*WarpedRenderSnapshot is a copy of everything a viewport needs to draw the members of a group.
+	 * Snapshots are built by the state loop at the end of each active update, after all objects have moved, and published by swapping a volatile reference.
+	 * Viewports render from the published snapshot instead of iterating the group members, so the render threads never read a list or position that the state loop is changing.
+	 *
+	 * A snapshot is never changed after it is published, a new snapshot is built for each update.
+	 * The entries are stored in compact parallel arrays in the same order as the group members.
+	 * Rasters packed in a WarpedAtlas are recorded with their region, and a draw order sorted by atlas page is built for viewports that batch by page.
+	 * */
+
+	/**A snapshot with no entries, used until a group publishes its first snapshot.*/
+	public static final WarpedRenderSnapshot EMPTY = new WarpedRenderSnapshot(0);
+
+	private int size = 0;
+	private final WarpedObject[] objects;
+	private final BufferedImage[] rasters;
+	private final AtlasRegion[] regions;
+	private final int[] rasterVersions;
+	private final boolean[] isRasterShared;
+	private int[] pageOrder; //Null if no entry has a region
+	
+	private SnapshotGrid grid; //Built the first time the snapshot is queried
+	private double maxExtentX = 0.0;
+	private double maxExtentY = 0.0;
+	private double[] lastQuery;
+	private int[] lastResult;
+	private final double[] x;
+	private final double[] y;
+	private final int[] width;
+	private final int[] height;
+	private final double[] renderScale;
+	private final double[] rotation;
+	private final boolean[] isVisible;
+	private final boolean[] isInteractive;
+
+	/**A snapshot with space for the specified number of entries.
+	 * @param capacity - the maximum number of entries.
+	 * @author 5som3*/
+	WarpedRenderSnapshot(int capacity) {
+		objects 	= new WarpedObject[capacity];
+		rasters 	= new BufferedImage[capacity];
+		regions 	= new AtlasRegion[capacity];
+		rasterVersions = new int[capacity];
+		isRasterShared = new boolean[capacity];
+		x 			= new double[capacity];
+		y 			= new double[capacity];
+		width 		= new int[capacity];
+		height 		= new int[capacity];
+		renderScale = new double[capacity];
+		rotation 	= new double[capacity];
+		isVisible 	= new boolean[capacity];
+		isInteractive = new boolean[capacity];
+	}
+
+	/**Record the current state of an object.
+	 * @param object - the object to record.
+	 * @apiNote Only call while building the snapshot, before it is published.
+	 * @author 5som3*/
+	void add(WarpedObject object) {
+		if(size == objects.length) return;
+		BufferedImage raster = object.raster();
+		objects[size] 	  = object;
+		rasters[size] 	  = raster;
+		regions[size] 	  = WarpedAtlas.getRegion(raster);
+		rasterVersions[size] = object.getSprite().getRasterVersion();
+		isRasterShared[size] = !object.getSprite().isRasterBuffered(raster);
+		x[size] 		  = object.x();
+		y[size] 		  = object.y();
+		width[size] 	  = object.getWidth(); // The sprite size, the raster of a rotated or mipmapped sprite may differ
+		height[size] 	  = object.getHeight();
+		renderScale[size] = object.getRenderScale();
+		rotation[size] 	  = (object.getSprite() instanceof RotationSprite sprite) ? sprite.getRotation() : 0.0;
+		isVisible[size]   = object.isVisible();
+		isInteractive[size] = object.isInteractive();
+		double scale = Math.max(1.0, renderScale[size]);
+		if(width[size] * scale > maxExtentX) maxExtentX = width[size] * scale;
+		if(height[size] * scale > maxExtentY) maxExtentY = height[size] * scale;
+		size++;
+	}
+
+	/**Sort the entries by atlas page, call once after every entry has been added.
+	 * @apiNote Only call while building the snapshot, before it is published.
+	 * @implNote A counting sort by page index, entries without a region are drawn first and entries on the same page keep their member order.
+	 * @author 5som3*/
+	void sortByPage() {
+		int buckets = 0;
+		for(int i = 0; i < size; i++) if(regions[i] != null && regions[i].getPageIndex() + 2 > buckets) buckets = regions[i].getPageIndex() + 2;
+		if(buckets == 0) return;
+		int[] starts = new int[buckets + 1];
+		for(int i = 0; i < size; i++) starts[bucket(i) + 1]++;
+		for(int i = 1; i <= buckets; i++) starts[i] += starts[i - 1];
+		pageOrder = new int[size];
+		for(int i = 0; i < size; i++) pageOrder[starts[bucket(i)]++] = i;
+	}
+	
+	/**The entries that may be visible in an area, found with a spatial grid instead of testing every entry.
+	 * @param minX - the x coordinate of the left edge of the area in game space.
+	 * @param minY - the y coordinate of the top edge of the area in game space.
+	 * @param maxX - the x coordinate of the right edge of the area in game space.
+	 * @param maxY - the y coordinate of the bottom edge of the area in game space.
+	 * @param isPageOrdered - if true the entries are sorted by atlas page (see getPageOrder()), else they are in member order.
+	 * @return int[] - the indices of every entry that overlaps the area drawn at up to its render scale, may include entries that do not. Do not edit the array.
+	 * @apiNote The grid is built by the first query and shared by every viewport that draws the snapshot.
+	 * @apiNote The result of the last query is reused if the area is the same, i.e. several viewports with the same camera.
+	 * @author 5som3*/
+	public synchronized int[] getEntriesIn(double minX, double minY, double maxX, double maxY, boolean isPageOrdered) {
+		if(lastQuery != null && lastQuery[0] == minX && lastQuery[1] == minY && lastQuery[2] == maxX && lastQuery[3] == maxY && lastQuery[4] == (isPageOrdered ? 1.0 : 0.0)) return lastResult;
+		if(grid == null) grid = new SnapshotGrid(x, y, maxExtentX, maxExtentY, size);
+		int[] result = grid.query(minX, minY, maxX, maxY);
+		if(isPageOrdered && pageOrder != null) result = sortByPage(result);
+		lastQuery = new double[] {minX, minY, maxX, maxY, isPageOrdered ? 1.0 : 0.0};
+		lastResult = result;
+		return result;
+	}
+	
+	/**Sort a subset of the entries by atlas page, entries on the same page keep their order.*/
+	private int[] sortByPage(int[] entries) {
+		int buckets = 0;
+		for(int i = 0; i < entries.length; i++) if(bucket(entries[i]) + 1 > buckets) buckets = bucket(entries[i]) + 1;
+		int[] starts = new int[buckets + 1];
+		for(int i = 0; i < entries.length; i++) starts[bucket(entries[i]) + 1]++;
+		for(int i = 1; i <= buckets; i++) starts[i] += starts[i - 1];
+		int[] result = new int[entries.length];
+		for(int i = 0; i < entries.length; i++) result[starts[bucket(entries[i])]++] = entries[i];
+		return result;
+	}
+	
+	private int bucket(int index) {return regions[index] == null ? 0 : regions[index].getPageIndex() + 1;}
+	
+	/**The number of entries in the snapshot.
+	 * @return int - the entry count.
+	 * @author 5som3*/
+	public int size() {return size;}
+
+	/**The object recorded at the specified index.
+	 * @param index - the index of the entry.
+	 * @return WarpedObject - the object, use to identify it for mouse events and camera tracking.
+	 * @apiNote Do not change the object from a render thread, record changes and apply them on the state loop (see WarpedRenderTransforms).
+	 * @author 5som3*/
+	public WarpedObject getObject(int index) {return objects[index];}
+
+	/**The raster of the object at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return BufferedImage - the image to draw.
+	 * @author 5som3*/
+	public BufferedImage getRaster(int index) {return rasters[index];}
+
+	/**The version of the raster at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return int - the raster version of the sprite, changes when the sprite is painted even if the raster is the same image.
+	 * @author 5som3*/
+	public int getRasterVersion(int index) {return rasterVersions[index];}
+	
+	/**Check if the raster is a shared frame that does not change.
+	 * @param index - the index of the entry.
+	 * @return boolean - true if the raster is a shared frame (i.e. from a sprite sheet), false if the sprite paints into it.
+	 * @apiNote Only shared frames are mipmapped, see Mipmap.of().
+	 * @author 5som3*/
+	public boolean isRasterShared(int index) {return isRasterShared[index];}
+	
+	/**The atlas region of the raster at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return AtlasRegion - the region to draw from, null if the raster is not packed in an atlas.
+	 * @author 5som3*/
+	public AtlasRegion getRegion(int index) {return regions[index];}
+	
+	/**The entry to draw at the specified position when drawing in atlas page order.
+	 * @param position - the position in the draw order.
+	 * @return int - the index of the entry.
+	 * @author 5som3*/
+	public int getPageOrder(int position) {return pageOrder == null ? position : pageOrder[position];}
+	
+	/**The x position of the object at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return double - the x coordinate of the top left corner in game space.
+	 * @author 5som3*/
+	public double getX(int index) {return x[index];}
+
+	/**The y position of the object at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return double - the y coordinate of the top left corner in game space.
+	 * @author 5som3*/
+	public double getY(int index) {return y[index];}
+
+	/**The width of the sprite at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return int - the width in pixels, before the render scale is applied.
+	 * @author 5som3*/
+	public int getWidth(int index) {return width[index];}
+
+	/**The height of the sprite at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return int - the height in pixels, before the render scale is applied.
+	 * @author 5som3*/
+	public int getHeight(int index) {return height[index];}
+
+	/**The render scale of the object at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return double - the scale applied to the size when the camera is applied.
+	 * @author 5som3*/
+	public double getRenderScale(int index) {return renderScale[index];}
+
+	/**The rotation of the object at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return double - the rotation in radians if the object has a RotationSprite, else 0.0.
+	 * @implNote The raster of a RotationSprite is already rotated, the rotation does not need to be applied when drawing.
+	 * @author 5som3*/
+	public double getRotation(int index) {return rotation[index];}
+
+	/**Was the object visible at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return boolean - true if the object should be drawn.
+	 * @author 5som3*/
+	public boolean isVisible(int index) {return isVisible[index];}
+
+	/**Was the object interactive at the time the snapshot was built.
+	 * @param index - the index of the entry.
+	 * @return boolean - true if the object can receive mouse events.
+	 * @author 5som3*/
+	public boolean isInteractive(int index) {return isInteractive[index];}
+
+}
@@ -0,0 +1,66 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+public final class WarpedRenderTransforms {
+
+	/*WarpedRenderTransforms are the render transformations a viewport calculated for the objects it drew in one frame.
+	 * Viewports draw on their own threads, so they record the transformations here instead of setting them on the objects.
+	 * The recorded transformations are published with WarpedState.publishRenderTransforms() and set on the objects by the state loop at the start of the next active update.
+	 *
+	 * Only the latest transformations of each viewport are applied, a frame that is replaced before the state loop applies it is skipped.
+	 * */
+
+	private int size = 0;
+	private WarpedObject[] objects;
+	private double[] transforms; // x, y, width, height for each object
+
+	/**Transforms with space for the specified number of objects.
+	 * @param capacity - the number of objects expected, the transforms grow if more are added.
+	 * @author 5som3*/
+	public WarpedRenderTransforms(int capacity) {
+		objects = new WarpedObject[Math.max(1, capacity)];
+		transforms = new double[objects.length * 4];
+	}
+
+	/**Record the render transformation of an object.
+	 * @param object - the object that was drawn.
+	 * @param x - the x coordinate of the top left corner in screen space.
+	 * @param y - the y coordinate of the top left corner in screen space.
+	 * @param width - the render width in pixels.
+	 * @param height - the render height in pixels.
+	 * @apiNote Only call while recording the frame, before the transforms are published.
+	 * @author 5som3*/
+	public void add(WarpedObject object, double x, double y, double width, double height) {
+		if(size == objects.length) {
+			WarpedObject[] grownObjects = new WarpedObject[size * 2];
+			System.arraycopy(objects, 0, grownObjects, 0, size);
+			double[] grownTransforms = new double[grownObjects.length * 4];
+			System.arraycopy(transforms, 0, grownTransforms, 0, size * 4);
+			objects = grownObjects;
+			transforms = grownTransforms;
+		}
+		objects[size] = object;
+		int i = size * 4;
+		transforms[i] 	  = x;
+		transforms[i + 1] = y;
+		transforms[i + 2] = width;
+		transforms[i + 3] = height;
+		size++;
+	}
+
+	/**The number of objects recorded.
+	 * @return int - the object count.
+	 * @author 5som3*/
+	public int size() {return size;}
+
+	/**Set the recorded transformation on each object.
+	 * @implNote Called by the state loop, the objects are only changed by the thread that updates them.*/
+	void apply() {
+		for(int i = 0; i < size; i++) {
+			int j = i * 4;
+			objects[i].setRenderTransformations(transforms[j], transforms[j + 1], transforms[j + 2], transforms[j + 3]);
+		}
+	}
+
+}
@@ -0,0 +1,248 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.util.Arrays;
+
+import warped.utilities.utils.Console;
+
+public final class WarpedSpatialHash {
+
+	/*WarpedSpatialHash is a uniform grid used as the broadphase for collision checks.
+	 * Each object is inserted into every cell that its rectangular bounds overlap, cells are stored in an open addressing hash table so the grid is unbounded.
+	 * Objects are identified by an index (i.e. the index of the member in its group).
+	 * A query returns the indices of every object that shares at least one cell with the queried bounds, only those objects need to be narrow phase checked.
+	 *
+	 * The hash is intended to be rebuilt each collision update, clear() is O(1) and all buffers are reused between updates.
+	 *
+	 * Objects that would span more than MAX_OBJECT_CELLS cells (i.e. a background or an object with a huge size) are kept in a separate list instead of being inserted into each cell,
+	 * every query returns them as candidates. A query with bounds that span more cells than that reads every entry instead of every cell, so the cost of a query is bounded by the size of the hash.
+	 * */
+
+	private static final double DEFAULT_CELL_SIZE = 64;
+	private static final int MAX_OBJECT_CELLS = 256;
+
+	private double cellSize = DEFAULT_CELL_SIZE;
+
+	//Hash table of cells
+	private long[] cellKeys = new long[256];
+	private int[] cellHeads = new int[256];
+	private int[] cellStamps = new int[256];
+	private int cellCount = 0;
+	private int tableStamp = 1;
+
+	//Linked list entries, one entry per object per cell
+	private int[] entryObject = new int[256];
+	private int[] entryNext = new int[256];
+	private int entryCount = 0;
+
+	//Objects that span too many cells to insert
+	private int[] largeObjects = new int[16];
+	private int largeCount = 0;
+
+	//Query results
+	private int[] objectStamps = new int[64];
+	private int queryStamp = 0;
+	private int[] results = new int[64];
+	private int resultCount = 0;
+
+	/**A spatial hash with the default cell size.
+	 * @author 5som3*/
+	public WarpedSpatialHash() {}
+
+	/**A spatial hash with the specified cell size.
+	 * @param cellSize - the width and height of each cell in pixels.
+	 * @apiNote A good cell size is roughly the size of the largest common object, too small and objects will span many cells, too large and many objects will share each cell.
+	 * @author 5som3*/
+	public WarpedSpatialHash(double cellSize) {setCellSize(cellSize);}
+
+	/**Set the size of the cells.
+	 * @param cellSize - the width and height of each cell in pixels.
+	 * @apiNote Clears the hash.
+	 * @author 5som3*/
+	public void setCellSize(double cellSize) {
+		if(cellSize <= 0) {
+			Console.err("WarpedSpatialHash -> setCellSize() -> cell size must be positive : " + cellSize + ", it will be set to the default : " + DEFAULT_CELL_SIZE);
+			cellSize = DEFAULT_CELL_SIZE;
+		}
+		this.cellSize = cellSize;
+		clear();
+	}
+
+	/**The size of the cells.
+	 * @return double - the width and height of each cell in pixels.
+	 * @author 5som3*/
+	public double getCellSize() {return cellSize;}
+
+	/**The number of occupied cells.
+	 * @return int - the cell count.
+	 * @author 5som3*/
+	public int getCellCount() {return cellCount;}
+
+	/**The number of objects that spanned too many cells to be inserted into each cell.
+	 * @return int - the number of objects returned by every query.
+	 * @author 5som3*/
+	public int getLargeObjectCount() {return largeCount;}
+
+	/**Remove all objects from the hash.
+	 * @implNote Buffers are kept for reuse.
+	 * @author 5som3*/
+	public void clear() {
+		cellCount = 0;
+		entryCount = 0;
+		largeCount = 0;
+		tableStamp++;
+		if(tableStamp == Integer.MAX_VALUE) {
+			Arrays.fill(cellStamps, 0);
+			tableStamp = 1;
+		}
+	}
+
+	/**Insert an object into every cell its bounds overlap.
+	 * @param index - the index that identifies the object, must not be negative.
+	 * @param x - the x coordinate of the top left corner of the object.
+	 * @param y - the y coordinate of the top left corner of the object.
+	 * @param width - the width of the object.
+	 * @param height - the height of the object.
+	 * @implNote The right and bottom edges are inclusive, objects that touch will share a cell.
+	 * @implNote An object that spans more than MAX_OBJECT_CELLS cells is not inserted into its cells, it is a candidate of every query.
+	 * @author 5som3*/
+	public void insert(int index, double x, double y, double width, double height) {
+		if(index >= objectStamps.length) objectStamps = Arrays.copyOf(objectStamps, Math.max(index + 1, objectStamps.length * 2));
+		int cx0 = cell(x);
+		int cy0 = cell(y);
+		int cx1 = cell(x + width);
+		int cy1 = cell(y + height);
+		if(isLarge(cx0, cy0, cx1, cy1)) {
+			if(largeCount == largeObjects.length) largeObjects = Arrays.copyOf(largeObjects, largeCount * 2);
+			largeObjects[largeCount++] = index;
+			return;
+		}
+		for(int cy = cy0; cy <= cy1; cy++) {
+			for(int cx = cx0; cx <= cx1; cx++) {
+				int slot = getSlot(key(cx, cy));
+				if(entryCount == entryObject.length) {
+					entryObject = Arrays.copyOf(entryObject, entryCount * 2);
+					entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+				}
+				entryObject[entryCount] = index;
+				entryNext[entryCount] = cellHeads[slot];
+				cellHeads[slot] = entryCount;
+				entryCount++;
+			}
+		}
+	}
+
+	/**Find every object that shares a cell with the specified bounds.
+	 * @param x - the x coordinate of the top left corner of the bounds.
+	 * @param y - the y coordinate of the top left corner of the bounds.
+	 * @param width - the width of the bounds.
+	 * @param height - the height of the bounds.
+	 * @param minIndex - only objects with an index greater than this will be returned, use -1 to return all objects.
+	 * @return int - the number of objects found, get each object with getResult().
+	 * @implNote Results are unique and sorted in ascending order of index.
+	 * @author 5som3*/
+	public int query(double x, double y, double width, double height, int minIndex) {
+		resultCount = 0;
+		queryStamp++;
+		if(queryStamp == Integer.MAX_VALUE) {
+			Arrays.fill(objectStamps, 0);
+			queryStamp = 1;
+		}
+		int cx0 = cell(x);
+		int cy0 = cell(y);
+		int cx1 = cell(x + width);
+		int cy1 = cell(y + height);
+		if(isLarge(cx0, cy0, cx1, cy1)) {
+			for(int e = 0; e < entryCount; e++) addResult(entryObject[e], minIndex);
+		} else {
+			for(int cy = cy0; cy <= cy1; cy++) {
+				for(int cx = cx0; cx <= cx1; cx++) {
+					int slot = findSlot(key(cx, cy));
+					if(slot < 0) continue;
+					for(int e = cellHeads[slot]; e >= 0; e = entryNext[e]) addResult(entryObject[e], minIndex);
+				}
+			}
+		}
+		for(int i = 0; i < largeCount; i++) addResult(largeObjects[i], minIndex);
+		if(resultCount > 1) Arrays.sort(results, 0, resultCount);
+		return resultCount;
+	}
+
+	/**Get an object found by the last query.
+	 * @param i - the index of the result in the domain 0 <= i < the value returned by query().
+	 * @return int - the index that identifies the object.
+	 * @author 5som3*/
+	public int getResult(int i) {return results[i];}
+
+	/**Add an object to the results of the query if it has not already been added.*/
+	private void addResult(int index, int minIndex) {
+		if(index <= minIndex || objectStamps[index] == queryStamp) return;
+		objectStamps[index] = queryStamp;
+		if(resultCount == results.length) results = Arrays.copyOf(results, resultCount * 2);
+		results[resultCount++] = index;
+	}
+
+	/**Do the cells span more than MAX_OBJECT_CELLS, in long so huge or infinite bounds do not overflow.*/
+	private static boolean isLarge(int cx0, int cy0, int cx1, int cy1) {return ((long)cx1 - cx0 + 1) * ((long)cy1 - cy0 + 1) > MAX_OBJECT_CELLS;}
+
+	private int cell(double value) {return (int)Math.floor(value / cellSize);}
+
+	private static long key(int cx, int cy) {return ((long)cx << 32) | (cy & 0xFFFFFFFFL);}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+
+	/**Find the slot of a cell, or -1 if the cell is empty.*/
+	private int findSlot(long key) {
+		int mask = cellKeys.length - 1;
+		int slot = hash(key) & mask;
+		while(cellStamps[slot] == tableStamp) {
+			if(cellKeys[slot] == key) return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**Find the slot of a cell, adding the cell if it is empty.*/
+	private int getSlot(long key) {
+		if((cellCount + 1) * 2 > cellKeys.length) grow();
+		int mask = cellKeys.length - 1;
+		int slot = hash(key) & mask;
+		while(cellStamps[slot] == tableStamp) {
+			if(cellKeys[slot] == key) return slot;
+			slot = (slot + 1) & mask;
+		}
+		cellStamps[slot] = tableStamp;
+		cellKeys[slot] = key;
+		cellHeads[slot] = -1;
+		cellCount++;
+		return slot;
+	}
+
+	/**Double the capacity of the cell table, keeping all cells.*/
+	private void grow() {
+		long[] oldKeys = cellKeys;
+		int[] oldHeads = cellHeads;
+		int[] oldStamps = cellStamps;
+		int oldStamp = tableStamp;
+
+		cellKeys = new long[oldKeys.length * 2];
+		cellHeads = new int[oldKeys.length * 2];
+		cellStamps = new int[oldKeys.length * 2];
+		tableStamp = 1;
+
+		int mask = cellKeys.length - 1;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldStamps[i] != oldStamp) continue;
+			int slot = hash(oldKeys[i]) & mask;
+			while(cellStamps[slot] == tableStamp) slot = (slot + 1) & mask;
+			cellStamps[slot] = tableStamp;
+			cellKeys[slot] = oldKeys[i];
+			cellHeads[slot] = oldHeads[i];
+		}
+	}
+
+}
@@ -4,12 +4,13 @@ package warped.application.state;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-
-import javax.imageio.ImageIO;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 import warped.graphics.sprite.spriteSheets.WarpedSpriteSheet;
 import warped.utilities.enums.WarpedLinkable;
@@ -32,6 +33,12 @@ public class WarpedSpriteFolder<T extends WarpedLinkable<? extends Enum<?>>> ext
 				
 		Console.ln("WarpedSpriteFolder -> Folder Name : " + 1 + " -> Folder Type :  " + folderType.getClass() + " ->  Folder Path : " + folderPath);
 		
+		if(isBundled()) {
+			if(readLinkData()) loadLinkDataPaths();
+			else Console.err("WarpedSpriteFolder -> couldn't read linkData from bundle, can't proceede");
+			return;
+		}
+		
 		if(isFolderValid()) {
 			if(isPathsSet()) {
 				if(isLinkDataFolderValid()) {
@@ -69,24 +76,26 @@ public class WarpedSpriteFolder<T extends WarpedLinkable<? extends Enum<?>>> ext
 		Console.condition("WarpedSpriteFolder -> loadDataFromFolder() -> trying to load images from folder : " + folder.getPath());
 		@SuppressWarnings("unchecked")
 		ArrayList<T> imageTypes = (ArrayList<T>) folderType.getAll();
+		ArrayList<Callable<WarpedSpriteSheet>> tasks = new ArrayList<>(contents.length);
 		for(int i = 0; i < contents.length; i++) {
-			
 			File file = contents[i];
-			Console.condition("WarpedSpriteFolder -> loadDataFromFolder() -> trying to load image from the file : " + file.getPath());
-			BufferedImage image = null;
-			try {
-				image = ImageIO.read(file);
-				getSpriteSize(file.getPath());
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			
-			if(image == null) {
+			getSpriteSize(file.getPath()); // Read in order, the sprite size is kept in fields
+			int width = spriteWidth;
+			int height = spriteHeight;
+			tasks.add(() -> {
+				BufferedImage image = WarpedAssetLoader.readImage(file);
+				if(image == null) return null;
+				return new WarpedSpriteSheet(image, width, height);
+			});
+		}
+		
+		List<WarpedSpriteSheet> sheets = WarpedAssetLoader.load(tasks);
+		for(int i = 0; i < sheets.size(); i++) {
+			if(sheets.get(i) == null) {
 				Console.err("WarpedSpriteFolder -> loadDataFromFolder() -> failed to read image from file");
 				continue;
 			}
-			spriteSheets.put(imageTypes.get(i), new WarpedSpriteSheet(image, spriteWidth, spriteHeight));
+			spriteSheets.put(imageTypes.get(i), sheets.get(i));
 		}
 		if(spriteSheets.size() != contents.length) {
 			Console.err("WarpedSpriteFolder -> loadDataFromFolder() -> image size doesn't match number of types");
@@ -99,30 +108,39 @@ public class WarpedSpriteFolder<T extends WarpedLinkable<? extends Enum<?>>> ext
 		@SuppressWarnings("unchecked")
 		ArrayList<T> imageTypes = (ArrayList<T>) folderType.getAll();
 		
+		if(sourceBundle != null) { // The sprite size is read from the bundle instead of the file name
+			Console.condition("WarpedSpriteFolder -> loadDataPaths() -> trying to link sheets in bundle : " + sourceBundle.getPath());
+			for(int i = 0; i < filePaths.size(); i++) {
+				if(sourceBundle.contains(filePaths.get(i))) bundledPaths.put(imageTypes.get(i), filePaths.get(i));
+				else Console.err("WarpedSpriteFolder -> loadDataPaths() -> bundle does not contain : " + filePaths.get(i));
+			}
+			if(bundledPaths.size() == imageTypes.size()) Console.met("WarpedSpriteFolder -> loadDataPaths() -> linked sheets in bundle");
+			else Console.err("WarpedSpriteFolder -> loadDataPaths() -> failed to link data");
+			return;
+		}
+		
 		Console.condition("WarpedSpriteFolder -> loadDataPaths() -> trying to load images");
+		ArrayList<Callable<WarpedSpriteSheet>> tasks = new ArrayList<>(filePaths.size());
 		for(int i = 0; i < filePaths.size(); i++) {
 			String filePath = filePaths.get(i);
-			
-			URL url = getClass().getResource(filePath);
-			if(url == null) {
-				Console.err("WarpedSpriteFolder -> loadDataPaths() -> couldn't find resource at path : " + filePath);
-				continue;
-			}
-			
-			BufferedImage image = null;
-			try {
-				image = ImageIO.read(url);
-				getSpriteSize(filePath);
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			
-			if(image == null) {
-				Console.err("WarpedSpriteFolder -> loadDataPaths() -> failed to read image from url : " + url.toString());
-				continue;
-			}
-			spriteSheets.put(imageTypes.get(i), new WarpedSpriteSheet(image, spriteWidth, spriteHeight));
+			getSpriteSize(filePath);
+			int width = spriteWidth;
+			int height = spriteHeight;
+			tasks.add(() -> {
+				URL url = getClass().getResource(filePath);
+				if(url == null) {
+					Console.err("WarpedSpriteFolder -> loadDataPaths() -> couldn't find resource at path : " + filePath);
+					return null;
+				}
+				BufferedImage image = WarpedAssetLoader.readImage(url);
+				if(image == null) return null;
+				return new WarpedSpriteSheet(image, width, height);
+			});
+		}
+		
+		List<WarpedSpriteSheet> sheets = WarpedAssetLoader.load(tasks);
+		for(int i = 0; i < sheets.size(); i++) {
+			if(sheets.get(i) != null) spriteSheets.put(imageTypes.get(i), sheets.get(i));
 		}
 		
 		if(spriteSheets.size() == imageTypes.size()) Console.met("WarpedImageFolder -> loadDataPaths() -> loaded images from dataPath");
@@ -218,6 +236,7 @@ public class WarpedSpriteFolder<T extends WarpedLinkable<? extends Enum<?>>> ext
 	
 	public String getName() {return folderName;}	
 	public WarpedSpriteSheet getSheet(T sheetName) {
+		if(bundledPaths.containsKey(sheetName)) return sourceBundle.getSpriteSheet(bundledPaths.get(sheetName));
 		if(spriteSheets.containsKey(sheetName)) return spriteSheets.get(sheetName);
 		else {
 			Console.err("WarpedSpriteFolder -> " + folderName + " -> getSheet() -> doesn't contain a sheet called : " + sheetName);
@@ -230,4 +249,19 @@ public class WarpedSpriteFolder<T extends WarpedLinkable<? extends Enum<?>>> ext
 	/**@return a random sprite from the specified sheet*/
 	public BufferedImage getSprite(T sheetName) {return getSheet(sheetName).getRandomSprite();}
 	
+	/**Every sprite on every sheet that has been loaded from the folder.
+	 * @return Collection<BufferedImage> - the sprites, i.e. to pack into a WarpedAtlas.
+	 * @apiNote If the folder loads from a bundle every sheet is read from the bundle.
+	 * @author 5som3*/
+	@Override
+	public Collection<BufferedImage> getAllImages() {
+		ArrayList<BufferedImage> result = new ArrayList<>();
+		Collection<T> sheetNames = bundledPaths.isEmpty() ? spriteSheets.keySet() : bundledPaths.keySet();
+		for(T sheetName : sheetNames) {
+			WarpedSpriteSheet sheet = getSheet(sheetName);
+			if(sheet != null) result.addAll(Arrays.asList(sheet.getSprites()));
+		}
+		return result;
+	}
+	
 }
@@ -3,8 +3,9 @@
 package warped.application.state;
 
 import java.util.ArrayList;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import warped.application.assemblys.AssemblyPopUpDialogueBox;
 import warped.application.assemblys.ConsoleInput;
@@ -17,6 +18,10 @@ import warped.application.assemblys.Selector;
 import warped.application.assemblys.ToolTip;
 import warped.application.gui.WarpedGUI;
 import warped.audio.FrameworkAudio;
+import warped.utilities.timers.WarpedAnimationClock;
+import warped.utilities.timers.WarpedClock;
+import warped.utilities.timers.WarpedLoop;
+import warped.utilities.timers.WarpedLoopTask;
 import warped.utilities.utils.Console;
 import warped.utilities.utils.FontMatrix;
 
@@ -27,16 +32,22 @@ public class WarpedState {
 	public static long slowCycleDuration	= 0;
 	public static long passiveCycleDuration = 0;
 	
-	private static double deltaTime = 0;
-	private static long lastTime = System.nanoTime();
-	
 	public static short cycleCount = 0;
-		
-	private static Timer activeTimer  	  = new Timer("Timer Thread : State Timer");
-	private static TimerTask positionTask = new TimerTask() {public void run() {updatePosition();}};
-	private static TimerTask activeTask   = new TimerTask() {public void run() {updateActive();}};
-	private static TimerTask midTask 	  = new TimerTask() {public void run() {updateMid();}};
-	private static TimerTask slowTask 	  = new TimerTask() {public void run() {updateSlow();}};
+	
+	/**The loop that executes all framework updates, tasks are executed in the order they are scheduled on a single thread.*/
+	public static final WarpedLoop loop = new WarpedLoop("State Loop");
+	private static WarpedLoopTask positionTask = new WarpedLoopTask() {public void run() {updatePosition();}};
+	private static WarpedLoopTask activeTask   = new WarpedLoopTask() {public void run() {updateActive();}};
+	private static WarpedLoopTask midTask 	   = new WarpedLoopTask() {public void run() {updateMid();}};
+	private static WarpedLoopTask slowTask 	   = new WarpedLoopTask() {public void run() {updateSlow();}};
+	
+	/**The clock that advances all playing AnimatedSprites and CharacterSprites, updated by the state loop.*/
+	public static final WarpedAnimationClock animationClock = new WarpedAnimationClock(loop.getClock());
+	private static WarpedLoopTask animationTask = new WarpedLoopTask() {public void run() {animationClock.update();}};
+	
+	private static ForkJoinPool updatePool = ForkJoinPool.commonPool(); // Updates the members of independent groups in parallel
+	
+	private static final Map<Object, WarpedRenderTransforms> renderTransforms = new ConcurrentHashMap<>(); // The latest unapplied transforms of each viewport
 	
 	private static boolean pause = true;
 	private static boolean isInitialized = false;
@@ -65,10 +76,12 @@ public class WarpedState {
 	
 	/**The application state, only one instance should ever exist*/
 	protected WarpedState() {	
-		activeTimer.scheduleAtFixedRate(positionTask, 0, 4);
-		activeTimer.scheduleAtFixedRate(activeTask, 0, 16);
-		activeTimer.scheduleAtFixedRate(midTask, 0, 1000);
-		activeTimer.scheduleAtFixedRate(slowTask, 0, 60000);
+		loop.schedule(positionTask, 4, 8);
+		loop.schedule(activeTask, 16, 48);
+		loop.schedule(midTask, 1000);
+		loop.schedule(slowTask, 60000);
+		loop.scheduleHz(animationTask, WarpedAnimationClock.UPDATE_RATE);
+		loop.start();
 	}
 	
 	/**Updates all graphics in all assemblys.
@@ -95,12 +108,62 @@ public class WarpedState {
 		}
 	}
 	
+	/**Set the clock of the state loop and the animation clock.
+	 * @param clock - the clock, WarpedClock.SYSTEM or a WarpedManualClock to step the framework manually with loop.update().
+	 * @apiNote Stops the loop, call loop.start() to run it again with a clock that moves by itself.
+	 * @author 5som3*/
+	public static void setClock(WarpedClock clock) {
+		loop.stop();
+		loop.setClock(clock);
+		animationClock.setClock(clock);
+	}
+	
+	/**Publish the render transformations a viewport recorded while drawing a frame.
+	 * @param source - the viewport that recorded them, replaces any transforms it published that have not been applied yet.
+	 * @param transforms - the transforms, do not change them after they are published.
+	 * @apiNote The transforms are set on the objects by the state loop at the start of the next active update, so objects are never changed by a render thread.
+	 * @author 5som3*/
+	public static void publishRenderTransforms(Object source, WarpedRenderTransforms transforms) {renderTransforms.put(source, transforms);}
+	
+	/**Set the render transformations published by the viewports on their objects, called at the start of each active update and each manager step.*/
+	static void applyRenderTransforms() {
+		if(renderTransforms.isEmpty()) return;
+		for(Map.Entry<Object, WarpedRenderTransforms> entry : renderTransforms.entrySet()) {
+			if(renderTransforms.remove(entry.getKey(), entry.getValue())) entry.getValue().apply();
+		}
+	}
+	
+	/**The pool used to update the members of independent groups in parallel.
+	 * @return ForkJoinPool - the update pool, the common pool unless set with setUpdateThreads().
+	 * @author 5som3*/
+	public static ForkJoinPool getUpdatePool() {return updatePool;}
+	
+	/**Set the number of threads used to update independent groups.
+	 * @param threads - the number of worker threads, 1 will update independent groups on a single worker.
+	 * @apiNote By default the common ForkJoinPool is used, which has one less thread than the number of processors.
+	 * @author 5som3*/
+	public static void setUpdateThreads(int threads) {
+		if(threads < 1) {
+			Console.err("WarpedState -> setUpdateThreads() -> there must be at least one thread : " + threads);
+			return;
+		}
+		ForkJoinPool previous = updatePool;
+		updatePool = new ForkJoinPool(threads);
+		if(previous != ForkJoinPool.commonPool()) previous.shutdown();
+	}
+	
 	/**The duration of the last active update cycle
 	 * @return long - the duration in nano-seconds.
 	 * @implNote active update cycle is scheduled to run every 17ms (approximate 60hz) 
 	 * @author 5som3*/
 	public static long getActiveCycleDuration()  {return activeCycleDuration;}
 	
+	/**The fraction of the way between the last position update and the next position update.
+	 * @return double - the interpolation alpha in the domain 0.0 <= alpha < 1.0.
+	 * @apiNote Can be used to interpolate object positions when rendering between updates.
+	 * @author 5som3*/
+	public static double getPositionAlpha() {return positionTask.getAlpha();}
+	
 	/**The duration of the last mid update cycle
 	 * @return long - the duration in nano-seconds.
 	 * @implNote mid update cycle is scheduled to run once a second.
@@ -136,11 +199,8 @@ public class WarpedState {
 	 * @author 5som3*/
 	public void stop() {
 		Console.ln("WarpedState -> stop()");
-		activeTask.cancel();
-		midTask.cancel();
-		slowTask.cancel();
-		
-		activeTimer.cancel();
+		loop.stop();
+		loop.cancelTasks();
 	
 		
 		for(int i = 0; i < audioFolders.size(); i++) {
@@ -273,15 +333,16 @@ public class WarpedState {
 	public static boolean isPaused() {return pause;}
 	
 	
+	/**Update 250 times per second*/
 	private static void updatePosition() {
 		if(pause) return;
-		deltaTime = (System.nanoTime() - lastTime) / 1000000000.0; // seconds
+		double deltaTime = positionTask.getDeltaTime(); // seconds
 		for(int i = 0; i < managers.length; i++) managers[i].updatePosition(deltaTime);
-		lastTime = System.nanoTime();
 	}
 
 	/**Update 60 times per second*/
 	private static void updateActive() {
+		applyRenderTransforms(); // Also while paused, so the transforms stay current for the inspectors and mouse
 		if(pause) return;
 		long cycleStartTime = System.nanoTime();
 		cycleCount++;
@@ -292,6 +353,7 @@ public class WarpedState {
 		
 		FrameworkAudio.update();
 		WarpedFramework2D.getApp().persistentLogic();
+		for(int i = 0; i < managers.length; i++) managers[i].publishRenderSnapshots();
 		
 		activeCycleDuration = System.nanoTime() - cycleStartTime;
 		
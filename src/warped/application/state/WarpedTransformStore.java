@@ -0,0 +1,185 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.state;
+
+import java.util.Arrays;
+
+public final class WarpedTransformStore {
+
+	/*WarpedTransformStore holds the position, size and velocity of every member of a group in parallel arrays, indexed by member index.
+	 * A group with a transform store integrates the velocity of all its members in one loop over primitive arrays, instead of calling VectorD.add() for each object.
+	 * Loops over the arrays are simple enough for the JIT to unroll and vectorise.
+	 *
+	 * The store is the primary copy of the position, each member's position VectorD is a mirror of it.
+	 * Changes made through the VectorD API (setPosition(), move(), getPosition().add(), etc.) are written through to the store by the vectors delta action.
+	 * Positions moved by the store are copied into the VectorD the next time it is read with getPosition(), so members that are not read cost nothing.
+	 * Extensions of WarpedObject in a group with a store should use getPosition() or x() / y() rather than reading the protected position field.
+	 * Use WarpedGroup.setTransformStore() to enable the store for a group.
+	 * */
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int size = 0;
+	private long moveCount = 0;
+	private double[] x  = new double[DEFAULT_CAPACITY];
+	private double[] y  = new double[DEFAULT_CAPACITY];
+	private double[] w  = new double[DEFAULT_CAPACITY];
+	private double[] h  = new double[DEFAULT_CAPACITY];
+	private double[] vx = new double[DEFAULT_CAPACITY];
+	private double[] vy = new double[DEFAULT_CAPACITY];
+
+	WarpedTransformStore() {}
+
+	/**The number of members in the store.
+	 * @return int - the number of slots in use.
+	 * @author 5som3*/
+	public int size() {return size;}
+
+	/**The x coordinate of a member.
+	 * @param slot - the member index of the object.
+	 * @return double - the x coordinate in game space.
+	 * @author 5som3*/
+	public double getX(int slot) {return x[slot];}
+
+	/**The y coordinate of a member.
+	 * @param slot - the member index of the object.
+	 * @return double - the y coordinate in game space.
+	 * @author 5som3*/
+	public double getY(int slot) {return y[slot];}
+
+	/**The width of a member.
+	 * @param slot - the member index of the object.
+	 * @return double - the width of the sprite when the member was added or last rendered.
+	 * @author 5som3*/
+	public double getWidth(int slot) {return w[slot];}
+
+	/**The height of a member.
+	 * @param slot - the member index of the object.
+	 * @return double - the height of the sprite when the member was added or last rendered.
+	 * @author 5som3*/
+	public double getHeight(int slot) {return h[slot];}
+
+	/**The x velocity of a member.
+	 * @param slot - the member index of the object.
+	 * @return double - the x velocity in pixels per second.
+	 * @author 5som3*/
+	public double getVelocityX(int slot) {return vx[slot];}
+
+	/**The y velocity of a member.
+	 * @param slot - the member index of the object.
+	 * @return double - the y velocity in pixels per second.
+	 * @author 5som3*/
+	public double getVelocityY(int slot) {return vy[slot];}
+
+	/**Set the velocity of a member.
+	 * @param slot - the member index of the object.
+	 * @param velocityX - the x velocity in pixels per second.
+	 * @param velocityY - the y velocity in pixels per second.
+	 * @author 5som3*/
+	public void setVelocity(int slot, double velocityX, double velocityY) {
+		vx[slot] = velocityX;
+		vy[slot] = velocityY;
+	}
+
+	/**Copy the positions of every member into the specified arrays.
+	 * @param destX - the array to copy the x coordinates into, must be at least size() long.
+	 * @param destY - the array to copy the y coordinates into, must be at least size() long.
+	 * @author 5som3*/
+	public void copyPositions(double[] destX, double[] destY) {
+		System.arraycopy(x, 0, destX, 0, size);
+		System.arraycopy(y, 0, destY, 0, size);
+	}
+
+	/**Move every member by its velocity.
+	 * @param deltaTime - the time since the last update in seconds.*/
+	void integrate(double deltaTime) {
+		for(int i = 0; i < size; i++) {
+			x[i] += vx[i] * deltaTime;
+			y[i] += vy[i] * deltaTime;
+		}
+		moveCount++;
+	}
+
+	/**The number of times the store has moved its members, used by members to tell if their position vector is out of date.*/
+	long getMoveCount() {return moveCount;}
+
+	void setPosition(int slot, double x, double y) {
+		this.x[slot] = x;
+		this.y[slot] = y;
+	}
+
+	void setSize(int slot, double width, double height) {
+		w[slot] = width;
+		h[slot] = height;
+	}
+
+	/**Add a slot to the end of the store.
+	 * @return int - the new slot.*/
+	int add(double x, double y, double width, double height) {
+		if(size == this.x.length) grow();
+		this.x[size] = x;
+		this.y[size] = y;
+		w[size] = width;
+		h[size] = height;
+		vx[size] = 0.0;
+		vy[size] = 0.0;
+		return size++;
+	}
+
+	/**Remove a slot, the following slots are shifted left by one to match members removed in order (i.e. inventory items).*/
+	void remove(int slot) {
+		int count = size - slot - 1;
+		if(count > 0) {
+			System.arraycopy(x, slot + 1, x, slot, count);
+			System.arraycopy(y, slot + 1, y, slot, count);
+			System.arraycopy(w, slot + 1, w, slot, count);
+			System.arraycopy(h, slot + 1, h, slot, count);
+			System.arraycopy(vx, slot + 1, vx, slot, count);
+			System.arraycopy(vy, slot + 1, vy, slot, count);
+		}
+		size--;
+	}
+
+	/**Remove a slot by moving the last slot into its place, matching WarpedGroup.removeMember().*/
+	void swapRemove(int slot) {
+		int last = size - 1;
+		if(slot != last) {
+			x[slot]  = x[last];
+			y[slot]  = y[last];
+			w[slot]  = w[last];
+			h[slot]  = h[last];
+			vx[slot] = vx[last];
+			vy[slot] = vy[last];
+		}
+		size--;
+	}
+
+	/**Reorder the slots after the group members have been sorted.
+	 * @param previousSlot - for each new slot, the slot it was previously stored in.*/
+	void reorder(int[] previousSlot) {
+		double[] oldX = Arrays.copyOf(x, size), oldY = Arrays.copyOf(y, size), oldW = Arrays.copyOf(w, size);
+		double[] oldH = Arrays.copyOf(h, size), oldVX = Arrays.copyOf(vx, size), oldVY = Arrays.copyOf(vy, size);
+		for(int i = 0; i < previousSlot.length; i++) {
+			int j = previousSlot[i];
+			x[i]  = oldX[j];
+			y[i]  = oldY[j];
+			w[i]  = oldW[j];
+			h[i]  = oldH[j];
+			vx[i] = oldVX[j];
+			vy[i] = oldVY[j];
+		}
+	}
+
+	void clear() {size = 0;}
+
+	private void grow() {
+		int capacity = x.length * 2;
+		x  = Arrays.copyOf(x, capacity);
+		y  = Arrays.copyOf(y, capacity);
+		w  = Arrays.copyOf(w, capacity);
+		h  = Arrays.copyOf(h, capacity);
+		vx = Arrays.copyOf(vx, capacity);
+		vy = Arrays.copyOf(vy, capacity);
+	}
+
+}
@@ -0,0 +1,256 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.tile;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import warped.WarpedProperties;
+import warped.graphics.window.WarpedCamera;
+import warped.utilities.utils.Console;
+
+public class WarpedTileLayer {
+
+	/*WarpedTileLayer draws a large tile map by baking fixed size chunks of tiles into cached images.
+	 * Only the chunks that intersect the camera view are drawn, each chunk is baked the first time it is visible and then drawn as a single image.
+	 *
+	 * 	- Chunks are baked for a zoom bucket, the nearest power of 2 scale at or above the camera zoom (never above 1.0), so zooming out draws smaller images.
+	 * 	- Cached chunks are keyed by chunk coordinate and zoom bucket, the least recently drawn chunks are evicted when the cache is over its memory budget.
+	 * 	- tileChanged() invalidates only the chunk containing the tile, it will be baked again the next time it is drawn.
+	 *
+	 * Set the layer on a viewport with WarpedViewport.setTileLayer(), it is drawn before the objects using the viewport camera.
+	 * The tiles in a layer are drawn as images only, use tile objects in a group for mouse interaction.
+	 * */
+
+	public static final int DEFAULT_CHUNK_SIZE = 32;
+	public static final long DEFAULT_MEMORY_BUDGET = 256L * 1024 * 1024;
+	private static final int MIN_BUCKET = -10;
+
+	private final WarpedTileSource source;
+	private final int mapWidth;
+	private final int mapHeight;
+	private final int tileSize;
+	private final int chunkSize;
+	private final int chunkCountX;
+	private final int chunkCountY;
+
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private long memoryUsed = 0;
+	private long bakeCount = 0;
+	private LinkedHashMap<Long, BufferedImage> chunks = new LinkedHashMap<>(256, 0.75f, true); //Access ordered, the eldest entry is the least recently drawn
+	private ConcurrentLinkedQueue<Long> invalidChunks = new ConcurrentLinkedQueue<>(); //Chunk coordinates changed since the last draw
+
+	/**A layer that draws the tiles of a map in chunks of the default size (32 x 32 tiles).
+	 * @param source - provides the raster of each tile.
+	 * @param mapWidth - the number of tiles in each row of the map.
+	 * @param mapHeight - the number of tiles in each column of the map.
+	 * @param tileSize - the width and height of each tile in pixels.
+	 * @author 5som3*/
+	public WarpedTileLayer(WarpedTileSource source, int mapWidth, int mapHeight, int tileSize) {this(source, mapWidth, mapHeight, tileSize, DEFAULT_CHUNK_SIZE);}
+
+	/**A layer that draws the tiles of a map in chunks.
+	 * @param source - provides the raster of each tile.
+	 * @param mapWidth - the number of tiles in each row of the map.
+	 * @param mapHeight - the number of tiles in each column of the map.
+	 * @param tileSize - the width and height of each tile in pixels.
+	 * @param chunkSize - the width and height of each chunk in tiles.
+	 * @author 5som3*/
+	public WarpedTileLayer(WarpedTileSource source, int mapWidth, int mapHeight, int tileSize, int chunkSize) {
+		if(chunkSize < 1) {
+			Console.err("WarpedTileLayer -> WarpedTileLayer() -> chunk size is too small : " + chunkSize + ", the default size will be used");
+			chunkSize = DEFAULT_CHUNK_SIZE;
+		}
+		this.source 	 = source;
+		this.mapWidth 	 = mapWidth;
+		this.mapHeight 	 = mapHeight;
+		this.tileSize 	 = tileSize;
+		this.chunkSize 	 = chunkSize;
+		this.chunkCountX = (mapWidth + chunkSize - 1) / chunkSize;
+		this.chunkCountY = (mapHeight + chunkSize - 1) / chunkSize;
+	}
+
+	/**A layer that draws the tiles of a map in chunks of the default size (32 x 32 tiles).
+	 * @param tiles - the tiles of the map in rows, the tile at (x, y) is at index y * mapWidth + x.
+	 * @param mapWidth - the number of tiles in each row of the map.
+	 * @param mapHeight - the number of tiles in each column of the map.
+	 * @param tileSize - the width and height of each tile in pixels.
+	 * @author 5som3*/
+	public WarpedTileLayer(WarpedTile[] tiles, int mapWidth, int mapHeight, int tileSize) {this(WarpedTileSource.of(tiles, mapWidth), mapWidth, mapHeight, tileSize);}
+
+	/**Set the maximum memory used by cached chunks.
+	 * @param bytes - the memory budget in bytes, each cached chunk uses 4 bytes per pixel.
+	 * @apiNote The chunks visible in a single frame are always kept, even if they are over the budget.
+	 * @author 5som3*/
+	public synchronized void setMemoryBudget(long bytes) {
+		if(bytes < 0) {
+			Console.err("WarpedTileLayer -> setMemoryBudget() -> budget can not be negative : " + bytes);
+			return;
+		}
+		memoryBudget = bytes;
+		evict(0);
+	}
+
+	/**The maximum memory used by cached chunks.
+	 * @return long - the memory budget in bytes.
+	 * @author 5som3*/
+	public long getMemoryBudget() {return memoryBudget;}
+
+	/**The memory used by cached chunks.
+	 * @return long - the size of the cached chunk images in bytes.
+	 * @author 5som3*/
+	public synchronized long getMemoryUsed() {return memoryUsed;}
+
+	/**The number of chunks in the cache.
+	 * @return int - the number of baked chunk images, counting each zoom bucket separately.
+	 * @author 5som3*/
+	public synchronized int getCachedChunkCount() {return chunks.size();}
+
+	/**The number of times a chunk has been baked.
+	 * @return long - the total number of bakes since the layer was created.
+	 * @author 5som3*/
+	public synchronized long getBakeCount() {return bakeCount;}
+
+	/**Redraw the chunk containing the tile the next time it is drawn.
+	 * @param tile - the tile that changed, its coordinates locate the chunk.
+	 * @author 5som3*/
+	public void tileChanged(WarpedTile tile) {tileChanged(tile.getCoords().x(), tile.getCoords().y());}
+
+	/**Redraw the chunk containing the tile the next time it is drawn.
+	 * @param x - the x coordinate of the tile that changed.
+	 * @param y - the y coordinate of the tile that changed.
+	 * @apiNote Safe to call from any thread, the chunk is removed from the cache before the next draw.
+	 * @author 5som3*/
+	public void tileChanged(int x, int y) {
+		if(x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+			Console.err("WarpedTileLayer -> tileChanged() -> tile is outside the map : (" + x + ", " + y + ")");
+			return;
+		}
+		invalidChunks.add(chunkKey(x / chunkSize, y / chunkSize, 0));
+	}
+
+	/**Redraw every chunk the next time it is drawn.
+	 * @author 5som3*/
+	public synchronized void invalidateAll() {
+		invalidChunks.clear();
+		chunks.clear();
+		memoryUsed = 0;
+	}
+
+	/**Draw the chunks that intersect the view of the camera.
+	 * @param g - the graphics to draw into.
+	 * @param camera - the camera to apply, screen position = (map position + camera position) * zoom.
+	 * @param viewWidth - the width of the area being drawn in pixels.
+	 * @param viewHeight - the height of the area being drawn in pixels.
+	 * @author 5som3*/
+	public synchronized void draw(Graphics2D g, WarpedCamera camera, int viewWidth, int viewHeight) {
+		removeInvalidChunks();
+		double zoom = camera.getZoom();
+		double cameraX = camera.getPosition().x();
+		double cameraY = camera.getPosition().y();
+		int bucket = getBucket(zoom);
+		double chunkPixels = (double)chunkSize * tileSize;
+
+		int startX = Math.max(0, (int)Math.floor(-cameraX / chunkPixels));
+		int startY = Math.max(0, (int)Math.floor(-cameraY / chunkPixels));
+		int endX = Math.min(chunkCountX - 1, (int)Math.floor((viewWidth / zoom - cameraX) / chunkPixels));
+		int endY = Math.min(chunkCountY - 1, (int)Math.floor((viewHeight / zoom - cameraY) / chunkPixels));
+		if(startX > endX || startY > endY) return;
+
+		long visibleMemory = 0;
+		for(int cy = startY; cy <= endY; cy++) {
+			int y0 = (int)Math.floor((cy * chunkPixels + cameraY) * zoom);
+			int y1 = (int)Math.floor((Math.min((cy + 1) * chunkSize, mapHeight) * (double)tileSize + cameraY) * zoom); // The next chunk starts where this one ends, so there are no seams
+			for(int cx = startX; cx <= endX; cx++) {
+				int x0 = (int)Math.floor((cx * chunkPixels + cameraX) * zoom);
+				int x1 = (int)Math.floor((Math.min((cx + 1) * chunkSize, mapWidth) * (double)tileSize + cameraX) * zoom);
+				BufferedImage chunk = getChunk(cx, cy, bucket);
+				visibleMemory += getMemory(chunk);
+				if(x1 > x0 && y1 > y0) g.drawImage(chunk, x0, y0, x1 - x0, y1 - y0, null);
+			}
+		}
+		evict(visibleMemory);
+	}
+
+	/**The zoom bucket for a camera zoom, chunks are baked at a scale of 2^bucket.*/
+	private static int getBucket(double zoom) {
+		int bucket = (int)Math.ceil(Math.log(zoom) / Math.log(2.0) - 1e-9);
+		if(bucket > 0) return 0;
+		if(bucket < MIN_BUCKET) return MIN_BUCKET;
+		return bucket;
+	}
+
+	private BufferedImage getChunk(int cx, int cy, int bucket) {
+		long key = chunkKey(cx, cy, bucket);
+		BufferedImage chunk = chunks.get(key);
+		if(chunk == null) {
+			chunk = bake(cx, cy, bucket);
+			chunks.put(key, chunk);
+			memoryUsed += getMemory(chunk);
+		}
+		return chunk;
+	}
+
+	/**Draw the tiles of a chunk into a new image at the scale of the zoom bucket.*/
+	private BufferedImage bake(int cx, int cy, int bucket) {
+		bakeCount++;
+		double scale = Math.pow(2.0, bucket);
+		int tilesX = Math.min(chunkSize, mapWidth - cx * chunkSize);
+		int tilesY = Math.min(chunkSize, mapHeight - cy * chunkSize);
+		int width = Math.max(1, (int)Math.ceil(tilesX * tileSize * scale));
+		int height = Math.max(1, (int)Math.ceil(tilesY * tileSize * scale));
+		BufferedImage chunk = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		Graphics2D g = chunk.createGraphics();
+		if(bucket < 0) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		for(int ty = 0; ty < tilesY; ty++) {
+			int y0 = (int)Math.floor(ty * tileSize * scale);
+			int y1 = (int)Math.floor((ty + 1) * tileSize * scale);
+			if(y1 == y0) continue;
+			for(int tx = 0; tx < tilesX; tx++) {
+				BufferedImage raster = source.getTileRaster(cx * chunkSize + tx, cy * chunkSize + ty);
+				if(raster == null) continue;
+				int x0 = (int)Math.floor(tx * tileSize * scale);
+				int x1 = (int)Math.floor((tx + 1) * tileSize * scale);
+				if(x1 == x0) continue;
+				g.drawImage(raster, x0, y0, x1 - x0, y1 - y0, null);
+			}
+		}
+		g.dispose();
+		return chunk;
+	}
+
+	/**Remove the chunks invalidated since the last draw, in every zoom bucket.*/
+	private void removeInvalidChunks() {
+		Long key;
+		while((key = invalidChunks.poll()) != null) {
+			int cx = (int)(key >> 32);
+			int cy = (int)((key >> 8) & 0xFFFFFF);
+			for(int bucket = MIN_BUCKET; bucket <= 0; bucket++) {
+				BufferedImage chunk = chunks.remove(chunkKey(cx, cy, bucket));
+				if(chunk != null) memoryUsed -= getMemory(chunk);
+			}
+		}
+	}
+
+	/**Remove the least recently drawn chunks until the cache is within budget, keeping the chunks drawn in the last frame.*/
+	private void evict(long keptMemory) {
+		if(memoryUsed <= memoryBudget) return;
+		long evictable = memoryUsed - keptMemory;
+		Iterator<Map.Entry<Long, BufferedImage>> it = chunks.entrySet().iterator();
+		while(memoryUsed > memoryBudget && evictable > 0 && it.hasNext()) {
+			long memory = getMemory(it.next().getValue());
+			it.remove();
+			memoryUsed -= memory;
+			evictable -= memory;
+		}
+	}
+
+	private static long getMemory(BufferedImage image) {return 4L * image.getWidth() * image.getHeight();}
+
+	private static long chunkKey(int cx, int cy, int bucket) {return ((long)cx << 32) | ((long)(cy & 0xFFFFFF) << 8) | (bucket & 0xFF);}
+
+}
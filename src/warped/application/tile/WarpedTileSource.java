@@ -0,0 +1,29 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.application.tile;
+
+import java.awt.image.BufferedImage;
+
+@FunctionalInterface
+public interface WarpedTileSource {
+
+	/**The graphic of the tile at the specified coordinates.
+	 * @param x - the x coordinate of the tile in the tile map.
+	 * @param y - the y coordinate of the tile in the tile map.
+	 * @return BufferedImage - the image to draw for the tile, null if nothing should be drawn.
+	 * @author 5som3*/
+	public BufferedImage getTileRaster(int x, int y);
+
+	/**A source that reads the raster of each tile in a map.
+	 * @param tiles - the tiles of the map in rows, the tile at (x, y) is at index y * mapWidth + x.
+	 * @param mapWidth - the number of tiles in each row.
+	 * @return WarpedTileSource - the source.
+	 * @author 5som3*/
+	public static WarpedTileSource of(WarpedTile[] tiles, int mapWidth) {
+		return (x, y) -> {
+			WarpedTile tile = tiles[y * mapWidth + x];
+			return tile == null || !tile.isVisible() ? null : tile.raster();
+		};
+	}
+
+}
@@ -4,6 +4,7 @@ package warped.audio;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
@@ -12,6 +13,7 @@ import javax.sound.sampled.FloatControl;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.UnsupportedAudioFileException;
 
+import warped.application.state.WarpedBundle;
 import warped.application.state.WarpedFramework2D;
 import warped.functionalInterfaces.WarpedAction;
 import warped.utilities.utils.Console;
@@ -26,11 +28,14 @@ public class WarpedAudioClip {
 	private boolean isFrameworkAudio = false;
 	private boolean isFileLoaded = false;
 	private boolean isLooping = false;
-	private boolean isFading = false;
-	private boolean isFadeOut;
-	private boolean isFadeIn;
+	
+	private static WarpedAudioMixer mixer;
+	private WarpedBundle bundle;
+	private WarpedSound sound;
+	private WarpedAudioMixer.Voice voice;
 	
 	public boolean isPlaying() {
+		if(voice != null) return voice.isPlaying();
 		if(audioClip == null) return false;
 		if(!audioClip.isOpen()) return false;
 		if(!audioClip.isActive()) return false;
@@ -60,6 +65,18 @@ public class WarpedAudioClip {
 		initializeClip();
 	}
 	
+	/**A clip read from a bundle, see WarpedBundle.
+	 * @param path - the name of the sound in the bundle.
+	 * @param bundle - the bundle containing the sound.
+	 * @author 5som3*/
+	public WarpedAudioClip(String path, WarpedBundle bundle) {
+		Console.ln("WarpedAudioClip -> constructing new clip from bundle at : " + path);
+		this.path = path;
+		this.bundle = bundle;
+		file = null;
+		initializeClip();
+	}
+	
 	public WarpedAudioClip(String path, boolean isFrameworkAudio) {
 		Console.ln("WarpedAudioClip -> constructing new clip from stream at : " + path);
 		this.path = path;
@@ -68,7 +85,20 @@ public class WarpedAudioClip {
 		initializeClip();
 	}
 	
+	/**Set a mixer to play clips through, instead of each clip opening its own line.
+	 * @param mixer - the mixer, if null clips will open their own line.
+	 * @apiNote Set before loading assets, clips that are already playing through a line finish playing through it.
+	 * @implNote Each clip decodes its audio the first time it is played through the mixer and keeps it, see WarpedSound.
+	 * @author 5som3*/
+	public static void setMixer(WarpedAudioMixer mixer) {WarpedAudioClip.mixer = mixer;}
+	
+	/**The mixer clips are played through.
+	 * @return WarpedAudioMixer - the mixer, null if clips open their own line.
+	 * @author 5som3*/
+	public static WarpedAudioMixer getMixer() {return mixer;}
+	
 	private void initializeClip() {
+		if(mixer != null) return; // The line is opened when played if the mixer is removed
 		try {
 			audioClip = AudioSystem.getClip();
 		} catch (LineUnavailableException e) {
@@ -110,6 +140,20 @@ public class WarpedAudioClip {
 		}		
 	}
 	
+	private void openBundleAudio() {
+		Console.condition("WarpedAudioClip -> openBundleAudio() -> trying to open audio in bundle at : " + path);
+		AudioInputStream ais = bundle.getAudioStream(path);
+		if(ais == null) return;
+		try {
+			audioClip.open(ais);
+			ais.close();
+			Console.met("WarpedAudioClip -> openBundleAudio() -> opened audio");
+		} catch (IOException | LineUnavailableException e) {
+			Console.err("WarpedAudioClip -> openBundleAudio() -> failed to open audio");
+			Console.stackTrace(e);
+		}
+	}
+	
 	private void openFrameworkAudio() {
 		Console.condition("WarpedAudioClip -> openFrameworkAudio() -> trying to open audio stream at : " + path);
 		try {
@@ -124,7 +168,40 @@ public class WarpedAudioClip {
 	}
 	
 	
+	/**Decode the audio now instead of the first time the clip is played through the mixer.
+	 * @return WarpedSound - the decoded sound, null if the audio could not be decoded.
+	 * @apiNote Called by WarpedAudioFolder while loading when a mixer is set, do not call while the clip is playing.
+	 * @author 5som3*/
+	public WarpedSound preloadSound() {
+		if(sound == null) sound = decodeSound();
+		return sound;
+	}
+
+	private WarpedSound decodeSound() {
+		Console.condition("WarpedAudioClip -> decodeSound() -> trying to decode audio at : " + path);
+		WarpedSound sound;
+		if(bundle != null) sound = bundle.getSound(path);
+		else if(isFileLoaded) sound = WarpedSound.decode(file);
+		else {
+			InputStream stream = isFrameworkAudio ? WarpedFramework2D.class.getResourceAsStream(path) : WarpedFramework2D.getApp().getClass().getResourceAsStream(path);
+			if(stream == null) {
+				Console.err("WarpedAudioClip -> decodeSound() -> failed to find audio : " + path);
+				return null;
+			}
+			sound = WarpedSound.decode(stream);
+		}
+		if(sound != null) Console.met("WarpedAudioClip -> decodeSound() -> decoded audio");
+		return sound;
+	}
+	
 	public void update() {
+		if(voice != null) {
+			if(voice.isFinished()) {
+				voice = null;
+				endClipAction.action();
+			} else if(!voice.isPlaying()) voice = null;
+			return;
+		}
 		if(audioClip == null) return;
 		else if(!audioClip.isOpen()) return;
 		else if(audioClip.isActive()) return;
@@ -144,14 +221,18 @@ public class WarpedAudioClip {
 	}
 	
 	public boolean isLooping() {return isLooping;}
-	public boolean isFading() {return isFading;}
-	public void setLoop(boolean isLooping) {this.isLooping = isLooping;}
-	public void loop() {isLooping = true;}
-	public void noLoop() {isLooping = false;}
+	public boolean isFading() {return voice != null && voice.isFading();}
+	public void setLoop(boolean isLooping) {
+		this.isLooping = isLooping;
+		if(voice != null) voice.setLooping(isLooping);
+	}
+	public void loop() {setLoop(true);}
+	public void noLoop() {setLoop(false);}
 	
 	private boolean isValid() {if(audioClip == null || !audioClip.isOpen()) return false; else return true;}
 	
 	public float getVolume() {
+		if(mixer != null || voice != null) return volume;
 		if(!isValid()) {
 			Console.err("WarpedAudioClip -> getVolume() -> audioClip is not valid");
 			return -1.0f;
@@ -172,6 +253,7 @@ public class WarpedAudioClip {
 	}
 	
 	private void setClipVolume() {
+		if(voice != null) voice.setGain(volume);
 		if(isValid()) {			
 			FloatControl gainControl = (FloatControl) audioClip.getControl(FloatControl.Type.MASTER_GAIN);        
 			gainControl.setValue(20f * (float) Math.log10(volume));
@@ -179,8 +261,19 @@ public class WarpedAudioClip {
 	}
 	
 	public void play() {
-		if(audioClip == null || !audioClip.isOpen()) {
-			if(isFileLoaded) openAudioFile();
+		if(mixer != null) {
+			if(voice != null && voice.isPlaying()) return;
+			if(sound == null) sound = decodeSound();
+			if(sound == null) return;
+			voice = mixer.play(sound, volume, 0.0, 0, isLooping);
+			Console.ln("WarpedAudioClip -> play() -> playing through mixer :" + path);
+			return;
+		}
+		if(audioClip == null) initializeClip();
+		if(audioClip == null) return;
+		if(!audioClip.isOpen()) {
+			if(bundle != null) openBundleAudio();
+			else if(isFileLoaded) openAudioFile();
 			else if(isFrameworkAudio) openFrameworkAudio();
 			else openAudioStream();
 			setClipVolume();
@@ -193,12 +286,41 @@ public class WarpedAudioClip {
 		Console.ln("WarpedAudioClip -> play() -> playing :" + path);
 	}
 	
+	/**Fade the clip in from silent to its volume.
+	 * @param duration - the duration of the fade in seconds.
+	 * @apiNote Only clips played through a mixer can fade, see setMixer().
+	 * @author 5som3*/
+	public void fadeIn(double duration) {
+		if(voice == null) {
+			Console.err("WarpedAudioClip -> fadeIn() -> clip is not playing through a mixer : " + path);
+			return;
+		}
+		voice.fadeIn(duration);
+	}
+	
+	/**Fade the clip out from its volume to silent, then stop it.
+	 * @param duration - the duration of the fade in seconds.
+	 * @apiNote Only clips played through a mixer can fade, see setMixer().
+	 * @author 5som3*/
+	public void fadeOut(double duration) {
+		if(voice == null) {
+			Console.err("WarpedAudioClip -> fadeOut() -> clip is not playing through a mixer : " + path);
+			return;
+		}
+		voice.fadeOut(duration);
+	}
+	
 	public void stop() {
+		if(voice != null) voice.stop();
 		if(audioClip == null) return;
 		else if(audioClip.isActive()) audioClip.stop();
 	}
 	
 	public void close() {
+		if(voice != null) {
+			voice.stop();
+			voice = null;
+		}
 		if(audioClip == null) return;
 		else if(!audioClip.isOpen()) return;
 		else {
@@ -208,54 +330,6 @@ public class WarpedAudioClip {
 	}
 	
 	
-	/*
-	
-	public void fadeIn() {
-		isFading = true;
-		isFadeIn = true;
-	}
-	
-	public void fadeOut() {
-		isFading = true;
-		isFadeOut = true;
-	}
-	
-	public boolean updateFade(float volumeCap) {
-		if(!isFading) return true;
-		if(volumeCap > 6.0f) volumeCap = 6.0f;
-		if(volumeCap < -80.0f) volumeCap = -80.0f;
-		if(isFadeIn && isFadeOut) {
-			WarpedConsole.err("AudioData -> fade() -> logically inconsisted -> can't fadeIn and fadeOut at the same time");
-			isFadeIn = false;
-			isFadeOut = false;
-			return false;
-		}
-		if(isFadeIn)  return updateFadeIn();
-		if(isFadeOut) return updateFadeOut();
-		return false;
-	}
-	
-	private boolean updateFadeOut() {
-		volume -= 1.0f;
-		if(volume < -80.0f) volume = -80.0f;
-		if(volume == -80.0f) {
-			isFading = false;
-			return true;
-		}
-		return false;
-	}
-	
-	private boolean updateFadeIn() {
-		volume += 1.0f;
-		if(volume > 6.0f) volume = 6.0f;
-		if(volume >= volumeCap) {
-			volume = volumeCap;
-			isFading = false;
-			return true;
-		}
-		return false;
-	}
-	*/
 	
 	
 }
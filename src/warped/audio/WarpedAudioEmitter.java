@@ -0,0 +1,165 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.audio;
+
+import warped.application.state.WarpedObject;
+import warped.utilities.utils.Console;
+
+public final class WarpedAudioEmitter {
+
+	/*WarpedAudioEmitter is a sound that is played from a position in the world, i.e. the explosion of a projectile or the footsteps of a unit.
+	 * The listener (see WarpedAudioListener) sets the gain and pan of each play from the distance and direction of the emitter to the center of its camera view.
+	 * The gain falls from full at the min distance to silent at the max distance following the rolloff curve, positions are measured in world units (the same units as WarpedObject positions).
+	 * One emitter can be played any number of times from different positions, i.e. one emitter shared by every projectile of a type.
+	 * */
+
+	public static final double DEFAULT_MIN_DISTANCE = 100.0;
+	public static final double DEFAULT_MAX_DISTANCE = 2000.0;
+
+	/**How the gain of an emitter falls with distance between the min and max distance.*/
+	public enum Rolloff {
+		NONE,
+		LINEAR,
+		INVERSE,
+		INVERSE_SQUARE;
+
+		/**The gain at a distance.
+		 * @param distance - the distance from the listener.
+		 * @param minDistance - the distance the gain starts to fall, closer emitters play at full gain.
+		 * @param maxDistance - the distance the emitter is silent, further emitters are not played.
+		 * @return double - the gain from 0.0 to 1.0.
+		 * @apiNote NONE plays at full gain at any distance up to the max distance.
+		 * @author 5som3*/
+		public double getGain(double distance, double minDistance, double maxDistance) {
+			if(distance >= maxDistance) return 0.0;
+			if(distance <= minDistance) return 1.0;
+			switch(this) {
+			case NONE: 			 return 1.0;
+			case LINEAR: 		 return 1.0 - (distance - minDistance) / (maxDistance - minDistance);
+			case INVERSE: 		 return minDistance / distance;
+			case INVERSE_SQUARE: return (minDistance * minDistance) / (distance * distance);
+			default:
+				Console.err("WarpedAudioEmitter -> Rolloff -> getGain() -> invalid case : " + this);
+				return 0.0;
+			}
+		}
+	}
+
+	private final WarpedSound sound;
+	private Rolloff rolloff = Rolloff.INVERSE;
+	private double minDistance = DEFAULT_MIN_DISTANCE;
+	private double maxDistance = DEFAULT_MAX_DISTANCE;
+	private double gain = 1.0;
+	private int priority = 0;
+
+	/**An emitter with inverse rolloff between the default min and max distance.
+	 * @param sound - the sound played by the emitter.
+	 * @author 5som3*/
+	public WarpedAudioEmitter(WarpedSound sound) {
+		this.sound = sound;
+	}
+
+	/**An emitter.
+	 * @param sound - the sound played by the emitter.
+	 * @param rolloff - how the gain falls with distance.
+	 * @param minDistance - the distance the gain starts to fall, in world units.
+	 * @param maxDistance - the distance the emitter is silent, in world units.
+	 * @author 5som3*/
+	public WarpedAudioEmitter(WarpedSound sound, Rolloff rolloff, double minDistance, double maxDistance) {
+		this.sound = sound;
+		setRolloff(rolloff, minDistance, maxDistance);
+	}
+
+	/**Play the emitter from a position through the active listener.
+	 * @param x - the x coordinate in world space.
+	 * @param y - the y coordinate in world space.
+	 * @return Voice - the voice playing the sound, null if there is no active listener or the sound was culled.
+	 * @apiNote See WarpedAudioListener.play().
+	 * @author 5som3*/
+	public WarpedAudioMixer.Voice play(double x, double y) {
+		WarpedAudioListener listener = WarpedAudioListener.getActive();
+		if(listener == null) {
+			Console.err("WarpedAudioEmitter -> play() -> there is no active listener, see WarpedAudioListener.setActive()");
+			return null;
+		}
+		return listener.play(this, x, y);
+	}
+
+	/**Play the emitter from the center of an object through the active listener.
+	 * @param object - the object playing the sound.
+	 * @return Voice - the voice playing the sound, null if there is no active listener or the sound was culled.
+	 * @author 5som3*/
+	public WarpedAudioMixer.Voice play(WarpedObject object) {return play(object.getCenterX(), object.getCenterY());}
+
+	/**Set how the gain falls with distance.
+	 * @param rolloff - the rolloff curve.
+	 * @param minDistance - the distance the gain starts to fall, in world units. Must be greater than 0.0.
+	 * @param maxDistance - the distance the emitter is silent, in world units. Must be greater than the min distance.
+	 * @author 5som3*/
+	public void setRolloff(Rolloff rolloff, double minDistance, double maxDistance) {
+		if(minDistance <= 0.0) {
+			Console.err("WarpedAudioEmitter -> setRolloff() -> min distance must be greater than 0.0 : " + minDistance);
+			minDistance = 1.0;
+		}
+		if(maxDistance <= minDistance) {
+			Console.err("WarpedAudioEmitter -> setRolloff() -> max distance must be greater than the min distance : " + maxDistance);
+			maxDistance = minDistance + 1.0;
+		}
+		this.rolloff = rolloff;
+		this.minDistance = minDistance;
+		this.maxDistance = maxDistance;
+	}
+
+	/**Set the gain of the emitter before it is attenuated by distance.
+	 * @param gain - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public void setGain(double gain) {
+		if(gain < 0.0 || gain > 1.0) {
+			Console.err("WarpedAudioEmitter -> setGain() -> gain must be in the domain 0.0 - 1.0 inclusive : " + gain);
+			gain = Math.max(0.0, Math.min(1.0, gain));
+		}
+		this.gain = gain;
+	}
+
+	/**Set the priority of the voices the emitter plays.
+	 * @param priority - see WarpedAudioMixer.play().
+	 * @author 5som3*/
+	public void setPriority(int priority) {this.priority = priority;}
+
+	/**The gain of the emitter at a distance from the listener.
+	 * @param distance - the distance in world units.
+	 * @return double - the gain of the emitter attenuated by the rolloff curve.
+	 * @author 5som3*/
+	public double getGain(double distance) {return gain * rolloff.getGain(distance, minDistance, maxDistance);}
+
+	/**The sound played by the emitter.
+	 * @return WarpedSound - the sound.
+	 * @author 5som3*/
+	public WarpedSound getSound() {return sound;}
+
+	/**The rolloff curve of the emitter.
+	 * @return Rolloff - the curve.
+	 * @author 5som3*/
+	public Rolloff getRolloff() {return rolloff;}
+
+	/**The distance the gain starts to fall.
+	 * @return double - the distance in world units.
+	 * @author 5som3*/
+	public double getMinDistance() {return minDistance;}
+
+	/**The distance the emitter is silent.
+	 * @return double - the distance in world units.
+	 * @author 5som3*/
+	public double getMaxDistance() {return maxDistance;}
+
+	/**The gain of the emitter before it is attenuated by distance.
+	 * @return double - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public double getGain() {return gain;}
+
+	/**The priority of the voices the emitter plays.
+	 * @return int - the priority.
+	 * @author 5som3*/
+	public int getPriority() {return priority;}
+
+}
@@ -0,0 +1,204 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.audio;
+
+import java.util.HashMap;
+
+import warped.graphics.window.WarpedCamera;
+import warped.graphics.window.WarpedViewport;
+import warped.utilities.timers.WarpedClock;
+import warped.utilities.utils.Console;
+
+public final class WarpedAudioListener {
+
+	/*WarpedAudioListener hears emitters (see WarpedAudioEmitter) from the center of a camera view and plays them through a mixer.
+	 * The gain of each play is set by the distance of the emitter to the center of the view, the pan by how far left or right of the center it is.
+	 * The pan only uses the horizontal offset, an emitter above or below the center is centered and only made quieter by its distance.
+	 * An emitter at the left or right edge of the view is panned fully to that side, the listener follows the camera as it moves and zooms.
+	 *
+	 * Plays that would be quieter than the cull gain are dropped before they take a voice from the mixer, so off screen sounds do not steal voices from audible ones.
+	 * The same sound played again within the coalesce duration does not start another voice, the voice already playing is raised to the louder of the two instead.
+	 * i.e. twenty projectiles exploding in the same frame play one explosion, not twenty voices of the same samples stacked on top of each other.
+	 * Sounds that have not been played for longer than the coalesce duration are forgotten, so the listener only holds the sounds played recently.
+	 * */
+
+	public static final double DEFAULT_CULL_GAIN = 0.01;
+	public static final double DEFAULT_COALESCE_DURATION = 0.03;
+
+	private static final long PRUNE_INTERVAL = 1000000000L; // How often the sounds that are no longer recent are forgotten
+
+	private static volatile WarpedAudioListener active;
+
+	private static final class RecentPlay {
+		private WarpedAudioMixer.Voice voice;
+		private long time;
+	}
+
+	private final WarpedAudioMixer mixer;
+	private final WarpedCamera camera;
+	private int viewWidth;
+	private int viewHeight;
+	private double cullGain = DEFAULT_CULL_GAIN;
+	private long coalesceNanos = (long)(DEFAULT_COALESCE_DURATION * 1000000000L);
+	private final HashMap<WarpedSound, RecentPlay> recentPlays = new HashMap<>();
+	private long pruneTime = 0;
+	private WarpedClock clock = WarpedClock.SYSTEM;
+
+	private int playedCount = 0;
+	private int culledCount = 0;
+	private int coalescedCount = 0;
+
+	/**A listener at the center of a viewport.
+	 * @param mixer - the mixer to play through.
+	 * @param viewport - the viewport, its camera and size set the position of the listener.
+	 * @author 5som3*/
+	public WarpedAudioListener(WarpedAudioMixer mixer, WarpedViewport viewport) {this(mixer, viewport.getCamera(), viewport.getWidth(), viewport.getHeight());}
+
+	/**A listener at the center of a camera view.
+	 * @param mixer - the mixer to play through.
+	 * @param camera - the camera the listener follows.
+	 * @param viewWidth - the width of the view in pixels.
+	 * @param viewHeight - the height of the view in pixels.
+	 * @author 5som3*/
+	public WarpedAudioListener(WarpedAudioMixer mixer, WarpedCamera camera, int viewWidth, int viewHeight) {
+		this.mixer = mixer;
+		this.camera = camera;
+		setViewSize(viewWidth, viewHeight);
+	}
+
+	/**Set the listener that emitters are played through.
+	 * @param listener - the listener, usually for the viewport of the game world. null to stop playing emitters.
+	 * @author 5som3*/
+	public static void setActive(WarpedAudioListener listener) {active = listener;}
+
+	/**The listener that emitters are played through.
+	 * @return WarpedAudioListener - the active listener, null if none has been set.
+	 * @author 5som3*/
+	public static WarpedAudioListener getActive() {return active;}
+
+	/**Play an emitter from a position.
+	 * @param emitter - the emitter to play.
+	 * @param x - the x coordinate in world space.
+	 * @param y - the y coordinate in world space.
+	 * @return Voice - the voice playing the sound, null if the sound was culled.
+	 * @apiNote If the same sound was played within the coalesce duration the voice already playing it is returned.
+	 * @implNote The pan ignores the vertical offset, see the class description.
+	 * @author 5som3*/
+	public synchronized WarpedAudioMixer.Voice play(WarpedAudioEmitter emitter, double x, double y) {
+		long time = clock.nanoTime();
+		if(time - pruneTime > PRUNE_INTERVAL) prune(time);
+		double dx = x - getX();
+		double dy = y - getY();
+		double gain = emitter.getGain(Math.sqrt(dx * dx + dy * dy));
+		if(gain * mixer.getGain() < cullGain) {
+			culledCount++;
+			return null;
+		}
+		double pan = Math.max(-1.0, Math.min(1.0, dx / (viewWidth / 2.0 / camera.getZoom())));
+
+		RecentPlay recent = recentPlays.get(emitter.getSound());
+		if(recent != null && time - recent.time < coalesceNanos && recent.voice.isPlaying()) {
+			coalescedCount++;
+			if(gain > recent.voice.getGain()) {
+				recent.voice.setGain(gain);
+				recent.voice.setPan(pan);
+			}
+			return recent.voice;
+		}
+
+		playedCount++;
+		WarpedAudioMixer.Voice voice = mixer.play(emitter.getSound(), gain, pan, emitter.getPriority(), false);
+		if(recent == null) {
+			recent = new RecentPlay();
+			recentPlays.put(emitter.getSound(), recent);
+		}
+		recent.voice = voice;
+		recent.time = time;
+		return voice;
+	}
+
+	/**Forget the sounds that were last played before the coalesce duration, their voices can no longer be coalesced.*/
+	private void prune(long time) {
+		pruneTime = time;
+		recentPlays.values().removeIf(recent -> time - recent.time >= coalesceNanos || !recent.voice.isPlaying());
+	}
+
+	/**Set the clock used to time plays, the time is only used to coalesce plays.
+	 * @param clock - the clock, WarpedClock.SYSTEM by default.
+	 * @apiNote Use a WarpedManualClock to control when plays are coalesced, i.e. for testing.
+	 * @author 5som3*/
+	public synchronized void setClock(WarpedClock clock) {this.clock = clock;}
+
+	/**Set the size of the view, i.e. when the viewport is resized.
+	 * @param viewWidth - the width of the view in pixels.
+	 * @param viewHeight - the height of the view in pixels.
+	 * @author 5som3*/
+	public void setViewSize(int viewWidth, int viewHeight) {
+		if(viewWidth <= 0 || viewHeight <= 0) {
+			Console.err("WarpedAudioListener -> setViewSize() -> view size must be greater than 0 : " + viewWidth + ", " + viewHeight);
+			viewWidth = Math.max(1, viewWidth);
+			viewHeight = Math.max(1, viewHeight);
+		}
+		this.viewWidth = viewWidth;
+		this.viewHeight = viewHeight;
+	}
+
+	/**Set the gain below which plays are culled.
+	 * @param cullGain - the gain from 0.0 to 1.0, 0.0 to only cull emitters beyond their max distance.
+	 * @apiNote The gain compared is the emitter gain after rolloff multiplied by the mixer gain.
+	 * @author 5som3*/
+	public void setCullGain(double cullGain) {
+		if(cullGain < 0.0 || cullGain > 1.0) {
+			Console.err("WarpedAudioListener -> setCullGain() -> cull gain must be in the domain 0.0 - 1.0 inclusive : " + cullGain);
+			cullGain = Math.max(0.0, Math.min(1.0, cullGain));
+		}
+		this.cullGain = cullGain;
+	}
+
+	/**Set how close together plays of the same sound are coalesced into one voice.
+	 * @param duration - the duration in seconds, 0.0 to play every sound.
+	 * @author 5som3*/
+	public void setCoalesceDuration(double duration) {
+		if(duration < 0.0) {
+			Console.err("WarpedAudioListener -> setCoalesceDuration() -> duration must be positive : " + duration);
+			duration = 0.0;
+		}
+		coalesceNanos = (long)(duration * 1000000000L);
+	}
+
+	/**The x coordinate of the listener.
+	 * @return double - the center of the camera view in world space.
+	 * @author 5som3*/
+	public double getX() {return viewWidth / 2.0 / camera.getZoom() - camera.getPosition().x();}
+
+	/**The y coordinate of the listener.
+	 * @return double - the center of the camera view in world space.
+	 * @author 5som3*/
+	public double getY() {return viewHeight / 2.0 / camera.getZoom() - camera.getPosition().y();}
+
+	/**The gain below which plays are culled.
+	 * @return double - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public double getCullGain() {return cullGain;}
+
+	/**The camera the listener follows.
+	 * @return WarpedCamera - the camera.
+	 * @author 5som3*/
+	public WarpedCamera getCamera() {return camera;}
+
+	/**The number of plays that started a voice.
+	 * @return int - the played count.
+	 * @author 5som3*/
+	public int getPlayedCount() {return playedCount;}
+
+	/**The number of plays that were too quiet to be heard.
+	 * @return int - the culled count.
+	 * @author 5som3*/
+	public int getCulledCount() {return culledCount;}
+
+	/**The number of plays that were merged into a voice already playing the same sound.
+	 * @return int - the coalesced count.
+	 * @author 5som3*/
+	public int getCoalescedCount() {return coalescedCount;}
+
+}
@@ -0,0 +1,520 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.audio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import warped.utilities.utils.Console;
+
+public final class WarpedAudioMixer {
+
+	/*WarpedAudioMixer plays any number of sounds through a single SourceDataLine by mixing them in software, instead of each sound holding its own Clip.
+	 * Sounds are decoded once (see WarpedSound), playing a sound only adds a voice that points to the decoded samples, so there is nothing to open or decode when a sound is played.
+	 *
+	 * A dedicated thread mixes the playing voices one buffer at a time and writes the buffer to the line, the line blocks the thread until it has room for the next buffer.
+	 * Each voice has its own gain, pan and fade envelope, changes made from other threads are applied from the next buffer.
+	 * A voice can also play a WarpedMusicStream, which is decoded in the background while it plays instead of being decoded up front.
+	 * When the voice limit is reached a new voice takes the place of the lowest priority voice, if every playing voice has a higher priority the new voice is not played.
+	 *
+	 * A mixer can write to an OutputStream instead of a line, i.e. a ByteArrayOutputStream to test mixing without an audio device.
+	 * The output is 16-bit signed little-endian stereo PCM at SAMPLE_RATE.
+	 * */
+
+	public static final int SAMPLE_RATE = 44100;
+	public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+	public static final int DEFAULT_BUFFER_FRAMES = 512; // ~11.6ms
+	public static final int DEFAULT_VOICE_LIMIT = 32;
+	private static final int LINE_BUFFERS = 4; // The number of mix buffers the line can hold before write() blocks
+
+	private final OutputStream sink;
+	private SourceDataLine line;
+	private Thread thread;
+	private volatile boolean isRunning = false;
+
+	private final int bufferFrames;
+	private final float[] mixBuffer;
+	private final short[] streamBuffer; // The samples read from a stream voice
+	private final byte[] outputBuffer;
+	private final ArrayList<Voice> voices = new ArrayList<>();
+	private final ConcurrentLinkedQueue<Voice> pendingVoices = new ConcurrentLinkedQueue<>();
+	private volatile int voiceLimit;
+	private volatile float gain = 1.0f;
+
+	private volatile int voiceCount = 0;
+	private volatile long mixDuration = 0;
+	private volatile int stolenCount = 0;
+
+	/**A voice playing a sound in a mixer.
+	 * @author 5som3*/
+	public static final class Voice {
+
+		private static final int PENDING = 0;
+		private static final int PLAYING = 1;
+		private static final int FINISHED = 2;
+		private static final int STOPPED = 3;
+
+		private final WarpedSound sound;
+		private final WarpedMusicStream stream;
+		private final int priority;
+		private volatile float gain;
+		private volatile float pan;
+		private volatile boolean isLooping;
+		private volatile int state = PENDING;
+		private volatile boolean isStopRequested = false;
+
+		private float fade = 1.0f;
+		private float fadeTarget = 1.0f;
+		private float fadeStep = 0.0f; // The change in fade per frame
+		private boolean isStopAtFadeEnd = false;
+		private int position = 0; // The next frame to mix, only used by the mixer thread
+
+		private Voice(WarpedSound sound, WarpedMusicStream stream, float gain, float pan, int priority, boolean isLooping) {
+			this.sound = sound;
+			this.stream = stream;
+			this.gain = gain;
+			this.pan = pan;
+			this.priority = priority;
+			this.isLooping = isLooping;
+		}
+
+		/**Set the gain of the voice.
+		 * @param gain - the gain from 0.0 to 1.0, the samples are multiplied by the gain.
+		 * @author 5som3*/
+		public void setGain(double gain) {
+			if(gain < 0.0 || gain > 1.0) {
+				Console.err("WarpedAudioMixer -> Voice -> setGain() -> gain must be in the domain 0.0 - 1.0 inclusive : " + gain);
+				gain = Math.max(0.0, Math.min(1.0, gain));
+			}
+			this.gain = (float)gain;
+		}
+
+		/**The gain of the voice.
+		 * @return double - the gain from 0.0 to 1.0.
+		 * @author 5som3*/
+		public double getGain() {return gain;}
+
+		/**Set the pan of the voice.
+		 * @param pan - from -1.0 (left only) to 1.0 (right only), 0.0 plays both channels at full gain.
+		 * @author 5som3*/
+		public void setPan(double pan) {
+			if(pan < -1.0 || pan > 1.0) {
+				Console.err("WarpedAudioMixer -> Voice -> setPan() -> pan must be in the domain -1.0 - 1.0 inclusive : " + pan);
+				pan = Math.max(-1.0, Math.min(1.0, pan));
+			}
+			this.pan = (float)pan;
+		}
+
+		/**The pan of the voice.
+		 * @return double - the pan from -1.0 (left) to 1.0 (right).
+		 * @author 5som3*/
+		public double getPan() {return pan;}
+
+		/**Set if the voice restarts the sound when it reaches the end.
+		 * @param isLooping - if true the voice plays until stopped.
+		 * @author 5som3*/
+		public void setLooping(boolean isLooping) {this.isLooping = isLooping;}
+
+		/**Fade the voice in from silent to its gain.
+		 * @param duration - the duration of the fade in seconds.
+		 * @author 5som3*/
+		public synchronized void fadeIn(double duration) {
+			fade = 0.0f;
+			fadeTo(1.0f, duration);
+			isStopAtFadeEnd = false;
+		}
+
+		/**Fade the voice out from its current volume to silent, then stop it.
+		 * @param duration - the duration of the fade in seconds.
+		 * @author 5som3*/
+		public synchronized void fadeOut(double duration) {
+			fadeTo(0.0f, duration);
+			isStopAtFadeEnd = true;
+		}
+
+		/**Is the voice fading in or out.
+		 * @return boolean - true if the fade has not reached its target.
+		 * @author 5som3*/
+		public synchronized boolean isFading() {return fade != fadeTarget;}
+
+		/**Stop the voice at the next buffer.
+		 * @author 5som3*/
+		public void stop() {isStopRequested = true;}
+
+		/**Is the voice waiting to start or playing.
+		 * @return boolean - true if the voice will be heard.
+		 * @author 5som3*/
+		public boolean isPlaying() {return state == PENDING || state == PLAYING;}
+
+		/**Did the voice play its sound to the end.
+		 * @return boolean - true if the voice finished, false if it is playing or was stopped, faded out or stolen.
+		 * @author 5som3*/
+		public boolean isFinished() {return state == FINISHED;}
+
+		/**The priority of the voice.
+		 * @return int - the priority, higher priority voices take the place of lower priority voices when the voice limit is reached.
+		 * @author 5som3*/
+		public int getPriority() {return priority;}
+
+		/**The sound the voice is playing.
+		 * @return WarpedSound - the sound, null if the voice is playing a stream.
+		 * @author 5som3*/
+		public WarpedSound getSound() {return sound;}
+
+		/**The stream the voice is playing.
+		 * @return WarpedMusicStream - the stream, null if the voice is playing a sound.
+		 * @author 5som3*/
+		public WarpedMusicStream getStream() {return stream;}
+
+		/**Remove the voice from the mixer, closing its stream if it has one.*/
+		private void end(int state) {
+			this.state = state;
+			if(stream != null) stream.close();
+		}
+
+		private void fadeTo(float target, double duration) {
+			fadeTarget = target;
+			if(duration <= 0.0) {
+				fade = target;
+				fadeStep = 0.0f;
+			} else fadeStep = (float)(1.0 / (duration * SAMPLE_RATE));
+		}
+
+		/**Advance the fade by a number of frames.
+		 * @return float - the fade after the frames.*/
+		private synchronized float advanceFade(int frames) {
+			if(fade < fadeTarget) fade = Math.min(fadeTarget, fade + fadeStep * frames);
+			else if(fade > fadeTarget) fade = Math.max(fadeTarget, fade - fadeStep * frames);
+			return fade;
+		}
+
+		private synchronized float getFade() {return fade;}
+
+		private synchronized boolean isFadedOut() {return isStopAtFadeEnd && fade == fadeTarget;}
+	}
+
+	/**A mixer that plays through the default audio line.
+	 * @apiNote Call start() to open the line and begin playing.
+	 * @author 5som3*/
+	public WarpedAudioMixer() {this(DEFAULT_VOICE_LIMIT, DEFAULT_BUFFER_FRAMES);}
+
+	/**A mixer that plays through the default audio line.
+	 * @param voiceLimit - the most voices that can play at once.
+	 * @param bufferFrames - the number of frames mixed at a time, smaller buffers have lower latency but cost more to mix.
+	 * @apiNote Call start() to open the line and begin playing.
+	 * @author 5som3*/
+	public WarpedAudioMixer(int voiceLimit, int bufferFrames) {this(null, voiceLimit, bufferFrames);}
+
+	/**A mixer that writes to a stream instead of an audio line.
+	 * @param sink - the stream the mixed PCM is written to, see FORMAT.
+	 * @param voiceLimit - the most voices that can play at once.
+	 * @param bufferFrames - the number of frames mixed at a time.
+	 * @apiNote Call mixBuffer() to mix each buffer, start() will mix into the stream as fast as it is written.
+	 * @author 5som3*/
+	public WarpedAudioMixer(OutputStream sink, int voiceLimit, int bufferFrames) {
+		if(bufferFrames < 1) {
+			Console.err("WarpedAudioMixer -> WarpedAudioMixer() -> buffer must be at least 1 frame : " + bufferFrames);
+			bufferFrames = DEFAULT_BUFFER_FRAMES;
+		}
+		this.sink = sink;
+		this.bufferFrames = bufferFrames;
+		mixBuffer = new float[bufferFrames * 2];
+		streamBuffer = new short[bufferFrames * 2];
+		outputBuffer = new byte[bufferFrames * 4];
+		setVoiceLimit(voiceLimit);
+	}
+
+	/**Open the line (if the mixer has no sink) and start mixing on the mixer thread.
+	 * @return boolean - true if the mixer started, false if the line could not be opened.
+	 * @author 5som3*/
+	public synchronized boolean start() {
+		if(isRunning) return true;
+		if(sink == null) {
+			try {
+				line = AudioSystem.getSourceDataLine(FORMAT);
+				line.open(FORMAT, outputBuffer.length * LINE_BUFFERS);
+				line.start();
+			} catch (LineUnavailableException | IllegalArgumentException e) {
+				Console.err("WarpedAudioMixer -> start() -> failed to open audio line");
+				Console.stackTrace(e);
+				line = null;
+				return false;
+			}
+		}
+		isRunning = true;
+		thread = new Thread(this::run, "Audio Mixer Thread");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+		return true;
+	}
+
+	/**Stop mixing and close the line, playing voices are kept and continue if the mixer is started again.
+	 * @author 5som3*/
+	public synchronized void stop() {
+		if(!isRunning) return;
+		isRunning = false;
+		try {
+			thread.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if(line != null) {
+			line.stop();
+			line.close();
+			line = null;
+		}
+	}
+
+	/**Is the mixer thread running.
+	 * @return boolean - true if the mixer has been started and not stopped.
+	 * @author 5som3*/
+	public boolean isRunning() {return isRunning;}
+
+	/**Play a sound at full gain in the center.
+	 * @param sound - the sound to play.
+	 * @return Voice - the voice playing the sound, null if the voice limit is reached by higher priority voices.
+	 * @author 5som3*/
+	public Voice play(WarpedSound sound) {return play(sound, 1.0, 0.0, 0, false);}
+
+	/**Play a sound.
+	 * @param sound - the sound to play.
+	 * @param gain - the gain from 0.0 to 1.0.
+	 * @param pan - from -1.0 (left only) to 1.0 (right only).
+	 * @param priority - when the voice limit is reached the voice takes the place of the lowest priority voice with the same or lower priority.
+	 * @param isLooping - if true the sound restarts when it reaches the end.
+	 * @return Voice - the voice playing the sound, the voice starts at the next buffer.
+	 * @apiNote If every voice has a higher priority when the voice starts it will not be played, isPlaying() will be false.
+	 * @author 5som3*/
+	public Voice play(WarpedSound sound, double gain, double pan, int priority, boolean isLooping) {
+		Voice voice = new Voice(sound, null, 1.0f, 0.0f, priority, isLooping);
+		voice.setGain(gain);
+		voice.setPan(pan);
+		pendingVoices.add(voice);
+		return voice;
+	}
+
+	/**Play a stream, i.e. a music track.
+	 * @param stream - the stream to play, it is closed when the voice stops.
+	 * @param gain - the gain from 0.0 to 1.0.
+	 * @param pan - from -1.0 (left only) to 1.0 (right only).
+	 * @param priority - when the voice limit is reached the voice takes the place of the lowest priority voice with the same or lower priority.
+	 * @return Voice - the voice playing the stream, the voice finishes when the stream ends.
+	 * @apiNote Looping is set on the stream, see WarpedMusicStream.setLooping().
+	 * @author 5som3*/
+	public Voice play(WarpedMusicStream stream, double gain, double pan, int priority) {
+		stream.prefetch();
+		Voice voice = new Voice(null, stream, 1.0f, 0.0f, priority, false);
+		voice.setGain(gain);
+		voice.setPan(pan);
+		pendingVoices.add(voice);
+		return voice;
+	}
+
+	/**Stop every voice at the next buffer.
+	 * @author 5som3*/
+	public void stopAll() {
+		Voice pending = pendingVoices.poll();
+		while(pending != null) {
+			pending.end(Voice.STOPPED);
+			pending = pendingVoices.poll();
+		}
+		synchronized(voices) {for(int i = 0; i < voices.size(); i++) voices.get(i).stop();}
+	}
+
+	/**Set the most voices that can play at once.
+	 * @param voiceLimit - the number of voices, at least 1.
+	 * @apiNote If more voices are playing the lowest priority voices are stopped at the next buffer.
+	 * @author 5som3*/
+	public void setVoiceLimit(int voiceLimit) {
+		if(voiceLimit < 1) {
+			Console.err("WarpedAudioMixer -> setVoiceLimit() -> the voice limit must be at least 1 : " + voiceLimit);
+			voiceLimit = 1;
+		}
+		this.voiceLimit = voiceLimit;
+	}
+
+	/**The most voices that can play at once.
+	 * @return int - the voice limit.
+	 * @author 5som3*/
+	public int getVoiceLimit() {return voiceLimit;}
+
+	/**Set the gain applied to the mix of every voice.
+	 * @param gain - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public void setGain(double gain) {
+		if(gain < 0.0 || gain > 1.0) {
+			Console.err("WarpedAudioMixer -> setGain() -> gain must be in the domain 0.0 - 1.0 inclusive : " + gain);
+			gain = Math.max(0.0, Math.min(1.0, gain));
+		}
+		this.gain = (float)gain;
+	}
+
+	/**The gain applied to the mix of every voice.
+	 * @return double - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public double getGain() {return gain;}
+
+	/**The number of voices playing.
+	 * @return int - the number of voices at the last buffer.
+	 * @author 5som3*/
+	public int getVoiceCount() {return voiceCount;}
+
+	/**The number of voices that were stopped or not played because of the voice limit.
+	 * @return int - the number of stolen voices.
+	 * @author 5som3*/
+	public int getStolenCount() {return stolenCount;}
+
+	/**The time taken to mix the last buffer.
+	 * @return long - the duration in nano-seconds, excluding the time writing to the line.
+	 * @author 5som3*/
+	public long getMixDuration() {return mixDuration;}
+
+	/**The number of frames mixed at a time.
+	 * @return int - the buffer size in frames.
+	 * @author 5som3*/
+	public int getBufferFrames() {return bufferFrames;}
+
+	/**Mix the next buffer and write it to the line or sink.
+	 * @apiNote Called by the mixer thread when started, call manually for a mixer with a sink that is not started.
+	 * @author 5som3*/
+	public void mixBuffer() {
+		long startTime = System.nanoTime();
+		synchronized(voices) {
+			startPendingVoices();
+			Arrays.fill(mixBuffer, 0.0f);
+			int live = 0;
+			for(int i = 0; i < voices.size(); i++) {
+				Voice voice = voices.get(i);
+				if(mixVoice(voice)) voices.set(live++, voice);
+			}
+			for(int i = voices.size() - 1; i >= live; i--) voices.remove(i);
+			voiceCount = live;
+		}
+
+		float masterGain = gain;
+		for(int i = 0; i < mixBuffer.length; i++) {
+			float sample = mixBuffer[i] * masterGain;
+			int value = sample >= 32767.0f ? 32767 : sample <= -32768.0f ? -32768 : Math.round(sample);
+			outputBuffer[i * 2] = (byte)value;
+			outputBuffer[i * 2 + 1] = (byte)(value >> 8);
+		}
+		mixDuration = System.nanoTime() - startTime;
+
+		if(line != null) line.write(outputBuffer, 0, outputBuffer.length);
+		else if(sink != null) {
+			try {
+				sink.write(outputBuffer, 0, outputBuffer.length);
+			} catch (IOException e) {
+				Console.err("WarpedAudioMixer -> mixBuffer() -> failed to write to sink");
+				Console.stackTrace(e);
+			}
+		}
+	}
+
+	/**Mix buffers until the mixer is stopped, run by the mixer thread.*/
+	private void run() {
+		while(isRunning) {
+			try {
+				mixBuffer();
+			} catch (Exception e) {
+				Console.ln(Console.ConsoleColour.PURPLE, "WarpedAudioMixer -> run() -> Exception occured");
+				Console.stackTrace(e);
+			}
+		}
+	}
+
+	/**Add the voices played since the last buffer, stealing the place of lower priority voices when the limit is reached.*/
+	private void startPendingVoices() {
+		int limit = voiceLimit;
+		while(voices.size() > limit) steal(Integer.MAX_VALUE); // The limit was lowered
+		Voice voice = pendingVoices.poll();
+		while(voice != null) {
+			if(voice.state == Voice.PENDING) {
+				if(voices.size() < limit || steal(voice.priority)) {
+					voice.state = Voice.PLAYING;
+					voices.add(voice);
+				} else {
+					voice.end(Voice.STOPPED);
+					stolenCount++;
+				}
+			}
+			voice = pendingVoices.poll();
+		}
+	}
+
+	/**Stop the lowest priority voice, the voice that has played the longest if more than one has the lowest priority.
+	 * @return boolean - true if a voice with the priority or lower was stopped.*/
+	private boolean steal(int priority) {
+		int index = -1;
+		for(int i = 0; i < voices.size(); i++) { // Voices are in the order they started
+			if(voices.get(i).priority > priority) continue;
+			if(index == -1 || voices.get(i).priority < voices.get(index).priority) index = i;
+		}
+		if(index == -1) return false;
+		voices.remove(index).end(Voice.STOPPED);
+		stolenCount++;
+		return true;
+	}
+
+	/**Add a voice to the mix buffer.
+	 * @return boolean - true if the voice is still playing.*/
+	private boolean mixVoice(Voice voice) {
+		if(voice.isStopRequested) {
+			voice.end(Voice.STOPPED);
+			return false;
+		}
+		short[] samples;
+		int frames;
+		int position;
+		if(voice.stream != null) {
+			samples = streamBuffer;
+			frames = voice.stream.read(streamBuffer, bufferFrames);
+			position = 0;
+		} else {
+			samples = voice.sound.getSamples();
+			frames = voice.sound.getFrameCount();
+			position = voice.position;
+		}
+		if(frames == 0) {
+			voice.end(Voice.FINISHED);
+			return false;
+		}
+		float pan = voice.pan;
+		float gainLeft = voice.gain * (pan > 0.0f ? 1.0f - pan : 1.0f);
+		float gainRight = voice.gain * (pan < 0.0f ? 1.0f + pan : 1.0f);
+		float fade = voice.getFade();
+		float fadeDelta = (voice.advanceFade(bufferFrames) - fade) / bufferFrames; // Linear across the buffer
+		boolean isLooping = voice.isLooping && voice.stream == null;
+
+		for(int i = 0; i < bufferFrames; i++) {
+			if(position >= frames) {
+				if(!isLooping) {
+					voice.position = position;
+					voice.end(Voice.FINISHED);
+					return false;
+				}
+				position = 0;
+			}
+			float envelope = fade + fadeDelta * i;
+			mixBuffer[i * 2] += samples[position * 2] * gainLeft * envelope;
+			mixBuffer[i * 2 + 1] += samples[position * 2 + 1] * gainRight * envelope;
+			position++;
+		}
+		voice.position = position;
+		if(voice.isFadedOut()) {
+			voice.end(Voice.STOPPED);
+			return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,108 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.audio;
+
+import warped.audio.WarpedMusicStream.TrackSource;
+import warped.utilities.utils.Console;
+
+public class WarpedMusicPlayer {
+
+	/*WarpedMusicPlayer plays one music track at a time through a mixer, streaming each track with a WarpedMusicStream.
+	 * Changing track can cut, crossfade or queue the next track to play without a gap after the current one.
+	 * Music voices use the highest priority so they are never stolen by sound effects.
+	 * */
+
+	public static final int PRIORITY = Integer.MAX_VALUE;
+
+	private final WarpedAudioMixer mixer;
+	private WarpedMusicStream stream;
+	private WarpedAudioMixer.Voice voice;
+	private double gain = 1.0;
+
+	/**A music player.
+	 * @param mixer - the mixer the music is played through.
+	 * @author 5som3*/
+	public WarpedMusicPlayer(WarpedAudioMixer mixer) {
+		this.mixer = mixer;
+	}
+
+	/**Stop the current track and play a new track.
+	 * @param track - the track to play.
+	 * @param isLooping - if true the track restarts when it ends.
+	 * @author 5som3*/
+	public synchronized void play(TrackSource track, boolean isLooping) {
+		if(voice != null) voice.stop();
+		start(track, isLooping);
+	}
+
+	/**Fade out the current track while fading in a new track.
+	 * @param track - the track to play.
+	 * @param isLooping - if true the track restarts when it ends.
+	 * @param duration - the duration of the crossfade in seconds.
+	 * @author 5som3*/
+	public synchronized void crossfade(TrackSource track, boolean isLooping, double duration) {
+		if(voice != null) voice.fadeOut(duration);
+		start(track, isLooping);
+		voice.fadeIn(duration);
+	}
+
+	/**Queue a track to play after the current track without a gap.
+	 * @param track - the track to play next.
+	 * @apiNote If no track is playing the track is played immediately. A looping track never ends, see setLooping().
+	 * @author 5som3*/
+	public synchronized void queue(TrackSource track) {
+		if(voice == null || !voice.isPlaying()) start(track, false);
+		else stream.queue(track);
+	}
+
+	/**Set if the current track restarts when it ends.
+	 * @param isLooping - if true the track loops without a gap, if false the next queued track will play when it ends.
+	 * @author 5som3*/
+	public synchronized void setLooping(boolean isLooping) {
+		if(stream != null) stream.setLooping(isLooping);
+	}
+
+	/**Stop the music.
+	 * @param duration - the duration to fade out over in seconds, 0.0 to stop immediately.
+	 * @author 5som3*/
+	public synchronized void stop(double duration) {
+		if(voice == null) return;
+		if(duration > 0.0) voice.fadeOut(duration);
+		else voice.stop();
+		voice = null;
+		stream = null;
+	}
+
+	/**Set the gain of the music.
+	 * @param gain - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public synchronized void setGain(double gain) {
+		if(gain < 0.0 || gain > 1.0) {
+			Console.err("WarpedMusicPlayer -> setGain() -> gain must be in the domain 0.0 - 1.0 inclusive : " + gain);
+			gain = Math.max(0.0, Math.min(1.0, gain));
+		}
+		this.gain = gain;
+		if(voice != null) voice.setGain(gain);
+	}
+
+	/**The gain of the music.
+	 * @return double - the gain from 0.0 to 1.0.
+	 * @author 5som3*/
+	public double getGain() {return gain;}
+
+	/**Is a track playing.
+	 * @return boolean - true if the current track is playing, including while it fades in.
+	 * @author 5som3*/
+	public synchronized boolean isPlaying() {return voice != null && voice.isPlaying();}
+
+	/**The stream of the current track.
+	 * @return WarpedMusicStream - the stream, i.e. to read the underrun counters. null if no track has been played.
+	 * @author 5som3*/
+	public synchronized WarpedMusicStream getStream() {return stream;}
+
+	private void start(TrackSource track, boolean isLooping) {
+		stream = new WarpedMusicStream(track, isLooping);
+		voice = mixer.play(stream, gain, 0.0, PRIORITY);
+	}
+
+}
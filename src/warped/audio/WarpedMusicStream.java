@@ -0,0 +1,294 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.audio;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import warped.utilities.utils.Console;
+
+public class WarpedMusicStream {
+
+	/*WarpedMusicStream plays long audio (i.e. music) without decoding the whole track into memory.
+	 * A decoder thread reads the track in chunks and writes the samples into a ring buffer, a mixer voice reads from the ring buffer as it plays, see WarpedAudioMixer.play(WarpedMusicStream ...).
+	 * The memory used is the ring buffer and one chunk, no matter how long the track is.
+	 * The decoder thread starts when the stream is first played or prefetched, a stream that is never played starts no thread.
+	 *
+	 * When a track ends the decoder continues writing into the same ring buffer, either the same track again when looping or the next queued track,
+	 * so loops and queued tracks play without a gap. A track queued any time before the buffered samples of the last track have played is still played without a gap.
+	 * If the mixer reads faster than the decoder writes the missing samples are played as silence and counted as an underrun.
+	 * */
+
+	public static final double DEFAULT_BUFFER_DURATION = 1.0;
+	private static final int CHUNK_FRAMES = 4096;
+	private static final long WAIT_NANOS = 2000000; // The time the decoder waits for room in the ring buffer
+
+	/**Opens the audio stream of a track, called each time the track starts.
+	 * @author 5som3*/
+	@FunctionalInterface
+	public interface TrackSource {
+
+		/**Open a new stream from the start of the track.
+		 * @return AudioInputStream - the stream, closed by the music stream when it ends.
+		 * @author 5som3*/
+		public AudioInputStream open() throws IOException, UnsupportedAudioFileException;
+	}
+
+	private final short[] ring;
+	private final int capacity; // The size of the ring in frames
+	private volatile long writeFrame = 0; // The total frames written, only changed by the decoder thread
+	private volatile long readFrame = 0; // The total frames read, only changed by the mixer thread
+
+	private final ConcurrentLinkedQueue<TrackSource> queue = new ConcurrentLinkedQueue<>();
+	private volatile boolean isLooping;
+	private volatile boolean isEnded = false;
+	private volatile boolean isDecoded = false; // The decoder has finished the last track and is waiting for another to be queued
+	private volatile boolean isClosed = false;
+	private TrackSource firstTrack; // The track the decoder starts with, null once the decoder has started
+	private volatile int underrunCount = 0;
+	private volatile long underrunFrames = 0;
+	private volatile int trackCount = 0;
+
+	private double resamplePosition = 0.0; // Position between the previous and next input frame, only used by the decoder thread
+	private short previousLeft = 0;
+	private short previousRight = 0;
+
+	/**A stream that plays a track with a one second buffer.
+	 * @param track - the track to play.
+	 * @param isLooping - if true the track restarts when it ends.
+	 * @author 5som3*/
+	public WarpedMusicStream(TrackSource track, boolean isLooping) {this(track, isLooping, DEFAULT_BUFFER_DURATION);}
+
+	/**A stream that plays a track.
+	 * @param track - the track to play.
+	 * @param isLooping - if true the track restarts when it ends.
+	 * @param bufferDuration - the length of the ring buffer in seconds, longer buffers survive longer decoder stalls.
+	 * @apiNote The decoder thread starts when the stream is played, call prefetch() to fill the buffer before the stream is played.
+	 * @author 5som3*/
+	public WarpedMusicStream(TrackSource track, boolean isLooping, double bufferDuration) {
+		if(bufferDuration * WarpedAudioMixer.SAMPLE_RATE < CHUNK_FRAMES) {
+			Console.err("WarpedMusicStream -> WarpedMusicStream() -> buffer must hold at least " + CHUNK_FRAMES + " frames : " + bufferDuration);
+			bufferDuration = (double)CHUNK_FRAMES / WarpedAudioMixer.SAMPLE_RATE;
+		}
+		this.isLooping = isLooping;
+		capacity = (int)(bufferDuration * WarpedAudioMixer.SAMPLE_RATE);
+		ring = new short[capacity * 2];
+		firstTrack = track;
+	}
+	
+	/**Start decoding the track into the buffer, if the decoder has not started yet.
+	 * @apiNote Called by WarpedAudioMixer when the stream is played, call it earlier so the buffer is full before the stream is played.
+	 * @author 5som3*/
+	public synchronized void prefetch() {
+		if(firstTrack == null || isClosed) return;
+		TrackSource track = firstTrack;
+		firstTrack = null;
+		Thread thread = new Thread(() -> decode(track), "Music Stream Thread");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**A track read from a file.
+	 * @param file - the audio file.
+	 * @return TrackSource - the source that opens the file.
+	 * @author 5som3*/
+	public static TrackSource fileSource(File file) {return () -> AudioSystem.getAudioInputStream(file);}
+
+	/**A track read from a resource.
+	 * @param clazz - the class used to find the resource.
+	 * @param path - the path of the resource.
+	 * @return TrackSource - the source that opens the resource.
+	 * @author 5som3*/
+	public static TrackSource resourceSource(Class<?> clazz, String path) {
+		return () -> {
+			InputStream stream = clazz.getResourceAsStream(path);
+			if(stream == null) throw new IOException("resource not found : " + path);
+			return AudioSystem.getAudioInputStream(new BufferedInputStream(stream));
+		};
+	}
+
+	/**Queue a track to play when the current track ends, without a gap.
+	 * @param track - the track to play next.
+	 * @apiNote A looping track never ends, set looping false to move to the queued tracks.
+	 * @apiNote Tracks queued after the stream has ended are not played.
+	 * @author 5som3*/
+	public synchronized void queue(TrackSource track) {
+		if(isEnded) {
+			Console.err("WarpedMusicStream -> queue() -> the stream has ended, the track will not be played");
+			return;
+		}
+		queue.add(track);
+	}
+
+	/**Set if the current track restarts when it ends.
+	 * @param isLooping - if true the track loops without a gap.
+	 * @apiNote Applies when the decoder reaches the end of the track, up to one buffer duration ahead of what is heard.
+	 * @author 5som3*/
+	public void setLooping(boolean isLooping) {this.isLooping = isLooping;}
+
+	/**Does the current track restart when it ends.
+	 * @return boolean - true if looping.
+	 * @author 5som3*/
+	public boolean isLooping() {return isLooping;}
+
+	/**Stop decoding and release the decoder thread, called by the mixer when the voice playing the stream stops.
+	 * @author 5som3*/
+	public synchronized void close() {
+		isClosed = true;
+		if(firstTrack != null) { // Never started, so there is no decoder to end the stream
+			firstTrack = null;
+			isEnded = true;
+		}
+	}
+
+	/**Has the stream ended, either every track has been played or it was closed.
+	 * @return boolean - true if no more samples will be written, samples already in the buffer can still be read.
+	 * @author 5som3*/
+	public boolean isEnded() {return isEnded;}
+
+	/**Has the decoder written every track, the stream ends once the buffered frames are played unless another track is queued first.
+	 * @return boolean - true if the decoder is waiting for a track to be queued.
+	 * @author 5som3*/
+	public boolean isDecoded() {return isDecoded;}
+
+	/**The number of frames decoded and waiting to be played.
+	 * @return int - the frames in the ring buffer.
+	 * @author 5som3*/
+	public int getBufferedFrames() {return (int)(writeFrame - readFrame);}
+
+	/**The size of the ring buffer.
+	 * @return int - the most frames that can be buffered.
+	 * @author 5som3*/
+	public int getCapacity() {return capacity;}
+
+	/**The number of reads that found fewer frames than needed while the stream had not ended.
+	 * @return int - the underrun count, each underrun is heard as a gap of silence.
+	 * @author 5som3*/
+	public int getUnderrunCount() {return underrunCount;}
+
+	/**The total frames of silence played because of underruns.
+	 * @return long - the number of missing frames.
+	 * @author 5som3*/
+	public long getUnderrunFrames() {return underrunFrames;}
+
+	/**The number of tracks the decoder has started, including each loop.
+	 * @return int - the track count.
+	 * @author 5som3*/
+	public int getTrackCount() {return trackCount;}
+
+	/**Read frames from the ring buffer.
+	 * @param buffer - the buffer to read interleaved stereo samples into.
+	 * @param frames - the number of frames to read.
+	 * @return int - the number of frames read, fewer than requested only once the stream has ended.
+	 * @apiNote Call from a single thread only, usually the mixer thread.
+	 * @author 5som3*/
+	public int read(short[] buffer, int frames) {
+		long available = writeFrame - readFrame;
+		int count = (int)Math.min(frames, available);
+		int start = (int)(readFrame % capacity);
+		int first = Math.min(count, capacity - start);
+		System.arraycopy(ring, start * 2, buffer, 0, first * 2);
+		System.arraycopy(ring, 0, buffer, first * 2, (count - first) * 2);
+		readFrame += count;
+		if(count == frames) return count;
+		synchronized(this) { // The end of the last track, unless a track is being queued
+			if(isEnded || (isDecoded && queue.isEmpty() && writeFrame == readFrame)) {
+				isEnded = true;
+				return count;
+			}
+		}
+
+		underrunCount++;
+		underrunFrames += frames - count;
+		for(int i = count * 2; i < frames * 2; i++) buffer[i] = 0;
+		return frames;
+	}
+
+	/**Decode tracks into the ring buffer until the stream ends, run by the decoder thread.*/
+	private void decode(TrackSource track) {
+		byte[] chunk = null;
+		while(track != null && !isClosed) {
+			trackCount++;
+			try(AudioInputStream stream = WarpedSound.toPcm(track.open())) {
+				int channels = stream.getFormat().getChannels();
+				double ratio = WarpedSound.getSampleRate(stream.getFormat()) / WarpedAudioMixer.SAMPLE_RATE;
+				int frameBytes = channels * 2;
+				if(chunk == null || chunk.length != CHUNK_FRAMES * frameBytes) chunk = new byte[CHUNK_FRAMES * frameBytes];
+				int filled = 0;
+				while(!isClosed) {
+					int read = stream.read(chunk, filled, chunk.length - filled);
+					if(read < 0) break;
+					filled += read;
+					int frames = filled / frameBytes;
+					if(frames == 0) continue;
+					for(int i = 0; i < frames; i++) {
+						int index = i * frameBytes;
+						short left = (short)((chunk[index] & 0xFF) | (chunk[index + 1] << 8));
+						short right = channels > 1 ? (short)((chunk[index + 2] & 0xFF) | (chunk[index + 3] << 8)) : left;
+						if(ratio == 1.0) write(left, right);
+						else resample(left, right, ratio);
+						if(isClosed) break;
+					}
+					int remainder = filled - frames * frameBytes; // Keep a partial frame for the next read
+					System.arraycopy(chunk, frames * frameBytes, chunk, 0, remainder);
+					filled = remainder;
+				}
+			} catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+				Console.err("WarpedMusicStream -> decode() -> failed to decode track");
+				Console.stackTrace(e);
+				if(isLooping) break; // Would fail again on every loop
+			}
+			if(!isLooping) track = nextTrack();
+		}
+		isEnded = true;
+	}
+
+	/**The next queued track, waiting until the stream ends so a track queued while the last samples play is still played without a gap.
+	 * @return TrackSource - the next track, null if the stream ended or was closed first.*/
+	private TrackSource nextTrack() {
+		synchronized(this) {isDecoded = true;}
+		while(!isClosed && !isEnded) {
+			synchronized(this) {
+				TrackSource track = queue.poll();
+				if(track != null) {
+					isDecoded = false;
+					return track;
+				}
+			}
+			LockSupport.parkNanos(WAIT_NANOS);
+		}
+		return null;
+	}
+
+	/**Linearly resample one input frame to the mixer sample rate, continuous across chunks and tracks.*/
+	private void resample(short left, short right, double ratio) {
+		while(resamplePosition < 1.0 && !isClosed) {
+			write((short)Math.round(previousLeft + (left - previousLeft) * resamplePosition), (short)Math.round(previousRight + (right - previousRight) * resamplePosition));
+			resamplePosition += ratio;
+		}
+		resamplePosition -= 1.0;
+		previousLeft = left;
+		previousRight = right;
+	}
+
+	/**Write one frame into the ring buffer, waiting while the ring is full.*/
+	private void write(short left, short right) {
+		while(writeFrame - readFrame >= capacity) {
+			if(isClosed) return;
+			LockSupport.parkNanos(WAIT_NANOS);
+		}
+		int index = (int)(writeFrame % capacity) * 2;
+		ring[index] = left;
+		ring[index + 1] = right;
+		writeFrame++;
+	}
+
+}
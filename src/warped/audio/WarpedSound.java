@@ -0,0 +1,137 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.audio;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import warped.utilities.utils.Console;
+
+public class WarpedSound {
+
+	/*WarpedSound is audio decoded once into 16-bit PCM in the format of the WarpedAudioMixer, so it can be played any number of times at once without decoding it again.
+	 * Samples are interleaved stereo (left, right) at WarpedAudioMixer.SAMPLE_RATE, mono audio is copied to both channels and other sample rates are resampled when decoded.
+	 * */
+
+	private final short[] samples;
+
+	/**A sound from decoded samples.
+	 * @param samples - interleaved stereo 16-bit samples at WarpedAudioMixer.SAMPLE_RATE, not copied.
+	 * @author 5som3*/
+	public WarpedSound(short[] samples) {
+		if(samples.length % 2 != 0) Console.err("WarpedSound -> WarpedSound() -> samples must be interleaved stereo, the last sample will not be played : " + samples.length);
+		this.samples = samples;
+	}
+
+	/**Decode a sound from an audio file.
+	 * @param file - the file, any format supported by AudioSystem i.e. wav.
+	 * @return WarpedSound - the decoded sound, null if the file could not be decoded.
+	 * @author 5som3*/
+	public static WarpedSound decode(File file) {
+		try(AudioInputStream stream = AudioSystem.getAudioInputStream(file)) {
+			return decode(stream);
+		} catch (UnsupportedAudioFileException | IOException e) {
+			Console.err("WarpedSound -> decode() -> failed to decode file : " + file.getPath());
+			Console.stackTrace(e);
+			return null;
+		}
+	}
+
+	/**Decode a sound from a stream.
+	 * @param stream - the stream of an audio file, i.e. from getResourceAsStream().
+	 * @return WarpedSound - the decoded sound, null if the stream could not be decoded.
+	 * @author 5som3*/
+	public static WarpedSound decode(InputStream stream) {
+		try(AudioInputStream audio = AudioSystem.getAudioInputStream(new BufferedInputStream(stream))) { // Buffered so the format can be detected
+			return decode(audio);
+		} catch (UnsupportedAudioFileException | IOException e) {
+			Console.err("WarpedSound -> decode() -> failed to decode stream");
+			Console.stackTrace(e);
+			return null;
+		}
+	}
+
+	/**Decode a sound from an audio stream, the stream is read to the end.
+	 * @param stream - the audio stream.
+	 * @return WarpedSound - the decoded sound, null if the stream could not be converted to PCM.
+	 * @author 5som3*/
+	public static WarpedSound decode(AudioInputStream stream) {
+		AudioFormat format = stream.getFormat();
+		int channels = format.getChannels();
+		float sampleRate = getSampleRate(format);
+		byte[] bytes;
+		try(AudioInputStream pcmStream = toPcm(stream)) {
+			bytes = pcmStream.readAllBytes();
+		} catch (IllegalArgumentException | IOException e) {
+			Console.err("WarpedSound -> decode() -> failed to convert to PCM : " + format);
+			Console.stackTrace(e);
+			return null;
+		}
+
+		int frames = bytes.length / (channels * 2);
+		short[] stereo = new short[frames * 2];
+		for(int i = 0; i < frames; i++) {
+			int index = i * channels * 2;
+			short left = (short)((bytes[index] & 0xFF) | (bytes[index + 1] << 8));
+			short right = left;
+			if(channels > 1) right = (short)((bytes[index + 2] & 0xFF) | (bytes[index + 3] << 8)); // Any channels after the first two are ignored
+			stereo[i * 2] = left;
+			stereo[i * 2 + 1] = right;
+		}
+		if(sampleRate != WarpedAudioMixer.SAMPLE_RATE) stereo = resample(stereo, sampleRate);
+		return new WarpedSound(stereo);
+	}
+
+	/**The decoded samples.
+	 * @return short[] - interleaved stereo 16-bit samples, do not edit.
+	 * @author 5som3*/
+	public short[] getSamples() {return samples;}
+
+	/**The number of frames in the sound, a frame is one left and one right sample.
+	 * @return int - the frame count.
+	 * @author 5som3*/
+	public int getFrameCount() {return samples.length / 2;}
+
+	/**The length of the sound.
+	 * @return double - the duration in seconds.
+	 * @author 5som3*/
+	public double getDuration() {return getFrameCount() / (double)WarpedAudioMixer.SAMPLE_RATE;}
+
+	/**Convert an audio stream to 16-bit signed little-endian PCM with the same channels and sample rate.
+	 * @throws IllegalArgumentException if the stream can not be converted.*/
+	static AudioInputStream toPcm(AudioInputStream stream) {
+		AudioFormat format = stream.getFormat();
+		int channels = format.getChannels();
+		float sampleRate = getSampleRate(format);
+		return AudioSystem.getAudioInputStream(new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sampleRate, 16, channels, channels * 2, sampleRate, false), stream);
+	}
+	
+	/**The sample rate of a format, the mixer sample rate if it is not specified.*/
+	static float getSampleRate(AudioFormat format) {return format.getSampleRate() == AudioSystem.NOT_SPECIFIED ? WarpedAudioMixer.SAMPLE_RATE : format.getSampleRate();}
+
+	/**Linearly resample interleaved stereo samples to the mixer sample rate.*/
+	private static short[] resample(short[] stereo, float sampleRate) {
+		int frames = stereo.length / 2;
+		if(frames == 0) return stereo;
+		double ratio = sampleRate / WarpedAudioMixer.SAMPLE_RATE;
+		int resampledFrames = (int)((frames - 1) / ratio) + 1;
+		short[] resampled = new short[resampledFrames * 2];
+		for(int i = 0; i < resampledFrames; i++) {
+			double position = i * ratio;
+			int frame = (int)position;
+			int next = Math.min(frame + 1, frames - 1);
+			double t = position - frame;
+			resampled[i * 2] = (short)Math.round(stereo[frame * 2] + (stereo[next * 2] - stereo[frame * 2]) * t);
+			resampled[i * 2 + 1] = (short)Math.round(stereo[frame * 2 + 1] + (stereo[next * 2 + 1] - stereo[frame * 2 + 1]) * t);
+		}
+		return resampled;
+	}
+
+}
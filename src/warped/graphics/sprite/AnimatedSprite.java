@@ -3,19 +3,19 @@
 package warped.graphics.sprite;
 
 import java.awt.image.BufferedImage;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import warped.WarpedProperties;
 import warped.functionalInterfaces.WarpedAction;
 import warped.utilities.enums.generalised.AnimationModeType;
+import warped.utilities.timers.ClockedAnimation;
+import warped.utilities.timers.WarpedAnimationClock;
 import warped.utilities.utils.Console;
 import warped.utilities.utils.UtilsMath;
 
 public class AnimatedSprite extends WarpedSprite {
 
-	private static Timer animationTimer = new Timer("Timer Thread : Animated Sprite");
-	private TimerTask updateTask;
+	private ClockedAnimation animation = new ClockedAnimation(this::step);
+	
 	private WarpedAction completeAction = () -> {Console.ln("AnimatedSprite -> default Completion action");};
 	
 	private WarpedAction frameAction = () -> {Console.ln("AnimatedSprite -> default frame action");};
@@ -33,7 +33,6 @@ public class AnimatedSprite extends WarpedSprite {
 	private int startFrame = 0;
 	private int endFrame = 0;
 	private int frame = 0;
-	private int frameRate = 24; //frames per second
 	private int randomiseMin;
 	private int randomiseMax;
 	protected BufferedImage[] frames;
@@ -42,8 +41,8 @@ public class AnimatedSprite extends WarpedSprite {
 
 	
 	/**An animation from a single series of frames.
-	 * The animation is scheduled as a task for the animation timer to execute.
-	 * The animation timer is shared across all AnimatedSprites.
+	 * The animation is advanced by the WarpedState animation clock, which is shared across all AnimatedSprites.
+	 * The frames are not copied, the raster points to the frame of the array that is currently playing.
 	 * @param frames - The frames for the animation. Frames must be in their sequential order.
 	 * @apiNote Animation can be set to different AnimationModeTypes described in this class. 
 	 * */
@@ -102,6 +101,16 @@ public class AnimatedSprite extends WarpedSprite {
 		this.frameAction = frameAction;
 	}
 	
+	/**Set the clock that advances the animation.
+	 * @param clock - the clock, WarpedState.animationClock by default.
+	 * @apiNote Use a clock with a WarpedManualClock to step the animation manually, i.e. for testing.
+	 * @apiNote Set before the animation is played, the clock can not be changed until the previous clock has removed the sprite.
+	 * @author 5som3*/
+	public void setClock(WarpedAnimationClock clock) {
+		pause();
+		if(!animation.setClock(clock)) Console.err("AnimatedSprite -> setClock() -> the sprite is still in its previous clock, the clock was not changed");
+	}
+	
 	/**Set the bounds of the animation.
 	 * @param startFrame - the frame for the animation to start at (inclusive).
 	 * @param endFrame - the frame for the animation to end at (exclusive).
@@ -186,7 +195,7 @@ public class AnimatedSprite extends WarpedSprite {
 			Console.err("AnimatedSprite -> setFrameRate() -> framerate is out of bounds : " + fps + ", it will be set to 24fps");
 			fps = 24;
 		}
-		this.frameRate = fps;
+		animation.setFrameRate(fps);
 		setAnimationMode(mode);		
 	}
 	
@@ -219,19 +228,7 @@ public class AnimatedSprite extends WarpedSprite {
 	public void setAnimationMode(AnimationModeType mode) {
 		cancelUpdate();
 		this.mode = mode;
-		switch(mode) {
-		case PLAY:	updateTask = new TimerTask() {public void run() {updatePlay();}};					break;
-		case PLAY_MIRROR:updateTask = new TimerTask() {public void run() {updateMirror();}};			break;
-		case PLAY_REVERSE:	updateTask = new TimerTask() {public void run() {updatePlayReverse();}};	break;
-		case REPEAT: updateTask = new TimerTask() {public void run() {updateRepeat();}};				break;
-		case REPEAT_MIRROR:	updateTask = new TimerTask() {public void run() {updateRepeatMirror();}};	break;
-		case REPEAT_REVERSE: updateTask = new TimerTask() {public void run() {updateRepeatReverse();}}; break;
-		case RANDOMISE:	updateTask = new TimerTask() {public void run() {updateRandomise();}}; 			break;
-		default:
-			Console.err("AnimatedSprite -> setAnimationMode() -> invalid case : " + mode);
-			break;
-		}
-		if(isPlaying) animationTimer.scheduleAtFixedRate(updateTask, 0, UtilsMath.convertHzToMillis(frameRate));
+		if(isPlaying) scheduleUpdate();
 	}
 
 	/**Is the animation currently playing in any mode.
@@ -244,10 +241,24 @@ public class AnimatedSprite extends WarpedSprite {
 		isComplete = true;
 	}
 	
-	private final void cancelUpdate() {
-		if(updateTask == null) return;
-		updateTask.cancel();
-		updateTask = null;
+	private final void scheduleUpdate() {animation.start();}
+	
+	private final void cancelUpdate() {animation.stop();}
+	
+	private final void step() {
+		switch(mode) {
+		case PLAY:				updatePlay();			break;
+		case PLAY_MIRROR:		updateMirror();			break;
+		case PLAY_REVERSE:		updatePlayReverse();	break;
+		case REPEAT:			updateRepeat();			break;
+		case REPEAT_MIRROR:		updateRepeatMirror();	break;
+		case REPEAT_REVERSE:	updateRepeatReverse();	break;
+		case RANDOMISE:			updateRandomise();		break;
+		default:
+			Console.err("AnimatedSprite -> step() -> invalid case : " + mode);
+			cancelUpdate();
+			break;
+		}
 	}
 	
 	private final void updatePlay() {
@@ -2,13 +2,12 @@ package warped.graphics.sprite;
 
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import warped.graphics.sprite.spriteSheets.WarpedSpriteSheet;
 import warped.utilities.enums.generalised.AxisType;
+import warped.utilities.timers.ClockedAnimation;
+import warped.utilities.timers.WarpedAnimationClock;
 import warped.utilities.utils.Console;
-import warped.utilities.utils.UtilsMath;
 
 public class CharacterSprite extends WarpedSprite {
 
@@ -26,14 +25,11 @@ public class CharacterSprite extends WarpedSprite {
 	private AnimationType animationType = AnimationType.MOVE_DOWN; 
 	
 	private int frame = 0;
-	private int frameRate = 24; //frames per second
 	private HashMap<AnimationType, BufferedImage[]> moveAnimations = new HashMap<>(); 
 	
 	private BufferedImage[] frames;
 	
-	
-	private static Timer animationTimer = new Timer("Timer Thread : Character Sprite");
-	private TimerTask updateTask;
+	private ClockedAnimation animation = new ClockedAnimation(this::updateAnimation);
 	
 	
 	/**An 8 directional animated sprite.
@@ -106,7 +102,7 @@ public class CharacterSprite extends WarpedSprite {
 			Console.err("AnimatedSprite -> setFrameRate() -> framerate is out of bounds : " + fps + ", it will be set to 24fps");
 			fps = 24;
 		}
-		this.frameRate = fps;
+		animation.setFrameRate(fps);
 		pause();
 		play();
 	}
@@ -123,21 +119,23 @@ public class CharacterSprite extends WarpedSprite {
 		setRasterFast(frames[frame]);
 	}
 
-	/**Pause the animation.
+	/**Set the clock that advances the animation.
+	 * @param clock - the clock, WarpedState.animationClock by default.
+	 * @apiNote Use a clock with a WarpedManualClock to step the animation manually, i.e. for testing.
+	 * @apiNote The clock can not be changed until the previous clock has removed the sprite, call play() after setting the clock.
 	 * @author 5som3*/
-	public void pause() {
-		if(updateTask == null) return;
-		updateTask.cancel();
-		updateTask = null;
+	public void setClock(WarpedAnimationClock clock) {
+		if(!animation.setClock(clock)) Console.err("CharacterSprite -> setClock() -> the sprite is still in its previous clock, the clock was not changed");
 	}
+
+	/**Pause the animation.
+	 * @author 5som3*/
+	public void pause() {animation.stop();}
 	
 	/**Play the animation.
 	 * @apiNote call setAnimation(AnimationType) to change the characters animation.
 	 * @author 5som3*/
-	public void play() {
-		updateTask = new TimerTask() {public void run() {updateAnimation();}};
-		animationTimer.scheduleAtFixedRate(updateTask, 0, UtilsMath.convertHzToMillis(frameRate));
-	}
+	public void play() {animation.start();}
 	
 	private void updateAnimation() {
 		frame++;
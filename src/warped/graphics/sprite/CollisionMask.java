@@ -0,0 +1,155 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.sprite;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import warped.WarpedProperties;
+
+public class CollisionMask {
+
+	/*CollisionMask is a 1 bit per pixel copy of the alpha channel of an image, used for pixel perfect collision.
+	 * A pixel is solid if its alpha is greater than WarpedProperties.ALPHA_THRESHOLD.
+	 * Each row of the image is packed into long words, pixel x of a row is stored in bit (x % 64) of word (x / 64).
+	 * Two masks can then be compared 64 pixels at a time with a shift and a bitwise AND.
+	 *
+	 * Masks for images that do not change (i.e. sprite sheet frames) are cached by image, use CollisionMask.of() to get the cached mask.
+	 * */
+
+	private static final Map<BufferedImage, CollisionMask> cache = new WeakHashMap<>();
+
+	private final int width;
+	private final int height;
+	private final int wordsPerRow;
+	private final long[] words;
+
+	/**A collision mask generated from the alpha channel of an image.
+	 * @param image - the image to generate the mask from.
+	 * @apiNote The mask is a snapshot, changes to the image after the mask is created will not be reflected.
+	 * @author 5som3*/
+	public CollisionMask(BufferedImage image) {
+		width = image.getWidth();
+		height = image.getHeight();
+		wordsPerRow = (width + 63) >>> 6;
+		words = new long[wordsPerRow * height];
+
+		Raster raster = image.getRaster();
+		int[] row = new int[width];
+		boolean isPacked = image.getType() == BufferedImage.TYPE_INT_ARGB; // Read the packed pixels directly, without stealing the data buffer so the image stays managed
+		for(int y = 0; y < height; y++) {
+			if(isPacked) raster.getDataElements(0, y, width, 1, row);
+			else image.getRGB(0, y, width, 1, row, 0, width);
+			for(int x = 0; x < width; x++) if((row[x] >>> 24) > WarpedProperties.ALPHA_THRESHOLD) set(x, y);
+		}
+	}
+	
+	/**Get the cached collision mask for an image, generating it if it does not exist.
+	 * @param image - the image to get the mask for.
+	 * @return CollisionMask - the mask for the image.
+	 * @apiNote Only use for images that do not change (i.e. sprite sheet frames), the cached mask will not be updated if the image is edited.
+	 * @implNote The cache holds weak references to images, masks are discarded when their image is no longer used.
+	 * @author 5som3*/
+	public static CollisionMask of(BufferedImage image) {
+		synchronized(cache) {
+			CollisionMask mask = cache.get(image);
+			if(mask != null) return mask;
+		}
+		CollisionMask generated = new CollisionMask(image); // Outside of the lock so sheets loading on several threads generate their masks at once
+		synchronized(cache) {
+			CollisionMask mask = cache.get(image);
+			if(mask != null) return mask;
+			cache.put(image, generated);
+			return generated;
+		}
+	}
+
+	/**Is a collision mask cached for an image.
+	 * @param image - the image to check.
+	 * @return boolean - true if CollisionMask.of() will return a mask without generating it.
+	 * @author 5som3*/
+	public static boolean isCached(BufferedImage image) {
+		synchronized(cache) {return cache.containsKey(image);}
+	}
+
+	/**Generate and cache the collision masks for a set of images.
+	 * @param images - the images to generate masks for.
+	 * @apiNote Call at load time to avoid generating the masks the first time the images collide.
+	 * @author 5som3*/
+	public static void generate(BufferedImage[] images) {for(int i = 0; i < images.length; i++) if(images[i] != null) of(images[i]);}
+
+	/**The width of the mask.
+	 * @return int - the width in pixels.
+	 * @author 5som3*/
+	public int getWidth() {return width;}
+
+	/**The height of the mask.
+	 * @return int - the height in pixels.
+	 * @author 5som3*/
+	public int getHeight() {return height;}
+
+	/**Is the pixel solid.
+	 * @param x - the x coordinate of the pixel.
+	 * @param y - the y coordinate of the pixel.
+	 * @return boolean - true if the pixel alpha is greater than the alpha threshold, false if it is not or the pixel is outside the mask.
+	 * @author 5som3*/
+	public boolean isSolid(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) return false;
+		return (words[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+	}
+
+	/**Do any solid pixels of the two masks overlap in the specified area.
+	 * @param a - one of the masks to compare.
+	 * @param ax - the x coordinate of the area relative to mask a.
+	 * @param ay - the y coordinate of the area relative to mask a.
+	 * @param b - the other mask to compare.
+	 * @param bx - the x coordinate of the area relative to mask b.
+	 * @param by - the y coordinate of the area relative to mask b.
+	 * @param width - the width of the area.
+	 * @param height - the height of the area.
+	 * @return boolean - true if any pixel in the area is solid in both masks.
+	 * @implNote Pixels outside of either mask are treated as not solid.
+	 * @author 5som3*/
+	public static boolean overlaps(CollisionMask a, int ax, int ay, CollisionMask b, int bx, int by, int width, int height) {
+		for(int y = 0; y < height; y++) {
+			int rowA = ay + y;
+			int rowB = by + y;
+			if(rowA < 0 || rowB < 0) continue;
+			if(rowA >= a.height || rowB >= b.height) break;
+			for(int x = 0; x < width; x += 64) {
+				int count = Math.min(64, width - x);
+				if((a.getBits(rowA, ax + x, count) & b.getBits(rowB, bx + x, count)) != 0) return true;
+			}
+		}
+		return false;
+	}
+
+	/**Get up to 64 consecutive pixels from a row of the mask.
+	 * @param row - the row to read.
+	 * @param start - the x coordinate of the first pixel, may be outside of the mask.
+	 * @param count - the number of pixels to read in the domain 1 <= count <= 64.
+	 * @return long - the pixels, the first pixel is the lowest bit.
+	 * @author 5som3*/
+	private long getBits(int row, int start, int count) {
+		long result;
+		if(start < 0) { // Pixels left of the mask are not solid
+			if(start + count <= 0) return 0;
+			int skip = -start;
+			result = getBits(row, 0, count - skip) << skip;
+			return result;
+		}
+		if(start >= width) return 0;
+		int rowOffset = row * wordsPerRow;
+		int word = start >>> 6;
+		int shift = start & 63;
+		result = words[rowOffset + word] >>> shift;
+		if(shift != 0 && word + 1 < wordsPerRow) result |= words[rowOffset + word + 1] << (64 - shift);
+		if(count < 64) result &= (1L << count) - 1;
+		return result;
+	}
+
+	private void set(int x, int y) {words[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);}
+
+}
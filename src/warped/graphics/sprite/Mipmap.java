@@ -0,0 +1,131 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.sprite;
+
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import warped.WarpedProperties;
+
+public class Mipmap {
+
+	/*Mipmap is a chain of progressively smaller copies of an image, each level is half the width and height of the level before it.
+	 * Drawing a level close to the drawn size is faster and has less aliasing than scaling the full image down every frame.
+	 *
+	 * Each pixel of a level is the average of a 2 x 2 block of the level above it (a box filter), averaged with premultiplied alpha so transparent pixels do not darken the edges.
+	 * Levels with an odd width or height round up, the last column or row of the block repeats the edge pixel.
+	 * Levels are generated the first time they are requested.
+	 *
+	 * Mipmaps for images that do not change (i.e. sprite sheet frames) are cached by image, use Mipmap.of() to get the cached mipmap.
+	 * */
+
+	/**Images drawn at less than this scale should be drawn from a mipmap level.*/
+	public static final double ZOOM_THRESHOLD = 0.5;
+	
+	private static final Map<BufferedImage, Mipmap> cache = new WeakHashMap<>();
+
+	private final BufferedImage image; //Level 0, null if the mipmap is cached (see source)
+	private final WeakReference<BufferedImage> source; //Level 0 of a cached mipmap, weak so the cache value does not keep its key alive
+	private final BufferedImage[] levels; //Level 0 is never stored here
+
+	/**A mipmap of an image.
+	 * @param image - the image to use as level 0.
+	 * @apiNote The levels are copies, changes to the image after the levels are generated will not be reflected.
+	 * @author 5som3*/
+	public Mipmap(BufferedImage image) {this(image, false);}
+	
+	/**A mipmap that holds its image strongly, or weakly if it is cached by the image.*/
+	private Mipmap(BufferedImage image, boolean isCached) {
+		this.image = isCached ? null : image;
+		this.source = isCached ? new WeakReference<>(image) : null;
+		int size = Math.max(image.getWidth(), image.getHeight());
+		int count = 1;
+		while(size > 1) {
+			size = (size + 1) / 2;
+			count++;
+		}
+		levels = new BufferedImage[count];
+	}
+
+	/**Get the cached mipmap for an image, creating it if it does not exist.
+	 * @param image - the image to get the mipmap for.
+	 * @return Mipmap - the mipmap for the image.
+	 * @apiNote Only use for images that do not change (i.e. sprite sheet frames), the cached levels will not be updated if the image is edited.
+	 * @implNote The cache holds weak references to images and a cached mipmap only holds a weak reference to its image, so mipmaps are discarded when their image is no longer used.
+	 * @author 5som3*/
+	public static Mipmap of(BufferedImage image) {
+		synchronized(cache) {
+			Mipmap mipmap = cache.get(image);
+			if(mipmap == null) {
+				mipmap = new Mipmap(image, true);
+				cache.put(image, mipmap);
+			}
+			return mipmap;
+		}
+	}
+
+	/**The number of levels in the mipmap.
+	 * @return int - the level count, the last level is 1 x 1 pixels.
+	 * @author 5som3*/
+	public int getLevelCount() {return levels.length;}
+
+	/**A level of the mipmap.
+	 * @param level - the level, 0 is the original image and each level after is half the size.
+	 * @return BufferedImage - the image for the level, generated if it has not been used before.
+	 * @author 5som3*/
+	public synchronized BufferedImage getLevel(int level) {
+		if(level >= levels.length) level = levels.length - 1;
+		if(level <= 0) return getImage();
+		for(int i = 1; i <= level; i++) if(levels[i] == null) levels[i] = downsample(i == 1 ? getImage() : levels[i - 1]);
+		return levels[level];
+	}
+	
+	/**Level 0, the image the mipmap was made from*/
+	private BufferedImage getImage() {return image != null ? image : source.get();}
+
+	/**The level closest to the size an image will be drawn at.
+	 * @param scale - the drawn size divided by the size of the original image.
+	 * @return BufferedImage - the level with a size closest to the drawn size.
+	 * @author 5som3*/
+	public BufferedImage getLevelFor(double scale) {
+		if(scale >= 1.0) return getImage();
+		return getLevel((int)Math.round(-Math.log(scale) / Math.log(2.0)));
+	}
+
+	/**Average each 2 x 2 block of pixels into one pixel.*/
+	private static BufferedImage downsample(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int resultWidth = Math.max(1, (width + 1) / 2);
+		int resultHeight = Math.max(1, (height + 1) / 2);
+		int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+		int[] result = new int[resultWidth * resultHeight];
+		for(int y = 0; y < resultHeight; y++) {
+			int y0 = Math.min(y * 2, height - 1);
+			int y1 = Math.min(y * 2 + 1, height - 1);
+			for(int x = 0; x < resultWidth; x++) {
+				int x0 = Math.min(x * 2, width - 1);
+				int x1 = Math.min(x * 2 + 1, width - 1);
+				result[y * resultWidth + x] = average(pixels[y0 * width + x0], pixels[y0 * width + x1], pixels[y1 * width + x0], pixels[y1 * width + x1]);
+			}
+		}
+		BufferedImage level = new BufferedImage(resultWidth, resultHeight, WarpedProperties.BUFFERED_IMAGE_TYPE);
+		level.setRGB(0, 0, resultWidth, resultHeight, result, 0, resultWidth);
+		return level;
+	}
+
+	/**The average of 4 ARGB colours, each colour channel is weighted by its alpha.*/
+	private static int average(int c0, int c1, int c2, int c3) {
+		int a0 = c0 >>> 24, a1 = c1 >>> 24, a2 = c2 >>> 24, a3 = c3 >>> 24;
+		int alpha = a0 + a1 + a2 + a3;
+		if(alpha == 0) return 0;
+		int r = a0 * ((c0 >> 16) & 0xFF) + a1 * ((c1 >> 16) & 0xFF) + a2 * ((c2 >> 16) & 0xFF) + a3 * ((c3 >> 16) & 0xFF);
+		int g = a0 * ((c0 >> 8) & 0xFF) + a1 * ((c1 >> 8) & 0xFF) + a2 * ((c2 >> 8) & 0xFF) + a3 * ((c3 >> 8) & 0xFF);
+		int b = a0 * (c0 & 0xFF) + a1 * (c1 & 0xFF) + a2 * (c2 & 0xFF) + a3 * (c3 & 0xFF);
+		int half = alpha / 2; // Round to nearest
+		return ((alpha + 2) / 4) << 24 | ((r + half) / alpha) << 16 | ((g + half) / alpha) << 8 | ((b + half) / alpha);
+	}
+
+}
@@ -0,0 +1,164 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.sprite;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.AffineTransformOp;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import warped.WarpedProperties;
+import warped.utilities.utils.Console;
+
+public class RotationCache {
+
+	/*RotationCache holds an image rotated to a fixed number of evenly spaced angles (steps), so a rotating sprite can point to a frame instead of transforming the image each time it rotates.
+	 * One cache is shared by every RotationSprite that rotates the same image, each frame is generated the first time a sprite uses its step.
+	 * Frames are the same size as the image and rotated about its center, the same as an unquantized RotationSprite.
+	 *
+	 * The resolution (steps) and the memory limit are shared by all caches.
+	 * When a new frame would exceed the memory limit it is not generated and getFrame() returns null, the sprite then rotates exactly instead.
+	 * Frames that already exist are read without locking, only generating a frame takes the lock shared by all caches.
+	 * */
+
+	public static final int DEFAULT_RESOLUTION = 64;
+	public static final long DEFAULT_MEMORY_LIMIT = 64L * 1024 * 1024;
+
+	private static final Map<BufferedImage, RotationCache> cache = new WeakHashMap<>();
+	private static int resolution = DEFAULT_RESOLUTION;
+	private static long memoryLimit = DEFAULT_MEMORY_LIMIT;
+	private static long memoryUsed = 0;
+	private static int countedCaches = 0; //The number of caches when memoryUsed was last counted
+
+	private final WeakReference<BufferedImage> image; //Weak so the cache value does not keep its key alive
+	private final AtomicReferenceArray<BufferedImage> frames; //Published safely to sprites on any thread
+	private long bytes = 0;
+
+	private RotationCache(BufferedImage image, int steps) {
+		this.image = new WeakReference<>(image);
+		frames = new AtomicReferenceArray<>(steps);
+	}
+
+	/**Get the shared cache for an image, creating it if it does not exist.
+	 * @param image - the unrotated image.
+	 * @return RotationCache - the cache for the image at the current resolution.
+	 * @apiNote The frames are not updated if the image is edited after they are generated.
+	 * @implNote The cache holds weak references to images and each cache only holds a weak reference to its image, so caches are discarded when their image is no longer used.
+	 * @author 5som3*/
+	public static RotationCache of(BufferedImage image) {
+		synchronized(cache) {
+			RotationCache rotationCache = cache.get(image);
+			if(rotationCache == null) {
+				rotationCache = new RotationCache(image, resolution);
+				cache.put(image, rotationCache);
+			}
+			return rotationCache;
+		}
+	}
+
+	/**Set the number of angles each image is rotated to.
+	 * @param steps - the number of evenly spaced angles in a full rotation, i.e. 64 is a step of 5.625 degrees.
+	 * @apiNote Clears every cache, sprites generate new frames the next time they rotate.
+	 * @author 5som3*/
+	public static void setResolution(int steps) {
+		if(steps < 1) {
+			Console.err("RotationCache -> setResolution() -> steps must be at least 1 : " + steps);
+			return;
+		}
+		synchronized(cache) {
+			resolution = steps;
+			cache.clear();
+			memoryUsed = 0;
+			countedCaches = 0;
+		}
+	}
+
+	/**The number of angles each image is rotated to.
+	 * @return int - the number of steps in a full rotation.
+	 * @author 5som3*/
+	public static int getResolution() {return resolution;}
+
+	/**Set the most memory the cached frames can use.
+	 * @param bytes - the limit in bytes, frames use 4 bytes per pixel.
+	 * @apiNote Frames that already exist are kept, new frames are not generated while the limit is reached.
+	 * @author 5som3*/
+	public static void setMemoryLimit(long bytes) {
+		synchronized(cache) {memoryLimit = bytes;}
+	}
+
+	/**The memory used by the cached frames.
+	 * @return long - the size in bytes, including caches that have been discarded but not yet cleared.
+	 * @author 5som3*/
+	public static long getMemoryUsed() {
+		synchronized(cache) {return memoryUsed;}
+	}
+
+	/**The number of steps in this cache.
+	 * @return int - the number of angles the image is rotated to.
+	 * @author 5som3*/
+	public int getSteps() {return frames.length();}
+
+	/**The step closest to a rotation.
+	 * @param rotation - the rotation in radians, clockwise from the positive horizontal axis.
+	 * @return int - the step, from 0 to getSteps() - 1.
+	 * @author 5som3*/
+	public int getStep(double rotation) {
+		int steps = frames.length();
+		int step = (int)Math.round(rotation / (Math.PI * 2) * steps) % steps;
+		return step < 0 ? step + steps : step;
+	}
+
+	/**The image rotated to a step.
+	 * @param step - the step, the rotation is step * 2PI / getSteps() radians.
+	 * @return BufferedImage - the rotated frame, generated if it has not been used before, null if generating it would exceed the memory limit.
+	 * @implNote Lock free if the frame exists.
+	 * @author 5som3*/
+	public BufferedImage getFrame(int step) {
+		BufferedImage frame = frames.get(step);
+		if(frame != null) return frame;
+		synchronized(cache) {
+			frame = frames.get(step);
+			if(frame != null) return frame; // Generated by another thread while waiting for the lock
+			BufferedImage image = this.image.get();
+			if(image == null) return null; // Only if the sprite has dropped the image, it is drawn exactly instead
+			long frameBytes = 4L * image.getWidth() * image.getHeight();
+			if(memoryUsed + frameBytes > memoryLimit) {
+				if(cache.size() == countedCaches) return null;
+				countMemory(); // Some caches may have been discarded since the last count
+				if(memoryUsed + frameBytes > memoryLimit) return null;
+			}
+			frame = rotate(image, step * Math.PI * 2 / frames.length());
+			frames.set(step, frame);
+			bytes += frameBytes;
+			memoryUsed += frameBytes;
+			return frame;
+		}
+	}
+
+	/**Rotate an image about its center, the result is the same size as the image.
+	 * @param image - the image to rotate.
+	 * @param rotation - the rotation in radians, clockwise from the positive horizontal axis.
+	 * @return BufferedImage - a new image with the rotated graphics.
+	 * @author 5som3*/
+	public static BufferedImage rotate(BufferedImage image, double rotation) {
+		BufferedImage result = new BufferedImage(image.getWidth(), image.getHeight(), WarpedProperties.BUFFERED_IMAGE_TYPE);
+		AffineTransform at = AffineTransform.getRotateInstance(rotation, image.getWidth() / 2, image.getHeight() / 2);
+		Graphics2D g2d = result.createGraphics();
+		g2d.setRenderingHints(WarpedSprite.rh);
+		g2d.drawImage(new AffineTransformOp(at, WarpedSprite.rh).filter(image, null), 0, 0, null);
+		g2d.dispose();
+		return result;
+	}
+
+	/**Recount the memory used by the caches that still exist.*/
+	private static void countMemory() {
+		memoryUsed = 0;
+		for(RotationCache rotationCache : cache.values()) memoryUsed += rotationCache.bytes;
+		countedCaches = cache.size();
+	}
+
+}
@@ -15,6 +15,8 @@ public class RotationSprite extends WarpedSprite {
 
 	private double rotation = 0.0;
 	private BufferedImage unrotatedImage;
+	private boolean isQuantized = false;
+	private int step = -1; //The step of the current frame when quantized, -1 if the raster is not a cached frame
 			
 	private AffineTransform at = new AffineTransform();
 	
@@ -37,10 +39,28 @@ public class RotationSprite extends WarpedSprite {
 	 * @author SomeKid*/
 	public void setRotationImage(BufferedImage unrotatedImage) {
 		this.unrotatedImage = unrotatedImage;
+		step = -1;
 		setSize(unrotatedImage.getWidth(), unrotatedImage.getHeight());
 		setRotation(rotation);
 	}
 	
+	/**Set if the sprite points to shared pre-rotated frames instead of rotating the image each time the rotation changes.
+	 * @param isQuantized - if true the raster is the frame of the RotationCache step closest to the rotation, else the image is rotated to the exact rotation.
+	 * @apiNote The drawn rotation is rounded to the nearest step, see RotationCache.setResolution(), getRotation() still returns the exact rotation.
+	 * @apiNote Use for many objects that rotate often and share images, i.e. projectiles, units or particles.
+	 * @implNote Falls back to the exact rotation for any step that can not be cached within the RotationCache memory limit.
+	 * @implNote Frames are generated from the image the first time they are used, changes to the image after will not be reflected.
+	 * @author 5som3*/
+	public void setQuantized(boolean isQuantized) {
+		this.isQuantized = isQuantized;
+		updateGraphics();
+	}
+	
+	/**Does the sprite point to shared pre-rotated frames.
+	 * @return boolean - true if the rotation is quantized.
+	 * @author 5som3*/
+	public boolean isQuantized() {return isQuantized;}
+	
 	/**Get the current rotation for the sprite
 	 * @return rotation - measured in radians as clockwise rotation from the positive horizontal axis
 	 * @author SomeKid*/
@@ -72,6 +92,18 @@ public class RotationSprite extends WarpedSprite {
 	
 
 	private void updateGraphics() { 
+		if(isQuantized) {
+			RotationCache cache = RotationCache.of(unrotatedImage);
+			int step = cache.getStep(rotation);
+			BufferedImage frame = cache.getFrame(step);
+			if(frame != null) {
+				if(step == this.step && frame == raster()) return; // Same frame as drawn
+				this.step = step;
+				setRasterFast(frame);
+				return;
+			}
+		}
+		step = -1;
 		Graphics2D g2d = getGraphics();
 		
 		int rotationOriginX = (getWidth()  / 2);    //The point around which the image will be rotated, in this case the center point
@@ -30,6 +30,10 @@ public class WarpedSprite {
 	
 	private VectorI size = new VectorI(1, 1);
 	
+	private volatile int rasterVersion = 0; //Incremented each time the raster changes 
+	private CollisionMask collisionMask;
+	private int collisionMaskVersion = -1;
+	
 	protected static RenderingHints rh = new RenderingHints(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
 	static {
 		rh.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
@@ -56,6 +60,17 @@ public class WarpedSprite {
 		setSize(width, height);
 	}
 	
+	/**A sprite that points to a shared frame.
+	 * @param frame - the image to use as the raster, it is not copied.
+	 * @apiNote Use for many objects that look the same (i.e. projectiles and items), only the frame is held in memory no matter how many sprites use it.
+	 * @apiNote The frame should not be edited, it is drawn by every sprite that points to it.
+	 * @implNote The raster buffers are not allocated until the sprite is painted.
+	 * @author 5som3*/
+	public WarpedSprite(BufferedImage frame) {
+		size.set(frame.getWidth(), frame.getHeight());
+		raster = frame;
+	}
+	
 	/**The graphic output for this sprite
 	 * @return raster - The sprite image
 	 * 				  - This is strictly the output and should not be edited
@@ -74,6 +89,7 @@ public class WarpedSprite {
 	 * @author 5som3*/
 	public void setRasterFast(BufferedImage raster) {
 		this.raster = raster;
+		rasterVersion++;
 		deltaAction.action();
 	}
 	
@@ -87,10 +103,38 @@ public class WarpedSprite {
 	public void setRasterSized(BufferedImage raster) {
 		size.set(raster.getWidth(), raster.getHeight());
 		this.raster = raster;
+		rasterVersion++;
 		deltaAction.action();
 	}
 	
 	
+	/**The collision mask for the current raster.
+	 * @return CollisionMask - a 1 bit per pixel alpha mask of the raster, used for pixel perfect collision.
+	 * @implNote Frames set with setRasterFast() or setRasterSized() share the cached mask for that image.
+	 * @implNote Graphics painted into this sprite generate a new mask the first time it is requested after pushGraphics().
+	 * @author 5som3*/
+	public CollisionMask getCollisionMask() {
+		int version = rasterVersion;
+		BufferedImage raster = this.raster;
+		if(collisionMask == null || collisionMaskVersion != version) {
+			if(isRasterBuffered(raster)) collisionMask = new CollisionMask(raster);
+			else collisionMask = CollisionMask.of(raster);
+			collisionMaskVersion = version;
+		}
+		return collisionMask;
+	}
+	
+	/**Check if an image is one of the buffers this sprite paints into.
+	 * @param image - the image to check, usually the current raster.
+	 * @return boolean - true if the image is a buffer of this sprite and may be painted again, false if it is a shared frame (i.e. from a sprite sheet) that does not change.
+	 * @author 5som3*/
+	public boolean isRasterBuffered(BufferedImage image) {return image == rasterBuffer[0] || image == rasterBuffer[1];}
+	
+	/**The number of times the raster has changed.
+	 * @return int - incremented each time the raster is set or graphics are pushed, compare with a previous value to tell if the raster has changed.
+	 * @author 5som3*/
+	public int getRasterVersion() {return rasterVersion;}
+	
 	/**Any action set here will trigger (once) every time the raster changes.
 	 * @param WarpedAction - any action set here will trigger when ever this objects raster changes. 
 	 * @author 5som3*/
@@ -107,6 +151,7 @@ public class WarpedSprite {
 	 * @apiNote - remember to call pushGraphics() after disposing to make the changes visible.	  
 	 * @author SomeKid*/
 	public final Graphics2D getGraphics() {
+		allocateBuffers();
 		Graphics2D g2d = buffer.createGraphics();
 		g2d.setComposite(UtilsImage.clearComposite);
 		g2d.fillRect(0, 0, getWidth(), getHeight());
@@ -121,6 +166,7 @@ public class WarpedSprite {
 	 * @apiNote This will trigger the delta action once after the graphics output has changed.
 	 * @author SomeKid*/
 	public final void pushGraphics() {
+		allocateBuffers();
 		if(bufferIndex == 0) {
 			bufferIndex = 1;
 			buffer = rasterBuffer[1];
@@ -130,6 +176,7 @@ public class WarpedSprite {
 			buffer = rasterBuffer[0];
 			raster = rasterBuffer[1];
 		}
+		rasterVersion++;
 		deltaAction.action();
 	}
 	
@@ -137,7 +184,18 @@ public class WarpedSprite {
 	 * @apiNote This is very case specific and shouldn't normally need to be used.
 	 * @return BufferedImage - BackBuffer.
 	 * @author SomeKid*/
-	protected final BufferedImage getBackBuffer() {return rasterBuffer[bufferIndex];}
+	protected final BufferedImage getBackBuffer() {
+		allocateBuffers();
+		return rasterBuffer[bufferIndex];
+	}
+	
+	/**Allocate the raster buffers of a sprite that was created from a shared frame the first time it is painted.*/
+	private void allocateBuffers() {
+		if(rasterBuffer[0] != null) return;
+		rasterBuffer[0] = new BufferedImage(size.x(), size.y(), WarpedProperties.BUFFERED_IMAGE_TYPE);
+		rasterBuffer[1] = new BufferedImage(size.x(), size.y(), WarpedProperties.BUFFERED_IMAGE_TYPE);
+		buffer = rasterBuffer[bufferIndex];
+	}
 	
 	/**Swaps the buffers without pushing any changes.
 	 * @apiNote This is very case specific and should'nt normally need to be used.
@@ -0,0 +1,72 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.sprite.spriteSheets;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+public final class AtlasRegion {
+
+	/*AtlasRegion is the area of an atlas page that holds a copy of one image.
+	 * Regions are created by WarpedAtlas.build() and looked up with WarpedAtlas.getRegion(), they never change after they are created.
+	 * */
+
+	private final BufferedImage page;
+	private final int pageIndex;
+	private final int x;
+	private final int y;
+	private final int width;
+	private final int height;
+
+	AtlasRegion(BufferedImage page, int pageIndex, int x, int y, int width, int height) {
+		this.page 	   = page;
+		this.pageIndex = pageIndex;
+		this.x 		   = x;
+		this.y 		   = y;
+		this.width 	   = width;
+		this.height    = height;
+	}
+
+	/**The atlas page that contains this region.
+	 * @return BufferedImage - the page image, shared by every region on the page.
+	 * @author 5som3*/
+	public BufferedImage getPage() {return page;}
+
+	/**The index of the page that contains this region.
+	 * @return int - the page index, unique across every atlas that has been built. Sort by page index to draw regions on the same page one after another.
+	 * @author 5som3*/
+	public int getPageIndex() {return pageIndex;}
+
+	/**The x coordinate of the region on the page.
+	 * @return int - the left edge in pixels.
+	 * @author 5som3*/
+	public int getX() {return x;}
+
+	/**The y coordinate of the region on the page.
+	 * @return int - the top edge in pixels.
+	 * @author 5som3*/
+	public int getY() {return y;}
+
+	/**The width of the region.
+	 * @return int - the width in pixels, the same as the source image.
+	 * @author 5som3*/
+	public int getWidth() {return width;}
+
+	/**The height of the region.
+	 * @return int - the height in pixels, the same as the source image.
+	 * @author 5som3*/
+	public int getHeight() {return height;}
+
+	/**Draw the region scaled to fit the specified area.
+	 * @param g - the graphics context to draw into.
+	 * @param dx - the x coordinate of the top left corner of the destination.
+	 * @param dy - the y coordinate of the top left corner of the destination.
+	 * @param dWidth - the width of the destination.
+	 * @param dHeight - the height of the destination.
+	 * @apiNote Has the same result as g.drawImage(sourceImage, dx, dy, dWidth, dHeight, null) but draws from the page.
+	 * @author 5som3*/
+	public void draw(Graphics g, int dx, int dy, int dWidth, int dHeight) {
+		g.drawImage(page, dx, dy, dx + dWidth, dy + dHeight, x, y, x + width, y + height, null);
+	}
+
+}
@@ -3,6 +3,7 @@
 package warped.graphics.sprite.spriteSheets;
 
 import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
 import warped.utilities.utils.Console;
 import warped.utilities.utils.UtilsImage;
@@ -862,6 +863,16 @@ public abstract class FrameworkSprites {
 		error 				= UtilsImage.loadBufferedImage("res/framework/graphics/error.png");	
 	}
 	
+	/**The framework sprite sheets that have been loaded.
+	 * @return WarpedSpriteSheet[] - the loaded sheets, used to pack the framework sprites into a WarpedAtlas.
+	 * @author 5som3*/
+	public static WarpedSpriteSheet[] getSpriteSheets() {
+		WarpedSpriteSheet[] sheets = {standardIcons, dialIcons, anglePicker, tileTransitions, mouseLoad, mouse, mediaIcons};
+		int count = 0;
+		for(int i = 0; i < sheets.length; i++) if(sheets[i] != null && sheets[i].getSprites() != null) sheets[count++] = sheets[i];
+		return Arrays.copyOf(sheets, count);
+	}
+	
 	public static void loadMediaPlayerSprites() {
 		Console.ln("FrameworkSprites -> loadMediaPlayerSprites() -> loading..");
 		mediaIcons			= new WarpedSpriteSheet("res/framework/graphics/media_icons_wf2d_38_38_wf.png"); 		
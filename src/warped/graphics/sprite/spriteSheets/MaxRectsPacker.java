@@ -0,0 +1,102 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.sprite.spriteSheets;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+
+final class MaxRectsPacker {
+
+	/*MaxRectsPacker places rectangles into a fixed size page using the MaxRects algorithm with the best short side fit rule.
+	 * The packer keeps a list of the maximal free rectangles, each placed rectangle is put in the free rectangle that leaves the smallest leftover side.
+	 * Free rectangles that overlap a placed rectangle are split into up to four smaller free rectangles, then any free rectangle contained in another is removed.
+	 * */
+
+	private final int width;
+	private final int height;
+	private long usedArea = 0;
+	private ArrayList<Rectangle> freeRects = new ArrayList<>();
+
+	/**A packer for an empty page.
+	 * @param width - the width of the page.
+	 * @param height - the height of the page.*/
+	MaxRectsPacker(int width, int height) {
+		this.width = width;
+		this.height = height;
+		freeRects.add(new Rectangle(0, 0, width, height));
+	}
+
+	/**Place a rectangle on the page.
+	 * @param rectWidth - the width of the rectangle.
+	 * @param rectHeight - the height of the rectangle.
+	 * @return Rectangle - the placed rectangle, null if there is no space left on the page that fits it.*/
+	Rectangle insert(int rectWidth, int rectHeight) {
+		Rectangle best = null;
+		int bestShortSide = Integer.MAX_VALUE;
+		int bestLongSide = Integer.MAX_VALUE;
+		for(int i = 0; i < freeRects.size(); i++) {
+			Rectangle free = freeRects.get(i);
+			if(free.width < rectWidth || free.height < rectHeight) continue;
+			int leftoverX = free.width - rectWidth;
+			int leftoverY = free.height - rectHeight;
+			int shortSide = Math.min(leftoverX, leftoverY);
+			int longSide = Math.max(leftoverX, leftoverY);
+			if(shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+				best = new Rectangle(free.x, free.y, rectWidth, rectHeight);
+				bestShortSide = shortSide;
+				bestLongSide = longSide;
+			}
+		}
+		if(best == null) return null;
+
+		ArrayList<Rectangle> splits = new ArrayList<>();
+		for(int i = 0; i < freeRects.size(); i++) {
+			if(split(freeRects.get(i), best, splits)) {
+				freeRects.remove(i);
+				i--;
+			}
+		}
+		freeRects.addAll(splits);
+		prune();
+		usedArea += (long)rectWidth * rectHeight;
+		return best;
+	}
+
+	/**The fraction of the page covered by placed rectangles.
+	 * @return double - the occupancy in the domain 0.0 to 1.0.*/
+	double getOccupancy() {return (double)usedArea / ((long)width * height);}
+
+	/**Split the free rectangle around the used rectangle.
+	 * @return boolean - true if they overlapped and the free rectangle should be removed.*/
+	private static boolean split(Rectangle free, Rectangle used, ArrayList<Rectangle> splits) {
+		if(used.x >= free.x + free.width || used.x + used.width <= free.x || used.y >= free.y + free.height || used.y + used.height <= free.y) return false;
+
+		if(used.x < free.x + free.width && used.x + used.width > free.x) {
+			if(used.y > free.y) splits.add(new Rectangle(free.x, free.y, free.width, used.y - free.y)); // above
+			if(used.y + used.height < free.y + free.height) splits.add(new Rectangle(free.x, used.y + used.height, free.width, free.y + free.height - (used.y + used.height))); // below
+		}
+		if(used.y < free.y + free.height && used.y + used.height > free.y) {
+			if(used.x > free.x) splits.add(new Rectangle(free.x, free.y, used.x - free.x, free.height)); // left
+			if(used.x + used.width < free.x + free.width) splits.add(new Rectangle(used.x + used.width, free.y, free.x + free.width - (used.x + used.width), free.height)); // right
+		}
+		return true;
+	}
+
+	/**Remove every free rectangle that is contained by another free rectangle.*/
+	private void prune() {
+		for(int i = 0; i < freeRects.size(); i++) {
+			for(int j = i + 1; j < freeRects.size(); j++) {
+				if(freeRects.get(j).contains(freeRects.get(i))) {
+					freeRects.remove(i);
+					i--;
+					break;
+				}
+				if(freeRects.get(i).contains(freeRects.get(j))) {
+					freeRects.remove(j);
+					j--;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,238 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.sprite.spriteSheets;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+
+import warped.WarpedProperties;
+import warped.application.state.WarpedImageFolder;
+import warped.utilities.utils.Console;
+
+public class WarpedAtlas {
+
+	/*WarpedAtlas packs many small images into a few large page images.
+	 * Viewports draw an image that has been packed from its atlas page using the source rectangle overload of drawImage(),
+	 * so objects that share a page are drawn from the same source surface which java2D only needs to validate and cache once.
+	 *
+	 * 	- Add images, sprite sheets and image folders to the atlas, then call build().
+	 * 	- build() packs the images with a MaxRects packer and registers a region for each image.
+	 * 	- WarpedAtlas.getRegion() returns the region for an image, objects keep using the original images as their rasters.
+	 *
+	 * The pages are copies, changes made to an image after the atlas is built will not be drawn until the atlas is released and built again.
+	 * Images larger than the page are not packed and are drawn from the original image.
+	 * A 1 pixel gap is left between regions so that scaled regions with bilinear interpolation do not bleed into their neighbours.
+	 * */
+
+	public static final int DEFAULT_PAGE_SIZE = 2048;
+	private static final int PADDING = 1;
+
+	private static volatile IdentityHashMap<BufferedImage, AtlasRegion> regions = new IdentityHashMap<>(); //Replaced when an atlas is built or released, never changed after it is published
+	private static int nextPageIndex = 0;
+
+	private final int pageSize;
+	private ArrayList<BufferedImage> images = new ArrayList<>();
+	private IdentityHashMap<BufferedImage, Boolean> added = new IdentityHashMap<>();
+	private ArrayList<BufferedImage> pages = new ArrayList<>();
+	private ArrayList<AtlasRegion> packedRegions = new ArrayList<>();
+	private IdentityHashMap<BufferedImage, AtlasRegion> packed = new IdentityHashMap<>();
+	private double occupancy = 0.0;
+	private boolean isBuilt = false;
+
+	/**An atlas with pages of the default size (2048 x 2048).
+	 * @author 5som3*/
+	public WarpedAtlas() {this(DEFAULT_PAGE_SIZE);}
+
+	/**An atlas with pages of the specified size.
+	 * @param pageSize - the width and height of each page in pixels.
+	 * @author 5som3*/
+	public WarpedAtlas(int pageSize) {
+		if(pageSize < 1) {
+			Console.err("WarpedAtlas -> WarpedAtlas() -> page size is too small : " + pageSize + ", the default size will be used");
+			pageSize = DEFAULT_PAGE_SIZE;
+		}
+		this.pageSize = pageSize;
+	}
+
+	/**The region of an atlas page that holds a copy of the image.
+	 * @param image - the original image, i.e. a frame from a sprite sheet.
+	 * @return AtlasRegion - the region, null if the image has not been packed into a built atlas.
+	 * @author 5som3*/
+	public static AtlasRegion getRegion(BufferedImage image) {return regions.get(image);}
+
+	/**The number of atlas pages that have been created.
+	 * @return int - one more than the largest page index of any region.
+	 * @author 5som3*/
+	public static int getPageIndexCount() {return nextPageIndex;}
+
+	/**Add an image to the atlas.
+	 * @param image - the image to pack, images that are already in the atlas are ignored.
+	 * @apiNote Images can only be added before the atlas is built.
+	 * @author 5som3*/
+	public void add(BufferedImage image) {
+		if(isBuilt) {
+			Console.err("WarpedAtlas -> add() -> images can not be added after the atlas is built");
+			return;
+		}
+		if(image == null || added.containsKey(image)) return;
+		added.put(image, true);
+		images.add(image);
+	}
+
+	/**Add each image to the atlas.
+	 * @param images - the images to pack.
+	 * @author 5som3*/
+	public void add(BufferedImage[] images) {
+		if(images == null) return;
+		for(int i = 0; i < images.length; i++) add(images[i]);
+	}
+
+	/**Add each image to the atlas.
+	 * @param images - the images to pack.
+	 * @author 5som3*/
+	public void add(Collection<BufferedImage> images) {images.forEach(this::add);}
+
+	/**Add every sprite on the sheet to the atlas.
+	 * @param sheet - the sheet containing the sprites to pack.
+	 * @author 5som3*/
+	public void add(WarpedSpriteSheet sheet) {
+		if(sheet == null) return;
+		add(sheet.getSprites());
+	}
+
+	/**Add every image in the folder to the atlas.
+	 * @param folder - the loaded folder containing the images to pack.
+	 * @author 5som3*/
+	public void add(WarpedImageFolder<?> folder) {
+		if(folder == null) return;
+		add(folder.getAllImages());
+	}
+
+	/**Add every framework sprite sheet that has been loaded to the atlas.
+	 * @author 5som3*/
+	public void addFrameworkSprites() {
+		WarpedSpriteSheet[] sheets = FrameworkSprites.getSpriteSheets();
+		for(int i = 0; i < sheets.length; i++) add(sheets[i]);
+		add(FrameworkSprites.error);
+	}
+
+	/**Pack the images into pages and register a region for each image.
+	 * @apiNote Images are packed from tallest to shortest, a new page is created when an image does not fit in any existing page.
+	 * @apiNote Call from the loading thread before the images are rendered, regions are published to the render threads when the build is complete.
+	 * @author 5som3*/
+	public void build() {
+		if(isBuilt) {
+			Console.err("WarpedAtlas -> build() -> the atlas has already been built");
+			return;
+		}
+		isBuilt = true;
+		ArrayList<BufferedImage> sorted = new ArrayList<>(images);
+		sorted.sort((a, b) -> {
+			if(a.getHeight() != b.getHeight()) return b.getHeight() - a.getHeight();
+			return b.getWidth() - a.getWidth();
+		});
+
+		ArrayList<MaxRectsPacker> packers = new ArrayList<>();
+		ArrayList<ArrayList<BufferedImage>> pageImages = new ArrayList<>();
+		ArrayList<ArrayList<Rectangle>> pageRects = new ArrayList<>();
+		for(int i = 0; i < sorted.size(); i++) {
+			BufferedImage image = sorted.get(i);
+			int width = image.getWidth() + PADDING;
+			int height = image.getHeight() + PADDING;
+			if(width > pageSize || height > pageSize) {
+				Console.ln("WarpedAtlas -> build() -> image is larger than the page size and will not be packed : (" + image.getWidth() + ", " + image.getHeight() + ")");
+				continue;
+			}
+			Rectangle rect = null;
+			int page = 0;
+			for(; page < packers.size(); page++) {
+				rect = packers.get(page).insert(width, height);
+				if(rect != null) break;
+			}
+			if(rect == null) {
+				packers.add(new MaxRectsPacker(pageSize, pageSize));
+				pageImages.add(new ArrayList<>());
+				pageRects.add(new ArrayList<>());
+				rect = packers.get(page).insert(width, height);
+			}
+			pageImages.get(page).add(image);
+			pageRects.get(page).add(rect);
+		}
+
+		double totalOccupancy = 0.0;
+		for(int page = 0; page < packers.size(); page++) {
+			BufferedImage pageImage = new BufferedImage(pageSize, pageSize, WarpedProperties.BUFFERED_IMAGE_TYPE);
+			Graphics2D g = pageImage.createGraphics();
+			g.setComposite(AlphaComposite.Src); // Copy the pixels exactly, blending translucent pixels onto the empty page would round their colour
+			int pageIndex = nextPageIndex();
+			for(int i = 0; i < pageImages.get(page).size(); i++) {
+				BufferedImage image = pageImages.get(page).get(i);
+				Rectangle rect = pageRects.get(page).get(i);
+				g.drawImage(image, rect.x, rect.y, null);
+				AtlasRegion region = new AtlasRegion(pageImage, pageIndex, rect.x, rect.y, image.getWidth(), image.getHeight());
+				packed.put(image, region);
+				packedRegions.add(region);
+			}
+			g.dispose();
+			pages.add(pageImage);
+			totalOccupancy += packers.get(page).getOccupancy();
+		}
+		if(pages.size() > 0) occupancy = totalOccupancy / pages.size();
+		publish(packed, false);
+		Console.ln("WarpedAtlas -> build() -> packed " + packed.size() + " images into " + pages.size() + " pages, occupancy : " + occupancy);
+	}
+
+	/**Remove the regions of this atlas so its images are drawn from the original images again.
+	 * @apiNote The atlas can not be built again, create a new atlas to repack the images.
+	 * @author 5som3*/
+	public void release() {
+		if(!isBuilt) return;
+		publish(packed, true);
+		packed.clear();
+		pages.clear();
+		packedRegions.clear();
+	}
+
+	/**The number of pages in the atlas.
+	 * @return int - the page count, 0 until the atlas is built.
+	 * @author 5som3*/
+	public int getPageCount() {return pages.size();}
+
+	/**A page of the atlas.
+	 * @param index - the index of the page in this atlas.
+	 * @return BufferedImage - the page image.
+	 * @author 5som3*/
+	public BufferedImage getPage(int index) {
+		if(index < 0 || index >= pages.size()) {
+			Console.err("WarpedAtlas -> getPage() -> index out of bounds : " + index);
+			return null;
+		}
+		return pages.get(index);
+	}
+
+	/**The regions packed into this atlas.
+	 * @return ArrayList<AtlasRegion> - the regions in the order they were packed.
+	 * @author 5som3*/
+	public ArrayList<AtlasRegion> getRegions() {return packedRegions;}
+
+	/**The average fraction of each page covered by images.
+	 * @return double - the occupancy in the domain 0.0 to 1.0.
+	 * @author 5som3*/
+	public double getOccupancy() {return occupancy;}
+
+	private static synchronized int nextPageIndex() {return nextPageIndex++;}
+
+	/**Copy the published regions, add or remove the changes and publish the copy.*/
+	private static synchronized void publish(IdentityHashMap<BufferedImage, AtlasRegion> changes, boolean isRemoving) {
+		IdentityHashMap<BufferedImage, AtlasRegion> result = new IdentityHashMap<>(regions);
+		if(isRemoving) changes.forEach((image, region) -> {if(result.get(image) == region) result.remove(image);}); // Only if another atlas has not packed the image since
+		else result.putAll(changes);
+		regions = result;
+	}
+
+}
@@ -5,6 +5,7 @@ package warped.graphics.sprite.spriteSheets;
 import java.awt.image.BufferedImage;
 
 import warped.graphics.sprite.ButtonSprite;
+import warped.graphics.sprite.CollisionMask;
 import warped.graphics.sprite.RotationSprite;
 import warped.graphics.sprite.ToggleSprite;
 import warped.utilities.enums.generalised.AxisType;
@@ -65,6 +66,7 @@ public class WarpedSpriteSheet {
 				i++;
 			}
 		}
+		CollisionMask.generate(rawSpriteImages); // On the thread constructing the sheet, i.e. an asset loader thread
 		Console.ln("WarpedSpriteSheet -> Number of sprites on sheet : " + spriteCount);
 		Console.ln("WarpedSpriteSheet -> Sprite (Width, Height) : ("+spriteWidth+", "+spriteHeight+")");
 	}
@@ -188,6 +190,7 @@ public class WarpedSpriteSheet {
 			}
 		}
 	
+		CollisionMask.generate(rawSpriteImages); // On the thread constructing the sheet, i.e. an asset loader thread
 		Console.ln("WarpedSpriteSheet -> Number of sprites on sheet : " + spriteCount);
 		Console.ln("WarpedSpriteSheet -> Sprite (Width, Height) : ("+spriteWidth+", "+spriteHeight+")");
 	}
@@ -392,6 +395,24 @@ public class WarpedSpriteSheet {
 		return result;
 	}
 	
+	/**Generate the collision masks for every sprite on this sheet.
+	 * @apiNote The masks are generated when the sheet is constructed, masks that are already cached are not generated again.
+	 * @implNote Masks are cached with their sprite image and shared by every object using that sprite.
+	 * @author 5som3*/
+	public void generateCollisionMasks() {CollisionMask.generate(rawSpriteImages);}
+	
+	/**Get the collision mask for a sprite on this sheet.
+	 * @param index - the index of the sprite in the rawSprite array.
+	 * @return CollisionMask - the mask for the specified sprite.
+	 * @author 5som3*/
+	public CollisionMask getCollisionMask(int index) {
+		if(index < 0 || index >= rawSpriteImages.length) {
+			Console.err("WarpedSpriteSheet -> getCollisionMask() -> invalid sprite index : " + index);
+			return null;
+		}
+		return CollisionMask.of(rawSpriteImages[index]);
+	}
+	
 	/**Does the SpriteSheet have the specified row.
 	 * @param boolean - true if the row exists else false.
 	 * @author 5som3*/
@@ -0,0 +1,204 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.window;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import warped.application.state.WarpedObject;
+import warped.graphics.sprite.spriteSheets.AtlasRegion;
+
+final class DirtyRegionTracker {
+
+	/*DirtyRegionTracker finds the areas of a viewport that changed since the last frame so only those areas are redrawn.
+	 * Each frame the viewport records every entry it would draw, the entries are compared with the entries of the previous frame at the same index.
+	 * 	- If an entry moved, resized, changed visibility or changed raster (including painting into the same raster) the old and new area are dirty.
+	 * 	- If the number of entries or the object at an index changed, the whole frame is redrawn.
+	 * Dirty areas that overlap are merged, if there are too many areas or they cover too much of the viewport the whole frame is redrawn instead.
+	 *
+	 * After end() the recorded frame is held as the previous frame, drawAll() and redraw() draw it.
+	 * The viewport draws into the oldest of its buffers, which last held the frame drawn bufferCount frames ago.
+	 * The area redrawn in a buffer is the union of the dirty areas of the current frame and the previous bufferCount - 1 frames.
+	 * */
+
+	private static final int MAX_RECTS = 16;
+	private static final double FULL_REDRAW_COVERAGE = 0.5;
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final int width;
+	private final int height;
+	private final List<List<Rectangle>> history; //Dirty areas of the previous frames, null if the frame was fully redrawn
+	private int historyIndex = 0;
+
+	private int settings = 0;
+	private boolean isFullRedraw = true;
+	private ArrayList<Rectangle> dirty = new ArrayList<>();
+
+	private int count = 0;
+	private WarpedObject[] objects = new WarpedObject[INITIAL_CAPACITY];
+	private BufferedImage[] rasters = new BufferedImage[INITIAL_CAPACITY];
+	private AtlasRegion[] regions = new AtlasRegion[INITIAL_CAPACITY];
+	private int[] versions = new int[INITIAL_CAPACITY];
+	private Rectangle[] areas = new Rectangle[INITIAL_CAPACITY];
+	private boolean[] visible = new boolean[INITIAL_CAPACITY];
+
+	private int previousCount = -1;
+	private WarpedObject[] previousObjects = new WarpedObject[INITIAL_CAPACITY];
+	private BufferedImage[] previousRasters = new BufferedImage[INITIAL_CAPACITY];
+	private AtlasRegion[] previousRegions = new AtlasRegion[INITIAL_CAPACITY];
+	private int[] previousVersions = new int[INITIAL_CAPACITY];
+	private Rectangle[] previousAreas = new Rectangle[INITIAL_CAPACITY];
+	private boolean[] previousVisible = new boolean[INITIAL_CAPACITY];
+
+	/**A tracker for a viewport of the specified size.
+	 * @param width - the width of the viewport.
+	 * @param height - the height of the viewport.
+	 * @param bufferCount - the number of buffers the viewport draws into in turn.*/
+	DirtyRegionTracker(int width, int height, int bufferCount) {
+		this.width = width;
+		this.height = height;
+		history = new ArrayList<>(Collections.nCopies(bufferCount, null));
+	}
+
+	/**Start recording a frame.
+	 * @param settings - a value that changes when anything other than the entries affects the drawn pixels (i.e. render hints), if it changes the whole frame is redrawn.*/
+	void begin(int settings) {
+		count = 0;
+		dirty.clear();
+		isFullRedraw = previousCount < 0 || settings != this.settings;
+		this.settings = settings;
+	}
+
+	/**Record an entry of the frame, in draw order.*/
+	void add(WarpedObject object, BufferedImage raster, AtlasRegion region, int version, double x, double y, double width, double height, boolean isVisible) {
+		if(count == objects.length) grow();
+		Rectangle area = areas[count];
+		if(area == null) area = areas[count] = new Rectangle();
+		area.setBounds((int)x, (int)y, (int)width, (int)height);
+		objects[count]  = object;
+		rasters[count]  = raster;
+		regions[count]  = region;
+		versions[count] = version;
+		visible[count]  = isVisible;
+		if(!isFullRedraw) {
+			if(count >= previousCount || previousObjects[count] != object) isFullRedraw = true;
+			else if(previousRasters[count] != raster || previousVersions[count] != version || previousVisible[count] != isVisible || !previousAreas[count].equals(area)) {
+				if(previousVisible[count]) markDirty(previousAreas[count]);
+				if(isVisible) markDirty(area);
+			}
+		}
+		count++;
+	}
+
+	/**Finish recording the frame.
+	 * @return ArrayList<Rectangle> - the areas to redraw in the buffer being drawn, empty if nothing changed, null if the whole buffer should be redrawn.*/
+	ArrayList<Rectangle> end() {
+		if(count != previousCount) isFullRedraw = true;
+		if(!isFullRedraw && isTooLarge(dirty)) isFullRedraw = true;
+		ArrayList<Rectangle> frame = isFullRedraw ? null : new ArrayList<>(dirty);
+
+		ArrayList<Rectangle> result = frame == null ? null : new ArrayList<>(frame);
+		for(int i = 1; i < history.size() && result != null; i++) {
+			List<Rectangle> previous = history.get((historyIndex - i + history.size()) % history.size());
+			if(previous == null) result = null;
+			else for(int j = 0; j < previous.size(); j++) merge(result, previous.get(j));
+		}
+		if(result != null && isTooLarge(result)) result = null;
+
+		history.set(historyIndex, frame);
+		historyIndex = (historyIndex + 1) % history.size();
+		swapFrames();
+		return result;
+	}
+
+	/**Redraw the whole buffer on the next bufferCount frames, i.e. if the buffer contents were lost.*/
+	void invalidate() {Collections.fill(history, null);}
+
+	/**Draw every visible entry of the recorded frame.
+	 * @param g - the graphics of the cleared buffer.*/
+	void drawAll(Graphics2D g) {
+		for(int i = 0; i < previousCount; i++) if(previousVisible[i]) draw(g, i);
+	}
+
+	/**Clear an area of the buffer and redraw the entries of the recorded frame that overlap it.
+	 * @param g - the graphics of the buffer.
+	 * @param area - the area to redraw.*/
+	void redraw(Graphics2D g, Rectangle area) {
+		g.setClip(area);
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(area.x, area.y, area.width, area.height);
+		g.setComposite(AlphaComposite.SrcOver);
+		for(int i = 0; i < previousCount; i++) if(previousVisible[i] && previousAreas[i].intersects(area)) draw(g, i);
+	}
+
+	private void draw(Graphics2D g, int index) {
+		Rectangle area = previousAreas[index];
+		if(previousRegions[index] != null) previousRegions[index].draw(g, area.x, area.y, area.width, area.height);
+		else g.drawImage(previousRasters[index], area.x, area.y, area.width, area.height, null);
+	}
+
+	/**Add an area to the dirty areas, merging it with any area it overlaps.*/
+	private void markDirty(Rectangle area) {
+		if(area.isEmpty()) return;
+		merge(dirty, new Rectangle(area.x - 1, area.y - 1, area.width + 2, area.height + 2)); // 1 pixel margin for interpolation at the edges
+		if(dirty.size() > MAX_RECTS) isFullRedraw = true;
+	}
+
+	private void merge(ArrayList<Rectangle> rects, Rectangle area) {
+		Rectangle merged = area.intersection(new Rectangle(0, 0, width, height));
+		if(merged.isEmpty()) return;
+		boolean isMerging = true;
+		while(isMerging) {
+			isMerging = false;
+			for(int i = 0; i < rects.size(); i++) {
+				if(rects.get(i).intersects(merged)) {
+					merged = merged.union(rects.remove(i));
+					isMerging = true;
+					break;
+				}
+			}
+		}
+		rects.add(merged);
+	}
+
+	private boolean isTooLarge(ArrayList<Rectangle> rects) {
+		if(rects.size() > MAX_RECTS) return true;
+		long area = 0;
+		for(int i = 0; i < rects.size(); i++) area += (long)rects.get(i).width * rects.get(i).height;
+		return area > FULL_REDRAW_COVERAGE * width * height;
+	}
+
+	/**The recorded frame becomes the previous frame, which is the frame that is drawn.*/
+	private void swapFrames() {
+		WarpedObject[] o = previousObjects; previousObjects = objects; objects = o;
+		BufferedImage[] r = previousRasters; previousRasters = rasters; rasters = r;
+		AtlasRegion[] a = previousRegions; previousRegions = regions; regions = a;
+		int[] v = previousVersions; previousVersions = versions; versions = v;
+		Rectangle[] b = previousAreas; previousAreas = areas; areas = b;
+		boolean[] s = previousVisible; previousVisible = visible; visible = s;
+		previousCount = count;
+	}
+
+	private void grow() {
+		int capacity = objects.length * 2;
+		objects 		= Arrays.copyOf(objects, capacity);
+		rasters 		= Arrays.copyOf(rasters, capacity);
+		regions 		= Arrays.copyOf(regions, capacity);
+		versions 		= Arrays.copyOf(versions, capacity);
+		areas 			= Arrays.copyOf(areas, capacity);
+		visible 		= Arrays.copyOf(visible, capacity);
+		previousObjects = Arrays.copyOf(previousObjects, capacity);
+		previousRasters = Arrays.copyOf(previousRasters, capacity);
+		previousRegions = Arrays.copyOf(previousRegions, capacity);
+		previousVersions = Arrays.copyOf(previousVersions, capacity);
+		previousAreas 	= Arrays.copyOf(previousAreas, capacity);
+		previousVisible = Arrays.copyOf(previousVisible, capacity);
+	}
+
+}
@@ -353,6 +353,12 @@ public class WarpedCamera {
 	/**Update camera position if target position changes*/
 	protected void updateTracking(WarpedObject obj) {position.set(obj.getRenderCentre());}
 	
+	/**Update camera position to the render centre of the target calculated by a viewport for the current frame.
+	 * @param centreX - the x coordinate of the centre of the target in screen space.
+	 * @param centreY - the y coordinate of the centre of the target in screen space.
+	 * @author 5som3*/
+	protected void updateTracking(double centreX, double centreY) {position.set(centreX, centreY);}
+	
 	
 
 }
@@ -0,0 +1,307 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.window;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import warped.utilities.utils.Console;
+
+public class WarpedFrameCapture {
+
+	/*WarpedFrameCapture writes rendered frames to files without stalling the render loop.
+	 * capture() only copies the frame into a pooled pixel buffer and queues it, background encoder threads write the queued frames to the output folder.
+	 * The pool holds a fixed number of buffers (the queue size), when every buffer is waiting to be written the policy decides if the frame is dropped or the render loop waits.
+	 *
+	 * Frames are written as frame_00000.png, frame_00001.png ... in the order they were captured, dropped frames are skipped and counted.
+	 * RAW frames are written much faster than PNG and can be converted to PNG after the capture with convertRaw().
+	 * A RAW frame is the width and height followed by the ARGB pixels, each as a big-endian int.
+	 * */
+
+	public static final int DEFAULT_QUEUE_SIZE = 8;
+
+	/**The file type the frames are written as.*/
+	public enum CaptureFormat {
+		PNG,
+		RAW,
+	}
+
+	/**What happens to a frame that is captured while every buffer is waiting to be written.*/
+	public enum CapturePolicy {
+		DROP,
+		BLOCK,
+	}
+
+	private static final CaptureFrame END = new CaptureFrame(); //Queued once for each encoder to stop it
+
+	private final String outputPath;
+	private final int frameCount;
+	private final CaptureFormat format;
+	private final CapturePolicy policy;
+	private final ArrayBlockingQueue<CaptureFrame> freeFrames;
+	private final ArrayBlockingQueue<CaptureFrame> pendingFrames;
+	private final CountDownLatch completion;
+	private final AtomicInteger writtenCount = new AtomicInteger();
+	private final AtomicInteger droppedCount = new AtomicInteger();
+	private final AtomicInteger failedCount = new AtomicInteger();
+	private volatile boolean isStopped = false;
+	private int capturedCount = 0;
+	private long captureDuration = 0;
+
+	private static class CaptureFrame {
+		private BufferedImage image;
+		private int[] pixels;
+		private ByteBuffer bytes;
+		private int index;
+
+		/**Copy an image into the buffer, resizing the buffer if the image is a different size.*/
+		private void copy(Image source, int width, int height) {
+			if(image == null || image.getWidth() != width || image.getHeight() != height) {
+				image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+				bytes = null;
+			}
+			if(source instanceof BufferedImage && ((BufferedImage)source).getType() == BufferedImage.TYPE_INT_ARGB) ((BufferedImage)source).getRaster().getDataElements(0, 0, width, height, pixels); // Copies the pixels directly
+			else {
+				Graphics2D g = image.createGraphics();
+				g.setComposite(AlphaComposite.Src);
+				g.drawImage(source, 0, 0, null);
+				g.dispose();
+			}
+		}
+	}
+
+	/**Capture frames as PNG files, dropping frames while the encoders are behind.
+	 * @param outputPath - the folder the frames are written to, created if it does not exist.
+	 * @param frameCount - the number of frames to capture.
+	 * @author 5som3*/
+	public WarpedFrameCapture(String outputPath, int frameCount) {this(outputPath, frameCount, CaptureFormat.PNG, CapturePolicy.DROP, DEFAULT_QUEUE_SIZE, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));}
+
+	/**Capture frames to files.
+	 * @param outputPath - the folder the frames are written to, created if it does not exist.
+	 * @param frameCount - the number of frames to capture.
+	 * @param format - the file type the frames are written as.
+	 * @param policy - if DROP a frame is skipped while every buffer is waiting to be written, if BLOCK capture() waits for a buffer.
+	 * @param queueSize - the number of pixel buffers, the most frames waiting or being written at once.
+	 * @param threads - the number of encoder threads.
+	 * @apiNote The encoder threads start immediately and stop once the last frame is written or stop() is called.
+	 * @author 5som3*/
+	public WarpedFrameCapture(String outputPath, int frameCount, CaptureFormat format, CapturePolicy policy, int queueSize, int threads) {
+		if(frameCount < 1) {
+			Console.err("WarpedFrameCapture -> WarpedFrameCapture() -> must capture at least 1 frame : " + frameCount);
+			frameCount = 1;
+		}
+		if(queueSize < 1) {
+			Console.err("WarpedFrameCapture -> WarpedFrameCapture() -> queue size must be at least 1 : " + queueSize);
+			queueSize = 1;
+		}
+		if(threads < 1) {
+			Console.err("WarpedFrameCapture -> WarpedFrameCapture() -> there must be at least one encoder thread : " + threads);
+			threads = 1;
+		}
+		File folder = new File(outputPath);
+		if(!folder.exists() && !folder.mkdirs()) Console.err("WarpedFrameCapture -> WarpedFrameCapture() -> failed to create output folder : " + outputPath);
+
+		this.outputPath = outputPath.endsWith("/") ? outputPath : outputPath + "/";
+		this.frameCount = frameCount;
+		this.format = format;
+		this.policy = policy;
+		freeFrames = new ArrayBlockingQueue<>(queueSize);
+		pendingFrames = new ArrayBlockingQueue<>(queueSize + threads);
+		for(int i = 0; i < queueSize; i++) freeFrames.add(new CaptureFrame());
+		completion = new CountDownLatch(threads);
+		for(int i = 0; i < threads; i++) {
+			Thread thread = new Thread(this::encode, "Frame Capture Thread : " + i);
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**Capture a frame, the frame is copied and written in the background.
+	 * @param frame - the frame to capture.
+	 * @return boolean - true if the frame was captured, false if it was dropped or the capture has stopped.
+	 * @apiNote Call from a single thread only, usually the render loop.
+	 * @author 5som3*/
+	public boolean capture(Image frame) {
+		if(isStopped) return false;
+		long startTime = System.nanoTime();
+		CaptureFrame captureFrame;
+		if(policy == CapturePolicy.BLOCK) {
+			try {
+				captureFrame = freeFrames.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		} else captureFrame = freeFrames.poll();
+		if(captureFrame == null) {
+			droppedCount.incrementAndGet();
+			captureDuration = System.nanoTime() - startTime;
+			return false;
+		}
+		captureFrame.copy(frame, frame.getWidth(null), frame.getHeight(null));
+		synchronized(this) { // stop() may be called from another thread
+			if(isStopped) {
+				freeFrames.add(captureFrame);
+				return false;
+			}
+			captureFrame.index = capturedCount++;
+			pendingFrames.add(captureFrame);
+			if(capturedCount >= frameCount) stop();
+		}
+		captureDuration = System.nanoTime() - startTime;
+		return true;
+	}
+
+	/**Stop capturing, frames that have already been captured are still written.
+	 * @author 5som3*/
+	public synchronized void stop() {
+		if(isStopped) return;
+		isStopped = true;
+		for(long i = completion.getCount(); i > 0; i--) pendingFrames.add(END);
+	}
+
+	/**Has the capture stopped, either from capturing every frame or from stop().
+	 * @return boolean - true if capture() will no longer accept frames.
+	 * @author 5som3*/
+	public boolean isStopped() {return isStopped;}
+
+	/**Have all the captured frames been written.
+	 * @return boolean - true if the capture has stopped and the encoders have finished.
+	 * @author 5som3*/
+	public boolean isComplete() {return completion.getCount() == 0;}
+
+	/**Wait for the captured frames to be written.
+	 * @param timeout - the most time to wait in milli-seconds.
+	 * @return boolean - true if the capture is complete, false if the timeout elapsed first.
+	 * @author 5som3*/
+	public boolean awaitCompletion(long timeout) {
+		try {
+			return completion.await(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**The folder the frames are written to.
+	 * @return String - the output path, ending with '/'.
+	 * @author 5som3*/
+	public String getOutputPath() {return outputPath;}
+
+	/**The number of frames captured.
+	 * @return int - the number of frames queued to be written.
+	 * @author 5som3*/
+	public int getCapturedCount() {return capturedCount;}
+
+	/**The number of frames written to file.
+	 * @return int - the number of frames written.
+	 * @author 5som3*/
+	public int getWrittenCount() {return writtenCount.get();}
+
+	/**The number of frames that were dropped because every buffer was waiting to be written.
+	 * @return int - the number of dropped frames, always 0 for CapturePolicy.BLOCK.
+	 * @author 5som3*/
+	public int getDroppedCount() {return droppedCount.get();}
+
+	/**The number of frames that could not be written.
+	 * @return int - the number of frames that failed to write.
+	 * @author 5som3*/
+	public int getFailedCount() {return failedCount.get();}
+
+	/**The time the last call to capture() took, this is the time added to the render loop.
+	 * @return long - the duration in nano-seconds.
+	 * @author 5som3*/
+	public long getCaptureDuration() {return captureDuration;}
+
+	/**Convert the RAW frames in a folder to PNG files with the same names.
+	 * @param folderPath - the folder containing the RAW frames.
+	 * @return int - the number of frames converted.
+	 * @apiNote The RAW files are kept.
+	 * @author 5som3*/
+	public static int convertRaw(String folderPath) {
+		File folder = new File(folderPath);
+		File[] files = folder.listFiles((dir, name) -> name.endsWith(".raw"));
+		if(files == null) {
+			Console.err("WarpedFrameCapture -> convertRaw() -> folder does not exist : " + folderPath);
+			return 0;
+		}
+		int count = 0;
+		for(File file : files) {
+			try(DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				int width = input.readInt();
+				int height = input.readInt();
+				BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				int[] pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+				for(int i = 0; i < pixels.length; i++) pixels[i] = input.readInt();
+				String name = file.getName();
+				ImageIO.write(image, "png", new File(folder, name.substring(0, name.length() - 4) + ".png"));
+				count++;
+			} catch (IOException e) {
+				Console.err("WarpedFrameCapture -> convertRaw() -> failed to convert frame : " + file.getPath());
+				Console.stackTrace(e);
+			}
+		}
+		Console.ln("WarpedFrameCapture -> convertRaw() -> converted " + count + " frames in : " + folderPath);
+		return count;
+	}
+
+	/**Write queued frames until the capture stops, run by each encoder thread.*/
+	private void encode() {
+		try {
+			CaptureFrame frame = pendingFrames.take();
+			while(frame != END) {
+				write(frame);
+				freeFrames.add(frame);
+				frame = pendingFrames.take();
+			}
+		} catch (InterruptedException e) {
+			Console.err("WarpedFrameCapture -> encode() -> encoder interrupted");
+		}
+		completion.countDown();
+		if(completion.getCount() == 0) Console.ln("WarpedFrameCapture -> wrote " + writtenCount.get() + " frames to " + outputPath + ", dropped " + droppedCount.get() + ", failed " + failedCount.get());
+	}
+
+	private void write(CaptureFrame frame) {
+		String fileName = outputPath + String.format("frame_%05d", frame.index);
+		try {
+			if(format == CaptureFormat.PNG) ImageIO.write(frame.image, "png", new File(fileName + ".png"));
+			else {
+				int size = 8 + frame.pixels.length * 4;
+				if(frame.bytes == null || frame.bytes.capacity() != size) frame.bytes = ByteBuffer.allocateDirect(size);
+				ByteBuffer bytes = frame.bytes;
+				bytes.clear();
+				bytes.putInt(frame.image.getWidth());
+				bytes.putInt(frame.image.getHeight());
+				bytes.asIntBuffer().put(frame.pixels);
+				bytes.position(0);
+				try(FileChannel channel = FileChannel.open(new File(fileName + ".raw").toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+					while(bytes.hasRemaining()) channel.write(bytes);
+				}
+			}
+			writtenCount.incrementAndGet();
+		} catch (IOException e) {
+			failedCount.incrementAndGet();
+			Console.err("WarpedFrameCapture -> write() -> failed to write frame : " + fileName);
+			Console.stackTrace(e);
+		}
+	}
+
+}
@@ -0,0 +1,179 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.graphics.window;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import warped.WarpedProperties;
+import warped.application.state.WarpedManager;
+import warped.utilities.utils.Console;
+
+public class WarpedRenderHarness {
+
+	/*WarpedRenderHarness renders viewports into a BufferedImage without a window, so rendering can be measured and compared in automated runs.
+	 * Each frame the viewports are updated with the same render methods the WarpedWindow uses, then drawn into the target in the order they were added.
+	 * The render duration of every viewport is recorded for each frame, use the percentiles to compare render performance between changes.
+	 *
+	 * Works with java.awt.headless=true, the managers are stepped by the harness instead of the state loop so every run renders the same frames.
+	 * */
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final BufferedImage target;
+	private ArrayList<WarpedViewport> viewports = new ArrayList<>();
+	private ArrayList<long[]> durations = new ArrayList<>(); //The render duration of each frame for each viewport
+	private int frameCount = 0;
+	private WarpedFrameCapture frameCapture;
+
+	/**A harness that renders into a new image.
+	 * @param width - the width of the target image.
+	 * @param height - the height of the target image.
+	 * @author 5som3*/
+	public WarpedRenderHarness(int width, int height) {
+		target = new BufferedImage(width, height, WarpedProperties.BUFFERED_IMAGE_TYPE);
+	}
+
+	/**Add a viewport to be rendered, viewports are drawn on top of the viewports added before them.
+	 * @param viewport - the viewport to render.
+	 * @apiNote The viewport should not also be rendered by the WarpedWindow.
+	 * @apiNote Add viewports before rendering or call reset() after, so every viewport has a duration for each recorded frame.
+	 * @author 5som3*/
+	public void addViewport(WarpedViewport viewport) {
+		viewports.add(viewport);
+		durations.add(new long[Math.max(INITIAL_CAPACITY, frameCount)]);
+	}
+
+	/**The image the viewports are rendered into.
+	 * @return BufferedImage - the last rendered frame.
+	 * @author 5som3*/
+	public BufferedImage getTarget() {return target;}
+
+	/**Set a frame capture to receive each rendered frame.
+	 * @param capture - the capture, if null frames are not captured.
+	 * @apiNote The capture time is not included in the viewport render durations, see WarpedFrameCapture.getCaptureDuration().
+	 * @author 5som3*/
+	public void setFrameCapture(WarpedFrameCapture capture) {frameCapture = capture;}
+
+	/**The number of frames rendered since the harness was constructed or reset.
+	 * @return int - the frame count.
+	 * @author 5som3*/
+	public int getFrameCount() {return frameCount;}
+
+	/**Clear the recorded render durations.
+	 * @apiNote Call after warming up to exclude the first frames from the percentiles.
+	 * @author 5som3*/
+	public void reset() {frameCount = 0;}
+
+	/**Render each viewport and draw it into the target.
+	 * @apiNote The managers are not updated, viewports draw the last snapshots published by the managers.
+	 * @author 5som3*/
+	public void renderFrame() {
+		Graphics2D g = target.createGraphics();
+		g.setComposite(AlphaComposite.Clear);
+		g.fillRect(0, 0, target.getWidth(), target.getHeight());
+		g.setComposite(AlphaComposite.SrcOver);
+		for(int i = 0; i < viewports.size(); i++) {
+			WarpedViewport viewport = viewports.get(i);
+			long startTime = System.nanoTime();
+			viewport.update();
+			record(i, System.nanoTime() - startTime);
+			if(viewport.isVisible()) g.drawImage(viewport.raster(), viewport.getX(), viewport.getY(), null);
+		}
+		g.dispose();
+		if(frameCapture != null) frameCapture.capture(target);
+		frameCount++;
+	}
+
+	/**Step the managers and render a number of frames at a fixed time step.
+	 * @param frames - the number of frames to render.
+	 * @param deltaTime - the time step in seconds between frames, i.e. 1.0 / 60.
+	 * @param managers - the managers to step before each frame, see WarpedManager.step().
+	 * @author 5som3*/
+	public void run(int frames, double deltaTime, WarpedManager<?>... managers) {
+		for(int frame = 0; frame < frames; frame++) {
+			for(int i = 0; i < managers.length; i++) managers[i].step(deltaTime);
+			renderFrame();
+		}
+	}
+
+	/**The render duration of a viewport at a percentile of the recorded frames.
+	 * @param viewportIndex - the index of the viewport, in the order it was added.
+	 * @param percentile - the percentile from 0.0 to 100.0, i.e. 50.0 is the median and 100.0 is the slowest frame.
+	 * @return long - the duration in nano-seconds, 0 if no frames have been rendered.
+	 * @author 5som3*/
+	public long getPercentile(int viewportIndex, double percentile) {
+		if(viewportIndex < 0 || viewportIndex >= viewports.size()) {
+			Console.err("WarpedRenderHarness -> getPercentile() -> viewport index out of bounds : " + viewportIndex);
+			return 0;
+		}
+		if(percentile < 0.0 || percentile > 100.0) {
+			Console.err("WarpedRenderHarness -> getPercentile() -> percentile must be from 0 to 100 : " + percentile);
+			percentile = Math.max(0.0, Math.min(100.0, percentile));
+		}
+		if(frameCount == 0) return 0;
+		long[] sorted = Arrays.copyOf(durations.get(viewportIndex), frameCount);
+		Arrays.sort(sorted);
+		int index = (int)Math.ceil(percentile / 100.0 * frameCount) - 1; // Nearest rank
+		return sorted[Math.max(0, index)];
+	}
+
+	/**Print the 50th, 90th and 99th percentile and the slowest render duration of each viewport to the console.
+	 * @author 5som3*/
+	public void printReport() {
+		Console.ln("WarpedRenderHarness -> " + frameCount + " frames at " + target.getWidth() + "x" + target.getHeight());
+		for(int i = 0; i < viewports.size(); i++) {
+			Console.ln("WarpedRenderHarness -> " + viewports.get(i).getName()
+					+ " -> p50 : " + toMillis(getPercentile(i, 50.0))
+					+ " ms, p90 : " + toMillis(getPercentile(i, 90.0))
+					+ " ms, p99 : " + toMillis(getPercentile(i, 99.0))
+					+ " ms, max : " + toMillis(getPercentile(i, 100.0)) + " ms");
+		}
+	}
+
+	/**Count the pixels that differ between two images, i.e. to compare a rendered frame with a golden image.
+	 * @param image - the rendered image.
+	 * @param expected - the image it should match.
+	 * @param tolerance - the largest difference allowed in any channel of a pixel, 0 for an exact match.
+	 * @return int - the number of pixels that differ by more than the tolerance, -1 if the images are not the same size.
+	 * @apiNote Fully transparent pixels are equal regardless of their colour.
+	 * @author 5som3*/
+	public static int compare(BufferedImage image, BufferedImage expected, int tolerance) {
+		if(image.getWidth() != expected.getWidth() || image.getHeight() != expected.getHeight()) return -1;
+		int width = image.getWidth();
+		int[] row = new int[width];
+		int[] expectedRow = new int[width];
+		int count = 0;
+		for(int y = 0; y < image.getHeight(); y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+			expected.getRGB(0, y, width, 1, expectedRow, 0, width);
+			for(int x = 0; x < width; x++) {
+				int a = row[x];
+				int b = expectedRow[x];
+				if(a == b || ((a >>> 24) == 0 && (b >>> 24) == 0)) continue;
+				for(int shift = 0; shift < 32; shift += 8) {
+					if(Math.abs(((a >>> shift) & 0xFF) - ((b >>> shift) & 0xFF)) > tolerance) {
+						count++;
+						break;
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	private void record(int viewportIndex, long duration) {
+		long[] frames = durations.get(viewportIndex);
+		if(frameCount >= frames.length) {
+			frames = Arrays.copyOf(frames, frames.length * 2);
+			durations.set(viewportIndex, frames);
+		}
+		frames[frameCount] = duration;
+	}
+
+	private static String toMillis(long nanos) {return String.format("%.3f", nanos / 1000000.0);}
+
+}
@@ -5,7 +5,9 @@ package warped.graphics.window;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
 import java.awt.image.VolatileImage;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -15,7 +17,13 @@ import warped.WarpedProperties;
 import warped.application.state.WarpedGroup;
 import warped.application.state.WarpedManager;
 import warped.application.state.WarpedObject;
+import warped.application.state.WarpedRenderSnapshot;
+import warped.application.state.WarpedRenderTransforms;
+import warped.application.state.WarpedState;
+import warped.application.tile.WarpedTileLayer;
 import warped.functionalInterfaces.WarpedAction;
+import warped.graphics.sprite.Mipmap;
+import warped.graphics.sprite.spriteSheets.AtlasRegion;
 import warped.utilities.math.vectors.VectorI;
 import warped.utilities.utils.Console;
 import warped.utilities.utils.UtilsImage;
@@ -25,6 +33,10 @@ public class WarpedViewport {
 	/*Notes : 
 	 * ---ViewPort---  
 	 * Each ViewPort has its own thread that is responsible for drawing
+	 * Viewports draw from the render snapshots published by the state loop at the end of each active update (see WarpedRenderSnapshot)
+	 * They never iterate group members or active groups directly, so the state loop can change them while a frame is being drawn.
+	 * Viewports never change the objects they draw either, the render transformations of each frame are recorded and set on the objects by the state loop (see WarpedRenderTransforms)
+	 * Camera tracking and mouse hit tests use the transformations calculated for the frame, not the ones stored in the objects.
 	 * 
 	 * --Mouse Events
 	 * ViewPort has two main functions related to mouseEvents.
@@ -44,10 +56,22 @@ public class WarpedViewport {
 	public  WarpedCamera camera = new WarpedCamera();
 
 	private WarpedManager<?> target; 	
-	private ArrayList<WarpedGroup<?>> targetGroups = new ArrayList<>();
+	private volatile List<WarpedGroup<?>> targetGroups = new ArrayList<>();
 		
 	private boolean visible = true;
 	private boolean interactive = true;
+	private boolean isAtlasBatched = false;
+	private volatile DirtyRegionTracker dirtyTracker; //Null unless dirty rendering is set
+	private volatile WarpedTileLayer tileLayer; 	  //Drawn before the objects, null if not set
+	private boolean isCulled = false;
+	private boolean isMipmapped = false;
+	private boolean isMipmapNearest = false;
+	private boolean isTargetFound = false;  //Was the camera target drawn in the current frame
+	private volatile WarpedObject hoveredObject;  //The last object to be hovered by a mouse event
+	private boolean isHoveredFound = false; //Was the hovered object drawn in the current frame
+	private volatile boolean isHoveredCulled = false; //Was the hovered object missing from a frame, it is unhovered when mouse events are dispatched
+	private WarpedRenderTransforms frameTransforms; //The transformations of the frame being drawn
+	private int frameTransformCount = 0; //The number of transformations in the last frame
 	
 	private VectorI size 	  	 = new VectorI(); 
 	private VectorI position 	= new VectorI();
@@ -206,10 +230,7 @@ public class WarpedViewport {
 	/**For the currently targeted manager, set which groups should be viewed by this viewport.
 	 * @param groups - a list of the groups within the current targeted manager to draw.
 	 * @author SomeKid*/
-	public final void setTargetGroups(List<WarpedGroup<?>> groups) {
-		targetGroups.clear();
-		targetGroups = new ArrayList<>(groups);		
-	}
+	public final void setTargetGroups(List<WarpedGroup<?>> groups) {targetGroups = new ArrayList<>(groups);} // Replace rather than clear, the render thread may be iterating the old list
 	
 	/**If the viewport has been baked with graphics they will be cleared.
 	 * @implNote the viewport raster will be made completely transparent.
@@ -252,12 +273,13 @@ public class WarpedViewport {
 					if(obj.isVisible() && !isClipped(obj)) {			
 						//at.setTransform(1.0, 0.0, 0.0, 1.0, obj.getPosition().x(), obj.getPosition().y());
 						//g.drawRenderedImage(obj.raster(), at);
-						g.drawImage(obj.raster(), (int)obj.getPosition().x(), (int)obj.getPosition().y(), obj.getWidth(), obj.getHeight(), null);
+						g.drawImage(obj.raster(), (int)obj.getRenderPosition().x(), (int)obj.getRenderPosition().y(), (int)obj.getRenderSize().x(), (int)obj.getRenderSize().y(), null);
 					}
 				});
 			}
 		} else for(int i = 0; i < targetGroups.size(); i++) {
 			targetGroups.get(i).forEach((obj) -> {
+				obj.setRenderTransformations(); // Clipped where it is drawn, not where the last transformed viewport drew it
 				if(obj.isVisible() && !isClipped(obj)) {			
 					//at.setTransform(1.0, 0.0, 0.0, 1.0, obj.getPosition().x(), obj.getPosition().y());
 					//g.drawRenderedImage(obj.raster(), at);
@@ -353,6 +375,8 @@ public class WarpedViewport {
 	 * @author 5som3*/
 	public void setRenderMethod(RenderType renderType) {
 		this.renderType = renderType;
+		DirtyRegionTracker tracker = dirtyTracker;
+		if(tracker != null) tracker.invalidate();
 		switch(renderType) {
 		case PRIMITIVE:
 			renderMethod = primitive;
@@ -422,6 +446,80 @@ public class WarpedViewport {
 	 * @impNote A viewport that is not visible will not be able to interact with the mouse even if isInteractve is true
 	 * @author SomeKid*/
 	public void setVisible(boolean isVisible) {this.visible = isVisible;}
+	
+	/**Set if the objects of each group are drawn in atlas page order.
+	 * @param isAtlasBatched - if true the objects in each group are sorted by atlas page, so objects that share a page are drawn one after another.
+	 * @apiNote Objects with an image packed in a WarpedAtlas are always drawn from the atlas page, batching only changes the draw order.
+	 * @apiNote Objects in the same group that overlap may be drawn in a different order, only batch groups where draw order does not matter (i.e. particles, projectiles).
+	 * @author 5som3*/
+	public void setAtlasBatching(boolean isAtlasBatched) {this.isAtlasBatched = isAtlasBatched;}
+	
+	/**Set if only the areas of the viewport that changed since the last frame are redrawn.
+	 * @param isDirtyRendered - if true the viewport compares each frame with the last and only clears and redraws the areas where objects moved, resized or changed raster.
+	 * @apiNote Use for viewports that are mostly static, i.e. GUI and HUD layers. The viewport falls back to a full redraw when more than half of it changes.
+	 * @apiNote Adding, removing or reordering the objects drawn by the viewport causes a full redraw.
+	 * @apiNote Graphics drawn into a viewport in other ways (i.e. editing the raster directly) will not be detected.
+	 * @author 5som3*/
+	public void setDirtyRendering(boolean isDirtyRendered) {
+		if(isDirtyRendered) dirtyTracker = new DirtyRegionTracker(size.x(), size.y(), WarpedWindow.BUFFER_SIZE);
+		else dirtyTracker = null;
+	}
+	
+	/**Are only the areas of the viewport that changed redrawn.
+	 * @return boolean - true if dirty rendering is set.
+	 * @author 5som3*/
+	public boolean isDirtyRendered() {return dirtyTracker != null;}
+	
+	/**Set if the viewport only visits the objects that may be visible to its camera.
+	 * @param isCulled - if true the objects are found with the spatial grid of each render snapshot (see WarpedRenderSnapshot.getEntriesIn()), else every object is tested.
+	 * @apiNote The objects drawn are the same either way, culling skips the objects outside the view so their render position and size are not updated.
+	 * @apiNote Use for viewports that draw many objects where most are off screen, i.e. a large game world.
+	 * @author 5som3*/
+	public void setCulling(boolean isCulled) {this.isCulled = isCulled;}
+	
+	/**Does the viewport only visit the objects that may be visible to its camera.
+	 * @return boolean - true if culling is set.
+	 * @author 5som3*/
+	public boolean isCulled() {return isCulled;}
+	
+	/**Set a tile layer to draw before the objects in each frame.
+	 * @param tileLayer - the layer to draw, the chunks visible to this viewports camera are drawn with the camera translation and zoom applied.
+	 * @apiNote The viewport redraws every frame while a tile layer is set, even if dirty rendering is set.
+	 * @author 5som3*/
+	public void setTileLayer(WarpedTileLayer tileLayer) {this.tileLayer = tileLayer;}
+	
+	/**Stop drawing the tile layer.
+	 * @author 5som3*/
+	public void clearTileLayer() {tileLayer = null;}
+	
+	/**The tile layer drawn before the objects.
+	 * @return WarpedTileLayer - the layer, null if no layer is set.
+	 * @author 5som3*/
+	public WarpedTileLayer getTileLayer() {return tileLayer;}
+	
+	/**Set if sprite sheet frames are drawn from a mipmap when the camera is zoomed out.
+	 * @param isMipmapped - if true objects drawn at less than half their size use the mipmap level closest to the drawn size, see Mipmap.
+	 * @apiNote Only applies to viewports that apply the camera zoom, and only to shared frames (i.e. from a sprite sheet), sprites that are painted into are drawn as normal.
+	 * @apiNote Mipmapped objects are drawn from the mipmap level instead of the atlas page.
+	 * @implNote The levels of each frame are generated the first time the frame is drawn below half size, then cached while the frame is in use.
+	 * @author 5som3*/
+	public void setMipmapping(boolean isMipmapped) {this.isMipmapped = isMipmapped;}
+	
+	/**Set if mipmap levels are scaled to the drawn size with nearest neighbour interpolation.
+	 * @param isMipmapNearest - if true the interpolation render hint is set to nearest neighbour while the camera zoom is below half size.
+	 * @apiNote The mipmap level is already close to the drawn size, nearest neighbour is faster and only slightly less smooth than bilinear or bicubic.
+	 * @author 5som3*/
+	public void setMipmapNearest(boolean isMipmapNearest) {this.isMipmapNearest = isMipmapNearest;}
+	
+	/**Are sprite sheet frames drawn from a mipmap when the camera is zoomed out.
+	 * @return boolean - true if mipmapping is set.
+	 * @author 5som3*/
+	public boolean isMipmapped() {return isMipmapped;}
+	
+	/**Are the objects of each group drawn in atlas page order.
+	 * @return boolean - true if the objects are sorted by atlas page.
+	 * @author 5som3*/
+	public boolean isAtlasBatched() {return isAtlasBatched;}
 
 	/**Set the position of this viewport in the window.
 	 * @param x - the x position in pixels.
@@ -572,7 +670,6 @@ public class WarpedViewport {
 			render();
 			if(eventObjects.size() > 0) {
 				if(eventObject == null) eventObject = eventObjects.getLast();
-				for(int i = 0; i < eventObjects.size() - 1; i++) eventObjects.get(i).unhovered();
 				eventObjects.clear();
 			}
 			fps++;
@@ -595,12 +692,18 @@ public class WarpedViewport {
 	/**@implNote This function is called automatically from the WarpedWindow once at the end of each render cycle.
 	 * @author SomeKid*/
 	protected void dispatchMouseEvents() {		
+		if(isHoveredCulled) {
+			isHoveredCulled = false;
+			unhoverObject();
+		}
+		if(mouseEvent != null && !mouseEvent.isHandled() && hoveredObject != eventObject) unhoverObject(); // The mouse moved off the hovered object
 		if(mouseEvent == null || eventObject == null || mouseEvent.isHandled()) {
 			mouseEvent  = null;
 			eventObject = null;
 			return;
 		} else if(eventObject.isInteractive()){			
-			eventObject.hovered();		
+			eventObject.hovered();
+			hoveredObject = eventObject;
 			eventObject.mouseEvent(mouseEvent);
 			mouseEvent.handle();
 		} else {
@@ -611,16 +714,89 @@ public class WarpedViewport {
 		eventObject = null;
 	}
 	
+	/**Unhover the last object hovered by this viewport, called on the same thread as hovered()*/
+	private void unhoverObject() {
+		WarpedObject hovered = hoveredObject;
+		if(hovered == null) return;
+		hovered.unhovered();
+		hoveredObject = null;
+	}
 	
-	/**Checks if the renderObject interacts with the mouseEvent, if the renderObject is added to the eventObjects shortList.
+	/**Checks if a snapshot entry interacts with the mouseEvent, if the object is added to the eventObjects shortList.
 	 * The last object in eventObjects will be the object that actually receives a mouse event when dispactMouseEvent() triggers. 
-	 * 	@author 5som3*/
-	protected void handleMouse(WarpedObject renderObject) {
+	 * @param snapshot - the snapshot being drawn.
+	 * @param index - the index of the entry.
+	 * @param x - the x coordinate of the entry in the frame.
+	 * @param y - the y coordinate of the entry in the frame.
+	 * @param width - the width of the entry in the frame.
+	 * @param height - the height of the entry in the frame.
+	 * @implNote Only the snapshot and the frame are read, objects that are not hit are unhovered by dispatchMouseEvents().
+	 * @author 5som3*/
+	private void handleMouse(WarpedRenderSnapshot snapshot, int index, double x, double y, double width, double height) {
 		WarpedMouseEvent me = mouseEvent;
 		if(me == null) return;
 		else if(me.isHandled()) return;
-		if(renderObject.isInteractive() && renderObject.isVisible() && isOverObject(renderObject, me)) eventObjects.add(renderObject);
-		else renderObject.unhovered();
+		if(snapshot.isInteractive(index) && snapshot.isVisible(index) && isOverEntry(me, snapshot.getRaster(index), x, y, width, height)) eventObjects.add(snapshot.getObject(index));
+	}
+	
+	/**Draw the entries of a render snapshot, recording the render transformation of each object for mouse events and camera tracking.
+	 * @param g - the graphics to draw with.
+	 * @param snapshot - the snapshot to draw.
+	 * @param isTransformed - if true the camera translation and zoom will be applied.
+	 * @param tracker - if not null the entries are recorded in the tracker to be drawn later instead of drawn immediately.
+	 * @author 5som3*/
+	private void drawSnapshot(Graphics2D g, WarpedRenderSnapshot snapshot, boolean isTransformed, DirtyRegionTracker tracker) {
+		double zoom = isTransformed ? camera.getZoom() : 1.0;
+		double cameraX = isTransformed ? camera.getPosition().x() : 0.0;
+		double cameraY = isTransformed ? camera.getPosition().y() : 0.0;
+		boolean isBatched = isAtlasBatched;
+		boolean isMipmapping = isMipmapped && isTransformed && zoom < Mipmap.ZOOM_THRESHOLD;
+		int[] entries = null;
+		if(isCulled) entries = snapshot.getEntriesIn(position.x() / zoom - cameraX, position.y() / zoom - cameraY, cornerPoint.x() / zoom - cameraX, cornerPoint.y() / zoom - cameraY, isBatched); // The area where isClipped() is false
+		int count = entries == null ? snapshot.size() : entries.length;
+		for(int n = 0; n < count; n++) {
+			int i = entries != null ? entries[n] : isBatched ? snapshot.getPageOrder(n) : n;
+			WarpedObject obj = snapshot.getObject(i);
+			double x = (snapshot.getX(i) + cameraX) * zoom;
+			double y = (snapshot.getY(i) + cameraY) * zoom;
+			double width = snapshot.getWidth(i);
+			double height = snapshot.getHeight(i);
+			if(isTransformed) {
+				width *= zoom * snapshot.getRenderScale(i);
+				height *= zoom * snapshot.getRenderScale(i);
+			}
+			frameTransforms.add(obj, x, y, width, height);
+			if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) {
+				camera.updateTracking(x + width / 2, y + height / 2);
+				isTargetFound = true;
+			}
+			if(obj == hoveredObject) isHoveredFound = true;
+			boolean isDrawn = snapshot.isVisible(i) && !isClipped(x, y, width, height);
+			BufferedImage raster = snapshot.getRaster(i);
+			AtlasRegion region = snapshot.getRegion(i);
+			if(isMipmapping && isDrawn && snapshot.isRasterShared(i)) {
+				double scale = zoom * snapshot.getRenderScale(i);
+				if(scale < Mipmap.ZOOM_THRESHOLD) {
+					raster = Mipmap.of(raster).getLevelFor(scale);
+					region = null;
+				}
+			}
+			if(tracker != null) tracker.add(obj, raster, region, snapshot.getRasterVersion(i), x, y, width, height, isDrawn); // Drawn after every entry is compared
+			else if(isDrawn) {
+				if(region != null) region.draw(g, (int)x, (int)y, (int)width, (int)height);
+				else g.drawImage(raster, (int)x, (int)y, (int)width, (int)height, null);
+			}
+			handleMouse(snapshot, i, x, y, width, height);
+		}
+	}
+	
+	/**Check if the specified area is in the bounds of the viewport*/
+	private boolean isClipped(double x, double y, double width, double height) {
+		if(x + width < position.x()) return true; // outside left bound
+		if(y + height < position.y()) return true; // outside top bound
+		if(x > cornerPoint.x()) return true; // outside right bound
+		if(y > cornerPoint.y()) return true; // outside bottom bound
+		return false;
 	}
 	
 	/**Check if the specified object is in the bounds of the viewport*/
@@ -654,6 +830,21 @@ public class WarpedViewport {
 	}
 	
 
+	/**Check if the mouse event is over a snapshot entry drawn in the current frame*/
+	private boolean isOverEntry(WarpedMouseEvent mouseEvent, BufferedImage raster, double x, double y, double width, double height) {
+		Point point = mouseEvent.getPointRelativeToViewPort();
+		double traceX = point.x - x;
+		double traceY = point.y - y;
+		if(traceX < 0 || traceY < 0 || traceX >= width || traceY >= height) return false;
+		
+		int pixelX = (int)(traceX * raster.getWidth() / width); // The frame size is the sprite size scaled, the raster may be larger (i.e. rotated)
+		int pixelY = (int)(traceY * raster.getHeight() / height);
+		if(pixelX < 0 || pixelY < 0 || pixelX >= raster.getWidth() || pixelY >= raster.getHeight()) return false;
+		
+		int alpha = 0xFF & (raster.getRGB(pixelX, pixelY) >> 24);
+		return alpha > WarpedProperties.ALPHA_THRESHOLD;
+	}
+
 	/**Get the graphics for this viewport.
 	 * @return Graphics2D - a graphics interface with next buffer in the viewport.
 	 * @implNote any changes made to the graphics will not not be visible raster is set to the new buffer.
@@ -673,6 +864,94 @@ public class WarpedViewport {
 		buffer = rasterBuffer[bufferIndex];
 	}
 	
+	/**Draw the snapshots into the next buffer and make it the output raster.
+	 * @param snapshots - the snapshots to draw, in order.
+	 * @param isTransformed - if true the camera translation and zoom will be applied.
+	 * @param isHinted - if true the render hints will be applied.
+	 * @author 5som3*/
+	private void renderSnapshots(WarpedRenderSnapshot[] snapshots, boolean isTransformed, boolean isHinted) {
+		DirtyRegionTracker tracker = dirtyTracker;
+		WarpedTileLayer layer = tileLayer;
+		isTargetFound = false;
+		isHoveredFound = false;
+		frameTransforms = new WarpedRenderTransforms(frameTransformCount);
+		boolean isNearest = isMipmapped && isMipmapNearest && isTransformed && camera.getZoom() < Mipmap.ZOOM_THRESHOLD;
+		if(tracker == null || layer != null) {
+			Graphics2D g = getGraphics();
+			if(isHinted) g.setRenderingHints(rh);
+			if(isNearest) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			if(layer != null) layer.draw(g, camera, size.x(), size.y());
+			if(tracker != null) tracker.invalidate(); // The buffers are not tracked while the tile layer is drawn
+			for(int i = 0; i < snapshots.length; i++) drawSnapshot(g, snapshots[i], isTransformed, null);
+			g.dispose();
+			pushGraphics();
+			if(isCulled) updateCulledObjects(snapshots, isTransformed);
+			publishFrameTransforms();
+			return;
+		}
+		
+		tracker.begin((isHinted ? rh.hashCode() : 0) ^ (isNearest ? 1 : 0));
+		for(int i = 0; i < snapshots.length; i++) drawSnapshot(null, snapshots[i], isTransformed, tracker);
+		if(isCulled) updateCulledObjects(snapshots, isTransformed);
+		publishFrameTransforms();
+		ArrayList<Rectangle> dirtyAreas = tracker.end();
+		if(buffer.contentsLost()) {
+			tracker.invalidate();
+			dirtyAreas = null;
+		}
+		Graphics2D g;
+		if(dirtyAreas == null) {
+			g = getGraphics();
+			if(isHinted) g.setRenderingHints(rh);
+			if(isNearest) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			tracker.drawAll(g);
+		} else {
+			g = buffer.createGraphics();
+			if(isHinted) g.setRenderingHints(rh);
+			if(isNearest) g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			for(int i = 0; i < dirtyAreas.size(); i++) tracker.redraw(g, dirtyAreas.get(i));
+		}
+		g.dispose();
+		pushGraphics();
+	}
+	
+	/**Publish the transformations of the frame to be set on the objects by the state loop.*/
+	private void publishFrameTransforms() {
+		frameTransformCount = frameTransforms.size();
+		WarpedState.publishRenderTransforms(this, frameTransforms);
+		frameTransforms = null;
+	}
+	
+	/**Update the objects that were skipped by culling but still need updating, the camera target and the hovered object.*/
+	private void updateCulledObjects(WarpedRenderSnapshot[] snapshots, boolean isTransformed) {
+		if(hoveredObject != null && !isHoveredFound) isHoveredCulled = true; // Off screen, so it can no longer be under the mouse
+
+		if(!camera.isTracking() || isTargetFound || camera.getTarget() == null) return;
+		WarpedObject target = camera.getTarget();
+		int i = target.getObjectID().getMemberIndex(); // The index in the snapshot, unless the group changed after it was published
+		for(int s = 0; s < snapshots.length; s++) {
+			WarpedRenderSnapshot snapshot = snapshots[s];
+			if(i < 0 || i >= snapshot.size() || snapshot.getObject(i) != target) continue;
+			double zoom = isTransformed ? camera.getZoom() : 1.0;
+			double scale = isTransformed ? zoom * snapshot.getRenderScale(i) : 1.0;
+			double x = (snapshot.getX(i) + (isTransformed ? camera.getPosition().x() : 0.0)) * zoom;
+			double y = (snapshot.getY(i) + (isTransformed ? camera.getPosition().y() : 0.0)) * zoom;
+			double width = snapshot.getWidth(i) * scale;
+			double height = snapshot.getHeight(i) * scale;
+			frameTransforms.add(target, x, y, width, height);
+			camera.updateTracking(x + width / 2, y + height / 2);
+			return;
+		}
+	}
+	
+	/**The latest snapshots of the target groups.*/
+	private WarpedRenderSnapshot[] getTargetSnapshots() {
+		List<WarpedGroup<?>> groups = targetGroups;
+		WarpedRenderSnapshot[] snapshots = new WarpedRenderSnapshot[groups.size()];
+		for(int i = 0; i < groups.size(); i++) snapshots[i] = groups.get(i).getRenderSnapshot();
+		return snapshots;
+	}
+	
 	/** Renders the viewport based on the set method and set's the output raster to the new buffer
 	 * @author SomeKid*/
 	private void render() {renderMethod.action();}
@@ -710,17 +989,7 @@ public class WarpedViewport {
    	 * - Has mouse I/O                                                                                    
 	 * @author 5som3*/
 	private final WarpedAction primitive = () -> {
-		Graphics2D g = getGraphics();
-		target.forEachActiveGroup(obj -> {
-			obj.setRenderTransformations();
-			if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) camera.updateTracking(obj);		
-			if(obj.isVisible() && !isClipped(obj)) {			
-				g.drawImage(obj.raster(), (int)(obj.getRenderPosition().x()),(int)(obj.getRenderPosition().y()), (int)(obj.getRenderSize().x()),(int)(obj.getRenderSize().y()), null); 
-			}
-			handleMouse(obj);
-		});		
-		g.dispose();
-		pushGraphics();
+		renderSnapshots(target.getRenderSnapshots(), false, false);
 	};
 	
 	/**PRIMITIVE_TRANSFOREMD_SCALED                                                          
@@ -731,17 +1000,7 @@ public class WarpedViewport {
      *   - Has mouse I/O           
      * @author 5som3*/
 	private final WarpedAction primitiveTransformedScaled = () -> {
-		Graphics2D g = getGraphics();
-		target.forEachActiveGroup(obj -> {
-			obj.setRenderTransformations(camera);
-			if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) camera.updateTracking(obj);		
-			if(obj.isVisible() && !isClipped(obj)) {			
-				g.drawImage(obj.raster(), (int)(obj.getRenderPosition().x()),(int)(obj.getRenderPosition().y()), (int)(obj.getRenderSize().x()),(int)(obj.getRenderSize().y()), null); 
-			}
-			handleMouse(obj);
-		});		
-		g.dispose();
-		pushGraphics();
+		renderSnapshots(target.getRenderSnapshots(), true, false);
 	};
 	
 	/**ACTIVE                                                                                
@@ -752,21 +1011,7 @@ public class WarpedViewport {
      *  - Has mouse I/O         
 	 * @author 5som3 */
 	private final WarpedAction render = () -> {
-		Graphics2D g = getGraphics();
-		g.setRenderingHints(rh);
-		
-		target.forEachActiveGroup(obj -> {
-			obj.setRenderTransformations();
-			if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) camera.updateTracking(obj);		
-			if(obj.isVisible() && !isClipped(obj)) {			
-				//at.setTransform(1.0, 0.0, 0.0, 1.0, obj.x(), obj.y());
-				//g.drawRenderedImage(obj.raster(), at);
-				g.drawImage(obj.raster(), (int)obj.getPosition().x(), (int)obj.getPosition().y(), obj.getWidth(), obj.getHeight(), null);
-			}
-			handleMouse(obj);
-		});		
-		g.dispose();	
-		pushGraphics();
+		renderSnapshots(target.getRenderSnapshots(), false, true);
 	};
 	
 	/**ACTIVE_TRANSFORMED_SCALED                                                             
@@ -777,20 +1022,7 @@ public class WarpedViewport {
      *  - Has mouse I/O    
 	 * @author 5som3*/
 	private final WarpedAction renderTransformedScaled = () -> {
-		Graphics2D g = getGraphics();
-		g.setRenderingHints(rh);
-		target.forEachActiveGroup(obj -> {
-			obj.setRenderTransformations(camera);
-			if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) camera.updateTracking(obj);		
-			if(obj.isVisible() && !isClipped(obj)) {			
-				//at.setTransform(camera.getZoom() * obj.getRenderScale(), 0.0, 0.0, camera.getZoom() * obj.getRenderScale(), obj.getRenderPosition().x(), obj.getRenderPosition().y());
-				//g.drawRenderedImage(obj.raster(), at);
-				g.drawImage(obj.raster(), (int)obj.getRenderPosition().x(), (int)obj.getRenderPosition().y(), (int)obj.getRenderSize().x(), (int)obj.getRenderSize().y(), null);
-			}
-			handleMouse(obj);
-		});		
-		g.dispose();
-		pushGraphics();
+		renderSnapshots(target.getRenderSnapshots(), true, true);
 	};
 	
 	/**TARGET_GROUPS                                                                         
@@ -801,22 +1033,7 @@ public class WarpedViewport {
      *  - Has mouse I/O        
 	 * @author 5som3*/
 	private final WarpedAction renderTargets = () -> {
-		Graphics2D g = getGraphics();
-		g.setRenderingHints(rh);
-		for(int i = 0; i < targetGroups.size(); i++) {
-			targetGroups.get(i).forEach(obj -> {
-				obj.setRenderTransformations();
-				if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) camera.updateTracking(obj);		
-				if(obj.isVisible() && !isClipped(obj)) {			
-					//at.setTransform(1.0, 0.0, 0.0, 1.0, obj.getPosition().x(), obj.getPosition().y());
-					//g.drawRenderedImage(obj.raster(), at);	
-					g.drawImage(obj.raster(), (int)obj.getPosition().x(), (int)obj.getPosition().y(), obj.getWidth(), obj.getHeight(), null);
-				}
-				handleMouse(obj);
-			});
-		}
-		g.dispose();
-		pushGraphics();
+		renderSnapshots(getTargetSnapshots(), false, true);
 	};
 	
 	/**TARGET_GROUPS_TRANSFORMED_SCALED                                                      
@@ -827,22 +1044,7 @@ public class WarpedViewport {
      *  - Has mouse I/O       
 	 * @author 5som3*/
 	private final WarpedAction renderTargetsTransformedScaled = () -> {
-		Graphics2D g = getGraphics();
-		g.setRenderingHints(rh);
-		for(int i = 0; i < targetGroups.size(); i++) {
-			targetGroups.get(i).forEach(obj -> {
-				obj.setRenderTransformations(camera);
-				if(camera.isTracking() && obj.isEqualTo(camera.getTarget())) camera.updateTracking(obj);		
-				if(obj.isVisible() && !isClipped(obj)) {			
-					//at.setTransform(camera.getZoom() * obj.getRenderScale(), 0.0, 0.0, camera.getZoom() * obj.getRenderScale(), obj.getRenderPosition().x(), obj.getRenderPosition().y());
-					//g.drawRenderedImage(obj.raster(), at);	
-					g.drawImage(obj.raster(), (int)obj.getRenderPosition().x(), (int)obj.getRenderPosition().y(), (int)obj.getRenderSize().x(), (int)obj.getRenderSize().y(), null);
-				}
-				handleMouse(obj);
-			});
-		}
-		g.dispose();	
-		pushGraphics();
+		renderSnapshots(getTargetSnapshots(), true, true);
 	};
 
 	/**BAKED                                                                                 
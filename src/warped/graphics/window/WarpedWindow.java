@@ -100,10 +100,16 @@ public class WarpedWindow extends Canvas {
 	private static Graphics bsGraphics;
 	protected static final int BUFFER_SIZE = 3;
 
-	protected static File outputFolder;
-	protected static String outputPath;
-	protected static boolean isLoggingFrames = false;
-	protected static int frameLogCount = 0;
+	private static volatile WarpedFrameCapture frameCapture;
+	
+	/**@deprecated Frames are captured by WarpedFrameCapture, see getFrameCapture(). Still set by setLogFrames() for subclasses that read it.*/
+	@Deprecated protected static File outputFolder;
+	/**@deprecated Frames are captured by WarpedFrameCapture, see getFrameCapture(). Still set by setLogFrames() for subclasses that read it.*/
+	@Deprecated protected static String outputPath;
+	/**@deprecated Use getFrameCapture(), frames are being logged while it is not null.*/
+	@Deprecated protected static boolean isLoggingFrames = false;
+	/**@deprecated Frames are captured by WarpedFrameCapture, see getFrameCapture(). Still set by setLogFrames() for subclasses that read it.*/
+	@Deprecated protected static int frameLogCount = 0;
 	
 	private static int width  = 1920; 
 	private static int height = 1080; 
@@ -319,7 +325,8 @@ public class WarpedWindow extends Canvas {
 	
 	/**Set then number of frames to log to hard drive.
 	 * @param frameCount - the number of frames to log.
-	 * @apiNote Frames will be logged to a new subfolder in the directory dat -> log -> windowDump
+	 * @apiNote Frames will be logged to a new subfolder in the directory dat -> log -> graphics -> window
+	 * @implNote Frames are written as PNG files in the background, frames are dropped while the encoders are behind, see WarpedFrameCapture.
 	 * @author 5som3*/
 	public static void setLogFrames(int frameCount) {
 		if(frameCount < 1) {
@@ -340,17 +347,32 @@ public class WarpedWindow extends Canvas {
 		} else Console.ln("WarpedWindow -> setLogFrames() -> graphics log folder exist, proceeding...");
 		File[] subFolders = folder.listFiles();
 		File outputFolder = new File("dat/log/graphics/window/frameDump_" + subFolders.length);
-		outputPath = "dat/log/graphics/window/frameDump_" + subFolders.length +"/"; 
 		if(!outputFolder.mkdir()) {
 			Console.err("WarpedWindow -> setLogFrames() -> failed to create graphics log subfolder " + subFolders.length);
 			return;
 		} else Console.ln("WarpedWindow -> setLogFrames() -> created graphics log subfolder " + subFolders.length);
 		
 		WarpedWindow.outputFolder = outputFolder;
+		outputPath = "dat/log/graphics/window/frameDump_" + subFolders.length + "/";
 		frameLogCount = frameCount;
-		isLoggingFrames = true;
+		setFrameCapture(new WarpedFrameCapture(outputPath, frameCount));
 	}
 	
+	/**Set a frame capture to receive each frame drawn in the window, i.e. to capture frames with a different format or policy than setLogFrames().
+	 * @param capture - the capture, frames are captured until it stops. If null any current capture is stopped.
+	 * @author 5som3*/
+	public static void setFrameCapture(WarpedFrameCapture capture) {
+		WarpedFrameCapture previous = frameCapture;
+		frameCapture = capture;
+		isLoggingFrames = capture != null;
+		if(previous != null && previous != capture) previous.stop();
+	}
+	
+	/**The frame capture receiving the frames drawn in the window.
+	 * @return WarpedFrameCapture - the current capture, null if frames are not being captured.
+	 * @author 5som3*/
+	public static WarpedFrameCapture getFrameCapture() {return frameCapture;}
+	
 	/**Get the time taken to update the window.
 	 * @return long - the time taken to do the most recent update cycle measured in nanoseconds.
 	 * @author SomeKid */
@@ -641,6 +663,15 @@ public class WarpedWindow extends Canvas {
 		bufferGraphics.dispose();
 		pushGraphics();
 		
+		WarpedFrameCapture capture = frameCapture;
+		if(capture != null) {
+			capture.capture(raster);
+			if(capture.isStopped() && frameCapture == capture) {
+				frameCapture = null;
+				isLoggingFrames = false;
+			}
+		}
+		
 		long cycleStartTime = System.nanoTime();
 		bsGraphics = bs.getDrawGraphics();
 		bsGraphics.drawImage(raster, 0, 0, width, height, null);
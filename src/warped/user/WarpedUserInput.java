@@ -2,18 +2,16 @@
 
 package warped.user;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
+import warped.application.state.WarpedState;
 import warped.graphics.window.WarpedMouse;
 import warped.user.keyboard.WarpedKeyboard;
+import warped.utilities.timers.WarpedLoopTask;
 
 public class WarpedUserInput {
 	
 	private static long updateDuration;
 	
-	private static Timer userTimer = new Timer("Timer Thread : User Input");
-	private static TimerTask updateInput = new TimerTask() {
+	private static WarpedLoopTask updateInput = new WarpedLoopTask() {
 		public void run() {
 			long cycleStartTime = System.nanoTime();
 			mouse.update();
@@ -27,7 +25,7 @@ public class WarpedUserInput {
 	public static WarpedMouse mouse = new WarpedMouse();
 	
 	public WarpedUserInput() {
-		userTimer.schedule(updateInput, 0, 100);
+		WarpedState.loop.schedule(updateInput, 100);
 	}
 	
 }
@@ -1,17 +1,14 @@
 /* WarpedFramework 2D - java API - Copyright (C) 2021-2024 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
 package warped.utilities.math.geometry.bezier;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
+import warped.application.state.WarpedState;
 import warped.utilities.math.vectors.VectorD;
+import warped.utilities.timers.WarpedLoopTask;
 import warped.utilities.utils.Console;
 
 public class BezierCurveLinearD {
 	
-	private static Timer consoleTimer = new Timer("Timer Thread : BezierCurveLinearD");
-	private TimerTask updateTask;
-	private long lastTime = 0;
+	private WarpedLoopTask updateTask;
 	
 	protected VectorD p0, p1, pf;
 	protected double progress = 0.0;
@@ -117,10 +114,8 @@ public class BezierCurveLinearD {
 			Console.err("BezierCurveLinearD -> start() -> curve already started");
 			return;
 		}
-		lastTime = System.nanoTime();
-		updateTask = new TimerTask(){public void run() {update();}};
-		consoleTimer.scheduleAtFixedRate(updateTask, 0, 4);
-		
+		updateTask = new WarpedLoopTask(){public void run() {update();}};
+		WarpedState.loop.schedule(updateTask, 4);
 	}
 	
 	/**Stop progressing the curve.
@@ -133,14 +128,13 @@ public class BezierCurveLinearD {
 	/**progress the curve.
 	 * @author 5som3*/
 	private void update() {
-		progress += (System.nanoTime() - lastTime) / 1000_000_000.0 * increment;
+		progress += updateTask.getDeltaTime() * increment;
 		if(progress >= 1.0) {
 			stop(); 
 			progress = 1.0;
 			isComplete = true;
 		}
 		pf.set(p0.x() + xOffset + (progress * (p1.x() - p0.x())), p0.y() + yOffset + (progress * (p1.y() - p0.y())));
-		lastTime = System.nanoTime();
 	}
 	
 	/*
@@ -2,13 +2,11 @@
 
 package warped.utilities.math.geometry.bezier;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
+import warped.application.state.WarpedState;
 import warped.functionalInterfaces.WarpedAction;
 import warped.utilities.math.vectors.VectorD;
+import warped.utilities.timers.WarpedLoopTask;
 import warped.utilities.utils.Console;
-import warped.utilities.utils.UtilsMath;
 
 public class BezierCurveObject {
 	
@@ -19,8 +17,7 @@ public class BezierCurveObject {
 	protected double increment = 0.01;
 	private int frequency = 40;
 	
-	private static Timer bezierTimer = new Timer("Timer Thread : Bezier Timer");
-	private TimerTask updateTask;
+	private WarpedLoopTask updateTask;
 	
 	private WarpedAction complete = () -> {return;};
 	
@@ -96,8 +93,8 @@ public class BezierCurveObject {
 	 * @implNote will schedule the update() at the specified frequency.
 	 * @author 5som3*/
 	public void start() {
-		updateTask = new TimerTask() {public void run() {update();}};
-		bezierTimer.scheduleAtFixedRate(updateTask, 0, UtilsMath.convertHzToMillis(frequency));
+		updateTask = new WarpedLoopTask() {public void run() {update();}};
+		WarpedState.loop.scheduleHz(updateTask, frequency);
 	}
 	
 	/**Stop moving along the path.
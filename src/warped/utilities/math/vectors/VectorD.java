@@ -87,6 +87,12 @@ public class VectorD {
 	 * @author 5som3*/
 	public void setDeltaAction(VecDAction deltaAction) {this.deltaAction = deltaAction;}
 	
+	/**The action triggered when the value of this vector changes.
+	 * @return VecDAction - the action set with setDeltaAction(), an action that does nothing if none was set.
+	 * @apiNote Use to chain a new action to the existing one instead of replacing it.
+	 * @author 5som3*/
+	public VecDAction getDeltaAction() {return deltaAction;}
+	
 	/**Deletes the deltaAction (if any were set).
 	 * Any action that was previously set to trigger will no longer occur.
 	 * @author 5som3*/
@@ -333,6 +339,18 @@ public class VectorD {
 		deltaAction.action(this);
 	}
 	
+	/**Set the x and y components of this vector.
+	 * @param x - the value to set the x component.
+	 * @param y - the value to set the y component.
+	 * @implNote Will trigger the deltaAction once after setting the vector components.
+	 * @implNote Chosen over set(double...) for two values, so no array is allocated for each call.
+	 * @author 5som3 */
+	public final void set(double x, double y) {
+		vec[0] = x;
+		vec[1] = y;
+		deltaAction.action(this);
+	}
+	
 	/**Set the components of this vector based on another vector.
 	 * @param vec - a vector to copy the components from.
 	 * @apiNote If the vec is longer than this vector those values will be skipped.
@@ -476,6 +494,18 @@ public class VectorD {
 		deltaAction.action(this);		
 	}
 	
+	/**Add to the x and y components of the vector.
+	 * @param x - the value to add to the x component.
+	 * @param y - the value to add to the y component.
+	 * @apiNote Will trigger the deltaAction once after adding the vector components.
+	 * @implNote Chosen over add(double...) for two values, so no array is allocated for each call.
+	 * @author 5som3*/
+	public final void add(double x, double y) {
+		vec[0] += x;
+		vec[1] += y;
+		deltaAction.action(this);
+	}
+	
 	/**Add a value to the component at the specified index.
 	 * @param index - the index of the vector component that will be altered.
 	 * @param value - the value to add to the vector component at the specified index.
@@ -0,0 +1,117 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.timers;
+
+import warped.application.state.WarpedState;
+import warped.functionalInterfaces.WarpedAction;
+import warped.utilities.utils.Console;
+
+public class ClockedAnimation implements WarpedAnimationClock.Animated {
+
+	/*ClockedAnimation steps an animation at a frame rate from the updates of a WarpedAnimationClock.
+	 * Each update works out how many steps are due from the time since the animation started divided by the frame duration,
+	 * so the animation never drifts no matter how often the clock is updated. Used by the animated sprites, which only supply the step.
+	 *
+	 * start() and stop() can be called from any thread, the animation is added to the clock when it starts
+	 * and removed by the clock at the first update after it stops.
+	 * */
+
+	private static final int MAX_CATCH_UP = 5; //The most steps advanced in one clock update, any further steps are dropped
+
+	private WarpedAnimationClock clock = WarpedState.animationClock;
+	private WarpedAction step;
+	private volatile int frameRate = 24; //steps per second
+	private volatile boolean isRunning = false; //Is the animation being advanced by the clock
+	private volatile boolean isRestarted = false; //Has the start time changed since the last clock update
+	private volatile long startTime = 0;
+	private boolean isClocked = false; //Is the animation in the clock, guarded by this
+	private long stepCount = 0; //The number of steps advanced since the start time
+
+	/**An animation advanced by the WarpedState animation clock.
+	 * @param step - the action to advance the animation by one frame, called on the thread that updates the clock.
+	 * @apiNote The animation is stopped until start() is called.
+	 * @author 5som3*/
+	public ClockedAnimation(WarpedAction step) {
+		this.step = step;
+	}
+
+	/**Set the clock that advances the animation.
+	 * @param clock - the clock, WarpedState.animationClock by default.
+	 * @return boolean - true if the clock was set, false if the animation is still in its previous clock.
+	 * @apiNote Stops the animation, the clock can not be changed until the previous clock has removed the animation at its next update.
+	 * @author 5som3*/
+	public boolean setClock(WarpedAnimationClock clock) {
+		stop();
+		synchronized(this) {
+			if(isClocked) return false; // Still in the previous clock until its next update
+			this.clock = clock;
+			return true;
+		}
+	}
+
+	/**Set the frame rate of the animation.
+	 * @param fps - the number of steps per second, must be greater than 0.
+	 * @apiNote Takes effect at the next start().
+	 * @author 5som3*/
+	public void setFrameRate(int fps) {
+		if(fps < 1) {
+			Console.err("ClockedAnimation -> setFrameRate() -> framerate must be greater than 0 : " + fps);
+			return;
+		}
+		this.frameRate = fps;
+	}
+
+	/**Is the animation being advanced by the clock.
+	 * @return boolean - true if the animation is started and has not stopped.
+	 * @author 5som3*/
+	public boolean isRunning() {return isRunning;}
+
+	/**Start, or restart, the animation from the current time of the clock.
+	 * @apiNote The first step is advanced at the next update of the clock.
+	 * @author 5som3*/
+	public void start() {
+		synchronized(this) {
+			startTime = clock.nanoTime();
+			isRestarted = true;
+			isRunning = true;
+			if(!isClocked) {
+				isClocked = true;
+				clock.add(this);
+			}
+		}
+	}
+
+	/**Stop the animation, no further steps are advanced.
+	 * @apiNote Can be called from the step to stop the animation at that frame.
+	 * @author 5som3*/
+	public void stop() {isRunning = false;}
+
+	/**Advance the animation by each step that is due at the specified time.
+	 * @param time - the time of the clock update in nano-seconds.
+	 * @return boolean - true while the animation is running, false to be removed from the clock.
+	 * @apiNote Called by the animation clock, the step is the number of frame durations since the animation started.
+	 * @author 5som3*/
+	@Override
+	public final boolean animate(long time) {
+		if(!isRunning) {
+			synchronized(this) {
+				if(!isRunning) {
+					isClocked = false;
+					return false;
+				}
+			}
+		}
+		if(isRestarted) {
+			isRestarted = false;
+			stepCount = 0;
+		}
+		long due = (time - startTime) / (1000000000L / frameRate) + 1; // The first step advances as soon as the animation starts
+		if(due - stepCount > MAX_CATCH_UP) stepCount = due - MAX_CATCH_UP;
+		while(stepCount < due && isRunning) {
+			stepCount++;
+			step.action();
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,106 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.timers;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import warped.utilities.utils.Console;
+
+public class WarpedAnimationClock {
+
+	/*WarpedAnimationClock advances every playing animation from a single update, instead of each animation being a task in a loop.
+	 * Each update reads the clock once and passes the time to every animation, an animation works out which of its frames are due from
+	 * the time since it started playing divided by its frame duration, so animations never drift no matter how often the clock is updated.
+	 *
+	 * The framework clock (WarpedState.animationClock) is updated by the state loop, animations are advanced on the loop thread.
+	 * A clock with a WarpedManualClock that is updated manually can be used to step animations deterministically, i.e. for testing.
+	 *
+	 * Animations can be added from any thread, they will be added to the clock at the next update.
+	 * */
+
+	/**The number of times per second the framework animation clock is updated.*/
+	public static final int UPDATE_RATE = 60;
+
+	private WarpedClock clock;
+	private ArrayList<Animated> animations = new ArrayList<>();
+	private ConcurrentLinkedQueue<Animated> pendingAnimations = new ConcurrentLinkedQueue<>();
+	private long updateDuration = 0;
+
+	/**Anything that can be advanced by an animation clock.
+	 * @author 5som3*/
+	@FunctionalInterface
+	public interface Animated {
+
+		/**Advance the animation to the specified time.
+		 * @param time - the time of the clock update in nano-seconds.
+		 * @return boolean - true to stay in the clock, false to be removed.
+		 * @author 5som3*/
+		public boolean animate(long time);
+	}
+
+	/**An animation clock.
+	 * @param clock - the clock used to read the time, use the same clock as the loop that updates this clock.
+	 * @author 5som3*/
+	public WarpedAnimationClock(WarpedClock clock) {
+		this.clock = clock;
+	}
+
+	/**The current time of the clock.
+	 * @return long - the time in nano-seconds, use as the start time of an animation.
+	 * @author 5som3*/
+	public long nanoTime() {return clock.nanoTime();}
+
+	/**Set the clock used to read the time.
+	 * @param clock - the clock, use the same clock as the loop that updates this clock.
+	 * @apiNote Do not set while the clock is being updated, animations that are playing keep the start time read from the previous clock.
+	 * @author 5som3*/
+	public void setClock(WarpedClock clock) {this.clock = clock;}
+
+	/**Add an animation to be advanced at each update.
+	 * @param animation - the animation, it will be advanced until animate() returns false.
+	 * @apiNote Do not add an animation that is already in the clock, it will be advanced twice each update.
+	 * @author 5som3*/
+	public void add(Animated animation) {pendingAnimations.add(animation);}
+
+	/**The number of animations in the clock.
+	 * @return int - the number of animations, excluding animations waiting to be added at the next update.
+	 * @author 5som3*/
+	public int getAnimationCount() {return animations.size();}
+
+	/**The duration of the last update.
+	 * @return long - the duration in nano-seconds.
+	 * @author 5som3*/
+	public long getUpdateDuration() {return updateDuration;}
+
+	/**Advance every animation to the current time of the clock.
+	 * @apiNote Call from a single thread only, usually a task in a WarpedLoop.
+	 * @author 5som3*/
+	public void update() {
+		long cycleStartTime = System.nanoTime();
+		long time = clock.nanoTime();
+		Animated pending = pendingAnimations.poll();
+		while(pending != null) {
+			animations.add(pending);
+			pending = pendingAnimations.poll();
+		}
+
+		int live = 0;
+		for(int i = 0; i < animations.size(); i++) {
+			Animated animation = animations.get(i);
+			boolean isLive = false;
+			try {
+				isLive = animation.animate(time);
+			} catch (Exception e) {
+				Console.ln(Console.ConsoleColour.PURPLE, "WarpedAnimationClock -> update() -> Exception occured in animation");
+				Console.stackTrace(e);
+				isLive = true;
+			}
+			if(isLive) animations.set(live++, animation); // Compact removed animations while keeping the order they were added
+		}
+		for(int i = animations.size() - 1; i >= live; i--) animations.remove(i);
+
+		updateDuration = System.nanoTime() - cycleStartTime;
+	}
+
+}
@@ -0,0 +1,17 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.timers;
+
+@FunctionalInterface
+public interface WarpedClock {
+	
+	/**The clock used by the framework when no other clock is specified, backed by System.nanoTime().*/
+	public static final WarpedClock SYSTEM = System::nanoTime;
+	
+	/**The current time of the clock.
+	 * @return long - the time in nano-seconds.
+	 * @implNote the value is only meaningful when compared against other values from the same clock.
+	 * @author 5som3*/
+	public long nanoTime();
+	
+}
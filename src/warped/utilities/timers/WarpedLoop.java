@@ -0,0 +1,275 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.timers;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import warped.utilities.utils.Console;
+
+public class WarpedLoop {
+
+	/*WarpedLoop is a deterministic fixed timestep scheduler that executes all of its tasks on a single thread.
+	 * Each task is scheduled with a fixed period, tasks are always executed in the order they were scheduled.
+	 * When the loop updates it reads its clock once, adds the elapsed time to each tasks accumulator and then executes each task for every whole period accumulated.
+	 * Tasks that fall behind will catch up by executing multiple steps in one update, up to the maxCatchUp limit; any further steps are dropped.
+	 * Between updates the loop thread sleeps until the next task is due.
+	 *
+	 * The clock is pluggable, a loop that is given a WarpedManualClock and is never started can be stepped manually by calling update().
+	 * This allows update ordering and update rates to be checked without relying on the system clock.
+	 *
+	 * Tasks can be scheduled and cancelled from any thread, they will be added to or removed from the loop at the next update.
+	 * Only the thread that updates the loop touches its list of tasks, cancelTasks() is passed to that thread with a flag.
+	 * */
+
+	private static final long MAX_IDLE = 100000000; // Sleep no longer than 100ms so a newly scheduled task will not be delayed for long
+
+	private String name = "Warped Loop";
+	private WarpedClock clock = WarpedClock.SYSTEM;
+	private Thread thread;
+
+	private ArrayList<WarpedLoopTask> tasks = new ArrayList<>();
+	private ConcurrentLinkedQueue<WarpedLoopTask> pendingTasks = new ConcurrentLinkedQueue<>();
+
+	private volatile boolean isRunning = false;
+	private volatile boolean isCancellingTasks = false;
+	private boolean isFirstUpdate = true;
+	private long lastTime = 0;
+	private int maxCatchUp = 5;
+
+	private long updateCount = 0;
+	private long updateDuration = 0;
+
+	/**A fixed timestep loop that uses the system clock.
+	 * @param name - the name of the loop (not significant, used for debugging and naming the loop thread).
+	 * @author 5som3*/
+	public WarpedLoop(String name) {
+		this.name = name;
+	}
+
+	/**A fixed timestep loop.
+	 * @param name - the name of the loop (not significant, used for debugging and naming the loop thread).
+	 * @param clock - the clock that will be used to measure elapsed time.
+	 * @author 5som3*/
+	public WarpedLoop(String name, WarpedClock clock) {
+		this.name = name;
+		this.clock = clock;
+	}
+
+	/**The name of the loop.
+	 * @return String - the name.
+	 * @author 5som3*/
+	public String getName() {return name;}
+
+	/**The clock used by the loop.
+	 * @return WarpedClock - the clock.
+	 * @author 5som3*/
+	public WarpedClock getClock() {return clock;}
+
+	/**Set the clock used by the loop.
+	 * @param clock - the clock that will be used to measure elapsed time, i.e. a WarpedManualClock to step the loop manually.
+	 * @apiNote The loop must be stopped, the first update after the clock is set measures no elapsed time.
+	 * @author 5som3*/
+	public synchronized void setClock(WarpedClock clock) {
+		if(isThreadAlive()) {
+			Console.err("WarpedLoop -> setClock() -> can not set the clock while " + name + " is running");
+			return;
+		}
+		this.clock = clock;
+		isFirstUpdate = true;
+	}
+
+	/**Is the loop thread running.
+	 * @return boolean - true if the loop has been started and not stopped.
+	 * @author 5som3*/
+	public boolean isRunning() {return isRunning;}
+
+	/**The number of tasks in the loop.
+	 * @return int - the number of tasks that have been added to the loop, excluding tasks waiting to be added at the next update.
+	 * @author 5som3*/
+	public int getTaskCount() {return tasks.size();}
+
+	/**The number of times the loop has been updated.
+	 * @return long - the update count.
+	 * @author 5som3*/
+	public long getUpdateCount() {return updateCount;}
+
+	/**The duration of the last update.
+	 * @return long - the duration in nano-seconds, includes the execution of all due tasks.
+	 * @author 5som3*/
+	public long getUpdateDuration() {return updateDuration;}
+
+	/**Set the maximum number of steps a task may execute in a single update.
+	 * @param maxCatchUp - the number of steps, must be at least 1.
+	 * @apiNote Limits the amount of work the loop will do to catch up after a stall. Steps beyond the limit are dropped.
+	 * @author 5som3*/
+	public void setMaxCatchUp(int maxCatchUp) {
+		if(maxCatchUp < 1) {
+			Console.err("WarpedLoop -> setMaxCatchUp() -> maxCatchUp must be at least 1 : " + maxCatchUp);
+			maxCatchUp = 1;
+		}
+		this.maxCatchUp = maxCatchUp;
+	}
+
+	/**Schedule a task to be executed repeatedly.
+	 * @param task - the task to schedule.
+	 * @param periodMillis - the fixed period between executions in milli-seconds.
+	 * @author 5som3*/
+	public void schedule(WarpedLoopTask task, long periodMillis) {scheduleNanos(task, periodMillis * 1000000, 0);}
+
+	/**Schedule a task to be executed repeatedly.
+	 * @param task - the task to schedule.
+	 * @param periodMillis - the fixed period between executions in milli-seconds.
+	 * @param budgetMillis - the maximum time the task can spend catching up in a single update in milli-seconds.
+	 * @author 5som3*/
+	public void schedule(WarpedLoopTask task, long periodMillis, long budgetMillis) {scheduleNanos(task, periodMillis * 1000000, budgetMillis * 1000000);}
+
+	/**Schedule a task to be executed at a fixed frequency.
+	 * @param task - the task to schedule.
+	 * @param frequency - the number of executions per second.
+	 * @author 5som3*/
+	public void scheduleHz(WarpedLoopTask task, double frequency) {
+		if(frequency <= 0.0) {
+			Console.err("WarpedLoop -> scheduleHz() -> frequency must be positive : " + frequency);
+			return;
+		}
+		scheduleNanos(task, (long)(1000000000.0 / frequency), 0);
+	}
+
+	/**Schedule a task to be executed repeatedly.
+	 * @param task - the task to schedule.
+	 * @param periodNanos - the fixed period between executions in nano-seconds.
+	 * @param budgetNanos - the maximum time the task can spend catching up in a single update in nano-seconds, 0 for no budget.
+	 * @implNote The task will first be executed at the next update of the loop.
+	 * @author 5som3*/
+	public void scheduleNanos(WarpedLoopTask task, long periodNanos, long budgetNanos) {
+		if(periodNanos <= 0) {
+			Console.err("WarpedLoop -> schedule() -> period must be positive : " + periodNanos);
+			return;
+		}
+		if(!task.initialize(periodNanos, budgetNanos)) {
+			Console.err("WarpedLoop -> schedule() -> task is already scheduled or was cancelled");
+			return;
+		}
+		pendingTasks.add(task);
+	}
+
+	/**Start updating the loop on its own thread.
+	 * @author 5som3*/
+	public synchronized void start() {
+		if(isThreadAlive()) {
+			Console.err("WarpedLoop -> start() -> " + name + " is already running or has not finished stopping");
+			return;
+		}
+		isRunning = true;
+		isFirstUpdate = true;
+		thread = new Thread(this::run, "Loop Thread : " + name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**Stop updating the loop.
+	 * @implNote Waits for the update in progress to finish, unless called by a task of the loop.
+	 * @implNote The tasks are kept, if the loop is started again they will continue from where they stopped.
+	 * @author 5som3*/
+	public void stop() {
+		Thread stopping;
+		synchronized(this) {
+			stopping = thread;
+			if(stopping == null) return;
+			isRunning = false;
+			LockSupport.unpark(stopping);
+		}
+		if(Thread.currentThread() == stopping) return; // The loop thread exits after this update, start() is refused until it has
+		try {
+			stopping.join(); // Not holding the lock, a task may call the loop while it finishes
+		} catch (InterruptedException e) {
+			Console.err("WarpedLoop -> stop() -> interrupted while waiting for " + name + " to stop");
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**Cancel all tasks in the loop.
+	 * @implNote If the loop is running the tasks are cancelled by the loop thread at its next update.
+	 * @author 5som3*/
+	public synchronized void cancelTasks() {
+		pendingTasks.forEach(t -> t.cancel());
+		if(isThreadAlive()) isCancellingTasks = true;
+		else cancelAll(); // The loop thread has exited, only the caller updates the loop
+	}
+
+	/**Update the loop once, executing each task for every whole period of time that has elapsed.
+	 * @apiNote Do not call while the loop is running, use this to step a loop that has not been started.
+	 * @implNote Tasks are executed in the order they were scheduled.
+	 * @author 5som3*/
+	public void update() {
+		long cycleStartTime = System.nanoTime();
+		long time = clock.nanoTime();
+		long elapsed = 0;
+		if(isFirstUpdate) isFirstUpdate = false;
+		else elapsed = time - lastTime;
+		lastTime = time;
+		if(elapsed < 0) elapsed = 0;
+
+		if(isCancellingTasks) {
+			isCancellingTasks = false;
+			cancelAll();
+		}
+		for(int i = 0; i < tasks.size(); i++) tasks.get(i).accumulator += elapsed;
+		WarpedLoopTask pending = pendingTasks.poll();
+		while(pending != null) {
+			tasks.add(pending);
+			pending = pendingTasks.poll();
+		}
+
+		int live = 0;
+		for(int i = 0; i < tasks.size(); i++) {
+			WarpedLoopTask task = tasks.get(i);
+			if(!task.isCancelled()) {
+				try {
+					task.step(maxCatchUp);
+				} catch (Exception e) {
+					Console.ln(Console.ConsoleColour.PURPLE, "WarpedLoop -> update() -> Exception occured in " + name);
+					Console.stackTrace(e);
+				}
+			}
+			if(!task.isCancelled()) tasks.set(live++, task); // Compact cancelled tasks while keeping the scheduled order
+		}
+		for(int i = tasks.size() - 1; i >= live; i--) tasks.remove(i);
+
+		updateCount++;
+		updateDuration = System.nanoTime() - cycleStartTime;
+	}
+
+	/**The time until the next task is due.
+	 * @return long - the time in nano-seconds.
+	 * @author 5som3*/
+	private long getTimeUntilDue() {
+		if(!pendingTasks.isEmpty()) return 0;
+		long due = MAX_IDLE;
+		for(int i = 0; i < tasks.size(); i++) {
+			long taskDue = tasks.get(i).getTimeUntilDue();
+			if(taskDue < due) due = taskDue;
+		}
+		return due;
+	}
+
+	/**Is the loop thread still executing, it may still be finishing an update after the loop is stopped.*/
+	private boolean isThreadAlive() {return thread != null && thread.isAlive();}
+
+	/**Cancel the tasks that have been added to the loop.*/
+	private void cancelAll() {
+		for(int i = 0; i < tasks.size(); i++) tasks.get(i).cancel();
+	}
+
+	/**Executed by the loop thread.*/
+	private void run() {
+		while(isRunning) {
+			update();
+			long due = getTimeUntilDue();
+			if(due > 0) LockSupport.parkNanos(due);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.timers;
+
+public abstract class WarpedLoopTask {
+
+	/*WarpedLoopTask is the unit of work that is executed by a WarpedLoop.
+	 * It is used in the same way as a java.util.TimerTask, create an anonymous instance that overrides run() and schedule it on a loop.
+	 * Each task has its own fixed period and an accumulator of unspent time.
+	 * When the loop updates, the elapsed time is added to the accumulator and run() is executed once for each full period that has accumulated.
+	 * The remainder of the accumulator divided by the period is the interpolation alpha, the fraction of the way between the last step and the next step.
+	 * A task can optionally have a budget, if executing the accumulated steps takes longer than the budget any remaining steps will be dropped.
+	 * */
+
+	protected long period = 0;
+	protected long budget = 0;
+	protected long accumulator = 0;
+
+	private volatile boolean isCancelled = false;
+	private boolean isScheduled = false;
+
+	private long updateCount = 0;
+	private long droppedCount = 0;
+	private long overrunCount = 0;
+	private long updateDuration = 0;
+
+	/**The action of the task, executed once per period by the loop it is scheduled on.
+	 * @author 5som3*/
+	public abstract void run();
+
+	/**Stop the task from being executed.
+	 * @implNote The task will be removed from its loop at the next update.
+	 * @implNote A cancelled task can not be rescheduled, create a new task instead.
+	 * @author 5som3*/
+	public final void cancel() {isCancelled = true;}
+
+	/**Is the task cancelled.
+	 * @return boolean - true if the task has been cancelled else false.
+	 * @author 5som3*/
+	public final boolean isCancelled() {return isCancelled;}
+
+	/**The fixed period of the task.
+	 * @return long - the period in nano-seconds.
+	 * @author 5som3*/
+	public final long getPeriod() {return period;}
+
+	/**The fixed period of the task.
+	 * @return double - the period in seconds.
+	 * @apiNote Use as the delta time for any integration done in run().
+	 * @author 5som3*/
+	public final double getDeltaTime() {return period / 1000000000.0;}
+
+	/**The maximum time the task may spend catching up in a single loop update.
+	 * @return long - the budget in nano-seconds, 0 if the task has no budget.
+	 * @author 5som3*/
+	public final long getBudget() {return budget;}
+
+	/**The fraction of the way between the last step and the next step.
+	 * @return double - the interpolation alpha in the domain 0.0 <= alpha < 1.0.
+	 * @apiNote Use to interpolate between the previous and current state when rendering.
+	 * @author 5som3*/
+	public final double getAlpha() {
+		double alpha = (double)accumulator / period;
+		if(alpha < 0.0) return 0.0;
+		if(alpha >= 1.0) return 0.999999;
+		return alpha;
+	}
+
+	/**The number of times the task has been executed.
+	 * @return long - the number of executions since the task was scheduled.
+	 * @author 5som3*/
+	public final long getUpdateCount() {return updateCount;}
+
+	/**The number of steps that were dropped, either because the loop fell too far behind or the budget was exceeded.
+	 * @return long - the number of dropped steps.
+	 * @author 5som3*/
+	public final long getDroppedCount() {return droppedCount;}
+
+	/**The number of loop updates where the task exceeded its budget.
+	 * @return long - the number of overruns.
+	 * @author 5som3*/
+	public final long getOverrunCount() {return overrunCount;}
+
+	/**The duration of the last execution of the task.
+	 * @return long - the duration in nano-seconds.
+	 * @author 5som3*/
+	public final long getUpdateDuration() {return updateDuration;}
+
+	/**The time until the task is next due.
+	 * @return long - the time in nano-seconds, 0 if the task is already due.
+	 * @author 5som3*/
+	protected final long getTimeUntilDue() {
+		long due = period - accumulator;
+		return due < 0 ? 0 : due;
+	}
+
+	/**Prepare the task to be executed by a loop.
+	 * @return boolean - true if the task was initialized else false.
+	 * @author 5som3*/
+	final boolean initialize(long period, long budget) {
+		if(isScheduled || isCancelled) return false;
+		isScheduled = true;
+		this.period = period;
+		this.budget = budget;
+		accumulator = period; // Run on the first update, the same as a TimerTask with no delay.
+		return true;
+	}
+
+	/**Execute any steps that have accumulated.
+	 * @param maxSteps - the maximum number of steps that can be executed.
+	 * @implNote Called by the loop thread only.
+	 * @author 5som3*/
+	final void step(int maxSteps) {
+		int steps = 0;
+		long stepStartTime = System.nanoTime();
+		while(accumulator >= period && !isCancelled) {
+			if(steps >= maxSteps) {
+				dropBacklog();
+				return;
+			}
+			long cycleStartTime = System.nanoTime();
+			run();
+			updateDuration = System.nanoTime() - cycleStartTime;
+			updateCount++;
+			accumulator -= period;
+			steps++;
+			if(budget > 0 && System.nanoTime() - stepStartTime > budget && accumulator >= period) {
+				overrunCount++;
+				dropBacklog();
+				return;
+			}
+		}
+	}
+
+	/**Discard any whole periods remaining in the accumulator.
+	 * @author 5som3*/
+	private void dropBacklog() {
+		droppedCount += accumulator / period;
+		accumulator %= period;
+	}
+
+}
@@ -0,0 +1,41 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.timers;
+
+import warped.utilities.utils.Console;
+
+public class WarpedManualClock implements WarpedClock {
+
+	private volatile long time = 0;
+	
+	/**A clock that only moves when it is advanced.
+	 * @apiNote Use with a WarpedLoop that has not been started to step the loop manually, i.e. for testing update ordering without waiting on the system clock. 
+	 * @author 5som3*/
+	public WarpedManualClock() {}
+	
+	/**A clock that only moves when it is advanced.
+	 * @param time - the starting time of the clock in nano-seconds.
+	 * @author 5som3*/
+	public WarpedManualClock(long time) {this.time = time;}
+	
+	@Override
+	public long nanoTime() {return time;}
+	
+	/**Move the clock forward.
+	 * @param nanos - the amount of time to advance in nano-seconds.
+	 * @apiNote nanos must be positive, the clock can not move backwards.
+	 * @author 5som3*/
+	public void advance(long nanos) {
+		if(nanos < 0) {
+			Console.err("WarpedManualClock -> advance() -> can not advance by negative time : " + nanos);
+			return;
+		}
+		time += nanos;
+	}
+	
+	/**Move the clock forward.
+	 * @param millis - the amount of time to advance in milli-seconds.
+	 * @author 5som3*/
+	public void advanceMillis(long millis) {advance(millis * 1000000);}
+	
+}
@@ -34,7 +34,7 @@ public class UtilsImage {
 	public static final Composite clearComposite = AlphaComposite.getInstance(AlphaComposite.CLEAR);
 	public static final Composite drawComposite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER);
 	
-	private static final GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+	private static final GraphicsConfiguration gc = GraphicsEnvironment.isHeadless() ? new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics().getDeviceConfiguration() : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration(); // Headless there is no screen, volatile images are backed by an offscreen buffer instead
 	
 	public static final VolatileImage generateVolatileImage(int width, int height) {
 		VolatileImage image = gc.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
@@ -50,7 +50,22 @@ public class UtilsImage {
 		g2d.setComposite(UtilsImage.drawComposite);
 		g2d.dispose();
 	}
-	
+
+	/**Convert an image to the format of the screen, so drawing it does not convert it again every frame.
+	 * @param image - the image to convert, i.e. as read by ImageIO.
+	 * @return BufferedImage - the image itself if it is already in the screen format, else a translucent copy in the screen format.
+	 * @apiNote Safe to call from any thread.
+	 * @author 5som3*/
+	public static BufferedImage toCompatibleImage(BufferedImage image) {
+		if(image.getColorModel().equals(gc.getColorModel(Transparency.TRANSLUCENT))) return image;
+		BufferedImage result = gc.createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+		Graphics2D g2d = result.createGraphics();
+		g2d.setComposite(AlphaComposite.Src);
+		g2d.drawImage(image, 0, 0, null);
+		g2d.dispose();
+		return result;
+	}
+
 	//--------
 	//---------------- Loading ---------------
 	//--------
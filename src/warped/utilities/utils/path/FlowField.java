@@ -0,0 +1,318 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.utils.path;
+
+import java.util.Arrays;
+
+import warped.utilities.math.vectors.VectorD;
+import warped.utilities.math.vectors.VectorI;
+import warped.utilities.utils.Console;
+
+public class FlowField {
+
+	/*FlowField stores the direction to a shared goal for every coordinate of a map.
+	 * Use a flow field instead of finding a WarpedPath for each object when many objects are moving towards the same goal.
+	 * When the goal is set, a single Dijkstra search is run outwards from the goal, recording the cost to reach the goal from every coordinate (the integration field).
+	 * Each coordinate then points to the neighbouring coordinate with the lowest cost, so any number of objects can follow the field with one lookup per update.
+	 *
+	 * The map uses the same roughness values as UtilsPath.findPathNoDiagonal(double[]) and WarpedTile.getRoughness().
+	 * Coordinates with a roughness <= 0.0 are impassable, the cost of moving into a coordinate is the distance moved multiplied by its roughness.
+	 * */
+
+	private static final byte NONE = -1; // Coordinate can not reach the goal
+	private static final byte GOAL = 8;
+	private static final float ROOT_TWO = (float)Math.sqrt(2.0);
+	private static final int[] DIRECTION_X = {-1, 0, 1, 0, -1, 1, 1, -1};
+	private static final int[] DIRECTION_Y = {0, 1, 0, -1, -1, -1, 1, 1};
+
+	private double[] map;
+	private int width;
+	private int height;
+	private boolean isDiagonal = true;
+
+	private float[] cost;
+	private byte[] direction;
+	private int goal = -1;
+	private int reachableCount = 0;
+
+	private double scale = 1.0;
+	private VectorD offset = new VectorD(2);
+
+	//Search buffers
+	private int[] heap;
+	private int[] heapIndex;
+	private int heapSize = 0;
+
+	/**A flow field that allows diagonal movement.
+	 * @param map - the roughness of each coordinate, stored at index x + y * mapDim.x().
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @apiNote The field is empty until a goal is set.
+	 * @author 5som3*/
+	public FlowField(double[] map, VectorI mapDim) {this(map, mapDim, true);}
+
+	/**A flow field.
+	 * @param map - the roughness of each coordinate, stored at index x + y * mapDim.x().
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param isDiagonal - if true coordinates can flow to any of their 8 neighbours, else only up, down, left or right.
+	 * @apiNote The field is empty until a goal is set.
+	 * @author 5som3*/
+	public FlowField(double[] map, VectorI mapDim, boolean isDiagonal) {
+		this.isDiagonal = isDiagonal;
+		width = mapDim.x();
+		height = mapDim.y();
+		if(width <= 0 || height <= 0 || map.length < width * height) {
+			Console.err("FlowField -> FlowField() -> map is smaller than mapDim : " + map.length + ", " + mapDim.getString());
+			width = 0;
+			height = 0;
+		}
+		this.map = map;
+		cost = new float[width * height];
+		direction = new byte[width * height];
+		heap = new int[width * height];
+		heapIndex = new int[width * height];
+		Arrays.fill(direction, NONE);
+	}
+
+	/**The number of columns in the map.
+	 * @return int - the width of the map.
+	 * @author 5som3*/
+	public int getWidth() {return width;}
+
+	/**The number of rows in the map.
+	 * @return int - the height of the map.
+	 * @author 5som3*/
+	public int getHeight() {return height;}
+
+	/**The goal of the field.
+	 * @return VectorI - the goal coordinate, null if no goal has been set.
+	 * @author 5som3*/
+	public VectorI getGoal() {return goal < 0 ? null : new VectorI(goal % width, goal / width);}
+
+	/**The number of coordinates that can reach the goal.
+	 * @return int - the number of reachable coordinates, including the goal.
+	 * @author 5som3*/
+	public int getReachableCount() {return reachableCount;}
+
+	/**Set the scale used to convert coordinates into positions when following the field.
+	 * @param scale - the size of each coordinate in pixels (i.e. the tile size).
+	 * @apiNote The same as WarpedPath.scalePath().
+	 * @author 5som3*/
+	public void setScale(double scale) {
+		if(scale <= 0.0) {
+			Console.err("FlowField -> setScale() -> scale must be positive : " + scale);
+			return;
+		}
+		this.scale = scale;
+	}
+
+	/**Set the offset used to convert coordinates into positions when following the field.
+	 * @param x - the x offset in pixels.
+	 * @param y - the y offset in pixels.
+	 * @apiNote The same as WarpedPath.offsetPath().
+	 * @author 5som3*/
+	public void setOffset(double x, double y) {offset.set(x, y);}
+
+	/**Set the goal and recalculate the direction of every coordinate.
+	 * @param goal - the coordinate that the field will flow towards.
+	 * @return boolean - true if the goal was set, false if the goal is outside the map or impassable.
+	 * @apiNote Also call after changing the values of the map.
+	 * @implNote O(n log n) where n is the number of reachable coordinates. Objects following the field should be updated on the same thread that sets the goal.
+	 * @author 5som3*/
+	public boolean setGoal(VectorI goal) {
+		int gx = goal.x();
+		int gy = goal.y();
+		if(gx < 0 || gy < 0 || gx >= width || gy >= height || map[gx + gy * width] <= 0.0) {
+			Console.err("FlowField -> setGoal() -> goal coord is invalid : " + goal.getString());
+			return false;
+		}
+		this.goal = gx + gy * width;
+		integrate();
+		return true;
+	}
+
+	/**Recalculate the field for the current goal.
+	 * @apiNote Call after changing the values of the map.
+	 * @author 5som3*/
+	public void refresh() {
+		if(goal < 0) {
+			Console.err("FlowField -> refresh() -> the goal has not been set");
+			return;
+		}
+		integrate();
+	}
+
+	/**Can the coordinate reach the goal.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @return boolean - true if the coordinate is inside the map and has a route to the goal.
+	 * @author 5som3*/
+	public boolean isReachable(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) return false;
+		return direction[x + y * width] != NONE;
+	}
+
+	/**Is the coordinate the goal of the field.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @return boolean - true if the coordinate is the goal.
+	 * @author 5som3*/
+	public boolean isGoal(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) return false;
+		return x + y * width == goal;
+	}
+
+	/**The cost to reach the goal from a coordinate.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @return double - the cost of the cheapest route to the goal, Double.MAX_VALUE if the coordinate can not reach the goal.
+	 * @author 5som3*/
+	public double getCost(int x, int y) {
+		if(!isReachable(x, y)) return Double.MAX_VALUE;
+		return cost[x + y * width];
+	}
+
+	/**The x direction to move from a coordinate.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @return int - -1, 0 or 1, 0 if the coordinate is the goal or can not reach the goal.
+	 * @author 5som3*/
+	public int getFlowX(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) return 0;
+		byte d = direction[x + y * width];
+		return (d == NONE || d == GOAL) ? 0 : DIRECTION_X[d];
+	}
+
+	/**The y direction to move from a coordinate.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @return int - -1, 0 or 1, 0 if the coordinate is the goal or can not reach the goal.
+	 * @author 5som3*/
+	public int getFlowY(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) return 0;
+		byte d = direction[x + y * width];
+		return (d == NONE || d == GOAL) ? 0 : DIRECTION_Y[d];
+	}
+
+	/**Move a pathable one update along the field.
+	 * @param pathable - the object to move, its current coordinate is used to look up the direction to move.
+	 * @return boolean - true if the pathable has reached the goal or can not reach the goal, else false.
+	 * @implNote The pathable moves towards the position of the next coordinate at its move speed divided by the roughness of the next coordinate.
+	 * @implNote The current coordinate of the pathable is set to the next coordinate once it is half way there, the same as WarpedPath.follow().
+	 * @author 5som3*/
+	public <T extends WarpedPathable> boolean follow(T pathable) {
+		VectorI coord = pathable.getCurrentCoordinate();
+		int x = coord.x();
+		int y = coord.y();
+		if(!isReachable(x, y)) return true;
+		int nx = x + getFlowX(x, y);
+		int ny = y + getFlowY(x, y);
+
+		VectorD position = pathable.getPosition();
+		double dx = nx * scale + offset.x() - position.x();
+		double dy = ny * scale + offset.y() - position.y();
+		double distance = Math.sqrt(dx * dx + dy * dy);
+		double speed = pathable.getMoveSpeed() / map[nx + ny * width];
+
+		if(distance <= speed) {
+			position.add(dx, dy);
+			distance = 0.0;
+		} else {
+			position.add(dx / distance * speed, dy / distance * speed);
+			distance -= speed;
+		}
+
+		if(nx + ny * width == goal) {
+			if(x != nx || y != ny) pathable.setCurrentCoordinate(new VectorI(nx, ny));
+			return distance == 0.0;
+		}
+		if(distance < scale / 2.0) pathable.setCurrentCoordinate(new VectorI(nx, ny)); //Set coordinate half way between each tile, the same as WarpedPath
+		return false;
+	}
+
+	/**Run Dijkstra outwards from the goal, then point each coordinate at its cheapest neighbour.*/
+	private void integrate() {
+		int size = width * height;
+		Arrays.fill(direction, 0, size, NONE);
+		Arrays.fill(cost, 0, size, Float.MAX_VALUE);
+		Arrays.fill(heapIndex, 0, size, -1);
+		int neighbours = isDiagonal ? 8 : 4;
+		reachableCount = 0;
+
+		heapSize = 0;
+		cost[goal] = 0.0f;
+		direction[goal] = GOAL;
+		push(goal);
+
+		while(heapSize > 0) {
+			int current = pop();
+			reachableCount++;
+			int x = current % width;
+			int y = current / width;
+			float step = (float)map[current]; // Moving from a neighbour into this coordinate
+			for(int i = 0; i < neighbours; i++) {
+				int nx = x + DIRECTION_X[i];
+				int ny = y + DIRECTION_Y[i];
+				if(nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+				int next = nx + ny * width;
+				if(map[next] <= 0.0) continue;
+				float nextCost = cost[current] + (i < 4 ? step : step * ROOT_TWO);
+				if(nextCost >= cost[next]) continue;
+				cost[next] = nextCost;
+				direction[next] = (byte)(i ^ 2); // Point back along the direction searched, the opposite of each direction is 2 places away in the direction tables
+				if(heapIndex[next] < 0) push(next);
+				else siftUp(heapIndex[next]);
+			}
+		}
+	}
+
+	private void push(int cell) {
+		heap[heapSize] = cell;
+		heapIndex[cell] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	private int pop() {
+		int top = heap[0];
+		heapIndex[top] = -1;
+		heapSize--;
+		if(heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapIndex[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	private void siftUp(int i) {
+		int cell = heap[i];
+		float c = cost[cell];
+		while(i > 0) {
+			int p = (i - 1) >>> 1;
+			int parentCell = heap[p];
+			if(cost[parentCell] <= c) break;
+			heap[i] = parentCell;
+			heapIndex[parentCell] = i;
+			i = p;
+		}
+		heap[i] = cell;
+		heapIndex[cell] = i;
+	}
+
+	private void siftDown(int i) {
+		int cell = heap[i];
+		float c = cost[cell];
+		while(true) {
+			int child = (i << 1) + 1;
+			if(child >= heapSize) break;
+			if(child + 1 < heapSize && cost[heap[child + 1]] < cost[heap[child]]) child++;
+			int childCell = heap[child];
+			if(cost[childCell] >= c) break;
+			heap[i] = childCell;
+			heapIndex[childCell] = i;
+			i = child;
+		}
+		heap[i] = cell;
+		heapIndex[cell] = i;
+	}
+
+}
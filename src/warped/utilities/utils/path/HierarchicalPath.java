@@ -0,0 +1,76 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.utils.path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import warped.utilities.utils.Console;
+
+public final class HierarchicalPath extends WarpedPath {
+
+	/*HierarchicalPath is a WarpedPath found by a HierarchicalPathfinder.
+	 * The path is stored as a list of waypoints (the start, the entrances passed through and the goal), each pair of waypoints is a section of the path.
+	 * Only the first section is refined into nodes when the path is found, the following sections are refined when passedNext() reaches the end of the refined nodes.
+	 * Long paths are never refined further than they are followed, and a path that is abandoned early costs little more than the abstract search.
+	 *
+	 * getNodes() and getCoordinates() only contain the sections that have been refined, use refineAll() to refine the whole path (i.e. to draw it).
+	 * */
+
+	private HierarchicalPathfinder pathfinder;
+	private int[] waypoints;
+	private int nextSection = 0;
+	private WarpedPathNode lastNode;
+	private double cost = 0.0;
+
+	HierarchicalPath(HierarchicalPathfinder pathfinder, int[] waypoints, double cost, WarpedPathNode startNode) {
+		super(new ArrayList<>());
+		this.pathfinder = pathfinder;
+		this.waypoints = waypoints;
+		this.cost = cost;
+		this.lastNode = startNode;
+		refineAhead();
+	}
+
+	/**The cost of the path.
+	 * @return double - the sum of the cost of each section.
+	 * @author 5som3*/
+	public double getCost() {return cost;}
+
+	/**The number of waypoints in the abstract path.
+	 * @return int - the number of waypoints, including the start and goal.
+	 * @author 5som3*/
+	public int getWaypointCount() {return waypoints.length;}
+
+	/**Has every section of the path been refined into nodes.
+	 * @return boolean - true if the path is fully refined.
+	 * @author 5som3*/
+	public boolean isRefined() {return nextSection >= waypoints.length - 1;}
+
+	/**Refine all remaining sections of the path into nodes.
+	 * @author 5som3*/
+	public void refineAll() {while(!isRefined()) refineNext();}
+
+	@Override
+	public void passedNext() {
+		super.passedNext();
+		refineAhead();
+	}
+
+	/**Refine sections until there is a node after the next node, or the path is fully refined.*/
+	private void refineAhead() {while(getCurrentNode() < 1 && !isRefined()) refineNext();}
+
+	private void refineNext() {
+		List<WarpedPathNode> section = pathfinder.refine(waypoints[nextSection], waypoints[nextSection + 1], lastNode);
+		if(section == null) {
+			Console.err("HierarchicalPath -> refineNext() -> the map has changed and the path is no longer passable, the path will end early");
+			nextSection = waypoints.length;
+			return;
+		}
+		nextSection++;
+		if(section.isEmpty()) return;
+		lastNode = section.get(0);
+		prependNodes(section);
+	}
+
+}
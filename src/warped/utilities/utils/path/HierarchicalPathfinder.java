@@ -0,0 +1,486 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.utils.path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import warped.utilities.math.vectors.VectorI;
+import warped.utilities.utils.Console;
+
+public final class HierarchicalPathfinder {
+
+	/*HierarchicalPathfinder finds paths across large maps using hierarchical A* (HPA*).
+	 * The map is divided into square clusters, where two neighbouring clusters share an open border an entrance is placed on each side of the border.
+	 * If diagonal movement is allowed, entrances are also placed where clusters are only connected by a diagonal step.
+	 * The cost between every pair of entrances in a cluster is found once, when the pathfinder is created, these form an abstract graph that is much smaller than the map.
+	 * To find a path, the start and goal are connected to the entrances of their clusters and then A* is run on the abstract graph.
+	 * If the start and goal are in the same or neighbouring clusters the direct path within those clusters is also considered, so short paths are not forced through the entrances.
+	 * The abstract path is only refined into coordinates one cluster at a time as the path is followed, see HierarchicalPath.
+	 *
+	 * Paths are not always optimal, they must pass through the entrances so they can be slightly longer than the path found by UtilsPath.findPath().
+	 * With the default cluster size no path costs more than 1.5 times the optimal cost plus 8 (half of a cluster border), checked against A* on seeded random maps by test.HierarchicalPathTest.
+	 * The paths found there are on average within 2% of the optimal cost, short paths that cross a cluster border are the furthest from it.
+	 *
+	 * When a coordinate of the map is changed with setPassable() only the cluster containing it (and its neighbours if the coordinate is on a border) is recalculated.
+	 * */
+
+	public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+	private static final int MAX_SINGLE_ENTRANCE = 6; // Open borders shorter than this have one entrance in the middle, longer borders have an entrance at each end
+
+	private boolean[] map;
+	private int width;
+	private int height;
+	private int clusterSize;
+	private int clustersX;
+	private int clustersY;
+	private boolean isDiagonal;
+	private Cluster[] clusters;
+
+	private PathSearch search = new PathSearch();
+
+	//Abstract search, each entrance is a node, the ids of the entrances of cluster i start at nodeBase[i]
+	private boolean isNodesDirty = true;
+	private int nodeCount = 0;
+	private int[] nodeBase = new int[0];
+	private int[] nodeCluster = new int[0];
+	private float[] nodeG = new float[0];
+	private int[] nodeParent = new int[0];
+	private int[] nodeReached = new int[0]; // == nodeStamp if the node has been reached by the current search
+	private int[] nodeClosed = new int[0];  // == nodeStamp if the node has been closed by the current search
+	private int nodeStamp = 0;
+	private long[] openList = new long[64];
+	private int openSize = 0;
+	private long buildDuration = 0;
+
+	private static class Cluster {
+		int x, y, width, height;
+		int count = 0;
+		int[] cells = new int[8];    // The cell of each entrance
+		int[] partners = new int[8]; // The cell on the other side of the border from each entrance
+		float[] costs = new float[0]; // count * count, the cost from entrance i to entrance j is at i * count + j, -1 if there is no route
+	}
+
+
+	/**A hierarchical pathfinder with the default cluster size that allows diagonal movement.
+	 * @param map - true if the coordinate is passable else false, stored at index x + y * mapDim.x().
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @author 5som3*/
+	public HierarchicalPathfinder(boolean[] map, VectorI mapDim) {this(map, mapDim, DEFAULT_CLUSTER_SIZE, true);}
+
+	/**A hierarchical pathfinder.
+	 * @param map - true if the coordinate is passable else false, stored at index x + y * mapDim.x().
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param clusterSize - the width and height of each cluster in coordinates.
+	 * @param isDiagonal - if true paths can move to any of the 8 surrounding coordinates else only up, down, left or right.
+	 * @apiNote The map is not copied, change the map with setPassable() so the affected clusters are recalculated.
+	 * @implNote Larger clusters give fewer entrances and faster searches but paths that are further from optimal.
+	 * @author 5som3*/
+	public HierarchicalPathfinder(boolean[] map, VectorI mapDim, int clusterSize, boolean isDiagonal) {
+		if(clusterSize < 2) {
+			Console.err("HierarchicalPathfinder -> HierarchicalPathfinder() -> cluster size must be at least 2 : " + clusterSize + ", it will be set to the default : " + DEFAULT_CLUSTER_SIZE);
+			clusterSize = DEFAULT_CLUSTER_SIZE;
+		}
+		this.map = map;
+		this.width = mapDim.x();
+		this.height = mapDim.y();
+		if(width <= 0 || height <= 0 || map.length < width * height) {
+			Console.err("HierarchicalPathfinder -> HierarchicalPathfinder() -> map is smaller than mapDim : " + map.length + ", " + mapDim.getString());
+			width = 0;
+			height = 0;
+		}
+		this.clusterSize = clusterSize;
+		this.isDiagonal = isDiagonal;
+		clustersX = (width + clusterSize - 1) / clusterSize;
+		clustersY = (height + clusterSize - 1) / clusterSize;
+		clusters = new Cluster[clustersX * clustersY];
+		for(int i = 0; i < clusters.length; i++) {
+			Cluster cluster = new Cluster();
+			cluster.x = (i % clustersX) * clusterSize;
+			cluster.y = (i / clustersX) * clusterSize;
+			cluster.width = Math.min(clusterSize, width - cluster.x);
+			cluster.height = Math.min(clusterSize, height - cluster.y);
+			clusters[i] = cluster;
+		}
+		rebuild();
+	}
+
+	/**The width and height of each cluster.
+	 * @return int - the cluster size in coordinates.
+	 * @author 5som3*/
+	public int getClusterSize() {return clusterSize;}
+
+	/**The number of clusters the map is divided into.
+	 * @return int - the cluster count.
+	 * @author 5som3*/
+	public int getClusterCount() {return clusters.length;}
+
+	/**The number of entrances in the abstract graph.
+	 * @return int - the entrance count, each open border has at least one entrance on each side.
+	 * @author 5som3*/
+	public synchronized int getEntranceCount() {
+		int count = 0;
+		for(int i = 0; i < clusters.length; i++) count += clusters[i].count;
+		return count;
+	}
+
+	/**The duration of the last rebuild or setPassable().
+	 * @return long - the duration in nano-seconds.
+	 * @author 5som3*/
+	public long getBuildDuration() {return buildDuration;}
+
+	/**Is a coordinate passable.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @return boolean - true if the coordinate is inside the map and passable.
+	 * @author 5som3*/
+	public synchronized boolean isPassable(int x, int y) {
+		if(x < 0 || y < 0 || x >= width || y >= height) return false;
+		return map[x + y * width];
+	}
+
+	/**Set if a coordinate is passable, recalculating only the clusters that are affected.
+	 * @param x - the x coordinate.
+	 * @param y - the y coordinate.
+	 * @param isPassable - true if the coordinate can be moved through.
+	 * @implNote Paths that have already been found will refine their remaining sections using the updated map.
+	 * @author 5som3*/
+	public synchronized void setPassable(int x, int y, boolean isPassable) {
+		if(x < 0 || y < 0 || x >= width || y >= height) {
+			Console.err("HierarchicalPathfinder -> setPassable() -> coord is outside the map : (" + x + ", " + y + ")");
+			return;
+		}
+		if(map[x + y * width] == isPassable) return;
+		long startTime = System.nanoTime();
+		map[x + y * width] = isPassable;
+
+		int cx = x / clusterSize;
+		int cy = y / clusterSize;
+		int index = cx + cy * clustersX;
+		Cluster cluster = clusters[index];
+		boolean isBorder = x == cluster.x || y == cluster.y || x == cluster.x + cluster.width - 1 || y == cluster.y + cluster.height - 1;
+		if(isBorder) { // The entrances on the other side of the border (or corner) may have moved
+			int minX = Math.max(cx - 1, 0);
+			int minY = Math.max(cy - 1, 0);
+			int maxX = Math.min(cx + 1, clustersX - 1);
+			int maxY = Math.min(cy + 1, clustersY - 1);
+			for(int j = minY; j <= maxY; j++) for(int i = minX; i <= maxX; i++) buildEntrances(i + j * clustersX);
+			for(int j = minY; j <= maxY; j++) for(int i = minX; i <= maxX; i++) buildCosts(i + j * clustersX);
+		} else buildCosts(index);
+		isNodesDirty = true;
+		buildDuration = System.nanoTime() - startTime;
+	}
+
+	/**Recalculate every cluster.
+	 * @apiNote Call if the map has been changed without using setPassable().
+	 * @author 5som3*/
+	public synchronized void rebuild() {
+		long startTime = System.nanoTime();
+		for(int i = 0; i < clusters.length; i++) buildEntrances(i);
+		for(int i = 0; i < clusters.length; i++) buildCosts(i);
+		isNodesDirty = true;
+		buildDuration = System.nanoTime() - startTime;
+	}
+
+	/**Find a path between two coordinates.
+	 * @param start - the coordinate to start from.
+	 * @param goal - the coordinate to find a path to.
+	 * @return HierarchicalPath - the path from the start to the goal, null if there is no path.
+	 * @implNote Only the first section of the path is refined into coordinates, the rest is refined as the path is followed.
+	 * @author 5som3*/
+	public synchronized HierarchicalPath findPath(VectorI start, VectorI goal) {
+		if(start.x() < 0 || start.y() < 0 || start.x() >= width || start.y() >= height) {
+			Console.err("HierarchicalPathfinder -> findPath() -> start coord is invalid : " + start.getString());
+			return null;
+		}
+		if(goal.x() < 0 || goal.y() < 0 || goal.x() >= width || goal.y() >= height || !map[goal.x() + goal.y() * width]) {
+			Console.err("HierarchicalPathfinder -> findPath() -> goal coord is invalid : " + goal.getString());
+			return null;
+		}
+		int startCell = start.x() + start.y() * width;
+		int goalCell = goal.x() + goal.y() * width;
+		int startCluster = getCluster(startCell);
+		int goalCluster = getCluster(goalCell);
+		WarpedPathNode startNode = new WarpedPathNode(new VectorI(start), null, 0, 0);
+		if(startCell == goalCell) return new HierarchicalPath(this, new int[] {startCell}, 0.0, startNode);
+		if(isNodesDirty) buildNodes();
+
+		//Connect the start and goal to the entrances of their clusters
+		float[] startCosts = getEntranceCosts(startCluster, startCell);
+		float[] goalCosts = getEntranceCosts(goalCluster, goalCell);
+		float directCost = getDirectCost(startCell, goalCell);
+
+		int startId = nodeCount;
+		int goalId = nodeCount + 1;
+		nodeStamp++;
+		if(nodeStamp == Integer.MAX_VALUE) {
+			Arrays.fill(nodeReached, 0);
+			Arrays.fill(nodeClosed, 0);
+			nodeStamp = 1;
+		}
+		openSize = 0;
+		nodeReached[startId] = nodeStamp;
+		nodeG[startId] = 0.0f;
+		nodeParent[startId] = -1;
+		push(startId, getHeuristic(startCell, goalCell));
+
+		while(openSize > 0) {
+			int current = pop();
+			if(nodeClosed[current] == nodeStamp) continue; // An older entry for a node that has been reopened at a lower cost
+			nodeClosed[current] = nodeStamp;
+			if(current == goalId) return createPath(goalId, startId, startCell, goalCell, startNode);
+
+			if(current == startId) {
+				Cluster cluster = clusters[startCluster];
+				for(int j = 0; j < cluster.count; j++) if(startCosts[j] >= 0.0f) open(current, nodeBase[startCluster] + j, startCosts[j], cluster.cells[j], goalCell);
+				if(directCost >= 0.0f) open(current, goalId, directCost, goalCell, goalCell);
+				continue;
+			}
+
+			int clusterIndex = nodeCluster[current];
+			int i = current - nodeBase[clusterIndex];
+			Cluster cluster = clusters[clusterIndex];
+			for(int j = 0; j < cluster.count; j++) { // Edges within the cluster
+				float cost = cluster.costs[i * cluster.count + j];
+				if(j != i && cost >= 0.0f) open(current, nodeBase[clusterIndex] + j, cost, cluster.cells[j], goalCell);
+			}
+			int partnerCluster = getCluster(cluster.partners[i]); // Edge across the border
+			int partner = findEntrance(partnerCluster, cluster.partners[i], cluster.cells[i]);
+			if(partner >= 0) open(current, nodeBase[partnerCluster] + partner, getHeuristic(cluster.cells[i], cluster.partners[i]), cluster.partners[i], goalCell);
+			if(clusterIndex == goalCluster && goalCosts[i] >= 0.0f) open(current, goalId, goalCosts[i], goalCell, goalCell);
+		}
+		return null;
+	}
+
+	/**Refine a section of an abstract path into coordinates.
+	 * @param from - the cell at the start of the section.
+	 * @param to - the cell at the end of the section.
+	 * @param parent - the node at the start of the section.
+	 * @return List<WarpedPathNode> - the nodes of the section ordered from the end back to the start, excluding the start, null if the section is no longer passable.
+	 * @implNote Sections between neighbouring cells are a single step, other sections are searched for within the clusters that contain the two cells.
+	 * @author 5som3*/
+	protected synchronized List<WarpedPathNode> refine(int from, int to, WarpedPathNode parent) {
+		List<WarpedPathNode> section = new ArrayList<>();
+		if(from == to) return section;
+		int dx = Math.abs(from % width - to % width);
+		int dy = Math.abs(from / width - to / width);
+		if(isDiagonal ? (dx <= 1 && dy <= 1) : (dx + dy == 1)) {
+			if(!map[to]) return null;
+			section.add(new WarpedPathNode(new VectorI(to % width, to / width), parent, parent.gCost + getHeuristic(from, to), 0.0));
+			return section;
+		}
+		if(!searchRegion(from, to)) return null;
+		WarpedPathNode[] sectionNodes = new WarpedPathNode[search.getRouteLength()];
+		for(int i = sectionNodes.length - 1; i >= 0; i--) {
+			int cell = search.getRoute(i);
+			sectionNodes[i] = new WarpedPathNode(new VectorI(cell % width, cell / width), parent, parent.gCost + search.getGCost(cell), 0.0);
+			parent = sectionNodes[i];
+		}
+		for(int i = 0; i < sectionNodes.length; i++) section.add(sectionNodes[i]);
+		return section;
+	}
+
+	/**The cost of the cheapest path between two cells that stays within their clusters.
+	 * @return float - the cost, -1 if the clusters are not the same or neighbouring, or there is no path within them.*/
+	private float getDirectCost(int startCell, int goalCell) {
+		int startCluster = getCluster(startCell);
+		int goalCluster = getCluster(goalCell);
+		if(Math.abs(startCluster % clustersX - goalCluster % clustersX) > 1 || Math.abs(startCluster / clustersX - goalCluster / clustersX) > 1) return -1.0f;
+		if(!searchRegion(startCell, goalCell)) return -1.0f;
+		return (float)search.getGCost(goalCell);
+	}
+
+	/**Search for a path between two cells within the bounds of the clusters that contain them.*/
+	private boolean searchRegion(int from, int to) {
+		Cluster a = clusters[getCluster(from)];
+		Cluster b = clusters[getCluster(to)];
+		int x = Math.min(a.x, b.x);
+		int y = Math.min(a.y, b.y);
+		int regionWidth = Math.max(a.x + a.width, b.x + b.width) - x;
+		int regionHeight = Math.max(a.y + a.height, b.y + b.height) - y;
+		return search.search(map, null, PathSearch.BOOLEAN, width, x, y, regionWidth, regionHeight, from, to, isDiagonal);
+	}
+
+	/**Find the cost from a cell to every entrance of a cluster.*/
+	private float[] getEntranceCosts(int clusterIndex, int cell) {
+		Cluster cluster = clusters[clusterIndex];
+		search.searchTargets(map, null, PathSearch.BOOLEAN, width, cluster.x, cluster.y, cluster.width, cluster.height, cell, cluster.cells, 0, cluster.count, isDiagonal);
+		float[] costs = new float[cluster.count];
+		for(int j = 0; j < cluster.count; j++) costs[j] = search.getCost(cluster.cells[j]);
+		return costs;
+	}
+
+	private void open(int from, int id, float cost, int cell, int goalCell) {
+		float g = nodeG[from] + cost;
+		if(nodeReached[id] == nodeStamp && (nodeClosed[id] == nodeStamp || g >= nodeG[id])) return;
+		nodeReached[id] = nodeStamp;
+		nodeG[id] = g;
+		nodeParent[id] = from;
+		push(id, g + getHeuristic(cell, goalCell)); // Any older entry for the node is skipped when it is popped because the node will already be closed
+	}
+
+	/**Convert the abstract path into the waypoints of a HierarchicalPath.*/
+	private HierarchicalPath createPath(int goalId, int startId, int startCell, int goalCell, WarpedPathNode startNode) {
+		int length = 0;
+		for(int id = goalId; id >= 0; id = nodeParent[id]) length++;
+		int[] waypoints = new int[length];
+		int i = length - 1;
+		for(int id = goalId; id >= 0; id = nodeParent[id], i--) {
+			if(id == startId) waypoints[i] = startCell;
+			else if(id == goalId) waypoints[i] = goalCell;
+			else waypoints[i] = clusters[nodeCluster[id]].cells[id - nodeBase[nodeCluster[id]]];
+		}
+		return new HierarchicalPath(this, waypoints, nodeG[goalId], startNode);
+	}
+
+	/**Give each entrance a unique id and size the abstract search buffers.*/
+	private void buildNodes() {
+		if(nodeBase.length != clusters.length + 1) nodeBase = new int[clusters.length + 1];
+		for(int i = 0; i < clusters.length; i++) nodeBase[i + 1] = nodeBase[i] + clusters[i].count;
+		nodeCount = nodeBase[clusters.length];
+		if(nodeCluster.length < nodeCount + 2) {
+			int size = nodeCount + 2 + (nodeCount >> 3); // Leave room for entrances added by setPassable()
+			nodeCluster = new int[size];
+			nodeG = new float[size];
+			nodeParent = new int[size];
+			nodeReached = new int[size];
+			nodeClosed = new int[size];
+			nodeStamp = 0;
+		}
+		for(int i = 0; i < clusters.length; i++) for(int id = nodeBase[i]; id < nodeBase[i + 1]; id++) nodeCluster[id] = i;
+		isNodesDirty = false;
+	}
+
+	/**Add an entry to the open list, ordered by f cost.
+	 * @implNote f is never negative so the order of its bits is the same as the order of its value, each entry is packed into a long with f in the high bits.*/
+	private void push(int id, float f) {
+		if(openSize == openList.length) openList = Arrays.copyOf(openList, openSize * 2);
+		long entry = ((long)Float.floatToIntBits(f) << 32) | id;
+		int i = openSize++;
+		while(i > 0) {
+			int p = (i - 1) >>> 1;
+			if(openList[p] <= entry) break;
+			openList[i] = openList[p];
+			i = p;
+		}
+		openList[i] = entry;
+	}
+
+	private int pop() {
+		long top = openList[0];
+		long last = openList[--openSize];
+		int i = 0;
+		while(true) {
+			int child = (i << 1) + 1;
+			if(child >= openSize) break;
+			if(child + 1 < openSize && openList[child + 1] < openList[child]) child++;
+			if(openList[child] >= last) break;
+			openList[i] = openList[child];
+			i = child;
+		}
+		openList[i] = last;
+		return (int)top;
+	}
+
+	/**Place the entrances on each border of a cluster that is shared with another cluster.*/
+	private void buildEntrances(int index) {
+		Cluster cluster = clusters[index];
+		cluster.count = 0;
+		int right = cluster.x + cluster.width - 1;
+		int bottom = cluster.y + cluster.height - 1;
+		if(cluster.x > 0) addEntrances(cluster, cluster.x, cluster.y, 0, 1, cluster.height, -1, 0);
+		if(right < width - 1) addEntrances(cluster, right, cluster.y, 0, 1, cluster.height, 1, 0);
+		if(cluster.y > 0) addEntrances(cluster, cluster.x, cluster.y, 1, 0, cluster.width, 0, -1);
+		if(bottom < height - 1) addEntrances(cluster, cluster.x, bottom, 1, 0, cluster.width, 0, 1);
+		if(!isDiagonal) return;
+		if(cluster.x > 0 && cluster.y > 0) addCornerEntrance(cluster, cluster.x, cluster.y, -1, -1);
+		if(right < width - 1 && cluster.y > 0) addCornerEntrance(cluster, right, cluster.y, 1, -1);
+		if(cluster.x > 0 && bottom < height - 1) addCornerEntrance(cluster, cluster.x, bottom, -1, 1);
+		if(right < width - 1 && bottom < height - 1) addCornerEntrance(cluster, right, bottom, 1, 1);
+	}
+
+	/**Scan along one border of a cluster for runs of coordinates that are open on both sides.
+	 * @implNote The cluster on the other side scans the same coordinates in the same order, so both sides place their entrances opposite each other.*/
+	private void addEntrances(Cluster cluster, int x, int y, int stepX, int stepY, int length, int acrossX, int acrossY) {
+		int across = acrossX + acrossY * width;
+		int step = stepX + stepY * width;
+		int first = x + y * width;
+		int runStart = -1;
+		for(int i = 0; i <= length; i++) {
+			boolean isOpen = i < length && isOpenAcross(first + i * step, across);
+			if(isOpen && runStart < 0) runStart = i;
+			else if(!isOpen && runStart >= 0) {
+				if(i - runStart < MAX_SINGLE_ENTRANCE) addEntrance(cluster, first + ((runStart + i - 1) / 2) * step, across);
+				else {
+					addEntrance(cluster, first + runStart * step, across);
+					addEntrance(cluster, first + (i - 1) * step, across);
+				}
+				runStart = -1;
+			}
+		}
+		if(!isDiagonal) return;
+		for(int i = 0; i < length; i++) { // Diagonal steps across the border where there is no straight step either side
+			int cell = first + i * step;
+			if(!map[cell] || isOpenAcross(cell, across)) continue;
+			if(i + 1 < length && map[cell + step + across] && !isOpenAcross(cell + step, across)) addEntrance(cluster, cell, step + across);
+			if(i > 0 && map[cell - step + across] && !isOpenAcross(cell - step, across)) addEntrance(cluster, cell, across - step);
+		}
+	}
+
+	/**Add an entrance at the corner of a cluster if the only way to the diagonal cluster is a diagonal step.*/
+	private void addCornerEntrance(Cluster cluster, int x, int y, int acrossX, int acrossY) {
+		int cell = x + y * width;
+		if(!map[cell] || !map[cell + acrossX + acrossY * width]) return;
+		if(map[cell + acrossX] || map[cell + acrossY * width]) return;
+		addEntrance(cluster, cell, acrossX + acrossY * width);
+	}
+
+	private boolean isOpenAcross(int cell, int across) {return map[cell] && map[cell + across];}
+
+	private void addEntrance(Cluster cluster, int cell, int across) {
+		if(cluster.count == cluster.cells.length) {
+			cluster.cells = Arrays.copyOf(cluster.cells, cluster.count * 2);
+			cluster.partners = Arrays.copyOf(cluster.partners, cluster.count * 2);
+		}
+		cluster.cells[cluster.count] = cell;
+		cluster.partners[cluster.count] = cell + across;
+		cluster.count++;
+	}
+
+	/**Find the cost between every pair of entrances in a cluster.
+	 * @implNote Costs are symmetric, each search only needs to reach the entrances after the one it starts from.*/
+	private void buildCosts(int index) {
+		Cluster cluster = clusters[index];
+		int count = cluster.count;
+		if(cluster.costs.length < count * count) cluster.costs = new float[count * count];
+		for(int i = 0; i < count; i++) {
+			cluster.costs[i * count + i] = 0.0f;
+			if(i == count - 1) break;
+			search.searchTargets(map, null, PathSearch.BOOLEAN, width, cluster.x, cluster.y, cluster.width, cluster.height, cluster.cells[i], cluster.cells, i + 1, count - i - 1, isDiagonal);
+			for(int j = i + 1; j < count; j++) {
+				float cost = search.getCost(cluster.cells[j]);
+				cluster.costs[i * count + j] = cost;
+				cluster.costs[j * count + i] = cost;
+			}
+		}
+	}
+
+	/**Find the entrance of a cluster at a cell that leads to the partner cell, or -1 if there is none.*/
+	private int findEntrance(int clusterIndex, int cell, int partner) {
+		Cluster cluster = clusters[clusterIndex];
+		for(int j = 0; j < cluster.count; j++) if(cluster.cells[j] == cell && cluster.partners[j] == partner) return j;
+		return -1;
+	}
+
+	private int getCluster(int cell) {return (cell % width) / clusterSize + ((cell / width) / clusterSize) * clustersX;}
+
+	private float getHeuristic(int cell, int goalCell) {
+		int dx = Math.abs(cell % width - goalCell % width);
+		int dy = Math.abs(cell / width - goalCell / width);
+		if(isDiagonal) return (float)(dx + dy + (Math.sqrt(2.0) - 2.0) * Math.min(dx, dy));
+		return dx + dy;
+	}
+
+}
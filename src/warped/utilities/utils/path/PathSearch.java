@@ -0,0 +1,397 @@
+/* WarpedFramework 2D - java API - Copyright (C) 2021-2025 Angelo Wilson | released under LGPL 2.1-or-later https://opensource.org/license/lgpl-2-1*/
+
+package warped.utilities.utils.path;
+
+import java.util.Arrays;
+
+class PathSearch {
+
+	/*PathSearch is the A* search used by UtilsPath.
+	 * Each cell of the map is identified by its index in the flat map array (x + y * width), no objects are allocated while searching.
+	 * A search can be limited to a rectangular region of the map, the buffers are indexed relative to the region so searching a small region of a large map is cheap.
+	 * If the goal is -1 the search runs until every reachable cell in the region, or every target cell, has been closed (Dijkstra), the cost to each cell can then be read with getCost().
+	 * The open list is an indexed binary min-heap ordered by f cost, heapIndex stores the position of each cell in the heap so a cell can be moved up the heap when a cheaper route to it is found (decrease-key).
+	 * The g cost and parent of each cell are stored in primitive arrays that are sized to the largest map searched and reused by every search.
+	 * Instead of clearing the arrays before each search, a cell is only considered visited if its stamp equals the stamp of the current search.
+	 *
+	 * Each thread has its own PathSearch so searches can be run from any thread, see UtilsPath. Each HierarchicalPathfinder also has its own PathSearch.
+	 *
+	 * The heuristic is scaled by the cheapest cost per unit distance on the map so the route found is the cheapest, the scale can be passed in (UtilsPath caches it for each map)
+	 * or left as UNKNOWN_SCALE to be found by scanning the region before the search.
+	 * */
+
+	protected static final int BOOLEAN = 0;    // map value true is passable, step cost is the distance between cells
+	protected static final int SMOOTHNESS = 1; // map value > 0.0 is passable, step cost is the distance between cells divided by the value of the cell entered
+	protected static final int ROUGHNESS = 2;  // map value > 0.0 is passable, step cost is the distance between cells multiplied by the value of the cell entered
+
+	protected static final float UNKNOWN_SCALE = -1.0f; // scan the region for the heuristic scale
+
+	private static final float ROOT_TWO = (float)Math.sqrt(2.0);
+
+	private static final int[] DIAGONAL_X = {-1, 0, 1, -1, 1, -1, 0, 1};
+	private static final int[] DIAGONAL_Y = {-1, -1, -1, 0, 0, 1, 1, 1};
+	private static final int[] STRAIGHT_X = {-1, 0, 1, 0};
+	private static final int[] STRAIGHT_Y = {0, 1, 0, -1};
+
+	private float[] gCost = new float[0];
+	private float[] fCost = new float[0];
+	private int[] parent = new int[0];
+	private int[] stamp = new int[0];     // == searchStamp if the cell has been reached by the current search
+	private int[] heapIndex = new int[0]; // position of the cell in the heap, -1 if the cell is closed
+	private int[] heap = new int[0];
+	private int[] targetStamp = new int[0]; // == searchStamp if the cell is a target of the current search
+	private int heapSize = 0;
+	private int searchStamp = 0;
+
+	private int[] route = new int[64];
+	private int routeLength = 0;
+
+	private int width;
+	private int regionX;
+	private int regionY;
+	private int regionWidth;
+	private int regionHeight;
+	private int goalX;
+	private int goalY;
+	private boolean[] booleanMap;
+	private double[] doubleMap;
+	private int mode;
+	private float heuristicScale;
+	private boolean isDiagonal;
+
+	/**Search for the cheapest route between two cells.
+	 * @param booleanMap - the map if mode is BOOLEAN, else null.
+	 * @param doubleMap - the map if mode is SMOOTHNESS or ROUGHNESS, else null.
+	 * @param mode - how the map values are interpreted, BOOLEAN, SMOOTHNESS or ROUGHNESS.
+	 * @param width - the number of columns in the map.
+	 * @param height - the number of rows in the map.
+	 * @param start - the index of the start cell.
+	 * @param goal - the index of the goal cell.
+	 * @param isDiagonal - if true cells have 8 neighbours else cells have 4 neighbours.
+	 * @return boolean - true if a route was found, get the route with getRouteLength() and getRoute().
+	 * @author 5som3*/
+	protected boolean search(boolean[] booleanMap, double[] doubleMap, int mode, int width, int height, int start, int goal, boolean isDiagonal) {
+		return search(booleanMap, doubleMap, mode, width, height, start, goal, isDiagonal, UNKNOWN_SCALE);
+	}
+
+	/**Search for the cheapest route between two cells.
+	 * @param booleanMap - the map if mode is BOOLEAN, else null.
+	 * @param doubleMap - the map if mode is SMOOTHNESS or ROUGHNESS, else null.
+	 * @param mode - how the map values are interpreted, BOOLEAN, SMOOTHNESS or ROUGHNESS.
+	 * @param width - the number of columns in the map.
+	 * @param height - the number of rows in the map.
+	 * @param start - the index of the start cell.
+	 * @param goal - the index of the goal cell.
+	 * @param isDiagonal - if true cells have 8 neighbours else cells have 4 neighbours.
+	 * @param heuristicScale - the cheapest cost per unit distance on the map, must not be more than the cheapest step cost or the route may not be the cheapest. UNKNOWN_SCALE to scan the map for it.
+	 * @return boolean - true if a route was found, get the route with getRouteLength() and getRoute().
+	 * @author 5som3*/
+	protected boolean search(boolean[] booleanMap, double[] doubleMap, int mode, int width, int height, int start, int goal, boolean isDiagonal, float heuristicScale) {
+		return run(booleanMap, doubleMap, mode, width, 0, 0, width, height, start, goal, null, 0, 0, isDiagonal, heuristicScale);
+	}
+
+	/**Search for the cheapest route between two cells without leaving a region of the map.
+	 * @param booleanMap - the map if mode is BOOLEAN, else null.
+	 * @param doubleMap - the map if mode is SMOOTHNESS or ROUGHNESS, else null.
+	 * @param mode - how the map values are interpreted, BOOLEAN, SMOOTHNESS or ROUGHNESS.
+	 * @param width - the number of columns in the map.
+	 * @param regionX - the column of the top left cell of the region.
+	 * @param regionY - the row of the top left cell of the region.
+	 * @param regionWidth - the number of columns in the region.
+	 * @param regionHeight - the number of rows in the region.
+	 * @param start - the index of the start cell in the map, must be inside the region.
+	 * @param goal - the index of the goal cell in the map, or -1 to find the cost to every cell in the region.
+	 * @param isDiagonal - if true cells have 8 neighbours else cells have 4 neighbours.
+	 * @return boolean - true if a route was found, get the route with getRouteLength() and getRoute(). Always false if the goal is -1.
+	 * @author 5som3*/
+	protected boolean search(boolean[] booleanMap, double[] doubleMap, int mode, int width, int regionX, int regionY, int regionWidth, int regionHeight, int start, int goal, boolean isDiagonal) {
+		return run(booleanMap, doubleMap, mode, width, regionX, regionY, regionWidth, regionHeight, start, goal, null, 0, 0, isDiagonal, UNKNOWN_SCALE);
+	}
+
+	/**Find the cost from a cell to a set of target cells without leaving a region of the map.
+	 * @param booleanMap - the map if mode is BOOLEAN, else null.
+	 * @param doubleMap - the map if mode is SMOOTHNESS or ROUGHNESS, else null.
+	 * @param mode - how the map values are interpreted, BOOLEAN, SMOOTHNESS or ROUGHNESS.
+	 * @param width - the number of columns in the map.
+	 * @param regionX - the column of the top left cell of the region.
+	 * @param regionY - the row of the top left cell of the region.
+	 * @param regionWidth - the number of columns in the region.
+	 * @param regionHeight - the number of rows in the region.
+	 * @param start - the index of the start cell in the map, must be inside the region.
+	 * @param targets - the indices of the target cells in the map, must be inside the region.
+	 * @param targetStart - the index in targets of the first target.
+	 * @param targetCount - the number of targets.
+	 * @param isDiagonal - if true cells have 8 neighbours else cells have 4 neighbours.
+	 * @apiNote Read the cost to each target with getCost(), the search stops once every target has been closed.
+	 * @author 5som3*/
+	protected void searchTargets(boolean[] booleanMap, double[] doubleMap, int mode, int width, int regionX, int regionY, int regionWidth, int regionHeight, int start, int[] targets, int targetStart, int targetCount, boolean isDiagonal) {
+		run(booleanMap, doubleMap, mode, width, regionX, regionY, regionWidth, regionHeight, start, -1, targets, targetStart, targetCount, isDiagonal, UNKNOWN_SCALE);
+	}
+
+	private boolean run(boolean[] booleanMap, double[] doubleMap, int mode, int width, int regionX, int regionY, int regionWidth, int regionHeight, int start, int goal, int[] targets, int targetStart, int targetCount, boolean isDiagonal, float heuristicScale) {
+		this.booleanMap = booleanMap;
+		this.doubleMap = doubleMap;
+		this.mode = mode;
+		this.width = width;
+		this.regionX = regionX;
+		this.regionY = regionY;
+		this.regionWidth = regionWidth;
+		this.regionHeight = regionHeight;
+		this.isDiagonal = isDiagonal;
+		routeLength = 0;
+
+		prepare(regionWidth * regionHeight);
+		if(goal < 0) this.heuristicScale = 0.0f;
+		else if(mode == BOOLEAN) this.heuristicScale = 1.0f;
+		else this.heuristicScale = heuristicScale < 0.0f ? getHeuristicScale() : heuristicScale;
+
+		int[] dx = isDiagonal ? DIAGONAL_X : STRAIGHT_X;
+		int[] dy = isDiagonal ? DIAGONAL_Y : STRAIGHT_Y;
+		int localStart = toLocal(start);
+		int localGoal = goal < 0 ? -1 : toLocal(goal);
+		goalX = goal < 0 ? 0 : localGoal % regionWidth;
+		goalY = goal < 0 ? 0 : localGoal / regionWidth;
+
+		try {
+			int remainingTargets = -1; // Never reaches 0 if there are no targets
+			if(targets != null) {
+				remainingTargets = 0;
+				for(int i = targetStart; i < targetStart + targetCount; i++) {
+					int target = toLocal(targets[i]);
+					if(targetStamp[target] == searchStamp) continue; // Targets may be repeated
+					targetStamp[target] = searchStamp;
+					remainingTargets++;
+				}
+				if(remainingTargets == 0) return false;
+			}
+
+			open(localStart, -1, 0.0f);
+			while(heapSize > 0) {
+				int current = pop();
+				if(current == localGoal) {
+					buildRoute(localStart, localGoal);
+					return true;
+				}
+				if(targets != null && targetStamp[current] == searchStamp && --remainingTargets == 0) return false;
+
+				int x = current % regionWidth;
+				int y = current / regionWidth;
+				float g = gCost[current];
+				for(int i = 0; i < dx.length; i++) {
+					int nx = x + dx[i];
+					int ny = y + dy[i];
+					if(nx < 0 || ny < 0 || nx >= regionWidth || ny >= regionHeight) continue;
+					int next = nx + ny * regionWidth;
+					if(stamp[next] == searchStamp && heapIndex[next] < 0) continue; // closed
+
+					float step = getStepCost(nx + regionX + (ny + regionY) * width, dx[i] != 0 && dy[i] != 0);
+					if(step < 0.0f) continue;
+					float nextG = g + step;
+					if(stamp[next] != searchStamp) open(next, current, nextG);
+					else if(nextG < gCost[next]) {
+						fCost[next] += nextG - gCost[next];
+						gCost[next] = nextG;
+						parent[next] = current;
+						siftUp(heapIndex[next]);
+					}
+				}
+			}
+			return false;
+		} finally {
+			this.booleanMap = null; // Don't hold a reference to the map between searches
+			this.doubleMap = null;
+		}
+	}
+
+	/**The number of cells in the last route found.
+	 * @return int - the number of cells, excluding the start cell.
+	 * @author 5som3*/
+	protected int getRouteLength() {return routeLength;}
+
+	/**Get a cell of the last route found.
+	 * @param i - the index of the cell in the route in the domain 0 <= i < getRouteLength(), 0 is the goal cell.
+	 * @return int - the index of the cell in the map.
+	 * @author 5som3*/
+	protected int getRoute(int i) {return route[i];}
+
+	/**The g cost of a cell in the last search.
+	 * @param cell - the index of the cell in the map, must have been reached by the last search.
+	 * @return double - the cost of the cheapest route from the start to the cell.
+	 * @author 5som3*/
+	protected double getGCost(int cell) {return gCost[toLocal(cell)];}
+
+	/**The cost to reach a cell in the last search.
+	 * @param cell - the index of the cell in the map.
+	 * @return float - the cost of the cheapest route from the start to the cell, -1 if the cell is outside the region or was not closed by the search.
+	 * @apiNote Use after a search with no goal.
+	 * @author 5som3*/
+	protected float getCost(int cell) {
+		int x = cell % width - regionX;
+		int y = cell / width - regionY;
+		if(x < 0 || y < 0 || x >= regionWidth || y >= regionHeight) return -1.0f;
+		int local = x + y * regionWidth;
+		if(stamp[local] != searchStamp || heapIndex[local] >= 0) return -1.0f;
+		return gCost[local];
+	}
+
+	/**The heuristic of a cell in the last search.
+	 * @param cell - the index of the cell in the map.
+	 * @param goal - the index of the goal cell.
+	 * @return double - the estimated cost from the cell to the goal.
+	 * @author 5som3*/
+	protected double getHCost(int cell, int goal) {return getHeuristic(cell % width, cell / width, goal % width, goal / width);}
+
+	/**Convert the index of a cell in the map to the index of the cell in the region.*/
+	private int toLocal(int cell) {return (cell % width - regionX) + (cell / width - regionY) * regionWidth;}
+
+	/**Convert the index of a cell in the region to the index of the cell in the map.*/
+	private int toMap(int local) {return (local % regionWidth + regionX) + (local / regionWidth + regionY) * width;}
+
+	/**Size the buffers for a map and start a new search stamp.*/
+	private void prepare(int size) {
+		if(gCost.length < size) {
+			gCost = new float[size];
+			fCost = new float[size];
+			parent = new int[size];
+			stamp = new int[size];
+			heapIndex = new int[size];
+			heap = new int[size];
+			targetStamp = new int[size];
+			searchStamp = 0;
+		}
+		heapSize = 0;
+		searchStamp++;
+		if(searchStamp == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			Arrays.fill(targetStamp, 0);
+			searchStamp = 1;
+		}
+	}
+
+	/**The cost of entering a cell, -1 if the cell is impassable.*/
+	private float getStepCost(int cell, boolean isDiagonalStep) {
+		float distance = isDiagonalStep ? ROOT_TWO : 1.0f;
+		switch(mode) {
+		case BOOLEAN: return booleanMap[cell] ? distance : -1.0f;
+		case SMOOTHNESS: {
+			double value = doubleMap[cell];
+			return value > 0.0 ? (float)(distance / value) : -1.0f;
+		}
+		default: {
+			double value = doubleMap[cell];
+			return value > 0.0 ? (float)(distance * value) : -1.0f;
+		}
+		}
+	}
+
+	/**The smallest possible cost per unit distance in the region, keeps the heuristic admissible so the route found is the cheapest.*/
+	private float getHeuristicScale() {
+		double lowest = Double.MAX_VALUE;
+		double highest = 0.0;
+		for(int i = 0; i < regionWidth * regionHeight; i++) {
+			double value = doubleMap[toMap(i)];
+			if(value <= 0.0) continue;
+			if(value < lowest) lowest = value;
+			if(value > highest) highest = value;
+		}
+		return getHeuristicScale(mode, lowest, highest);
+	}
+
+	/**The smallest possible cost per unit distance on a map.
+	 * @param mode - how the map values are interpreted, SMOOTHNESS or ROUGHNESS.
+	 * @param lowest - the lowest passable value on the map, Double.MAX_VALUE if no value is passable.
+	 * @param highest - the highest passable value on the map, 0.0 if no value is passable.
+	 * @return float - the heuristic scale.
+	 * @author 5som3*/
+	protected static float getHeuristicScale(int mode, double lowest, double highest) {
+		if(mode == SMOOTHNESS) return highest > 0.0 ? (float)(1.0 / highest) : 1.0f;
+		if(mode == ROUGHNESS) return lowest < Double.MAX_VALUE ? (float)lowest : 1.0f;
+		return 1.0f;
+	}
+
+	/**Drop the buffers so they can be garbage collected, they are created again by the next search.
+	 * @author 5som3*/
+	protected void release() {
+		gCost = new float[0];
+		fCost = new float[0];
+		parent = new int[0];
+		stamp = new int[0];
+		heapIndex = new int[0];
+		heap = new int[0];
+		targetStamp = new int[0];
+		route = new int[64];
+		routeLength = 0;
+	}
+
+	/**Octile distance when moving diagonally, manhattan distance when not, scaled by the cheapest cost per unit distance.*/
+	private float getHeuristic(int x, int y, int goalX, int goalY) {
+		int dx = Math.abs(x - goalX);
+		int dy = Math.abs(y - goalY);
+		if(isDiagonal) return heuristicScale * (dx + dy + (ROOT_TWO - 2.0f) * Math.min(dx, dy));
+		return heuristicScale * (dx + dy);
+	}
+
+	private void open(int cell, int from, float g) {
+		stamp[cell] = searchStamp;
+		parent[cell] = from;
+		gCost[cell] = g;
+		fCost[cell] = g + getHeuristic(cell % regionWidth, cell / regionWidth, goalX, goalY);
+		heap[heapSize] = cell;
+		heapIndex[cell] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	private int pop() {
+		int top = heap[0];
+		heapIndex[top] = -1;
+		heapSize--;
+		if(heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapIndex[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	private void siftUp(int i) {
+		int cell = heap[i];
+		float f = fCost[cell];
+		while(i > 0) {
+			int p = (i - 1) >>> 1;
+			int parentCell = heap[p];
+			if(fCost[parentCell] <= f) break;
+			heap[i] = parentCell;
+			heapIndex[parentCell] = i;
+			i = p;
+		}
+		heap[i] = cell;
+		heapIndex[cell] = i;
+	}
+
+	private void siftDown(int i) {
+		int cell = heap[i];
+		float f = fCost[cell];
+		while(true) {
+			int child = (i << 1) + 1;
+			if(child >= heapSize) break;
+			if(child + 1 < heapSize && fCost[heap[child + 1]] < fCost[heap[child]]) child++;
+			int childCell = heap[child];
+			if(fCost[childCell] >= f) break;
+			heap[i] = childCell;
+			heapIndex[childCell] = i;
+			i = child;
+		}
+		heap[i] = cell;
+		heapIndex[cell] = i;
+	}
+
+	/**Follow the parents from the goal back to the start, excluding the start.*/
+	private void buildRoute(int start, int goal) {
+		routeLength = 0;
+		for(int cell = goal; cell != start; cell = parent[cell]) {
+			if(routeLength == route.length) route = Arrays.copyOf(route, routeLength * 2);
+			route[routeLength++] = toMap(cell);
+		}
+	}
+
+}
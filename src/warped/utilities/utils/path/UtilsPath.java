@@ -3,333 +3,192 @@
 package warped.utilities.utils.path;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import warped.utilities.math.vectors.VectorI;
 import warped.utilities.utils.Console;
 
 public class UtilsPath {	
 	
-	private static Comparator<WarpedPathNode> nodeSorter = new Comparator<>() {
-		public int compare(WarpedPathNode n1, WarpedPathNode n2) {
-			if(n2.fCost > n1.fCost) return -1;
-			if(n2.fCost < n1.fCost) return +1;
-			return 0;
-		}
-	};
+	/*UtilsPath finds the cheapest path between two coordinates on a map using A*.
+	 * Maps are flat arrays where the cell at coordinate (x, y) is stored at index x + y * mapDim.x().
+	 * The search is done by PathSearch on primitive arrays, the WarpedPathNodes of the path are only created once a path is found.
+	 * Each thread reuses its own search buffers, paths can be found from any thread.
+	 * The buffers are sized to the largest map the thread has searched, releaseSearchBuffers() frees them.
+	 *
+	 * The heuristic of a double map is scaled by its cheapest value, which is found once per map and kept until the map is invalidated.
+	 * Change map values with setCost() to keep the kept value up to date, or call invalidateCosts() after changing the map array directly.
+	 * */
+	
+	private static final ThreadLocal<PathSearch> searches = ThreadLocal.withInitial(PathSearch::new);
+	private static final Map<double[], double[]> costBounds = new WeakHashMap<>(); // The lowest and highest passable value of each double map searched, by identity
 	
 	public static boolean isPathPossible(boolean[] map, VectorI mapDim, VectorI start, VectorI goal) {if(findPath(map, mapDim, start, goal) == null) return false; else return true;}
 	public static boolean isPathPossibleNoDiagonal(boolean[] map, VectorI mapDim, VectorI start, VectorI goal) {if(findPathNoDiagonal(map, mapDim, start, goal) == null) return false; else return true;}
 	
-	
+	/**Find the cheapest path across a map of smoothness values, moving to any of the 8 surrounding coordinates.
+	 * @param map - the smoothness of each coordinate, values closer to 1.0 are faster to move through, coordinates with a value <= 0.0 are impassable.
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param start - the coordinate to start from.
+	 * @param goal - the coordinate to find a path to.
+	 * @return WarpedPath - the path from the start to the goal, null if there is no path.
+	 * @implNote The cost to move between coordinates is the distance between them divided by the smoothness of the coordinate moved to.
+	 * @author 5som3*/
 	public static WarpedPath findPath(double[] map, VectorI mapDim, VectorI start, VectorI goal) {
-		List<WarpedPathNode> openList = new ArrayList<>();
-		List<WarpedPathNode> closeList = new ArrayList<>();
-		
-		WarpedPathNode current = new WarpedPathNode(start, null, 0, getDistance(start, goal), map[start.x() + start.y() * mapDim.x()]);
-		openList.add(current);
-
-		
-		if(map[goal.x() + goal.y() * mapDim.x()] < 0.0) {
+		if(!isValid(map.length, mapDim, start, goal)) return null;
+		if(map[goal.x() + goal.y() * mapDim.x()] <= 0.0) {
 			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
 			return null;
 		}
-		
-		while(openList.size() > 0) {
-			
-			Collections.sort(openList, nodeSorter);
-			current = openList.get(0);
-			
-			if(current.coord.isEqual(goal)) {
-				List<WarpedPathNode> path = new ArrayList<>();
-				while(current.parent != null) {
-					path.add(current);
-					current = current.parent;
-				}
-				openList.clear();
-				closeList.clear();
-				return new WarpedPath(path);
-			}
-			
-			openList.remove(current);
-			closeList.add(current);
-			
-			for(int i = 0; i < 9; i++) {
-				if(i == 4) continue;
-
-				int x = current.coord.x();
-				int y = current.coord.y();
-				
-				int xi = (i % 3) -1;
-				int yi = (i / 3) -1;
-				
-				VectorI checkCoord = new VectorI(x + xi, y + yi);
-				if(checkCoord.x() >= mapDim.x() || checkCoord.y() >= mapDim.y()) continue; 
-				else if(map[checkCoord.x() + checkCoord.y() * mapDim.x()] == 0.0) continue;				
-				
-				double smoothness = map[checkCoord.x() + checkCoord.y() * mapDim.x()];
-				double gCost = current.gCost + getDistance(current.coord, checkCoord, smoothness);
-				double hCost = getDistance(checkCoord, goal, smoothness);
-				
-				WarpedPathNode node = new WarpedPathNode(checkCoord, current, gCost, hCost, smoothness);
-				if(isNodeInList(closeList, checkCoord) && gCost >= current.gCost) continue;
-				if(!isNodeInList(openList, checkCoord) || gCost < current.gCost) openList.add(node);
-				
-				openList.add(node);
-			}
-		}
-		
-		closeList.clear();
-		return null;	
+		return search(null, map, PathSearch.SMOOTHNESS, mapDim, start, goal, true);
 	}
 	
-	
+	/**Find the shortest path across a map, moving to any of the 8 surrounding coordinates.
+	 * @param map - true if the coordinate is passable else false.
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param start - the coordinate to start from.
+	 * @param goal - the coordinate to find a path to.
+	 * @return WarpedPath - the path from the start to the goal, null if there is no path.
+	 * @author 5som3*/
 	public static WarpedPath findPath(boolean[] map, VectorI mapDim, VectorI start, VectorI goal){
-		List<WarpedPathNode> openList = new ArrayList<>();
-		List<WarpedPathNode> closeList = new ArrayList<>();
-		
-		WarpedPathNode current = new WarpedPathNode(start, null, 0, getDistance(start, goal));
-		openList.add(current);
-
+		if(!isValid(map.length, mapDim, start, goal)) return null;
 		if(map[goal.x() + goal.y() * mapDim.x()] == false) {
 			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
 			return null;
 		}
-		
-		while(openList.size() > 0) {
-			
-			Collections.sort(openList, nodeSorter);
-			current = openList.get(0);
-			
-			if(current.coord.isEqual(goal)) {
-				List<WarpedPathNode> path = new ArrayList<>();
-				while(current.parent != null) {
-					path.add(current);
-					current = current.parent;
-				}
-				openList.clear();
-				closeList.clear();
-				return new WarpedPath(path);
-			}
-			
-			openList.remove(current);
-			closeList.add(current);
-			
-			for(int i = 0; i < 9; i++) {
-				if(i == 4) continue;
-
-				int x = current.coord.x();
-				int y = current.coord.y();
-				
-				int xi = (i % 3) -1;
-				int yi = (i / 3) -1;
-				
-				VectorI checkCoord = new VectorI(x + xi, y + yi);
-				if(map[checkCoord.x() + checkCoord.y() * mapDim.x()] == false) continue;				
-				
-				double gCost = current.gCost + getDistance(current.coord, checkCoord);
-				double hCost = getDistance(checkCoord, goal);
-				
-				WarpedPathNode node = new WarpedPathNode(checkCoord, current, gCost, hCost);
-				if(isNodeInList(closeList, checkCoord) && gCost >= current.gCost) continue;
-				if(!isNodeInList(openList, checkCoord) || gCost < current.gCost) openList.add(node);
-			}
-		}
-		
-		closeList.clear();
-		return null;
+		return search(map, null, PathSearch.BOOLEAN, mapDim, start, goal, true);
 	}
 	
+	/**Find the shortest path across a map, moving only up, down, left or right.
+	 * @param map - true if the coordinate is passable else false.
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param start - the coordinate to start from.
+	 * @param goal - the coordinate to find a path to.
+	 * @return WarpedPath - the path from the start to the goal, null if there is no path.
+	 * @author 5som3*/
 	public static WarpedPath findPathNoDiagonal(boolean[] map, VectorI mapDim, VectorI start, VectorI goal){
-		List<WarpedPathNode> openList = new ArrayList<>();
-		List<WarpedPathNode> closeList = new ArrayList<>();
-		
-		//WarpedConsole.ln("UtilsPath -> findPathNoDiagonal -> looking for path from " + start.getString() + ", to " + goal.getString());
-		
-		if(start.x() < -1 || start.y() < -1 || start.x() >= mapDim.x() || start.y() >= mapDim.y()) {
-			Console.err("UtilsPath -> findPath() -> start coord is invalid : " + start.getString());
-			return null;
-		}
-		
-		if(goal.x() < -1 || goal.y() < -1 || goal.x() >= mapDim.x() || goal.y() >= mapDim.y()) {
-			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
-			return null;
-		} else if(map[goal.x() + goal.y() * mapDim.x()] == false) {
+		if(!isValid(map.length, mapDim, start, goal)) return null;
+		if(map[goal.x() + goal.y() * mapDim.x()] == false) {
 			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
 			return null;
 		}
-		
-		WarpedPathNode current = new WarpedPathNode(start, null, 0, getDistance(start, goal));
-		openList.add(current);
-		
-		while(openList.size() > 0) {
-			
-		//	WarpedConsole.ln("Utils -> findPathNoDiagonal() -> looking for path");			
-			
-			Collections.sort(openList, nodeSorter);
-			current = openList.get(0);
-			
-			if(current.coord.isEqual(goal)) {
-				List<WarpedPathNode> path = new ArrayList<>();
-				while(current.parent != null) {
-					path.add(current);
-					current = current.parent;
-				}
-				openList.clear();
-				closeList.clear();
-				return new WarpedPath(path);
-			}
-			
-			openList.remove(current);
-			closeList.add(current);
-			
-			int x = current.coord.x();
-			int y = current.coord.y();
-
-			for(int i = 0; i < 4; i++) {
-				
-				int xi = 0, yi = 0;
-				switch(i) {
-				case 0:
-					xi = -1;
-					yi = 0;
-					break;
-				case 1:
-					xi = 0;
-					yi = 1;
-					break;
-				case 2:
-					xi = 1; 
-					yi = 0;
-					break;
-				case 3:
-					xi = 0;
-					yi = -1;
-					break;
-				}
-				
-				VectorI checkCoord = new VectorI(x + xi, y + yi);
-				if(checkCoord.x() < 0 || checkCoord.y() < 0 || checkCoord.x() >= mapDim.x() || checkCoord.y() >= mapDim.y()) continue; 
-				else if(map[checkCoord.x() + checkCoord.y() * mapDim.x()] == false) continue;				
-				
-				double gCost = current.gCost + (getDistance(current.coord, checkCoord) == 1 ? 1 : 0.95);
-				double hCost = getDistance(checkCoord, goal);
-				
-				
-				WarpedPathNode node = new WarpedPathNode(checkCoord, current, gCost, hCost);
-				if(isNodeInList(closeList, checkCoord) && gCost >= current.gCost) continue;
-				if(!isNodeInList(openList, checkCoord) || gCost < current.gCost) openList.add(node);
-			}
-		}
-		
-		closeList.clear();
-		return null;
+		return search(map, null, PathSearch.BOOLEAN, mapDim, start, goal, false);
 	}
 	
+	/**Find the cheapest path across a map of roughness values, moving only up, down, left or right.
+	 * @param map - the roughness of each coordinate, higher values are slower to move through, coordinates with a value <= 0.0 are impassable.
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param start - the coordinate to start from.
+	 * @param goal - the coordinate to find a path to.
+	 * @return WarpedPath - the path from the start to the goal, null if there is no path.
+	 * @implNote The cost to move between coordinates is the roughness of the coordinate moved to.
+	 * @author 5som3*/
 	public static WarpedPath findPathNoDiagonal(double[] map, VectorI mapDim, VectorI start, VectorI goal){
-		List<WarpedPathNode> openList = new ArrayList<>();
-		List<WarpedPathNode> closeList = new ArrayList<>();
-		
-		//WarpedConsole.ln("UtilsPath -> findPathNoDiagonal -> looking for path from " + start.getString() + ", to " + goal.getString());
-		
-		if(start.x() < -1 || start.y() < -1 || start.x() >= mapDim.x() || start.y() >= mapDim.y()) {
-			Console.err("UtilsPath -> findPath() -> start coord is invalid : " + start.getString());
-			return null;
-		}
-		
-		if(goal.x() < -1 || goal.y() < -1 || goal.x() >= mapDim.x() || goal.y() >= mapDim.y()) {
-			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
-			return null;
-		} else if(map[goal.x() + goal.y() * mapDim.x()] <= 0.0) {
+		if(!isValid(map.length, mapDim, start, goal)) return null;
+		if(map[goal.x() + goal.y() * mapDim.x()] <= 0.0) {
 			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
 			return null;
 		}
-		
-		WarpedPathNode current = new WarpedPathNode(start, null, 0, getDistance(start, goal));
-		openList.add(current);
-		
-		while(openList.size() > 0) {
-			
-		//	WarpedConsole.ln("Utils -> findPathNoDiagonal() -> looking for path");			
-			
-			Collections.sort(openList, nodeSorter);
-			current = openList.get(0);
-			
-			if(current.coord.isEqual(goal)) {
-				List<WarpedPathNode> path = new ArrayList<>();
-				while(current.parent != null) {
-					path.add(current);
-					current = current.parent;
-				}
-				openList.clear();
-				closeList.clear();
-				return new WarpedPath(path);
-			}
-			
-			openList.remove(current);
-			closeList.add(current);
-			
-			int x = current.coord.x();
-			int y = current.coord.y();
-
-			for(int i = 0; i < 4; i++) {
-				
-				int xi = 0, yi = 0;
-				switch(i) {
-				case 0:
-					xi = -1;
-					yi = 0;
-					break;
-				case 1:
-					xi = 0;
-					yi = 1;
-					break;
-				case 2:
-					xi = 1; 
-					yi = 0;
-					break;
-				case 3:
-					xi = 0;
-					yi = -1;
-					break;
-				}
-				
-				VectorI checkCoord = new VectorI(x + xi, y + yi);
-				if(checkCoord.x() < 0 || checkCoord.y() < 0 || checkCoord.x() >= mapDim.x() || checkCoord.y() >= mapDim.y()) continue; 
-				double roughness = map[checkCoord.x() + checkCoord.y() * mapDim.x()];
-				if(roughness <= 0.0) continue;				
-				
-				double gCost = current.gCost + (getDistance(current.coord, checkCoord)) * roughness;
-				double hCost = getDistance(checkCoord, goal) * roughness;
-				
-				
-				WarpedPathNode node = new WarpedPathNode(checkCoord, current, gCost, hCost, roughness);
-				if(isNodeInList(closeList, checkCoord) && gCost >= current.gCost) continue;
-				if(!isNodeInList(openList, checkCoord) || gCost < current.gCost) openList.add(node);
-			}
+		return search(null, map, PathSearch.ROUGHNESS, mapDim, start, goal, false);
+	}
+	
+	/**Set the value of a coordinate in a double map.
+	 * @param map - the map, a map of smoothness or roughness values.
+	 * @param mapDim - the number of columns and rows in the map.
+	 * @param coord - the coordinate to set.
+	 * @param value - the new value, <= 0.0 is impassable.
+	 * @apiNote Use instead of writing to the map array so the heuristic of the map stays admissible without scanning the map again.
+	 * @author 5som3*/
+	public static void setCost(double[] map, VectorI mapDim, VectorI coord, double value) {
+		if(coord.x() < 0 || coord.y() < 0 || coord.x() >= mapDim.x() || coord.y() >= mapDim.y()) {
+			Console.err("UtilsPath -> setCost() -> coord is outside of the map : " + coord.getString());
+			return;
 		}
-		
-		closeList.clear();
-		return null;
+		map[coord.x() + coord.y() * mapDim.x()] = value;
+		if(value <= 0.0) return; // The bounds stay admissible when a coordinate becomes impassable
+		synchronized(costBounds) {
+			double[] bounds = costBounds.get(map);
+			if(bounds == null) return;
+			if(value < bounds[0]) bounds[0] = value;
+			if(value > bounds[1]) bounds[1] = value;
+		}
+	}
+	
+	/**Forget the cheapest value found for a double map, it is found again by the next search of the map.
+	 * @param map - the map that has been changed.
+	 * @apiNote Call after writing to the map array directly, paths found after the change may not be the cheapest until it is called.
+	 * @apiNote Not needed for values changed with setCost().
+	 * @author 5som3*/
+	public static void invalidateCosts(double[] map) {
+		synchronized(costBounds) {costBounds.remove(map);}
 	}
 	
+	/**Free the search buffers of the calling thread.
+	 * @apiNote Use after searching a large map that will not be searched again, the next search on this thread creates buffers sized to its map.
+	 * @implNote The buffers of other threads are freed when they call this method or when the thread ends.
+	 * @author 5som3*/
+	public static void releaseSearchBuffers() {
+		searches.get().release();
+		searches.remove();
+	}
 	
-	private static boolean isNodeInList(List<WarpedPathNode> list, VectorI vec) {
-		for(WarpedPathNode node : list) if(node.coord.isEqual(vec)) return true;
-		return false;
+	/**The heuristic scale of a double map, scanning the map only if it has not been scanned since it was last invalidated.*/
+	private static float getHeuristicScale(double[] map, int mode, int size) {
+		synchronized(costBounds) { // Scanned under the lock so a value set with setCost() during the scan is not missed
+			double[] bounds = costBounds.get(map);
+			if(bounds == null) {
+				bounds = new double[] {Double.MAX_VALUE, 0.0};
+				for(int i = 0; i < size; i++) {
+					double value = map[i];
+					if(value <= 0.0) continue;
+					if(value < bounds[0]) bounds[0] = value;
+					if(value > bounds[1]) bounds[1] = value;
+				}
+				costBounds.put(map, bounds);
+			}
+			return PathSearch.getHeuristicScale(mode, bounds[0], bounds[1]);
+		}
 	}
 	
-	private static double getDistance(VectorI v1, VectorI v2) {
- 		double dx = v1.x() - v2.x();
-		double dy = v1.y() - v2.y();
-		return Math.sqrt(dx * dx + dy * dy);
+	/**Run the search on this threads buffers and create the path from the route found.*/
+	private static WarpedPath search(boolean[] booleanMap, double[] doubleMap, int mode, VectorI mapDim, VectorI start, VectorI goal, boolean isDiagonal) {
+		int width = mapDim.x();
+		int startIndex = start.x() + start.y() * width;
+		int goalIndex = goal.x() + goal.y() * width;
+		PathSearch search = searches.get();
+		float heuristicScale = doubleMap == null ? 1.0f : getHeuristicScale(doubleMap, mode, width * mapDim.y());
+		if(!search.search(booleanMap, doubleMap, mode, width, mapDim.y(), startIndex, goalIndex, isDiagonal, heuristicScale)) return null;
+		
+		int length = search.getRouteLength();
+		WarpedPathNode[] nodes = new WarpedPathNode[length];
+		WarpedPathNode previous = new WarpedPathNode(new VectorI(start), null, 0, search.getHCost(startIndex, goalIndex));
+		for(int i = length - 1; i >= 0; i--) { // The route is ordered from the goal to the start, create the nodes from the start so each node can link to its parent
+			int cell = search.getRoute(i);
+			VectorI coord = new VectorI(cell % width, cell / width);
+			double gCost = search.getGCost(cell);
+			double hCost = search.getHCost(cell, goalIndex);
+			if(doubleMap == null) nodes[i] = new WarpedPathNode(coord, previous, gCost, hCost);
+			else nodes[i] = new WarpedPathNode(coord, previous, gCost, hCost, doubleMap[cell]);
+			previous = nodes[i];
+		}
+		return new WarpedPath(new ArrayList<>(Arrays.asList(nodes)));
 	}
 	
-	private static double getDistance(VectorI v1, VectorI v2, double scale) {
- 		double dx = v1.x() - v2.x();
-		double dy = v1.y() - v2.y();
-		return (Math.sqrt(dx * dx + dy * dy) / scale);
+	private static boolean isValid(int mapLength, VectorI mapDim, VectorI start, VectorI goal) {
+		if(mapDim.x() <= 0 || mapDim.y() <= 0 || mapLength < mapDim.x() * mapDim.y()) {
+			Console.err("UtilsPath -> findPath() -> map is smaller than mapDim : " + mapLength + ", " + mapDim.getString());
+			return false;
+		}
+		if(start.x() < 0 || start.y() < 0 || start.x() >= mapDim.x() || start.y() >= mapDim.y()) {
+			Console.err("UtilsPath -> findPath() -> start coord is invalid : " + start.getString());
+			return false;
+		}
+		if(goal.x() < 0 || goal.y() < 0 || goal.x() >= mapDim.x() || goal.y() >= mapDim.y()) {
+			Console.err("UtilsPath -> findPath() -> goal coord is invalid : " + goal.getString());
+			return false;
+		}
+		return true;
 	}
 }
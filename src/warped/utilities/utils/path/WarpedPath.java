@@ -142,7 +142,29 @@ public class WarpedPath {
 		this.offset.set(x, y);
 		positions.forEach(c -> {c.add(x, y);});
 	}
-	public void offsetPath(double x, double y) {positions.forEach(c -> {c.add(x, y);});}
+	public void offsetPath(double x, double y) {
+		this.offset.set(x, y);
+		positions.forEach(c -> {c.add(x, y);});
+	}
+	
+	/**Add nodes to the goal end of the path.
+	 * @param goalNodes - the nodes to add, ordered from the goal back towards the current end of the path.
+	 * @apiNote Used by paths that are found in sections, such as HierarchicalPath, to extend the path as it is followed.
+	 * @implNote The scale and offset of the path are applied to the new nodes, the next node is unchanged.
+	 * @author 5som3*/
+	protected void prependNodes(List<WarpedPathNode> goalNodes) {
+		if(goalNodes.isEmpty()) return;
+		ArrayList<VectorD> goalPositions = new ArrayList<>(goalNodes.size());
+		for(int i = 0; i < goalNodes.size(); i++) {
+			VectorD position = new VectorD(goalNodes.get(i).coord);
+			if(scale != 0.0) position.scale(scale);
+			position.add(offset.x(), offset.y());
+			goalPositions.add(position);
+		}
+		nodes.addAll(0, goalNodes);
+		positions.addAll(0, goalPositions);
+		currentNode += goalNodes.size();
+	}
 	
 	public <T extends WarpedPathable> boolean follow(T pathable, double moveValue) {return follow(this, pathable, scale / moveValue);}
 	public <T extends WarpedPathable> boolean follow(T pathable) {return follow(this, pathable, scale);}